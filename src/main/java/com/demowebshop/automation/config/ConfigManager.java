@@ -6,7 +6,11 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
 
 /**
  * Configuration manager for handling application properties and environment variables
@@ -15,6 +19,7 @@ public class ConfigManager {
     private static final Logger logger = LogManager.getLogger(ConfigManager.class);
     private static Properties properties;
     private static Dotenv dotenv;
+    private static final String GENERATED_RUN_ID = "local-" + System.currentTimeMillis();
 
     static {
         loadConfiguration();
@@ -33,15 +38,7 @@ public class ConfigManager {
         try {
             // Load environment-specific properties
             String environment = System.getProperty("environment", "demo");
-            String configFile = "/config/environments/" + environment + ".properties";
-
-            InputStream inputStream = ConfigManager.class.getResourceAsStream(configFile);
-            if (inputStream != null) {
-                properties.load(inputStream);
-                logger.info("Loaded configuration from {}", configFile);
-            } else {
-                logger.warn("Configuration file not found: {}", configFile);
-            }
+            properties = loadEnvironment(environment, new ArrayList<>());
 
             // Load .env file if available
             try {
@@ -61,6 +58,39 @@ public class ConfigManager {
         }
     }
 
+    /**
+     * Load an environment file; a file with environment.extends=<parent> starts from the parent's
+     * properties and only lists what differs
+     * @param environment Environment name
+     * @param chain Environments already being loaded, to stop cycles
+     * @return Properties of the environment
+     */
+    private static Properties loadEnvironment(String environment, List<String> chain) throws IOException {
+        Properties loaded = new Properties();
+        String configFile = "/config/environments/" + environment + ".properties";
+        try (InputStream inputStream = ConfigManager.class.getResourceAsStream(configFile)) {
+            if (inputStream == null) {
+                logger.warn("Configuration file not found: {}", configFile);
+                return loaded;
+            }
+            loaded.load(inputStream);
+        }
+        logger.info("Loaded configuration from {}", configFile);
+        chain.add(environment);
+
+        String parent = loaded.getProperty("environment.extends", "").trim();
+        if (parent.isEmpty()) {
+            return loaded;
+        }
+        if (chain.contains(parent)) {
+            throw new IOException("Cyclic environment.extends: " + String.join(" -> ", chain) + " -> " + parent);
+        }
+        Properties merged = loadEnvironment(parent, chain);
+        merged.putAll(loaded);
+        merged.remove("environment.extends");
+        return merged;
+    }
+
     /**
      * Get property value with system property override and .env fallback
      * @param key Property key
@@ -146,6 +176,10 @@ public class ConfigManager {
         return getBooleanProperty("browser.delete.cookies");
     }
 
+    public static boolean shouldReuseBrowserPerThread() {
+        return getBooleanProperty("browser.reuse.per.thread");
+    }
+
     // WebDriver Configuration Methods
     public static boolean isRemoteExecution() {
         return getBooleanProperty("webdriver.remote");
@@ -182,7 +216,60 @@ public class ConfigManager {
     }
 
     public static String getFakerLocale() {
-        return getProperty("test.data.faker.locale", "en");
+        return getProperty("test.data.faker.locale", "en-US");
+    }
+
+    /**
+     * Seed of the test data generators; 0 picks a random seed, which is logged so the run can be replayed
+     */
+    public static long getTestDataSeed() {
+        String seed = getProperty("test.data.seed", "0").trim();
+        try {
+            return seed.isEmpty() ? 0 : Long.parseLong(seed);
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid test.data.seed '{}', using a random seed", seed);
+            return 0;
+        }
+    }
+
+    /**
+     * Prefix of generated unique IDs such as emails; blank derives one from the start time
+     */
+    public static String getTestDataRunId() {
+        return getProperty("test.data.run.id", "");
+    }
+
+    /**
+     * Rows a corpus data provider streams per test method
+     */
+    public static int getTestDataCorpusRows() {
+        return getIntProperty("test.data.corpus.rows", 25);
+    }
+
+    /**
+     * First corpus row data providers read, to spread runs over different slices of the corpus
+     */
+    public static int getTestDataCorpusOffset() {
+        return getIntProperty("test.data.corpus.offset", 0);
+    }
+
+    // Test Data Cleanup Configuration Methods
+    public static int getTestDataCleanupBatchSize() {
+        return getIntProperty("test.data.cleanup.batch.size", 20);
+    }
+
+    /**
+     * How long the end of the suite waits for queued cleanup before leaving it unfinished
+     */
+    public static int getTestDataCleanupAwaitSeconds() {
+        return getIntProperty("test.data.cleanup.await.seconds", 60);
+    }
+
+    /**
+     * File listing accounts and orders a customer cannot delete; blank only logs them
+     */
+    public static String getTestDataCleanupLeftoversFile() {
+        return getProperty("test.data.cleanup.leftovers.file", "target/test-data-leftovers.csv");
     }
 
     // Reporting Configuration Methods
@@ -202,6 +289,22 @@ public class ConfigManager {
         return getBooleanProperty("report.screenshots.on.pass");
     }
 
+    public static String getFailureArtifactsDirectory() {
+        return getProperty("report.failure.artifacts.dir", "target/failure-artifacts");
+    }
+
+    public static int getFailurePageSourceMaxKb() {
+        return getIntProperty("report.failure.page.source.max.kb", 512);
+    }
+
+    public static int getFailureConsoleMaxLines() {
+        return getIntProperty("report.failure.console.max.lines", 500);
+    }
+
+    public static int getFailureScreenshotMaxKb() {
+        return getIntProperty("report.failure.screenshot.max.kb", 4096);
+    }
+
     // Retry Configuration Methods
     public static boolean shouldRetryFailedTests() {
         return getBooleanProperty("retry.failed.tests");
@@ -211,6 +314,299 @@ public class ConfigManager {
         return getIntProperty("retry.count", 1);
     }
 
+    public static int getRetryBudget() {
+        return getIntProperty("retry.budget", 20);
+    }
+
+    public static int getRetryBackoffBaseMillis() {
+        return getIntProperty("retry.backoff.base.ms", 1000);
+    }
+
+    public static int getRetryBackoffMaxMillis() {
+        return getIntProperty("retry.backoff.max.ms", 10000);
+    }
+
+    public static String getFlakinessReportFile() {
+        return getProperty("retry.flakiness.report.file", "target/flakiness/flakiness.json");
+    }
+
+    // Performance Metrics Configuration Methods
+    public static boolean isPerformanceMetricsEnabled() {
+        return getBooleanProperty("performance.metrics.enabled");
+    }
+
+    public static boolean shouldFailOnPerformanceRegression() {
+        return getBooleanProperty("performance.fail.on.regression");
+    }
+
+    public static String getPerformanceReportDirectory() {
+        return getProperty("performance.report.dir", "target/performance");
+    }
+
+    public static String getPerformanceBaselineFile() {
+        return getProperty("performance.baseline.file", "");
+    }
+
+    public static int getPerformanceRegressionTolerancePercent() {
+        return getIntProperty("performance.regression.tolerance.percent", 25);
+    }
+
+    /**
+     * Get the p95 page load budget for a page class
+     * Falls back from performance.threshold.&lt;PageClass&gt;.load.p95.ms to performance.threshold.load.p95.ms
+     * @param pageClass Simple name of the page object class
+     * @return Budget in milliseconds, 0 if no budget is configured
+     */
+    public static int getPageLoadP95Threshold(String pageClass) {
+        int globalThreshold = getIntProperty("performance.threshold.load.p95.ms", 0);
+        return getIntProperty("performance.threshold." + pageClass + ".load.p95.ms", globalThreshold);
+    }
+
+    // Metrics Export Configuration Methods
+    public static String getMetricsTextfilePath() {
+        return getProperty("metrics.textfile.path", "target/metrics/demowebshop.prom");
+    }
+
+    public static int getMetricsHttpPort() {
+        return getIntProperty("metrics.http.port", 0);
+    }
+
+    // Sharding Configuration Methods
+    public static int getShardCount() {
+        return getIntProperty("shard.count", 1);
+    }
+
+    public static int getShardIndex() {
+        return getIntProperty("shard.index", 1);
+    }
+
+    public static String getShardHistoryFile() {
+        return getProperty("shard.history.file", "src/test/resources/config/shards/test-durations.properties");
+    }
+
+    // Fork Runner Configuration Methods
+    public static int getForkCount() {
+        int forks = getIntProperty("fork.count", 0);
+        return forks > 0 ? forks : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+    }
+
+    public static int getForkThreadCount() {
+        return getIntProperty("fork.thread.count", 0);
+    }
+
+    public static int getForkMaxClassAttempts() {
+        return getIntProperty("fork.max.class.attempts", 2);
+    }
+
+    public static int getForkTimeoutMinutes() {
+        return getIntProperty("fork.timeout.minutes", 120);
+    }
+
+    /**
+     * Configuration keys set as system properties in this JVM, to be passed on to child JVMs
+     * @return Overridden keys and their values
+     */
+    public static Map<String, String> getSystemPropertyOverrides() {
+        Map<String, String> overrides = new TreeMap<>();
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.equals("environment") || properties.containsKey(key)
+                    || key.startsWith("selenide.") || key.startsWith("allure.")) {
+                overrides.put(key, System.getProperty(key));
+            }
+        }
+        return overrides;
+    }
+
+    // Test Impact Analysis Configuration Methods
+    public static boolean isImpactTracingEnabled() {
+        return getBooleanProperty("impact.trace.enabled");
+    }
+
+    public static String getImpactMapFile() {
+        return getProperty("impact.map.file", "src/test/resources/config/impact/test-impact-map.json");
+    }
+
+    // Results Store Configuration Methods
+    public static boolean isResultsStoreEnabled() {
+        return getBooleanProperty("results.store.enabled");
+    }
+
+    public static String getResultsStoreDirectory() {
+        return getProperty("results.store.dir", ".cache/results-store");
+    }
+
+    public static int getResultsStoreMaxRuns() {
+        return getIntProperty("results.store.max.runs", 100);
+    }
+
+    /**
+     * Newest runs of the results store that shard planning and test ordering take durations from
+     * @return Number of runs
+     */
+    public static int getResultsStoreHistoryRuns() {
+        return getIntProperty("results.store.history.runs", 20);
+    }
+
+    /**
+     * ID of the current run; shards of one CI run should share it (e.g. -Dresults.run.id=$GITHUB_RUN_ID)
+     * @return Configured run ID, or one generated for this JVM
+     */
+    public static String getResultsRunId() {
+        return getProperty("results.run.id", GENERATED_RUN_ID);
+    }
+
+    // Side Task Configuration Methods
+    public static int getSideTaskJoinTimeoutSeconds() {
+        return getIntProperty("side.tasks.join.timeout.seconds", 30);
+    }
+
+    public static int getSideTaskShutdownTimeoutSeconds() {
+        return getIntProperty("side.tasks.shutdown.timeout.seconds", 60);
+    }
+
+    // Test Budget Configuration Methods
+    public static int getTestBudgetSeconds() {
+        return getIntProperty("test.budget.seconds", 300);
+    }
+
+    // Data-Driven Execution Configuration Methods
+    public static boolean isParallelDataProviderEnabled() {
+        return getBooleanProperty("dataprovider.parallel");
+    }
+
+    public static int getDataProviderThreadCount() {
+        return getIntProperty("dataprovider.thread.count", 4);
+    }
+
+    /**
+     * Row tags to run from lazy data providers; blank runs every row
+     */
+    public static String getDataProviderTags() {
+        return getProperty("dataprovider.tags", "");
+    }
+
+    public static String getDataProviderExcludedTags() {
+        return getProperty("dataprovider.exclude.tags", "");
+    }
+
+    /**
+     * Lowest row priority (highest number) to run from lazy data providers; 0 runs every row
+     */
+    public static int getDataProviderMaxPriority() {
+        return getIntProperty("dataprovider.max.priority", 0);
+    }
+
+    public static boolean isSessionPoolEnabled() {
+        return getBooleanProperty("session.pool.enabled");
+    }
+
+    public static int getSessionPoolMaxIdle() {
+        return getIntProperty("session.pool.max.idle", 4);
+    }
+
+    // State Seeding Configuration Methods
+    public static boolean isStateSeedingEnabled() {
+        return getBooleanProperty("state.seeding.enabled");
+    }
+
+    public static int getStateSeedingTimeoutSeconds() {
+        return getIntProperty("state.seeding.timeout.seconds", 15);
+    }
+
+    public static int getStateSeedingProductId() {
+        return getIntProperty("state.seeding.product.id", 31);
+    }
+
+    // User Pool Configuration Methods
+    public static boolean isUserPoolEnabled() {
+        return getBooleanProperty("user.pool.enabled");
+    }
+
+    public static String getUserPoolFile() {
+        return getProperty("user.pool.file", ".cache/user-pool/accounts.json");
+    }
+
+    public static int getUserPoolSize() {
+        return getIntProperty("user.pool.size", 8);
+    }
+
+    public static int getUserPoolRegisterThreads() {
+        return getIntProperty("user.pool.register.threads", 4);
+    }
+
+    // Login Cache Configuration Methods
+    public static boolean isLoginCacheEnabled() {
+        return getBooleanProperty("login.cache.enabled");
+    }
+
+    public static String getLoginCacheFile() {
+        return getProperty("login.cache.file", ".cache/user-pool/login-cookies.json");
+    }
+
+    public static int getLoginCacheTtlMinutes() {
+        return getIntProperty("login.cache.ttl.minutes", 60);
+    }
+
+    /**
+     * Comma-separated names of the auth and session cookies the login cache keeps
+     */
+    public static String getLoginCacheCookieNames() {
+        return getProperty("login.cache.cookies", "NOPCOMMERCE.AUTH,Nop.customer,ASP.NET_SessionId");
+    }
+
+    // Site Health Configuration Methods
+    public static boolean isSiteHealthBreakerEnabled() {
+        return getBooleanProperty("site.health.breaker.enabled");
+    }
+
+    public static int getSiteHealthFailureThreshold() {
+        return getIntProperty("site.health.failure.threshold", 5);
+    }
+
+    public static int getSiteHealthOpenSeconds() {
+        return getIntProperty("site.health.open.seconds", 60);
+    }
+
+    public static int getSiteHealthProbeTimeoutSeconds() {
+        return getIntProperty("site.health.probe.timeout.seconds", 10);
+    }
+
+    public static String getSiteHealthProbeUrl() {
+        return getProperty("site.health.probe.url", getBaseUrl());
+    }
+
+    // Stand-in Server Configuration Methods
+    public static boolean isStandInEnabled() {
+        return getBooleanProperty("standin.enabled");
+    }
+
+    /**
+     * Port of the local stand-in shop; 0 takes a free port, so parallel forks each get their own
+     */
+    public static int getStandInPort() {
+        return getIntProperty("standin.port", 0);
+    }
+
+    // Replay Proxy Configuration Methods
+    /**
+     * off, record (forward to the site and write the archive at the end of the suite) or replay
+     */
+    public static String getReplayMode() {
+        return getProperty("replay.mode", "off");
+    }
+
+    public static String getReplayArchive() {
+        return getProperty("replay.archive", ".cache/replay/demowebshop.har.gz");
+    }
+
+    public static int getReplayProxyPort() {
+        return getIntProperty("replay.proxy.port", 0);
+    }
+
+    public static int getReplayUpstreamTimeoutSeconds() {
+        return getIntProperty("replay.upstream.timeout.seconds", 30);
+    }
+
     /**
      * Reload configuration (useful for testing)
      */
@@ -29,9 +29,12 @@ public class SelenideConfig {
             Configuration.holdBrowserOpen = false;
             Configuration.reopenBrowserOnFail = true;
 
-            // Enable reports
+            // Reports folder only - Selenide would otherwise save page source and a screenshot on every
+            // failed condition, including ones caught during waits; failed tests get their artifacts
+            // from FailureArtifactCollector instead
             Configuration.reportsFolder = "target/selenide-reports";
-            Configuration.savePageSource = true;
+            Configuration.savePageSource = ConfigManager.getBooleanProperty("selenide.save.page.source");
+            Configuration.screenshots = false;
 
             // Force headless mode for stability in parallel execution
             Configuration.headless = true;
@@ -2,9 +2,13 @@ package com.demowebshop.automation.factories.driver;
 
 import com.demowebshop.automation.config.ConfigManager;
 import com.demowebshop.automation.enums.BrowserType;
+import com.demowebshop.automation.utils.metrics.FrameworkMetrics;
+import com.demowebshop.automation.utils.replay.ReplayProxy;
 import io.github.bonigarcia.wdm.WebDriverManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Proxy;
 import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
@@ -13,12 +17,17 @@ import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.AbstractDriverOptions;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import com.codeborne.selenide.WebDriverRunner;
 
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Factory class for creating and managing WebDriver instances
@@ -28,6 +37,12 @@ import java.time.Duration;
 public class WebDriverFactory {
     private static final Logger logger = LogManager.getLogger(WebDriverFactory.class);
     private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
+    // Every live driver, so browsers kept warm on worker threads can be quit at the end of the suite
+    private static final Set<WebDriver> activeDrivers = ConcurrentHashMap.newKeySet();
+
+    static {
+        FrameworkMetrics.trackActiveSessions(activeDrivers::size);
+    }
 
     private WebDriverFactory() {
         // Private constructor to prevent instantiation
@@ -41,6 +56,7 @@ public class WebDriverFactory {
     public static WebDriver createDriver(BrowserType browserType) {
         boolean preferNewHeadless = ConfigManager.isHeadlessMode() && shouldUseNewHeadlessMode();
         WebDriver driver = null;
+        long creationStart = System.currentTimeMillis();
         try {
             driver = createAndRegisterDriver(browserType, preferNewHeadless);
             logger.info("Created {} driver successfully and configured for Selenide", browserType);
@@ -52,19 +68,23 @@ public class WebDriverFactory {
                     driver = createAndRegisterDriver(browserType, false);
                 } catch (SessionNotCreatedException fallbackException) {
                     logger.error("Legacy headless fallback failed for {}: {}", browserType, fallbackException.getMessage());
+                    FrameworkMetrics.recordDriverCreationFailed(browserType.name());
                     throw new RuntimeException("WebDriver creation failed after legacy headless fallback", fallbackException);
                 }
                 logger.info("Created {} driver successfully using legacy headless fallback", browserType);
             } else {
                 logger.error("Failed to create {} driver: {}", browserType, sessionException.getMessage());
+                FrameworkMetrics.recordDriverCreationFailed(browserType.name());
                 throw new RuntimeException("WebDriver creation failed", sessionException);
             }
 
         } catch (Exception e) {
             logger.error("Failed to create {} driver: {}", browserType, e.getMessage());
+            FrameworkMetrics.recordDriverCreationFailed(browserType.name());
             throw new RuntimeException("WebDriver creation failed", e);
         }
 
+        FrameworkMetrics.recordDriverCreated(System.currentTimeMillis() - creationStart);
         return driver;
     }
 
@@ -78,6 +98,7 @@ public class WebDriverFactory {
 
         configureDriver(driver);
         driverThreadLocal.set(driver);
+        activeDrivers.add(driver);
 
         // Set the WebDriver instance for Selenide
         WebDriverRunner.setWebDriver(driver);
@@ -257,6 +278,7 @@ public class WebDriverFactory {
         
         // CRITICAL: Page load strategy for reliability - NORMAL ensures full page load
         options.setPageLoadStrategy(org.openqa.selenium.PageLoadStrategy.NORMAL);
+        applyReplayProxy(options);
 
         logger.debug("Created CI-hardened Chrome options with renderer communication fixes");
         return options;
@@ -331,6 +353,7 @@ public class WebDriverFactory {
         options.addPreference("content.interrupt.parsing", true);
         options.addPreference("content.max.tokenizing.time", 2250000);
         options.addPreference("content.switch.threshold", 750000);
+        applyReplayProxy(options);
 
         return options;
     }
@@ -371,10 +394,23 @@ public class WebDriverFactory {
         options.addArguments("--aggressive");
         options.addArguments("--disable-domain-reliability");
         options.addArguments("--renderer-process-limit=1");
+        applyReplayProxy(options);
 
         return options;
     }
 
+    /**
+     * Routes the browser through the replay proxy while one runs (replay.mode record or replay)
+     * @param options Browser options to update
+     */
+    private static void applyReplayProxy(AbstractDriverOptions<?> options) {
+        Proxy proxy = ReplayProxy.browserProxy();
+        if (proxy != null) {
+            options.setProxy(proxy);
+            logger.debug("Browser traffic goes through the replay proxy at {}", proxy.getHttpProxy());
+        }
+    }
+
     /**
      * Gets the current thread's WebDriver instance
      * @return WebDriver instance or null if not set
@@ -390,6 +426,7 @@ public class WebDriverFactory {
     public static void quitDriver() {
         WebDriver driver = driverThreadLocal.get();
         if (driver != null) {
+            activeDrivers.remove(driver);
             try {
                 // Use a timeout for quit operation to prevent hanging
                 java.util.concurrent.CompletableFuture.runAsync(() -> {
@@ -427,6 +464,87 @@ public class WebDriverFactory {
         }
     }
 
+    /**
+     * Binds an already open driver (e.g. one taken from a session pool) to the current thread
+     * @param driver Driver created by this factory
+     */
+    public static void bindDriver(WebDriver driver) {
+        driverThreadLocal.set(driver);
+        WebDriverRunner.setWebDriver(driver);
+    }
+
+    /**
+     * Releases the current thread's driver without quitting it, so another thread can bind it
+     * @return The driver that was bound, or null
+     */
+    public static WebDriver unbindDriver() {
+        WebDriver driver = driverThreadLocal.get();
+        driverThreadLocal.remove();
+        return driver;
+    }
+
+    /**
+     * Quits a driver that is not bound to the current thread
+     * @param driver Driver to quit
+     */
+    public static void quitDriver(WebDriver driver) {
+        if (driver == null || !activeDrivers.remove(driver)) {
+            return;
+        }
+        try {
+            java.util.concurrent.CompletableFuture.runAsync(driver::quit)
+                    .get(10, java.util.concurrent.TimeUnit.SECONDS);
+        } catch (Exception e) {
+            logger.debug("WebDriver quit failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Resets the current thread's browser to a clean session so the next test can reuse it
+     * Clears cookies and web storage and leaves the page on about:blank
+     * @return true if the session was reset, false if the browser should be replaced
+     */
+    public static boolean resetSession() {
+        WebDriver driver = driverThreadLocal.get();
+        if (driver == null) {
+            return false;
+        }
+        try {
+            driver.manage().deleteAllCookies();
+            if (driver instanceof JavascriptExecutor) {
+                ((JavascriptExecutor) driver).executeScript(
+                        "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            }
+            driver.get("about:blank");
+            logger.debug("WebDriver session reset for reuse on thread {}", Thread.currentThread().getName());
+            return true;
+        } catch (Exception e) {
+            logger.warn("Could not reset WebDriver session, it will be replaced: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Quits every driver still open, including browsers kept warm by other worker threads
+     * Call once at the end of the suite
+     */
+    public static void quitAllDrivers() {
+        List<WebDriver> remaining = new ArrayList<>(activeDrivers);
+        activeDrivers.clear();
+        for (WebDriver driver : remaining) {
+            try {
+                java.util.concurrent.CompletableFuture.runAsync(driver::quit)
+                        .get(10, java.util.concurrent.TimeUnit.SECONDS);
+            } catch (Exception e) {
+                logger.debug("WebDriver quit at suite end failed: {}", e.getMessage());
+            }
+        }
+        driverThreadLocal.remove();
+        if (!remaining.isEmpty()) {
+            logger.info("Quit {} WebDriver instance(s) kept open by worker threads", remaining.size());
+        }
+    }
+
     /**
      * Closes the current browser window
      */
@@ -33,7 +33,7 @@ public class AddressBookPage extends BasePage {
      * @return AddressBookPage instance for method chaining
      */
     public AddressBookPage navigateToAddressBook() {
-        navigateTo("https://demowebshop.tricentis.com/customer/addresses");
+        navigateTo(siteUrl("/customer/addresses"));
         waitForPageToLoad();
         return this;
     }
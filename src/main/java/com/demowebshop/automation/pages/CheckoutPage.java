@@ -1,6 +1,7 @@
 package com.demowebshop.automation.pages;
 
 import com.demowebshop.automation.pages.common.BasePage;
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
 import com.demowebshop.automation.utils.data.SelectorUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
@@ -43,7 +44,7 @@ public class CheckoutPage extends BasePage {
      * @return CheckoutPage instance for method chaining
      */
     public CheckoutPage navigateToCheckout() {
-        navigateTo("https://demowebshop.tricentis.com/checkout");
+        navigateTo(siteUrl("/checkout"));
         waitForPageToLoad();
         return this;
     }
@@ -76,7 +77,7 @@ public class CheckoutPage extends BasePage {
 
         // Wait for AJAX loading to complete - checkout uses async step loading
         try {
-            Thread.sleep(2000); // Wait for AJAX request to complete
+            TestDeadline.sleep(2000); // Wait for AJAX request to complete
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -125,10 +126,10 @@ public class CheckoutPage extends BasePage {
 
     /**
      * Fill new billing address form
-     * @param addressData BillingAddressData object with form data
+     * @param address Address to enter; company, address2, fax, country and state are optional
      * @return CheckoutPage for method chaining
      */
-    public CheckoutPage fillBillingAddress(BillingAddressData addressData) {
+    public CheckoutPage fillBillingAddress(models.Address address) {
         try {
             // First, ensure "New Address" is selected to make form visible
             try {
@@ -138,45 +139,45 @@ public class CheckoutPage extends BasePage {
                     addressSelect.selectByVisibleText("New Address");
                     // Wait for form to become visible
                     By firstNameSelector = SelectorUtils.getCartSelector("cart_and_checkout.checkout_process.billing_address.first_name");
-                    $(firstNameSelector).shouldBe(Condition.visible, Duration.ofSeconds(5));
+                    $(firstNameSelector).shouldBe(Condition.visible, TestDeadline.cap(Duration.ofSeconds(5)));
                 }
             } catch (Exception e) {
                 logger.debug("Could not select 'New Address' option or it doesn't exist: {}", e.getMessage());
             }
 
             // Fill required fields
-            fillBillingField("first_name", addressData.firstName);
-            fillBillingField("last_name", addressData.lastName);
-            fillBillingField("email", addressData.email);
-            fillBillingField("address1", addressData.address1);
-            fillBillingField("city", addressData.city);
-            fillBillingField("zip_code", addressData.zipCode);
-            fillBillingField("phone", addressData.phone);
+            fillBillingField("first_name", address.getFirstName());
+            fillBillingField("last_name", address.getLastName());
+            fillBillingField("email", address.getEmail());
+            fillBillingField("address1", address.getAddress1());
+            fillBillingField("city", address.getCity());
+            fillBillingField("zip_code", address.getZipPostalCode());
+            fillBillingField("phone", address.getPhoneNumber());
 
             // Fill optional fields if provided
-            if (addressData.company != null && !addressData.company.isEmpty()) {
-                fillBillingField("company", addressData.company);
+            if (address.getCompany() != null && !address.getCompany().isEmpty()) {
+                fillBillingField("company", address.getCompany());
             }
-            if (addressData.address2 != null && !addressData.address2.isEmpty()) {
-                fillBillingField("address2", addressData.address2);
+            if (address.getAddress2() != null && !address.getAddress2().isEmpty()) {
+                fillBillingField("address2", address.getAddress2());
             }
-            if (addressData.fax != null && !addressData.fax.isEmpty()) {
-                fillBillingField("fax", addressData.fax);
+            if (address.getFaxNumber() != null && !address.getFaxNumber().isEmpty()) {
+                fillBillingField("fax", address.getFaxNumber());
             }
 
             // Select country and state
-            if (addressData.country != null) {
-                selectBillingCountry(addressData.country);
+            if (address.getCountry() != null) {
+                selectBillingCountry(address.getCountry());
                 // Wait for state dropdown to populate if applicable
                 By stateSelector = SelectorUtils.getCartSelector("cart_and_checkout.checkout_process.billing_address.state");
                 try {
-                    $(stateSelector).shouldBe(Condition.visible, Duration.ofSeconds(3));
+                    $(stateSelector).shouldBe(Condition.visible, TestDeadline.cap(Duration.ofSeconds(3)));
                 } catch (Exception e) {
                     logger.debug("State dropdown not visible or not applicable for selected country");
                 }
             }
-            if (addressData.state != null) {
-                selectBillingState(addressData.state);
+            if (address.getState() != null) {
+                selectBillingState(address.getState());
             }
 
             logger.info("Filled billing address form");
@@ -187,33 +188,6 @@ public class CheckoutPage extends BasePage {
         return this;
     }
 
-    /**
-     * Fill billing address using models.Address
-     * @param address Address object from models package
-     * @return CheckoutPage for method chaining
-     */
-    public CheckoutPage fillBillingAddress(models.Address address) {
-        // Convert models.Address to BillingAddressData (using only the required fields)
-        BillingAddressData billingData = new BillingAddressData(
-            address.getFirstName(),
-            address.getLastName(),
-            address.getEmail(),
-            address.getAddress1(),
-            address.getCity(),
-            address.getZipPostalCode(),
-            address.getPhoneNumber()
-        );
-
-        // Set optional fields manually
-        billingData.company = address.getCompany();
-        billingData.country = address.getCountry();
-        billingData.state = address.getState();
-        billingData.address2 = address.getAddress2();
-        billingData.fax = address.getFaxNumber();
-
-        return fillBillingAddress(billingData);
-    }
-
     /**
      * Fill individual billing address field
      * @param fieldName Field name identifier
@@ -399,32 +373,32 @@ public class CheckoutPage extends BasePage {
 
     /**
      * Fill credit card information
-     * @param cardData CreditCardData object with card details
+     * @param paymentInfo Card holder, number, expiry month and year, and CVV
      * @return CheckoutPage for method chaining
      */
-    public CheckoutPage fillCreditCardInfo(CreditCardData cardData) {
+    public CheckoutPage fillCreditCardInfo(models.PaymentInfo paymentInfo) {
         try {
             // Fill card holder name
             By cardHolderSelector = SelectorUtils.getCartSelector("cart_and_checkout.checkout_process.payment_information.credit_card_form.card_holder_name");
-            type(cardHolderSelector, cardData.cardHolderName);
+            type(cardHolderSelector, paymentInfo.getCardHolderName());
 
             // Fill card number
             By cardNumberSelector = SelectorUtils.getCartSelector("cart_and_checkout.checkout_process.payment_information.credit_card_form.card_number");
-            type(cardNumberSelector, cardData.cardNumber);
+            type(cardNumberSelector, paymentInfo.getCardNumber());
 
             // Select expiry month
             By expiryMonthSelector = SelectorUtils.getCartSelector("cart_and_checkout.checkout_process.payment_information.credit_card_form.expiry_month");
             Select monthSelect = new Select(findElement(expiryMonthSelector));
-            monthSelect.selectByValue(cardData.expiryMonth);
+            monthSelect.selectByValue(paymentInfo.getExpirationMonth());
 
             // Select expiry year
             By expiryYearSelector = SelectorUtils.getCartSelector("cart_and_checkout.checkout_process.payment_information.credit_card_form.expiry_year");
             Select yearSelect = new Select(findElement(expiryYearSelector));
-            yearSelect.selectByValue(cardData.expiryYear);
+            yearSelect.selectByValue(paymentInfo.getExpirationYear());
 
             // Fill CVV
             By cvvSelector = SelectorUtils.getCartSelector("cart_and_checkout.checkout_process.payment_information.credit_card_form.cvv");
-            type(cvvSelector, cardData.cvv);
+            type(cvvSelector, paymentInfo.getCvv());
 
             logger.info("Filled credit card information");
         } catch (Exception e) {
@@ -523,7 +497,7 @@ public class CheckoutPage extends BasePage {
         try {
             SelenideElement confirmButton = $(confirmSelector);
             confirmButton.scrollIntoView(true);
-            confirmButton.shouldBe(Condition.visible, Duration.ofSeconds(5));
+            confirmButton.shouldBe(Condition.visible, TestDeadline.cap(Duration.ofSeconds(5)));
 
             // If still not clickable, use JavaScript click
             if (!confirmButton.isDisplayed()) {
@@ -661,12 +635,12 @@ public class CheckoutPage extends BasePage {
     public models.Address getBillingAddress() {
         // For now, return a simple Address object
         // In a real implementation, this would parse the address text into components
-        models.Address address = new models.Address();
-        address.setFirstName("Test");
-        address.setLastName("User");
-        address.setEmail("test@example.com");
-        address.setAddress1(getBillingAddressText());
-        return address;
+        return models.Address.builder()
+                .firstName("Test")
+                .lastName("User")
+                .email("test@example.com")
+                .address1(getBillingAddressText())
+                .build();
     }
 
     /**
@@ -676,12 +650,12 @@ public class CheckoutPage extends BasePage {
     public models.Address getShippingAddress() {
         // For now, return a simple Address object
         // In a real implementation, this would parse the address text into components
-        models.Address address = new models.Address();
-        address.setFirstName("Test");
-        address.setLastName("User");
-        address.setEmail("test@example.com");
-        address.setAddress1(getShippingAddressText());
-        return address;
+        return models.Address.builder()
+                .firstName("Test")
+                .lastName("User")
+                .email("test@example.com")
+                .address1(getShippingAddressText())
+                .build();
     }
 
     // Validation Methods
@@ -740,82 +714,7 @@ public class CheckoutPage extends BasePage {
         return getCurrentUrl().contains(PAGE_URL_PATTERN);
     }
 
-    // Data Classes for form inputs
-
-    /**
-     * Data class for billing address information
-     */
-    public static class BillingAddressData {
-        public String firstName;
-        public String lastName;
-        public String email;
-        public String company;
-        public String country;
-        public String state;
-        public String city;
-        public String address1;
-        public String address2;
-        public String zipCode;
-        public String phone;
-        public String fax;
-
-        public BillingAddressData(String firstName, String lastName, String email,
-                                String address1, String city, String zipCode, String phone) {
-            this.firstName = firstName;
-            this.lastName = lastName;
-            this.email = email;
-            this.address1 = address1;
-            this.city = city;
-            this.zipCode = zipCode;
-            this.phone = phone;
-        }
-
-        // Builder pattern methods for optional fields
-        public BillingAddressData withCompany(String company) {
-            this.company = company;
-            return this;
-        }
-
-        public BillingAddressData withCountry(String country) {
-            this.country = country;
-            return this;
-        }
-
-        public BillingAddressData withState(String state) {
-            this.state = state;
-            return this;
-        }
-
-        public BillingAddressData withAddress2(String address2) {
-            this.address2 = address2;
-            return this;
-        }
-
-        public BillingAddressData withFax(String fax) {
-            this.fax = fax;
-            return this;
-        }
-    }
-
-    /**
-     * Data class for credit card information
-     */
-    public static class CreditCardData {
-        public String cardHolderName;
-        public String cardNumber;
-        public String expiryMonth;
-        public String expiryYear;
-        public String cvv;
-
-        public CreditCardData(String cardHolderName, String cardNumber,
-                            String expiryMonth, String expiryYear, String cvv) {
-            this.cardHolderName = cardHolderName;
-            this.cardNumber = cardNumber;
-            this.expiryMonth = expiryMonth;
-            this.expiryYear = expiryYear;
-            this.cvv = cvv;
-        }
-    }
+    // Data Classes
 
     /**
      * Class representing an order item in the confirmation summary
@@ -25,7 +25,7 @@ public class CustomerInfoPage extends BasePage {
      * @return CustomerInfoPage instance for method chaining
      */
     public CustomerInfoPage navigateToCustomerInfo() {
-        navigateTo("https://demowebshop.tricentis.com/customer/info");
+        navigateTo(siteUrl("/customer/info"));
         waitForPageToLoad();
         return this;
     }
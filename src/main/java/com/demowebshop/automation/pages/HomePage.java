@@ -1,6 +1,7 @@
 package com.demowebshop.automation.pages;
 
 import com.demowebshop.automation.pages.common.BasePage;
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
 import com.demowebshop.automation.utils.data.SelectorUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
@@ -20,9 +21,6 @@ import static com.codeborne.selenide.Selenide.$$;
  */
 public class HomePage extends BasePage {
 
-    // Page URL patterns
-    private static final String PAGE_URL_PATTERN = "https://demowebshop.tricentis.com/";
-
     // Selenide elements - no need for @FindBy
     private final SelenideElement logo = $("a[href='/']");
     private final SelenideElement searchInput = $("#small-searchterms");
@@ -41,7 +39,7 @@ public class HomePage extends BasePage {
      * @return HomePage instance for method chaining
      */
     public HomePage navigateToHomePage() {
-        navigateTo(PAGE_URL_PATTERN);
+        navigateTo(siteUrl("/"));
         waitForPageToLoad();
         return this;
     }
@@ -182,7 +180,7 @@ public class HomePage extends BasePage {
         waitForPageToLoad();
 
         // Additional wait for search results to render (MCP validated: 3 seconds)
-        com.codeborne.selenide.Selenide.sleep(3000);
+        com.codeborne.selenide.Selenide.sleep(TestDeadline.capMillis(3000));
 
         logger.info("Performed search for: {}", searchTerm);
         return new ProductSearchPage(driver);
@@ -559,7 +557,7 @@ public class HomePage extends BasePage {
             // Give it a moment and check again to be sure
             if (loginNotDisplayed) {
                 try {
-                    Thread.sleep(500);
+                    TestDeadline.sleep(500);
                     return !isElementDisplayed(loginSelector);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
@@ -748,7 +746,7 @@ public class HomePage extends BasePage {
                             logger.info("Successfully clicked logout link using selector: {}", selector);
 
                             // Wait for logout to complete
-                            Thread.sleep(2000);
+                            TestDeadline.sleep(2000);
                             waitForPageToLoad();
 
                             // Verify logout was successful by checking if login link appears
@@ -788,7 +786,7 @@ public class HomePage extends BasePage {
      */
     @Override
     public String getPageUrlPattern() {
-        return PAGE_URL_PATTERN;
+        return siteUrl("/");
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.demowebshop.automation.pages;
 
 import com.demowebshop.automation.pages.common.BasePage;
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
 import com.demowebshop.automation.utils.data.SelectorUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
@@ -42,7 +43,7 @@ public class LoginPage extends BasePage {
      * @return LoginPage instance for method chaining
      */
     public LoginPage navigateToLoginPage() {
-        navigateTo("https://demowebshop.tricentis.com/login");
+        navigateTo(siteUrl("/login"));
         waitForPageToLoad();
         return this;
     }
@@ -95,7 +96,7 @@ public class LoginPage extends BasePage {
 
         // Wait for page to process login
         try {
-            Thread.sleep(4000);
+            TestDeadline.sleep(4000);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -108,7 +109,7 @@ public class LoginPage extends BasePage {
             logger.info("Login appears successful - redirecting to homepage");
             // Wait for page state to fully update after successful login
             try {
-                Thread.sleep(2000);
+                TestDeadline.sleep(2000);
                 return new HomePage(driver);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -604,7 +605,7 @@ public class LoginPage extends BasePage {
 
         // Brief wait for page response
         try {
-            Thread.sleep(2000);
+            TestDeadline.sleep(2000);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
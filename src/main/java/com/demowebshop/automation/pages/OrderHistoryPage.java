@@ -33,7 +33,7 @@ public class OrderHistoryPage extends BasePage {
      * @return OrderHistoryPage instance for method chaining
      */
     public OrderHistoryPage navigateToOrderHistory() {
-        navigateTo("https://demowebshop.tricentis.com/customer/orders");
+        navigateTo(siteUrl("/customer/orders"));
         waitForPageToLoad();
         return this;
     }
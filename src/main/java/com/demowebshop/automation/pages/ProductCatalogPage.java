@@ -21,20 +21,19 @@ import static com.codeborne.selenide.Selenide.$$;
  */
 public class ProductCatalogPage extends BasePage {
 
-    private static final String BASE_URL_PATTERN = "https://demowebshop.tricentis.com/";
     private final String categoryName;
     private String categoryUrlPattern;
 
     public ProductCatalogPage(WebDriver driver, String categoryName) {
         super(driver);
         this.categoryName = categoryName;
-        this.categoryUrlPattern = BASE_URL_PATTERN + categoryName.toLowerCase().replace(" ", "-").replace("&", "");
+        this.categoryUrlPattern = siteUrl("/") + categoryName.toLowerCase().replace(" ", "-").replace("&", "");
     }
 
     public ProductCatalogPage(String categoryName) {
         super();
         this.categoryName = categoryName;
-        this.categoryUrlPattern = BASE_URL_PATTERN + categoryName.toLowerCase().replace(" ", "-").replace("&", "");
+        this.categoryUrlPattern = siteUrl("/") + categoryName.toLowerCase().replace(" ", "-").replace("&", "");
     }
 
     // View Mode Methods
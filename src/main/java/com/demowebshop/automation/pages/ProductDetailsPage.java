@@ -1,6 +1,7 @@
 package com.demowebshop.automation.pages;
 
 import com.demowebshop.automation.pages.common.BasePage;
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
 import com.demowebshop.automation.utils.data.SelectorUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
@@ -27,7 +28,7 @@ public class ProductDetailsPage extends BasePage {
         // Wait for product page to be fully loaded by ensuring add-to-cart button is present
         try {
             By addToCartSelector = SelectorUtils.getSecondarySelector("product", "product_pages.product_detail.purchase_options.add_to_cart_button");
-            $(addToCartSelector).shouldBe(com.codeborne.selenide.Condition.visible, java.time.Duration.ofSeconds(10));
+            $(addToCartSelector).shouldBe(com.codeborne.selenide.Condition.visible, TestDeadline.cap(java.time.Duration.ofSeconds(10)));
             logger.debug("Product details page loaded successfully");
         } catch (Exception e) {
             logger.warn("Product details page may not have add-to-cart button: {}", e.getMessage());
@@ -244,11 +245,11 @@ public class ProductDetailsPage extends BasePage {
             try {
                 logger.info("Waiting for notification bar...");
                 By notificationSelector = By.cssSelector("#bar-notification, .bar-notification");
-                $(notificationSelector).shouldBe(com.codeborne.selenide.Condition.visible, java.time.Duration.ofSeconds(10));
+                $(notificationSelector).shouldBe(com.codeborne.selenide.Condition.visible, TestDeadline.cap(java.time.Duration.ofSeconds(10)));
                 logger.info("Add-to-cart notification appeared - product successfully added");
 
                 // Wait a bit more for cart count to update in the header
-                Thread.sleep(1000);
+                TestDeadline.sleep(1000);
             } catch (Exception e) {
                 logger.warn("Notification bar did not appear - add-to-cart may have failed: {}", e.getMessage());
             }
@@ -350,7 +351,7 @@ public class ProductDetailsPage extends BasePage {
 
         // Wait for any AJAX cart updates
         try {
-            Thread.sleep(4000);
+            TestDeadline.sleep(4000);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -480,7 +481,7 @@ public class ProductDetailsPage extends BasePage {
 
                 // Wait for potential page change or modal
                 try {
-                    Thread.sleep(2000);
+                    TestDeadline.sleep(2000);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
@@ -869,7 +870,7 @@ public class ProductDetailsPage extends BasePage {
      * @return true if on product details page
      */
     public boolean isOnProductDetailsPage() {
-        return getCurrentUrl().matches(".*demowebshop.tricentis.com/[\\w-]+$");
+        return getCurrentUrl().matches(java.util.regex.Pattern.quote(siteUrl("/")) + "[\\w-]+$");
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.demowebshop.automation.pages;
 
 import com.demowebshop.automation.pages.common.BasePage;
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
 import com.demowebshop.automation.utils.data.SelectorUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
@@ -94,7 +95,7 @@ public class ProductSearchPage extends BasePage {
             waitForPageToLoad();
 
             // Simple wait for search results to appear
-            com.codeborne.selenide.Selenide.sleep(1000);
+            com.codeborne.selenide.Selenide.sleep(TestDeadline.capMillis(1000));
 
             // Check for .item-box elements (primary selector)
             ElementsCollection items = $$(By.cssSelector(".item-box"));
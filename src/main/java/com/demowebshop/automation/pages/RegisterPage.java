@@ -1,6 +1,7 @@
 package com.demowebshop.automation.pages;
 
 import com.demowebshop.automation.pages.common.BasePage;
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
 import com.demowebshop.automation.utils.data.SelectorUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
@@ -44,7 +45,7 @@ public class RegisterPage extends BasePage {
      * @return RegisterPage instance for method chaining
      */
     public RegisterPage navigateToRegisterPage() {
-        navigateTo("https://demowebshop.tricentis.com/register");
+        navigateTo(siteUrl("/register"));
         waitForPageToLoad();
         return this;
     }
@@ -240,7 +241,7 @@ public class RegisterPage extends BasePage {
 
             // Wait for page to process registration
             try {
-                Thread.sleep(4000);
+                TestDeadline.sleep(4000);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
@@ -253,7 +254,7 @@ public class RegisterPage extends BasePage {
                 logger.info("Registration appears successful");
                 // Additional wait for page to fully load registration result
                 try {
-                    Thread.sleep(2000);
+                    TestDeadline.sleep(2000);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
@@ -281,6 +282,16 @@ public class RegisterPage extends BasePage {
         return register(null, firstName, lastName, email, password, password);
     }
 
+    /**
+     * Perform complete registration for a user
+     * @param user Gender, name, email and password to register with
+     * @return RegisterPage (user must manually log in after successful registration)
+     */
+    public BasePage register(models.User user) {
+        return register(user.getGender(), user.getFirstName(), user.getLastName(),
+                user.getEmail(), user.getPassword(), user.getPassword());
+    }
+
     /**
      * Perform complete registration with all fields
      * IMPORTANT: DemoWebShop does NOT auto-login after registration
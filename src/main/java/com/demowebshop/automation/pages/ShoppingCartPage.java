@@ -1,6 +1,7 @@
 package com.demowebshop.automation.pages;
 
 import com.demowebshop.automation.pages.common.BasePage;
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
 import com.demowebshop.automation.utils.data.SelectorUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
@@ -39,7 +40,7 @@ public class ShoppingCartPage extends BasePage {
      * @return ShoppingCartPage instance for method chaining
      */
     public ShoppingCartPage navigateToCart() {
-        navigateTo("https://demowebshop.tricentis.com/cart");
+        navigateTo(siteUrl("/cart"));
         waitForPageToLoad();
         return this;
     }
@@ -393,7 +394,7 @@ public class ShoppingCartPage extends BasePage {
 
             // Simple wait for AJAX to complete
             try {
-                Thread.sleep(3000);
+                TestDeadline.sleep(3000);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
@@ -768,11 +769,11 @@ public class ShoppingCartPage extends BasePage {
                 click(continueShoppingSelector);
                 logger.info("Clicked continue shopping");
             } else {
-                navigateTo("https://demowebshop.tricentis.com/");
+                navigateTo(siteUrl("/"));
             }
         } catch (Exception e) {
             logger.error("Error continuing shopping: {}", e.getMessage());
-            navigateTo("https://demowebshop.tricentis.com/");
+            navigateTo(siteUrl("/"));
         }
         return new HomePage(driver);
     }
@@ -5,6 +5,9 @@ import com.demowebshop.automation.factories.driver.WebDriverFactory;
 import com.demowebshop.automation.utils.selenium.ElementUtils;
 import com.demowebshop.automation.utils.selenium.WaitUtils;
 import com.demowebshop.automation.utils.selenium.AjaxUtils;
+import com.demowebshop.automation.utils.selenium.MeasuredWait;
+import com.demowebshop.automation.utils.impact.ImpactTracer;
+import com.demowebshop.automation.utils.performance.PageTimingCollector;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
@@ -42,26 +45,38 @@ public abstract class BasePage {
 
     protected BasePage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(ConfigManager.getExplicitTimeout()));
+        this.wait = new MeasuredWait(driver, Duration.ofSeconds(ConfigManager.getExplicitTimeout()));
         this.elementUtils = new ElementUtils(driver);
         this.waitUtils = new WaitUtils(driver);
         this.ajaxUtils = new AjaxUtils(driver);
         // PageFactory.initElements(driver, this); // Removed - using pure Selenide
+        ImpactTracer.recordPage(getClass().getName());
     }
 
     protected BasePage() {
         // Use Selenide's WebDriverRunner to get the current driver
         this.driver = getWebDriver();
         if (this.driver != null) {
-            this.wait = new WebDriverWait(driver, Duration.ofSeconds(ConfigManager.getExplicitTimeout()));
+            this.wait = new MeasuredWait(driver, Duration.ofSeconds(ConfigManager.getExplicitTimeout()));
             this.elementUtils = new ElementUtils(driver);
             this.waitUtils = new WaitUtils(driver);
             this.ajaxUtils = new AjaxUtils(driver);
             // PageFactory.initElements(driver, this); // Removed - using pure Selenide
         }
+        ImpactTracer.recordPage(getClass().getName());
     }
 
     // Navigation Methods
+    /**
+     * Absolute URL of a path on the configured site, so pages follow base.url of the selected environment
+     * @param path Path starting with "/"
+     * @return URL on the configured site
+     */
+    protected static String siteUrl(String path) {
+        String baseUrl = ConfigManager.getBaseUrl();
+        return (baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl) + path;
+    }
+
     /**
      * Navigate to a specific URL using Selenide
      * @param url URL to navigate to
@@ -70,6 +85,7 @@ public abstract class BasePage {
         logger.info("Navigating to URL: {}", url);
         open(url);
         logger.debug("Page loaded using Selenide");
+        PageTimingCollector.capture(getWebDriver(), getClass().getSimpleName());
     }
 
     /**
@@ -86,7 +102,7 @@ public abstract class BasePage {
      */
     protected void waitForUrlToContain(String urlPart) {
         try {
-            WebDriverWait wait = new WebDriverWait(getWebDriver(), Duration.ofSeconds(15));
+            WebDriverWait wait = new MeasuredWait(getWebDriver(), Duration.ofSeconds(ConfigManager.getExplicitTimeout()));
             wait.until(ExpectedConditions.urlContains(urlPart));
             logger.debug("URL now contains: {}", urlPart);
         } catch (Exception e) {
@@ -448,6 +464,7 @@ public abstract class BasePage {
      */
     protected void waitForPageToLoad() {
         waitUtils.waitForPageToLoad();
+        PageTimingCollector.capture(driver, getClass().getSimpleName());
     }
 
     /**
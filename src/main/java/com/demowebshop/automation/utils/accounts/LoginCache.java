@@ -0,0 +1,290 @@
+package com.demowebshop.automation.utils.accounts;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.replay.ReplayProxy;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Auth cookies per account, captured after a real login and restored into later browser sessions
+ * with addCookie (see {@code StateSeeder.injectCookies}) instead of a UI login. Only the auth and session
+ * cookies are kept; analytics and consent cookies of the session are not restored into other tests.
+ * A restore costs one HTTP request: the customer info page, which redirects to the login page once
+ * the cookie is no longer accepted. Entries that fail that check, or are older than the configured
+ * time to live, are dropped and the caller logs in the slow way. Entries are kept in a file next to
+ * the user pool so later runs start warm.
+ */
+public class LoginCache {
+    private static final Logger logger = LogManager.getLogger(LoginCache.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static volatile LoginCache shared;
+
+    /**
+     * Auth ticket, customer and ASP.NET session cookies of the site
+     */
+    public static final String DEFAULT_COOKIE_NAMES = "NOPCOMMERCE.AUTH,Nop.customer,ASP.NET_SessionId";
+
+    private final Path file;
+    private final URI siteUri;
+    private final Duration timeToLive;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+    private final Set<String> cookieNames;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> invalidated = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param file File to keep entries in between runs, or null for an in-memory cache
+     * @param siteUri Site the cookies belong to
+     * @param timeToLive Maximum age of an entry
+     * @param timeout Timeout of the validation request
+     */
+    public LoginCache(Path file, URI siteUri, Duration timeToLive, Duration timeout) {
+        this(file, siteUri, timeToLive, timeout, DEFAULT_COOKIE_NAMES);
+    }
+
+    /**
+     * @param file File to keep entries in between runs, or null for an in-memory cache
+     * @param siteUri Site the cookies belong to
+     * @param timeToLive Maximum age of an entry
+     * @param timeout Timeout of the validation request
+     * @param cookieNames Comma-separated names of the cookies to keep (case-insensitive)
+     */
+    public LoginCache(Path file, URI siteUri, Duration timeToLive, Duration timeout, String cookieNames) {
+        this.file = file;
+        this.siteUri = siteUri;
+        this.timeToLive = timeToLive;
+        this.timeout = timeout;
+        this.cookieNames = Arrays.stream(cookieNames.split(","))
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+        this.httpClient = ReplayProxy.routeThrough(HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NEVER))
+                .build();
+        load();
+    }
+
+    /**
+     * Cache for the configured site, created on first use
+     * @return Shared cache
+     */
+    public static LoginCache shared() {
+        LoginCache cache = shared;
+        if (cache == null) {
+            synchronized (LoginCache.class) {
+                cache = shared;
+                if (cache == null) {
+                    String cacheFile = ConfigManager.getLoginCacheFile();
+                    cache = new LoginCache(cacheFile.isBlank() ? null : Paths.get(cacheFile),
+                            URI.create(ConfigManager.getBaseUrl()),
+                            Duration.ofMinutes(ConfigManager.getLoginCacheTtlMinutes()),
+                            Duration.ofSeconds(ConfigManager.getStateSeedingTimeoutSeconds()),
+                            ConfigManager.getLoginCacheCookieNames());
+                    shared = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Remember the auth and session cookies of a logged-in account; other cookies are left out
+     * @param email Account
+     * @param cookies Cookies of the logged-in session (browser or HTTP seeder)
+     */
+    public void store(String email, Collection<Cookie> cookies) {
+        List<Cookie> siteCookies = new ArrayList<>();
+        for (Cookie cookie : cookies) {
+            if (!cookieNames.contains(cookie.getName().toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            // Without a domain the cookie is added for whatever host the browser is on, which is the site
+            siteCookies.add(new Cookie.Builder(cookie.getName(), cookie.getValue())
+                    .path(cookie.getPath() == null ? "/" : cookie.getPath())
+                    .expiresOn(cookie.getExpiry())
+                    .isSecure(cookie.isSecure())
+                    .isHttpOnly(cookie.isHttpOnly())
+                    .build());
+        }
+        if (siteCookies.isEmpty()) {
+            return;
+        }
+        entries.put(email, new Entry(System.currentTimeMillis(), siteCookies));
+        invalidated.remove(email);
+        save();
+        logger.debug("Cached login of {} ({} cookies)", email, siteCookies.size());
+    }
+
+    /**
+     * Cached cookies of an account after checking them against the site with one request
+     * @param email Account
+     * @return Cookies, or null if there is no entry or it is no longer valid (the entry is then dropped)
+     */
+    public List<Cookie> getValidCookies(String email) {
+        Entry entry = entries.get(email);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        boolean expired = now - entry.storedAt > timeToLive.toMillis() || entry.cookies.stream()
+                .anyMatch(cookie -> cookie.getExpiry() != null && cookie.getExpiry().getTime() <= now);
+        if (expired || !isAccepted(entry.cookies)) {
+            logger.info("Cached login of {} is no longer valid", email);
+            invalidate(email);
+            return null;
+        }
+        return entry.cookies;
+    }
+
+    /**
+     * Forget the cached login of an account, e.g. after its password changed
+     * @param email Account
+     */
+    public void invalidate(String email) {
+        if (entries.remove(email) != null) {
+            invalidated.add(email);
+            save();
+        }
+    }
+
+    private boolean isAccepted(List<Cookie> cookies) {
+        String cookieHeader = cookies.stream()
+                .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                .collect(Collectors.joining("; "));
+        HttpRequest request = HttpRequest.newBuilder(siteUri.resolve("/customer/info"))
+                .timeout(timeout)
+                .header("Cookie", cookieHeader)
+                .GET()
+                .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (IOException e) {
+            logger.debug("Login cache check failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void load() {
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        try {
+            entries.putAll(read());
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable login cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Map<String, Entry> read() throws IOException {
+        Map<String, Entry> stored = new ConcurrentHashMap<>();
+        if (!Files.exists(file)) {
+            return stored;
+        }
+        JsonNode root = objectMapper.readTree(file.toFile());
+        if (!siteUri.toString().equals(root.path("site").asText())) {
+            return stored;
+        }
+        Iterator<Map.Entry<String, JsonNode>> accounts = root.path("accounts").fields();
+        while (accounts.hasNext()) {
+            Map.Entry<String, JsonNode> account = accounts.next();
+            List<Cookie> cookies = new ArrayList<>();
+            for (JsonNode cookie : account.getValue().path("cookies")) {
+                long expiry = cookie.path("expiry").asLong(0);
+                cookies.add(new Cookie.Builder(cookie.path("name").asText(), cookie.path("value").asText())
+                        .path(cookie.path("path").asText("/"))
+                        .expiresOn(expiry > 0 ? new Date(expiry) : null)
+                        .isSecure(cookie.path("secure").asBoolean())
+                        .isHttpOnly(cookie.path("httpOnly").asBoolean())
+                        .build());
+            }
+            stored.put(account.getKey(), new Entry(account.getValue().path("storedAt").asLong(), cookies));
+        }
+        return stored;
+    }
+
+    /**
+     * Merge into the file; other forks may have cached other accounts since it was read
+     */
+    private synchronized void save() {
+        if (file == null) {
+            return;
+        }
+        try {
+            Map<String, Entry> merged;
+            try {
+                merged = read();
+            } catch (IOException e) {
+                merged = new ConcurrentHashMap<>();
+            }
+            merged.putAll(entries);
+            merged.keySet().removeAll(invalidated);
+
+            ObjectNode root = objectMapper.createObjectNode();
+            root.put("site", siteUri.toString());
+            ObjectNode accounts = root.putObject("accounts");
+            merged.forEach((email, entry) -> {
+                ObjectNode account = accounts.putObject(email);
+                account.put("storedAt", entry.storedAt);
+                ArrayNode cookies = account.putArray("cookies");
+                for (Cookie cookie : entry.cookies) {
+                    cookies.addObject()
+                            .put("name", cookie.getName())
+                            .put("value", cookie.getValue())
+                            .put("path", cookie.getPath())
+                            .put("expiry", cookie.getExpiry() == null ? 0 : cookie.getExpiry().getTime())
+                            .put("secure", cookie.isSecure())
+                            .put("httpOnly", cookie.isHttpOnly());
+                }
+            });
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "login-cache", ".tmp");
+            objectMapper.writeValue(temp.toFile(), root);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not save login cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static final class Entry {
+        private final long storedAt;
+        private final List<Cookie> cookies;
+
+        private Entry(long storedAt, List<Cookie> cookies) {
+            this.storedAt = storedAt;
+            this.cookies = List.copyOf(cookies);
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package com.demowebshop.automation.utils.accounts;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.seeding.StateSeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import factories.UserDataFactory;
+import models.User;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of pre-registered customer accounts, kept in a local file between runs
+ * Tests lease an account exclusively instead of registering a new one. The first lease of a run
+ * tops the pool up to its configured size, registering the missing accounts in parallel. Leases
+ * are exclusive across threads and across JVMs (forks share the file and hold a lock file per
+ * account). A returned account is reset (cart emptied, address book cleared) on a background
+ * thread and only becomes leasable again once that is done; an account that cannot be reset, for
+ * example because a test changed its password without {@link Lease#update(User) telling the pool},
+ * is dropped.
+ *
+ * The file belongs to one site: accounts registered against another base URL are ignored.
+ */
+public class UserPool implements Closeable {
+    private static final Logger logger = LogManager.getLogger(UserPool.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static volatile UserPool shared;
+
+    /**
+     * Site operations the pool needs
+     */
+    public interface AccountService {
+        /**
+         * @return true if the account was created
+         */
+        boolean register(User user) throws Exception;
+
+        /**
+         * Bring an existing account back to its initial state
+         */
+        void reset(User user) throws Exception;
+    }
+
+    private final Path file;
+    private final Path lockDirectory;
+    private final String site;
+    private final int size;
+    private final int registerThreads;
+    private final AccountService service;
+
+    private final Map<String, User> accounts = new LinkedHashMap<>();
+    private final Set<String> removed = ConcurrentHashMap.newKeySet();
+    private final Map<String, FileLock> leased = new ConcurrentHashMap<>();
+    private final ExecutorService resets = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger pendingResets = new AtomicInteger();
+    private boolean filled;
+
+    /**
+     * @param file Pool file
+     * @param site Base URL the accounts are registered on
+     * @param size Accounts to keep registered
+     * @param registerThreads Parallel registrations when topping up
+     * @param service Register and reset operations
+     */
+    public UserPool(Path file, String site, int size, int registerThreads, AccountService service) {
+        this.file = file;
+        this.lockDirectory = Paths.get(file + ".locks");
+        this.site = site;
+        this.size = Math.max(1, size);
+        this.registerThreads = Math.max(1, registerThreads);
+        this.service = service;
+    }
+
+    /**
+     * Pool for the configured site, registering and resetting accounts over HTTP
+     * @return Shared pool
+     */
+    public static UserPool shared() {
+        UserPool pool = shared;
+        if (pool == null) {
+            synchronized (UserPool.class) {
+                pool = shared;
+                if (pool == null) {
+                    pool = new UserPool(Paths.get(ConfigManager.getUserPoolFile()), ConfigManager.getBaseUrl(),
+                            ConfigManager.getUserPoolSize(), ConfigManager.getUserPoolRegisterThreads(), httpService());
+                    shared = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Wait for pending resets and save the shared pool, if it was used
+     */
+    public static void closeShared() {
+        UserPool pool;
+        synchronized (UserPool.class) {
+            pool = shared;
+            shared = null;
+        }
+        if (pool != null) {
+            try {
+                pool.close();
+            } catch (IOException e) {
+                logger.warn("Could not save the user pool: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static AccountService httpService() {
+        return new AccountService() {
+            @Override
+            public boolean register(User user) {
+                return StateSeeder.forConfiguredSite().register(user);
+            }
+
+            @Override
+            public void reset(User user) {
+                StateSeeder seeder = StateSeeder.forConfiguredSite();
+                seeder.login(user.getEmail(), user.getPassword());
+                seeder.clearCart();
+                seeder.deleteAddresses();
+            }
+        };
+    }
+
+    /**
+     * Lease an account for the calling test; registers a new one if every pooled account is in use
+     * @return Lease to close when the test is done
+     */
+    public Lease lease() throws IOException {
+        List<User> candidates;
+        synchronized (this) {
+            if (!filled) {
+                fill();
+                filled = true;
+            }
+            candidates = new ArrayList<>(accounts.values());
+        }
+        for (User user : candidates) {
+            if (!removed.contains(user.getEmail()) && tryLock(user)) {
+                logger.debug("Leased pooled account {}", user.getEmail());
+                return new Lease(user);
+            }
+        }
+        // Pool exhausted: grow it rather than make the test wait
+        User user = registerNew();
+        if (user == null || !tryLock(user)) {
+            throw new IOException("No pooled account available and registering a new one failed");
+        }
+        logger.info("All {} pooled accounts are leased, added {}", candidates.size(), user.getEmail());
+        return new Lease(user);
+    }
+
+    private void fill() throws IOException {
+        for (User user : load()) {
+            accounts.put(user.getEmail(), user);
+        }
+        int missing = size - accounts.size();
+        if (missing <= 0) {
+            logger.info("User pool {} has {} accounts", file, accounts.size());
+            return;
+        }
+        logger.info("Registering {} accounts for the user pool ({} threads)", missing, registerThreads);
+        ExecutorService registrations = Executors.newFixedThreadPool(Math.min(missing, registerThreads));
+        try {
+            List<Future<User>> futures = new ArrayList<>();
+            for (int i = 0; i < missing; i++) {
+                futures.add(registrations.submit(this::registerAccount));
+            }
+            for (Future<User> future : futures) {
+                try {
+                    User user = future.get();
+                    if (user != null) {
+                        accounts.put(user.getEmail(), user);
+                    }
+                } catch (Exception e) {
+                    logger.warn("Pool account registration failed: {}", e.getMessage());
+                }
+            }
+        } finally {
+            registrations.shutdownNow();
+        }
+        save();
+    }
+
+    private User registerNew() throws IOException {
+        User user = registerAccount();
+        if (user != null) {
+            synchronized (this) {
+                accounts.put(user.getEmail(), user);
+                save();
+            }
+        }
+        return user;
+    }
+
+    private User registerAccount() {
+        User user = UserDataFactory.createRandomUser();
+        try {
+            return service.register(user) ? user : null;
+        } catch (Exception e) {
+            logger.warn("Could not register pool account {}: {}", user.getEmail(), e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean tryLock(User user) {
+        if (leased.containsKey(user.getEmail())) {
+            return false;
+        }
+        try {
+            Files.createDirectories(lockDirectory);
+            FileChannel channel = FileChannel.open(lockDirectory.resolve(lockName(user)),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                channel.close();
+                return false;
+            }
+            if (leased.putIfAbsent(user.getEmail(), lock) != null) {
+                lock.release();
+                channel.close();
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            logger.warn("Could not lock pool account {}: {}", user.getEmail(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void unlock(User user) {
+        FileLock lock = leased.remove(user.getEmail());
+        if (lock != null) {
+            try {
+                lock.release();
+                lock.channel().close();
+            } catch (IOException e) {
+                logger.debug("Could not release lock of {}: {}", user.getEmail(), e.getMessage());
+            }
+        }
+    }
+
+    private static String lockName(User user) {
+        return user.getEmail().replaceAll("[^A-Za-z0-9._-]", "_") + ".lock";
+    }
+
+    private void giveBack(User user) {
+        try {
+            service.reset(user);
+            logger.debug("Reset pooled account {}", user.getEmail());
+        } catch (Exception e) {
+            logger.warn("Reset of pooled account {} failed, dropping it from the pool: {}", user.getEmail(), e.getMessage());
+            removed.add(user.getEmail());
+            synchronized (this) {
+                accounts.remove(user.getEmail());
+            }
+        } finally {
+            unlock(user);
+        }
+    }
+
+    private List<User> load() throws IOException {
+        List<User> users = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return users;
+        }
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(file.toFile());
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable user pool file {}: {}", file, e.getMessage());
+            return users;
+        }
+        if (!site.equals(root.path("site").asText())) {
+            logger.info("User pool {} belongs to {}, starting a new pool for {}", file, root.path("site").asText(), site);
+            return users;
+        }
+        for (JsonNode account : root.path("accounts")) {
+            users.add(User.builder()
+                    .email(account.path("email").asText())
+                    .password(account.path("password").asText())
+                    .firstName(account.path("firstName").asText())
+                    .lastName(account.path("lastName").asText())
+                    .gender(account.path("gender").asText())
+                    .build());
+        }
+        return users;
+    }
+
+    /**
+     * Merge this JVM's view into the file: other forks may have added accounts since it was read
+     */
+    private synchronized void save() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileChannel guard = FileChannel.open(Paths.get(file + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = guard.lock()) {
+            Map<String, User> merged = new LinkedHashMap<>();
+            for (User user : load()) {
+                merged.put(user.getEmail(), user);
+            }
+            merged.putAll(accounts);
+            merged.keySet().removeAll(removed);
+
+            ObjectNode root = objectMapper.createObjectNode();
+            root.put("site", site);
+            ArrayNode list = root.putArray("accounts");
+            for (User user : merged.values()) {
+                list.addObject()
+                        .put("email", user.getEmail())
+                        .put("password", user.getPassword())
+                        .put("firstName", user.getFirstName())
+                        .put("lastName", user.getLastName())
+                        .put("gender", user.getGender());
+            }
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "user-pool", ".tmp");
+            objectMapper.writeValue(temp.toFile(), root);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    public synchronized int size() {
+        return accounts.size();
+    }
+
+    public int getLeasedCount() {
+        return leased.size();
+    }
+
+    /**
+     * Wait for pending resets (bounded) and save the pool, including password changes made by tests
+     */
+    @Override
+    public void close() throws IOException {
+        resets.shutdown();
+        try {
+            if (!resets.awaitTermination(Duration.ofSeconds(60).toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("{} pool account resets still running at shutdown", pendingResets.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        save();
+    }
+
+    /**
+     * Exclusive use of one pooled account
+     */
+    public final class Lease implements AutoCloseable {
+        private volatile User user;
+        private boolean released;
+
+        private Lease(User user) {
+            this.user = user;
+        }
+
+        /**
+         * Account credentials; tests that change the password must {@link #update(User)} the lease
+         */
+        public User getUser() {
+            return user;
+        }
+
+        /**
+         * Replace the leased account's data after a test changed it on the site, e.g. its password,
+         * so it is reset with and saved with the new values
+         * @param changed Same account (same email) with the new values
+         */
+        public void update(User changed) {
+            if (!changed.getEmail().equals(user.getEmail())) {
+                throw new IllegalArgumentException("Lease of " + user.getEmail() + " cannot take " + changed.getEmail());
+            }
+            user = changed;
+            synchronized (UserPool.this) {
+                accounts.put(changed.getEmail(), changed);
+            }
+        }
+
+        /**
+         * Return the account; it is reset in the background and leasable again afterwards
+         */
+        @Override
+        public synchronized void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            pendingResets.incrementAndGet();
+            try {
+                resets.execute(() -> {
+                    try {
+                        giveBack(user);
+                    } finally {
+                        pendingResets.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Pool already closed: reset on the caller's thread
+                pendingResets.decrementAndGet();
+                giveBack(user);
+            }
+        }
+    }
+}
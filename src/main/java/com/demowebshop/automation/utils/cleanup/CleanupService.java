@@ -0,0 +1,362 @@
+package com.demowebshop.automation.utils.cleanup;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.seeding.StateSeeder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Removes the data tests leave on the site, on one background thread
+ * Tests hand in their {@link TestDataLedger} when they end. The worker takes up to batch.size ledgers
+ * at a time and merges them per customer, so a customer touched by several tests is logged in once
+ * per batch; it then deletes the recorded addresses and empties the cart over HTTP.
+ * A test about to use an account again waits in {@link #awaitCustomer(String, Duration)} until the
+ * cleanup queued for that customer is done, so it cannot empty a cart the next test just filled.
+ *
+ * A storefront customer cannot delete their account or their orders. Those are appended to the
+ * leftovers file instead, for a purge from the admin area or a site reset.
+ */
+public class CleanupService implements Closeable {
+    private static final Logger logger = LogManager.getLogger(CleanupService.class);
+    private static final TestDataLedger END = new TestDataLedger("end-of-cleanup");
+    private static volatile CleanupService shared;
+
+    /**
+     * Site operations the cleanup needs
+     */
+    public interface Shop {
+        /**
+         * Log in as a customer
+         * @return Session of that customer
+         */
+        CustomerSession login(String email, String password) throws Exception;
+    }
+
+    /**
+     * Removals available to a logged-in customer
+     */
+    public interface CustomerSession {
+        void deleteAddress(String addressId) throws Exception;
+
+        /**
+         * @return Number of addresses deleted
+         */
+        int deleteAddresses() throws Exception;
+
+        /**
+         * @return Number of cart lines removed
+         */
+        int clearCart() throws Exception;
+    }
+
+    private final Shop shop;
+    private final int batchSize;
+    private final Duration awaitOnClose;
+    private final Path leftoversFile;
+    private final BlockingQueue<TestDataLedger> queue = new LinkedBlockingQueue<>();
+    // Queued ledgers per customer email, guarded by this
+    private final Map<String, Integer> pendingCustomers = new HashMap<>();
+    private final Thread worker;
+    private boolean closed;
+
+    private final AtomicInteger batches = new AtomicInteger();
+    private final AtomicInteger logins = new AtomicInteger();
+    private final AtomicInteger deletedAddresses = new AtomicInteger();
+    private final AtomicInteger removedCartLines = new AtomicInteger();
+    private final AtomicInteger failedCustomers = new AtomicInteger();
+    private final AtomicInteger leftovers = new AtomicInteger();
+
+    /**
+     * @param shop Site operations
+     * @param batchSize Ledgers merged into one batch at most
+     * @param awaitOnClose How long {@link #close()} waits for queued ledgers
+     * @param leftoversFile File accounts and orders are appended to, or null to only log them
+     */
+    public CleanupService(Shop shop, int batchSize, Duration awaitOnClose, Path leftoversFile) {
+        this.shop = shop;
+        this.batchSize = Math.max(1, batchSize);
+        this.awaitOnClose = awaitOnClose;
+        this.leftoversFile = leftoversFile;
+        this.worker = new Thread(this::work, "test-data-cleanup");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Cleanup for the configured site, removing data over HTTP
+     * @return Shared service
+     */
+    public static CleanupService shared() {
+        CleanupService service = shared;
+        if (service == null) {
+            synchronized (CleanupService.class) {
+                service = shared;
+                if (service == null) {
+                    String file = ConfigManager.getTestDataCleanupLeftoversFile();
+                    service = new CleanupService(httpShop(), ConfigManager.getTestDataCleanupBatchSize(),
+                            Duration.ofSeconds(ConfigManager.getTestDataCleanupAwaitSeconds()),
+                            file.isBlank() ? null : Paths.get(file));
+                    shared = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    /**
+     * Finish the queued cleanup of the shared service, if it was used
+     */
+    public static void closeShared() {
+        CleanupService service;
+        synchronized (CleanupService.class) {
+            service = shared;
+            shared = null;
+        }
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    /**
+     * Wait for the shared service's queued cleanup of a customer, if the service was used
+     * @param email Customer email
+     * @return true if nothing is left to clean up for the customer; false if still pending at the timeout
+     */
+    public static boolean awaitSharedCustomer(String email) {
+        CleanupService service = shared;
+        return service == null
+                || service.awaitCustomer(email, Duration.ofSeconds(ConfigManager.getTestDataCleanupAwaitSeconds()));
+    }
+
+    private static Shop httpShop() {
+        return (email, password) -> {
+            StateSeeder seeder = StateSeeder.forConfiguredSite();
+            seeder.login(email, password);
+            return new CustomerSession() {
+                @Override
+                public void deleteAddress(String addressId) {
+                    seeder.deleteAddress(addressId);
+                }
+
+                @Override
+                public int deleteAddresses() {
+                    return seeder.deleteAddresses();
+                }
+
+                @Override
+                public int clearCart() {
+                    return seeder.clearCart();
+                }
+            };
+        };
+    }
+
+    /**
+     * Queue a finished test's ledger
+     * @param ledger Entities the test created
+     */
+    public void submit(TestDataLedger ledger) {
+        if (ledger == null || ledger.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            ledger.getCustomers().keySet().forEach(email -> pendingCustomers.merge(email, 1, Integer::sum));
+            if (!closed) {
+                queue.add(ledger);
+                return;
+            }
+        }
+        // Service already closed: clean up on the caller's thread
+        process(List.of(ledger));
+    }
+
+    /**
+     * Wait until the ledgers submitted so far no longer hold cleanup for a customer
+     * @param email Customer email
+     * @param timeout Longest wait
+     * @return true if nothing is left to clean up for the customer; false if still pending at the timeout
+     */
+    public synchronized boolean awaitCustomer(String email, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pendingCustomers.containsKey(email)) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                logger.warn("Cleanup of {} still pending after {}s", email, timeout.toSeconds());
+                return false;
+            }
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void work() {
+        List<TestDataLedger> batch = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            running = !batch.remove(END);
+            if (!batch.isEmpty()) {
+                process(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    private void process(List<TestDataLedger> batch) {
+        batches.incrementAndGet();
+        Map<String, TestDataLedger.CustomerCleanup> customers = new LinkedHashMap<>();
+        Map<String, Integer> ledgersPerCustomer = new HashMap<>();
+        List<String> leftoverLines = new ArrayList<>();
+        for (TestDataLedger ledger : batch) {
+            ledger.getCustomers().forEach((email, cleanup) -> {
+                customers.merge(email, cleanup, (merged, next) -> {
+                    merged.merge(next);
+                    return merged;
+                });
+                ledgersPerCustomer.merge(email, 1, Integer::sum);
+            });
+            for (String account : ledger.getAccounts()) {
+                leftoverLines.add("account," + account + "," + ledger.getTestId());
+            }
+            for (String order : ledger.getOrders()) {
+                leftoverLines.add("order," + order + "," + ledger.getTestId());
+            }
+        }
+        customers.forEach((email, customer) -> {
+            try {
+                clean(customer);
+            } finally {
+                done(email, ledgersPerCustomer.get(email));
+            }
+        });
+        report(leftoverLines);
+        logger.debug("Cleaned up {} tests: {} customers, {} leftovers", batch.size(), customers.size(), leftoverLines.size());
+    }
+
+    private void clean(TestDataLedger.CustomerCleanup customer) {
+        try {
+            CustomerSession session = shop.login(customer.owner.getEmail(), customer.owner.getPassword());
+            logins.incrementAndGet();
+            if (customer.allAddresses) {
+                deletedAddresses.addAndGet(session.deleteAddresses());
+            } else {
+                for (String addressId : customer.addressIds) {
+                    session.deleteAddress(addressId);
+                    deletedAddresses.incrementAndGet();
+                }
+            }
+            if (customer.cart) {
+                removedCartLines.addAndGet(session.clearCart());
+            }
+        } catch (Exception e) {
+            failedCustomers.incrementAndGet();
+            logger.warn("Could not clean up test data of {}: {}", customer.owner.getEmail(), e.getMessage());
+        }
+    }
+
+    private synchronized void done(String email, int ledgers) {
+        pendingCustomers.computeIfPresent(email, (key, pending) -> pending > ledgers ? pending - ledgers : null);
+        notifyAll();
+    }
+
+    private void report(List<String> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        leftovers.addAndGet(lines.size());
+        if (leftoversFile == null) {
+            lines.forEach(line -> logger.debug("Left on the site: {}", line));
+            return;
+        }
+        try {
+            if (leftoversFile.getParent() != null) {
+                Files.createDirectories(leftoversFile.getParent());
+            }
+            // Forks append to the same file; each batch is one write
+            try (Writer writer = Files.newBufferedWriter(leftoversFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(String.join(System.lineSeparator(), lines) + System.lineSeparator());
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write test data leftovers to {}: {}", leftoversFile, e.getMessage());
+        }
+    }
+
+    public int getBatchCount() {
+        return batches.get();
+    }
+
+    public int getLoginCount() {
+        return logins.get();
+    }
+
+    public int getDeletedAddressCount() {
+        return deletedAddresses.get();
+    }
+
+    public int getRemovedCartLineCount() {
+        return removedCartLines.get();
+    }
+
+    public int getFailedCustomerCount() {
+        return failedCustomers.get();
+    }
+
+    public int getLeftoverCount() {
+        return leftovers.get();
+    }
+
+    /**
+     * Stop taking ledgers and wait (bounded) for the queued ones to be cleaned up
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(END);
+        }
+        try {
+            worker.join(awaitOnClose.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            logger.warn("Test data cleanup still running at shutdown, {} tests not cleaned up", queue.size());
+        }
+        logger.info("Test data cleanup: {} addresses deleted, {} cart lines removed, {} customers failed, "
+                        + "{} accounts and orders left on the site{}", deletedAddresses.get(), removedCartLines.get(),
+                failedCustomers.get(), leftovers.get(), leftoversFile == null ? "" : " (see " + leftoversFile + ")");
+    }
+}
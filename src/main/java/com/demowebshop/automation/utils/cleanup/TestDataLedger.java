@@ -0,0 +1,141 @@
+package com.demowebshop.automation.utils.cleanup;
+
+import models.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Entities one test created on the site, handed to the {@link CleanupService} when the test ends
+ * Addresses and cart lines belong to a customer and are removed by logging in as that customer.
+ * Accounts and orders cannot be removed by a customer; they are only reported.
+ * Nothing is removed from an account the test registered itself: no later test uses it.
+ * A ledger is filled by the test's own thread and must not be shared.
+ */
+public class TestDataLedger {
+    private final String testId;
+    private final Map<String, CustomerCleanup> customers = new LinkedHashMap<>();
+    private final List<String> accounts = new ArrayList<>();
+    private final List<String> orders = new ArrayList<>();
+
+    /**
+     * @param testId Test the entities belong to, for logging
+     */
+    public TestDataLedger(String testId) {
+        this.testId = testId;
+    }
+
+    /**
+     * Record a registered account
+     * @param user Account
+     */
+    public void account(User user) {
+        if (!accounts.contains(user.getEmail())) {
+            accounts.add(user.getEmail());
+        }
+        customers.remove(user.getEmail());
+    }
+
+    /**
+     * Record an address whose ID is known
+     * @param owner Customer the address belongs to
+     * @param addressId Address ID
+     */
+    public void address(User owner, String addressId) {
+        if (!isThrowaway(owner)) {
+            customer(owner).addressIds.add(addressId);
+        }
+    }
+
+    /**
+     * Record that addresses were added without knowing their IDs; every address of the customer is removed
+     * @param owner Customer, which must be an account the test owns
+     */
+    public void addresses(User owner) {
+        if (!isThrowaway(owner)) {
+            customer(owner).allAddresses = true;
+        }
+    }
+
+    /**
+     * Use a customer's changed data, e.g. a new password, when cleaning up after them
+     * @param changed Customer with the same email as recorded before
+     */
+    public void update(User changed) {
+        CustomerCleanup customer = customers.get(changed.getEmail());
+        if (customer != null) {
+            customer.owner = changed;
+        }
+    }
+
+    /**
+     * Record that the customer's persistent cart has items
+     * @param owner Customer
+     */
+    public void cart(User owner) {
+        if (!isThrowaway(owner)) {
+            customer(owner).cart = true;
+        }
+    }
+
+    /**
+     * Record a placed order
+     * @param orderNumber Order number shown on the order complete page
+     */
+    public void order(String orderNumber) {
+        orders.add(orderNumber);
+    }
+
+    public String getTestId() {
+        return testId;
+    }
+
+    public boolean isEmpty() {
+        return customers.isEmpty() && accounts.isEmpty() && orders.isEmpty();
+    }
+
+    Map<String, CustomerCleanup> getCustomers() {
+        return customers;
+    }
+
+    List<String> getAccounts() {
+        return Collections.unmodifiableList(accounts);
+    }
+
+    List<String> getOrders() {
+        return Collections.unmodifiableList(orders);
+    }
+
+    private boolean isThrowaway(User owner) {
+        return accounts.contains(owner.getEmail());
+    }
+
+    private CustomerCleanup customer(User owner) {
+        return customers.computeIfAbsent(owner.getEmail(), email -> new CustomerCleanup(owner));
+    }
+
+    /**
+     * What to remove from one customer; several ledgers for the same customer merge into one login
+     */
+    static final class CustomerCleanup {
+        User owner;
+        final Set<String> addressIds = new LinkedHashSet<>();
+        boolean allAddresses;
+        boolean cart;
+
+        CustomerCleanup(User owner) {
+            this.owner = owner;
+        }
+
+        void merge(CustomerCleanup other) {
+            addressIds.addAll(other.addressIds);
+            allAddresses |= other.allAddresses;
+            cart |= other.cart;
+        }
+    }
+}
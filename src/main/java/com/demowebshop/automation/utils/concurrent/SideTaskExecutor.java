@@ -0,0 +1,167 @@
+package com.demowebshop.automation.utils.concurrent;
+
+import com.demowebshop.automation.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Virtual-thread executor for framework side work (artifact compression, report and file writing)
+ * Browser calls stay on the test thread; only the blocking I/O that follows them is handed off, so a
+ * TestNG worker is free for the next browser step instead of waiting on the disk.
+ * Tasks submitted while a {@link TestTaskScope} is open on the calling thread belong to that scope and
+ * are joined when the test ends; the logging thread context (test ID) is copied to every task.
+ */
+public class SideTaskExecutor {
+    private static final Logger logger = LogManager.getLogger(SideTaskExecutor.class);
+    private static final Set<Handle<?>> PENDING = ConcurrentHashMap.newKeySet();
+    private static ExecutorService executor;
+
+    private SideTaskExecutor() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Blocking unit of side work
+     */
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    /**
+     * Run a side task, in the current test's scope if one is open
+     * @param name Task name used in logs
+     * @param task Work to run
+     * @return Future completed when the task is done
+     */
+    public static CompletableFuture<Void> execute(String name, Task task) {
+        return submit(name, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Submit a side task, in the current test's scope if one is open
+     * @param name Task name used in logs
+     * @param task Work to run
+     * @return Future with the task result; failures are logged and complete it exceptionally
+     */
+    public static <T> CompletableFuture<T> submit(String name, Callable<T> task) {
+        TestTaskScope scope = TestTaskScope.current();
+        if (scope != null) {
+            return scope.fork(name, task);
+        }
+        return start(name, task).result();
+    }
+
+    static <T> Handle<T> start(String name, Callable<T> task) {
+        Map<String, String> context = ThreadContext.getImmutableContext();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Handle<T> handle = new Handle<>(name, result);
+        PENDING.add(handle);
+        result.whenComplete((value, error) -> PENDING.remove(handle));
+
+        handle.execution = getExecutor().submit(() -> {
+            ThreadContext.putAll(context);
+            try {
+                result.complete(task.call());
+            } catch (Throwable t) {
+                if (!(t instanceof InterruptedException)) {
+                    logger.warn("Side task '{}' failed: {}", name, t.getMessage());
+                }
+                result.completeExceptionally(t);
+            } finally {
+                ThreadContext.clearMap();
+            }
+        });
+        return handle;
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("side-task-", 0).factory());
+        }
+        return executor;
+    }
+
+    /**
+     * Number of side tasks submitted but not finished yet
+     * @return Pending task count
+     */
+    public static int getPendingCount() {
+        return PENDING.size();
+    }
+
+    /**
+     * Wait for all outstanding side tasks and shut the executor down
+     * Tasks still running after side.tasks.shutdown.timeout.seconds are interrupted.
+     * A later submission starts a new executor, so this is safe to call once per suite.
+     */
+    public static void shutdown() {
+        shutdown(Duration.ofSeconds(ConfigManager.getSideTaskShutdownTimeoutSeconds()));
+    }
+
+    /**
+     * Wait for all outstanding side tasks and shut the executor down
+     * @param timeout How long to wait before interrupting the remaining tasks
+     */
+    public static void shutdown(Duration timeout) {
+        ExecutorService current;
+        synchronized (SideTaskExecutor.class) {
+            current = executor;
+            executor = null;
+        }
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("{} side task(s) still running after {}s, interrupting", PENDING.size(), timeout.toSeconds());
+                PENDING.forEach(Handle::cancel);
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * One submitted side task: the caller's future plus the execution that can be interrupted
+     */
+    static final class Handle<T> {
+        private final String name;
+        private final CompletableFuture<T> result;
+        private volatile Future<?> execution;
+
+        private Handle(String name, CompletableFuture<T> result) {
+            this.name = name;
+            this.result = result;
+        }
+
+        String name() { return name; }
+        CompletableFuture<T> result() { return result; }
+
+        void cancel() {
+            Future<?> running = execution;
+            if (running != null) {
+                running.cancel(true);
+            }
+            result.cancel(false);
+        }
+    }
+}
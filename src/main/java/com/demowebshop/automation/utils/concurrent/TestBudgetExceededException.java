@@ -0,0 +1,15 @@
+package com.demowebshop.automation.utils.concurrent;
+
+import org.openqa.selenium.TimeoutException;
+
+/**
+ * Thrown when a wait or browser action would run past the time budget of the current test
+ * Extends the Selenium TimeoutException so existing wait error handling treats it as a timeout.
+ */
+public class TestBudgetExceededException extends TimeoutException {
+    private static final long serialVersionUID = 1L;
+
+    public TestBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,142 @@
+package com.demowebshop.automation.utils.concurrent;
+
+import com.demowebshop.automation.config.ConfigManager;
+
+import java.time.Duration;
+
+/**
+ * Time budget of the test running on the current thread
+ * BaseTest starts the deadline before setup and clears it after teardown. Waits ask for
+ * {@link #cap(Duration)} instead of using their fixed timeout, so nested waits share one budget and
+ * the test fails when the budget is spent instead of stacking per-call timeouts.
+ * Without a bound deadline (framework code used outside a test) timeouts are passed through unchanged.
+ */
+public final class TestDeadline {
+    private static final ThreadLocal<TestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final String testName;
+    private final Duration budget;
+    private final long deadlineNanos;
+
+    private TestDeadline(String testName, Duration budget) {
+        this.testName = testName;
+        this.budget = budget;
+        this.deadlineNanos = System.nanoTime() + budget.toNanos();
+    }
+
+    /**
+     * Bind a deadline to the current thread
+     * @param testName Test name used in failure messages
+     * @param budget Time the test may take; zero or negative clears the deadline
+     */
+    public static void start(String testName, Duration budget) {
+        if (budget.isZero() || budget.isNegative()) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(new TestDeadline(testName, budget));
+        }
+    }
+
+    /**
+     * Bind the configured budget (test.budget.seconds) to the current thread
+     * @param testName Test name used in failure messages
+     */
+    public static void start(String testName) {
+        start(testName, Duration.ofSeconds(ConfigManager.getTestBudgetSeconds()));
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Time left for the current test
+     * @return Remaining budget (negative once exceeded), or null if no deadline is bound
+     */
+    public static Duration remaining() {
+        TestDeadline deadline = CURRENT.get();
+        return deadline == null ? null : Duration.ofNanos(deadline.deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * Whether the budget of the current test is spent
+     * @return true if a deadline is bound and has passed
+     */
+    public static boolean isExpired() {
+        TestDeadline deadline = CURRENT.get();
+        return deadline != null && System.nanoTime() - deadline.deadlineNanos >= 0;
+    }
+
+    /**
+     * Limit a timeout to the remaining budget
+     * @param timeout Timeout the caller would use on its own
+     * @return The smaller of the timeout and the remaining budget
+     * @throws TestBudgetExceededException if the budget is already spent
+     */
+    public static Duration cap(Duration timeout) {
+        TestDeadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return timeout;
+        }
+        Duration remaining = Duration.ofNanos(deadline.deadlineNanos - System.nanoTime());
+        if (remaining.isNegative() || remaining.isZero()) {
+            throw deadline.exceededBefore(null);
+        }
+        return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+
+    /**
+     * Limit a fixed pause to the remaining budget
+     * @param millis Pause the caller would take on its own
+     * @return The smaller of the pause and the remaining budget, in milliseconds
+     * @throws TestBudgetExceededException if the budget is already spent
+     */
+    public static long capMillis(long millis) {
+        return cap(Duration.ofMillis(millis)).toMillis();
+    }
+
+    /**
+     * Sleep for a fixed pause, cut short at the end of the budget
+     * @param millis Pause the caller would take on its own
+     * @throws TestBudgetExceededException if the budget is already spent
+     * @throws InterruptedException if the thread is interrupted while sleeping
+     */
+    public static void sleep(long millis) throws InterruptedException {
+        Thread.sleep(cap(Duration.ofMillis(millis)));
+    }
+
+    /**
+     * Fail if the budget of the current test is spent
+     * @param action What was about to run, for the failure message
+     */
+    public static void check(String action) {
+        if (isExpired()) {
+            throw CURRENT.get().exceededBefore(action);
+        }
+    }
+
+    /**
+     * Exception for a wait that ran into the budget of the current test
+     * @param cause Timeout of the capped wait
+     * @return Exception to throw
+     */
+    public static TestBudgetExceededException exceeded(Throwable cause) {
+        TestDeadline deadline = CURRENT.get();
+        TestBudgetExceededException exception = deadline == null
+                ? new TestBudgetExceededException("Test time budget exceeded")
+                : deadline.exceededBefore(null);
+        if (cause != null) {
+            exception.initCause(cause);
+        }
+        return exception;
+    }
+
+    private TestBudgetExceededException exceededBefore(String action) {
+        return new TestBudgetExceededException(String.format("Test %s exceeded its time budget of %ds%s",
+                testName, budget.getSeconds(), action == null ? "" : " before: " + action));
+    }
+}
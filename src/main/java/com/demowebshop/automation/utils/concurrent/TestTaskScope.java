@@ -0,0 +1,130 @@
+package com.demowebshop.automation.utils.concurrent;
+
+import com.demowebshop.automation.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Structured scope for the side tasks of one test
+ * Opened on the test thread when the test starts and closed when it ends: closing waits for every
+ * task forked in the scope (up to side.tasks.join.timeout.seconds) and interrupts the stragglers,
+ * so no side work of a test outlives it or leaks into the next test on the same thread.
+ */
+public final class TestTaskScope implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(TestTaskScope.class);
+    private static final ThreadLocal<TestTaskScope> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final List<SideTaskExecutor.Handle<?>> tasks = new ArrayList<>();
+    private boolean closed;
+
+    private TestTaskScope(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Open a scope on the current thread, closing a scope left open by a previous test
+     * @param name Scope name, usually the test ID
+     * @return Opened scope
+     */
+    public static TestTaskScope open(String name) {
+        closeCurrent();
+        TestTaskScope scope = new TestTaskScope(name);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Get the scope open on the current thread
+     * @return Scope or null if none is open
+     */
+    public static TestTaskScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Close the scope open on the current thread, if any
+     */
+    public static void closeCurrent() {
+        TestTaskScope scope = CURRENT.get();
+        if (scope != null) {
+            CURRENT.remove();
+            scope.close();
+        }
+    }
+
+    /**
+     * Fork a side task into this scope
+     * @param taskName Task name used in logs
+     * @param task Work to run
+     * @return Future with the task result
+     */
+    public synchronized <T> CompletableFuture<T> fork(String taskName, Callable<T> task) {
+        if (closed) {
+            throw new IllegalStateException("Task scope " + name + " is already closed");
+        }
+        SideTaskExecutor.Handle<T> handle = SideTaskExecutor.start(taskName, task);
+        tasks.add(handle);
+        return handle.result();
+    }
+
+    /**
+     * Wait for all tasks of the scope, interrupting the ones still running at the deadline
+     * @param timeout Maximum time to wait for all tasks together
+     * @return Number of tasks that failed or were interrupted
+     */
+    public int join(Duration timeout) {
+        List<SideTaskExecutor.Handle<?>> forked;
+        synchronized (this) {
+            forked = new ArrayList<>(tasks);
+            tasks.clear();
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        int failed = 0;
+        for (SideTaskExecutor.Handle<?> handle : forked) {
+            try {
+                handle.result().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                logger.warn("Side task '{}' of {} did not finish within {}s, interrupting", handle.name(), name,
+                        timeout.toSeconds());
+                handle.cancel();
+                failed++;
+            } catch (ExecutionException | CancellationException e) {
+                failed++;
+            } catch (InterruptedException e) {
+                forked.forEach(SideTaskExecutor.Handle::cancel);
+                Thread.currentThread().interrupt();
+                return failed + 1;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Join all tasks and reject further forks
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        int failed = join(Duration.ofSeconds(ConfigManager.getSideTaskJoinTimeoutSeconds()));
+        if (failed > 0) {
+            logger.warn("{} side task(s) of {} failed or were interrupted", failed, name);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+}
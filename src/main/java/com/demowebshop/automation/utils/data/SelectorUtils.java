@@ -1,5 +1,6 @@
 package com.demowebshop.automation.utils.data;
 
+import com.demowebshop.automation.utils.impact.ImpactTracer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
@@ -67,6 +68,7 @@ public class SelectorUtils {
      */
     private static JsonNode getSelectorConfig(String selectorType, String elementPath) {
         JsonNode selectors = loadSelectors(selectorType);
+        ImpactTracer.recordSelector(SELECTOR_FILES.get(selectorType), elementPath);
         JsonNode element = selectors;
 
         // Navigate through the JSON path (e.g., homepage.header.login_link)
@@ -0,0 +1,341 @@
+package com.demowebshop.automation.utils.fork;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parent side of a forked run: hands out test classes to worker JVMs over a localhost socket and
+ * collects their results
+ * Each fork asks for the pending classes in the given (longest-first) order and runs them as one
+ * suite, claiming every class just before it starts; a class already claimed by another fork is
+ * skipped, so a fork that finishes its class early simply claims the next one. When a worker
+ * disconnects in the middle of a class (JVM crash, browser taking the process down), the class is
+ * queued again for another fork until max attempts is reached; after that it is reported as failed.
+ *
+ * Protocol (UTF-8 lines, tab separated):
+ * <pre>
+ *   worker -> parent   HELLO &lt;fork&gt; | ORDER | CLAIM &lt;class&gt;
+ *                      | TEST &lt;status&gt; &lt;millis&gt; &lt;method key&gt; &lt;message&gt; | CLASS_DONE &lt;class&gt;
+ *   parent -> worker   ORDER &lt;class&gt;... | RUN &lt;class&gt; | SKIP
+ * </pre>
+ */
+public class ForkCoordinator implements Closeable {
+    private static final Logger logger = LogManager.getLogger(ForkCoordinator.class);
+
+    static final String HELLO = "HELLO";
+    static final String ORDER = "ORDER";
+    static final String CLAIM = "CLAIM";
+    static final String RUN = "RUN";
+    static final String SKIP = "SKIP";
+    static final String TEST = "TEST";
+    static final String CLASS_DONE = "CLASS_DONE";
+
+    private final int totalClasses;
+    private final int maxAttempts;
+    private final Deque<String> pending;
+    private final Map<String, Integer> attempts = new HashMap<>();
+    private final Set<String> inFlight = new LinkedHashSet<>();
+    private final Set<String> finishedClasses = new LinkedHashSet<>();
+    private final List<Outcome> outcomes = new ArrayList<>();
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private ServerSocket serverSocket;
+
+    /**
+     * @param testClasses Classes to run, in hand-out order
+     * @param maxAttempts Forks a class may be started on before it is given up
+     */
+    public ForkCoordinator(List<String> testClasses, int maxAttempts) {
+        this.pending = new ArrayDeque<>(new LinkedHashSet<>(testClasses));
+        this.totalClasses = pending.size();
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * Start accepting workers on a free localhost port
+     * @return Port workers connect to
+     */
+    public int start() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptWorkers, "fork-coordinator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        logger.info("Fork coordinator listening on port {} with {} test classes", serverSocket.getLocalPort(), totalClasses);
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptWorkers() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            } catch (SocketException e) {
+                return; // closed
+            } catch (IOException e) {
+                logger.warn("Failed to accept fork connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        String fork = "?";
+        String currentClass = null;
+        List<Outcome> classOutcomes = new ArrayList<>();
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                switch (fields[0]) {
+                    case HELLO -> fork = fields[1];
+                    case ORDER -> {
+                        List<String> order = new ArrayList<>(List.of(ORDER));
+                        order.addAll(pendingClasses());
+                        out.println(String.join("\t", order));
+                    }
+                    case CLAIM -> {
+                        // A fork runs one class at a time
+                        boolean granted = currentClass == null && claim(fields[1]);
+                        out.println(granted ? RUN + "\t" + fields[1] : SKIP);
+                        if (granted) {
+                            currentClass = fields[1];
+                            logger.info("Fork {} runs {}", fork, currentClass);
+                        }
+                    }
+                    case TEST -> classOutcomes.add(new Outcome(fields[3], Outcome.Status.valueOf(fields[1]),
+                            Long.parseLong(fields[2]), fields.length > 4 ? fields[4] : "", fork));
+                    case CLASS_DONE -> {
+                        finish(fields[1], classOutcomes);
+                        currentClass = null;
+                        classOutcomes = new ArrayList<>();
+                    }
+                    default -> logger.warn("Fork {} sent an unknown message: {}", fork, line);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Connection to fork {} failed: {}", fork, e.getMessage());
+        }
+        if (currentClass != null) {
+            retryOrFail(currentClass, classOutcomes, fork);
+        }
+    }
+
+    /**
+     * Classes not yet claimed, in hand-out order; waits while none are left but classes are still
+     * running elsewhere, since those may come back if their fork dies
+     */
+    private synchronized List<String> pendingClasses() {
+        while (pending.isEmpty() && !inFlight.isEmpty()) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return new ArrayList<>(pending);
+    }
+
+    /**
+     * Take a class for a fork
+     * @param testClass Class the fork is about to run
+     * @return false if the class is not pending (claimed by another fork, finished, or unknown)
+     */
+    private synchronized boolean claim(String testClass) {
+        if (!pending.remove(testClass)) {
+            return false;
+        }
+        inFlight.add(testClass);
+        attempts.merge(testClass, 1, Integer::sum);
+        return true;
+    }
+
+    /**
+     * @return true if classes are waiting for a fork, e.g. the class of a fork that died
+     */
+    public synchronized boolean hasPendingClasses() {
+        return !pending.isEmpty();
+    }
+
+    private synchronized void finish(String testClass, List<Outcome> classOutcomes) {
+        inFlight.remove(testClass);
+        finishedClasses.add(testClass);
+        outcomes.addAll(classOutcomes);
+        notifyAll();
+    }
+
+    private synchronized void retryOrFail(String testClass, List<Outcome> partialOutcomes, String fork) {
+        inFlight.remove(testClass);
+        if (attempts.getOrDefault(testClass, 0) < maxAttempts) {
+            logger.warn("Fork {} died while running {}, handing the class to another fork", fork, testClass);
+            pending.addFirst(testClass);
+        } else {
+            logger.error("Fork {} died while running {}, giving up after {} attempts", fork, testClass, maxAttempts);
+            finishedClasses.add(testClass);
+            outcomes.addAll(partialOutcomes);
+            outcomes.add(new Outcome(testClass + ".forkCrashed", Outcome.Status.FAILED, 0,
+                    "Fork JVM exited while running the class", fork));
+        }
+        notifyAll();
+    }
+
+    /**
+     * Wait until every class has finished
+     * @param timeout Maximum wait
+     * @return true if all classes finished in time
+     */
+    public synchronized boolean awaitCompletion(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (finishedClasses.size() < totalClasses) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                return false;
+            }
+            wait(remainingMillis);
+        }
+        return true;
+    }
+
+    /**
+     * Report every class that has not finished as failed, e.g. after all forks exited or the run timed out
+     * @param reason Failure message
+     */
+    public synchronized void abandonRemaining(String reason) {
+        List<String> remaining = new ArrayList<>(inFlight);
+        remaining.addAll(pending);
+        for (String testClass : remaining) {
+            finishedClasses.add(testClass);
+            outcomes.add(new Outcome(testClass + ".notRun", Outcome.Status.FAILED, 0, reason, "-"));
+        }
+        inFlight.clear();
+        pending.clear();
+        notifyAll();
+        if (!remaining.isEmpty()) {
+            logger.error("{} test classes did not finish: {}", remaining.size(), reason);
+        }
+    }
+
+    public synchronized List<Outcome> getOutcomes() {
+        return Collections.unmodifiableList(new ArrayList<>(outcomes));
+    }
+
+    public synchronized Set<String> getFinishedClasses() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(finishedClasses));
+    }
+
+    public synchronized long count(Outcome.Status status) {
+        return outcomes.stream().filter(outcome -> outcome.getStatus() == status).count();
+    }
+
+    /**
+     * Write the merged results of all forks as one JUnit XML report
+     * @param file Report file
+     */
+    public void writeJUnitReport(Path file) throws IOException {
+        List<Outcome> merged = getOutcomes();
+        Map<String, List<Outcome>> byClass = new LinkedHashMap<>();
+        long totalMillis = 0;
+        for (Outcome outcome : merged) {
+            byClass.computeIfAbsent(outcome.getClassName(), key -> new ArrayList<>()).add(outcome);
+            totalMillis += outcome.getDurationMillis();
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write(String.format("<testsuite name=\"forked\" tests=\"%d\" failures=\"%d\" skipped=\"%d\" errors=\"0\" time=\"%.3f\">%n",
+                    merged.size(), count(Outcome.Status.FAILED), count(Outcome.Status.SKIPPED), totalMillis / 1000.0));
+            for (Map.Entry<String, List<Outcome>> entry : byClass.entrySet()) {
+                for (Outcome outcome : entry.getValue()) {
+                    writer.write(String.format("  <testcase classname=\"%s\" name=\"%s\" time=\"%.3f\">%n",
+                            escape(entry.getKey()), escape(outcome.getMethodName()), outcome.getDurationMillis() / 1000.0));
+                    if (outcome.getStatus() == Outcome.Status.FAILED) {
+                        writer.write("    <failure message=\"" + escape(outcome.getMessage()) + "\"/>\n");
+                    } else if (outcome.getStatus() == Outcome.Status.SKIPPED) {
+                        writer.write("    <skipped message=\"" + escape(outcome.getMessage()) + "\"/>\n");
+                    }
+                    writer.write("    <system-out>fork " + escape(outcome.getFork()) + "</system-out>\n");
+                    writer.write("  </testcase>\n");
+                }
+            }
+            writer.write("</testsuite>\n");
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        connections.shutdownNow();
+    }
+
+    /**
+     * Result of one test invocation in a fork
+     */
+    public static final class Outcome {
+        public enum Status { PASSED, FAILED, SKIPPED }
+
+        private final String testKey;
+        private final Status status;
+        private final long durationMillis;
+        private final String message;
+        private final String fork;
+
+        public Outcome(String testKey, Status status, long durationMillis, String message, String fork) {
+            this.testKey = testKey;
+            this.status = status;
+            this.durationMillis = durationMillis;
+            this.message = message == null ? "" : message;
+            this.fork = fork;
+        }
+
+        public String getTestKey() { return testKey; }
+        public Status getStatus() { return status; }
+        public long getDurationMillis() { return durationMillis; }
+        public String getMessage() { return message; }
+        public String getFork() { return fork; }
+
+        public String getClassName() {
+            int separator = testKey.lastIndexOf('.');
+            return separator < 0 ? testKey : testKey.substring(0, separator);
+        }
+
+        public String getMethodName() {
+            return testKey.substring(testKey.lastIndexOf('.') + 1);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.demowebshop.automation.utils.fork;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.history.ResultsStore;
+import com.demowebshop.automation.utils.retry.FlakinessStats;
+import com.demowebshop.automation.utils.sharding.ShardSuiteGenerator;
+import com.demowebshop.automation.utils.sharding.TestDurationHistory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.xml.XmlSuite;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs a suite in N child JVMs ("forks") that claim test classes from this process one at a time
+ * A single JVM tops out well below a 24-core agent (one Selenide configuration, one GC, shared
+ * locks); forks scale out instead. Each fork runs one suite, has its own browsers and session pool,
+ * its own reports, metrics and failure artifacts under &lt;out&gt;/fork-&lt;i&gt;, and the same results.run.id,
+ * so the results store sees one run. Classes are handed out longest-first from the duration
+ * history; when a fork dies, a new fork takes over the class it left behind. The merged outcome of
+ * all forks is written to &lt;out&gt;/merged/TEST-forked.xml, next to the per-class JUnit reports and the
+ * flakiness statistics of all forks.
+ *
+ * Usage (test classes must be on the classpath):
+ * <pre>
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.demowebshop.automation.utils.fork.ForkRunner \
+ *     -Dexec.args="--suite src/test/resources/config/testng-complete.xml --forks 6"
+ * </pre>
+ * Configuration keys given as -D options are passed on to every fork. Exits non-zero when a test failed.
+ */
+public class ForkRunner {
+    private static final Logger logger = LogManager.getLogger(ForkRunner.class);
+
+    private ForkRunner() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArguments(args);
+        Path suiteFile = Paths.get(options.getOrDefault("suite", "src/test/resources/config/testng-complete.xml"));
+        int forks = Integer.parseInt(options.getOrDefault("forks", String.valueOf(ConfigManager.getForkCount())));
+        Path outputDirectory = Paths.get(options.getOrDefault("out", "target/forks"));
+        TestDurationHistory history = options.containsKey("history")
+                ? TestDurationHistory.load(Paths.get(options.get("history"))) : ResultsStore.plannedDurations();
+
+        List<String> classes = orderClasses(ShardSuiteGenerator.loadSuite(suiteFile), history);
+        forks = Math.max(1, Math.min(forks, classes.size()));
+        logger.info("Running {} test classes of {} in {} forks", classes.size(), suiteFile, forks);
+
+        boolean passed;
+        try (ForkCoordinator coordinator = new ForkCoordinator(classes, ConfigManager.getForkMaxClassAttempts())) {
+            int port = coordinator.start();
+            int forkCount = forks;
+            List<Path> forkDirectories = new ArrayList<>();
+            ForkLauncher launcher = fork -> {
+                forkDirectories.add(outputDirectory.resolve("fork-" + fork));
+                return launch(fork, forkCount, port, suiteFile, outputDirectory);
+            };
+            List<Process> processes = new ArrayList<>();
+            for (int fork = 1; fork <= forks; fork++) {
+                processes.add(launcher.launch(fork));
+            }
+            passed = awaitForks(coordinator, processes, launcher, Duration.ofMinutes(ConfigManager.getForkTimeoutMinutes()));
+
+            Path report = outputDirectory.resolve("merged").resolve("TEST-forked.xml");
+            coordinator.writeJUnitReport(report);
+            mergeForkReports(forkDirectories, outputDirectory.resolve("merged"));
+            logger.info("Forked run finished: {} passed, {} failed, {} skipped; merged report {}",
+                    coordinator.count(ForkCoordinator.Outcome.Status.PASSED),
+                    coordinator.count(ForkCoordinator.Outcome.Status.FAILED),
+                    coordinator.count(ForkCoordinator.Outcome.Status.SKIPPED), report);
+            passed = passed && coordinator.count(ForkCoordinator.Outcome.Status.FAILED) == 0;
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Classes of a suite, longest first by the summed duration estimate of their methods
+     * @param suite Base suite
+     * @param history Duration history
+     * @return Class names in hand-out order
+     */
+    public static List<String> orderClasses(XmlSuite suite, TestDurationHistory history) {
+        Map<String, Long> estimates = new LinkedHashMap<>();
+        for (String methodKey : ShardSuiteGenerator.collectMethods(suite)) {
+            estimates.merge(methodKey.substring(0, methodKey.lastIndexOf('.')), history.estimate(methodKey), Long::sum);
+        }
+        return estimates.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static Process launch(int fork, int forkCount, int port, Path suiteFile, Path outputDirectory)
+            throws Exception {
+        Path forkDirectory = outputDirectory.resolve("fork-" + fork);
+        Files.createDirectories(forkDirectory);
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(classpath());
+        Map<String, String> properties = ConfigManager.getSystemPropertyOverrides();
+        // The whole suite is the unit of work here, a shard filter inside a fork would drop classes
+        properties.keySet().removeIf(key -> key.startsWith("shard."));
+        properties.put("fork.index", String.valueOf(fork));
+        properties.put("fork.count", String.valueOf(forkCount));
+        properties.put("results.run.id", ConfigManager.getResultsRunId());
+        properties.put("metrics.textfile.path", forkDirectory.resolve("metrics.prom").toString());
+        properties.put("metrics.http.port", "0");
+        properties.put("report.failure.artifacts.dir", forkDirectory.resolve("failure-artifacts").toString());
+        properties.put("retry.flakiness.report.file", forkDirectory.resolve("flakiness.json").toString());
+        properties.put("performance.report.dir", forkDirectory.resolve("performance").toString());
+        properties.forEach((key, value) -> command.add("-D" + key + "=" + value));
+        command.add(ForkWorker.class.getName());
+        command.addAll(List.of("--port", String.valueOf(port), "--fork", String.valueOf(fork),
+                "--suite", suiteFile.toString(), "--out", forkDirectory.toString()));
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(forkDirectory.resolve("fork.log").toFile());
+        // The reporting configuration reads its properties file before system properties
+        builder.environment().put("REPORTS_PATH", forkDirectory.resolve("reports").toString());
+        logger.info("Starting fork {} (log: {})", fork, forkDirectory.resolve("fork.log"));
+        return builder.start();
+    }
+
+    @FunctionalInterface
+    private interface ForkLauncher {
+        Process launch(int fork) throws Exception;
+    }
+
+    private static boolean awaitForks(ForkCoordinator coordinator, List<Process> processes, ForkLauncher launcher,
+                                      Duration timeout) throws Exception {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        // Forks that die during a class leave it pending; each class is retried at most max-attempts times
+        int replacementsLeft = processes.size() * ConfigManager.getForkMaxClassAttempts();
+        int nextFork = processes.size() + 1;
+        while (!coordinator.awaitCompletion(Duration.ofSeconds(5))) {
+            for (int i = 0; i < processes.size() && replacementsLeft > 0; i++) {
+                if (!processes.get(i).isAlive() && coordinator.hasPendingClasses()) {
+                    logger.warn("Fork exited with classes left, starting fork {} in its place", nextFork);
+                    processes.set(i, launcher.launch(nextFork++));
+                    replacementsLeft--;
+                }
+            }
+            if (processes.stream().noneMatch(Process::isAlive)) {
+                coordinator.abandonRemaining("All forks exited before the class ran");
+                return false;
+            }
+            if (System.nanoTime() > deadline) {
+                processes.forEach(Process::destroyForcibly);
+                coordinator.abandonRemaining("Forked run exceeded " + timeout.toMinutes() + " minutes");
+                return false;
+            }
+        }
+        for (Process process : processes) {
+            if (!process.waitFor(60, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collect the per-fork reports next to the merged outcome: TestNG's per-class JUnit reports and the
+     * flakiness statistics (summed per test)
+     * @param forkDirectories Output directories of the forks, in start order
+     * @param mergedDirectory Target directory
+     */
+    static void mergeForkReports(List<Path> forkDirectories, Path mergedDirectory) throws IOException {
+        Path junitReports = Files.createDirectories(mergedDirectory.resolve("junitreports"));
+        List<Path> flakinessFiles = new ArrayList<>();
+        for (Path forkDirectory : forkDirectories) {
+            Path forkReports = forkDirectory.resolve("testng").resolve("junitreports");
+            if (Files.isDirectory(forkReports)) {
+                try (Stream<Path> reports = Files.list(forkReports)) {
+                    for (Path report : (Iterable<Path>) reports::iterator) {
+                        Files.copy(report, junitReports.resolve(report.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+            }
+            flakinessFiles.add(forkDirectory.resolve("flakiness.json"));
+        }
+        FlakinessStats.merge(flakinessFiles, mergedDirectory.resolve("flakiness.json"));
+        logger.info("Merged the reports of {} forks into {}", forkDirectories.size(), mergedDirectory);
+    }
+
+    /**
+     * Classpath for the forks: the project classpath of the exec:java class loader when there is one,
+     * otherwise the classpath this JVM was started with
+     */
+    private static String classpath() throws Exception {
+        if (Thread.currentThread().getContextClassLoader() instanceof URLClassLoader loader
+                && loader.getURLs().length > 0) {
+            List<String> entries = new ArrayList<>();
+            for (URL url : loader.getURLs()) {
+                entries.add(Paths.get(url.toURI()).toString());
+            }
+            return String.join(File.pathSeparator, entries);
+        }
+        return System.getProperty("java.class.path");
+    }
+
+    private static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(name, hasValue ? args[++i] : "true");
+        }
+        return options;
+    }
+}
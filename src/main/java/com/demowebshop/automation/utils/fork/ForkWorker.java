@@ -0,0 +1,312 @@
+package com.demowebshop.automation.utils.fork;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.history.ResultsStore;
+import com.demowebshop.automation.utils.sharding.LongestFirstExecutorFactory;
+import com.demowebshop.automation.utils.sharding.ShardSuiteGenerator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.xml.XmlSuite;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Child side of a forked run: runs the pending test classes as one TestNG suite in this JVM
+ * The suite has one &lt;test&gt; per class, built from the base suite (listeners, parameters, thread count),
+ * and each class is claimed from the coordinator when its &lt;test&gt; starts; classes other forks got
+ * first are left out. Suite setup and teardown (stand-in shop, replay proxy, browsers) therefore run
+ * once per fork, and browsers, the session pool and all other per-JVM state belong to this fork only.
+ * Started by {@link ForkRunner}; not meant to be launched by hand.
+ */
+public class ForkWorker {
+    private static final Logger logger = LogManager.getLogger(ForkWorker.class);
+
+    /**
+     * Runs the given classes as one suite, claiming each just before it starts
+     */
+    @FunctionalInterface
+    public interface SuiteRunner {
+        void run(List<String> testClasses, ClassClaims claims) throws Exception;
+    }
+
+    /**
+     * Coordinator side of a fork's classes
+     */
+    public interface ClassClaims {
+        /**
+         * Claim a class just before it starts
+         * @param testClass Class name
+         * @return false if another fork has it, the class must then be left out
+         */
+        boolean claim(String testClass) throws IOException;
+
+        /**
+         * Report the invocations of a claimed class once it has finished
+         * @param testClass Class name
+         * @param outcomes Final outcome of every invocation
+         */
+        void finish(String testClass, List<ForkCoordinator.Outcome> outcomes);
+    }
+
+    private ForkWorker() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArguments(args);
+        String fork = options.getOrDefault("fork", "1");
+        Path suiteFile = Paths.get(options.getOrDefault("suite", "src/test/resources/config/testng-complete.xml"));
+        Path outputDirectory = Paths.get(options.getOrDefault("out", "target/forks/fork-" + fork));
+
+        int classes = run(Integer.parseInt(options.get("port")), fork, new TestNGSuiteRunner(suiteFile, outputDirectory));
+        logger.info("Fork {} finished after {} test classes", fork, classes);
+        // Browser and HTTP client threads may still linger; the coordinator already has all results
+        System.exit(0);
+    }
+
+    /**
+     * Run the classes the coordinator has pending as one suite
+     * @param port Coordinator port on localhost
+     * @param fork Fork identifier reported with every result
+     * @param runner Runs the suite
+     * @return Number of classes finished in this fork
+     */
+    public static int run(int port, String fork, SuiteRunner runner) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            out.println(ForkCoordinator.HELLO + "\t" + fork);
+            out.println(ForkCoordinator.ORDER);
+            String reply = in.readLine();
+            if (reply == null || !reply.startsWith(ForkCoordinator.ORDER)) {
+                return 0;
+            }
+            List<String> order = reply.equals(ForkCoordinator.ORDER) ? List.of()
+                    : List.of(reply.substring(ForkCoordinator.ORDER.length() + 1).split("\t"));
+
+            CoordinatorConnection connection = new CoordinatorConnection(in, out, fork);
+            try {
+                runner.run(order, connection);
+                connection.failClaimed("Class did not finish in the suite of fork " + fork);
+            } catch (Exception e) {
+                logger.error("Fork {} could not run its suite", fork, e);
+                // Failing what this fork can still claim keeps replacement forks from breaking the same way
+                connection.failClaimed(String.valueOf(e));
+                for (String testClass : order) {
+                    if (connection.claim(testClass)) {
+                        connection.failClaimed(String.valueOf(e));
+                    }
+                }
+            }
+            return connection.getFinishedClasses();
+        }
+    }
+
+    private static String singleLine(String message) {
+        String line = message.replaceAll("[\\t\\r\\n]+", " ");
+        return line.length() > 1000 ? line.substring(0, 1000) : line;
+    }
+
+    private static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(name, hasValue ? args[++i] : "true");
+        }
+        return options;
+    }
+
+    /**
+     * Claims and results of one fork, sent over its coordinator connection
+     */
+    private static final class CoordinatorConnection implements ClassClaims {
+        private final BufferedReader in;
+        private final PrintWriter out;
+        private final String fork;
+        private String claimed;
+        private int finishedClasses;
+
+        private CoordinatorConnection(BufferedReader in, PrintWriter out, String fork) {
+            this.in = in;
+            this.out = out;
+            this.fork = fork;
+        }
+
+        @Override
+        public synchronized boolean claim(String testClass) throws IOException {
+            out.println(ForkCoordinator.CLAIM + "\t" + testClass);
+            String reply = in.readLine();
+            if (reply == null) {
+                throw new IOException("Coordinator closed the connection");
+            }
+            if (!reply.equals(ForkCoordinator.RUN + "\t" + testClass)) {
+                return false;
+            }
+            claimed = testClass;
+            return true;
+        }
+
+        @Override
+        public synchronized void finish(String testClass, List<ForkCoordinator.Outcome> outcomes) {
+            for (ForkCoordinator.Outcome outcome : outcomes) {
+                out.println(String.join("\t", ForkCoordinator.TEST, outcome.getStatus().name(),
+                        String.valueOf(outcome.getDurationMillis()), outcome.getTestKey(), singleLine(outcome.getMessage())));
+            }
+            out.println(ForkCoordinator.CLASS_DONE + "\t" + testClass);
+            if (testClass.equals(claimed)) {
+                claimed = null;
+            }
+            finishedClasses++;
+        }
+
+        /**
+         * Report the class this fork claimed but did not finish as failed
+         * @param message Failure message
+         */
+        synchronized void failClaimed(String message) {
+            if (claimed != null) {
+                finish(claimed, List.of(new ForkCoordinator.Outcome(claimed + ".classSetup",
+                        ForkCoordinator.Outcome.Status.FAILED, 0, message, fork)));
+            }
+        }
+
+        synchronized int getFinishedClasses() {
+            return finishedClasses;
+        }
+    }
+
+    /**
+     * Runs classes with programmatic TestNG, using the settings and listeners of a base suite
+     */
+    public static final class TestNGSuiteRunner implements SuiteRunner {
+        private final XmlSuite baseSuite;
+        private final Map<String, List<String>> methodsByClass = new LinkedHashMap<>();
+        private final Path outputDirectory;
+        private final LongestFirstExecutorFactory executorFactory;
+
+        public TestNGSuiteRunner(Path suiteFile, Path outputDirectory) throws IOException {
+            this.baseSuite = ShardSuiteGenerator.loadSuite(suiteFile);
+            this.outputDirectory = outputDirectory;
+            this.executorFactory = new LongestFirstExecutorFactory(ResultsStore.plannedDurations());
+            int threads = ConfigManager.getForkThreadCount();
+            if (threads > 0) {
+                baseSuite.setThreadCount(threads);
+            }
+            for (String methodKey : ShardSuiteGenerator.collectMethods(baseSuite)) {
+                methodsByClass.computeIfAbsent(methodKey.substring(0, methodKey.lastIndexOf('.')),
+                        key -> new ArrayList<>()).add(methodKey);
+            }
+        }
+
+        @Override
+        public void run(List<String> testClasses, ClassClaims claims) {
+            XmlSuite suite = ShardSuiteGenerator.buildSuite(baseSuite,
+                    baseSuite.getName() + " - fork " + System.getProperty("fork.index", "1"));
+            for (String testClass : testClasses) {
+                List<String> methods = methodsByClass.get(testClass);
+                if (methods != null) {
+                    ShardSuiteGenerator.addTest(suite, testClass, methods);
+                }
+            }
+            if (suite.getTests().isEmpty()) {
+                return;
+            }
+
+            TestNG testNG = new TestNG();
+            testNG.setXmlSuites(List.of(suite));
+            // Idle worker threads take the longest remaining method from one shared queue
+            testNG.setExecutorFactory(executorFactory);
+            testNG.setOutputDirectory(outputDirectory.resolve("testng").toString());
+            testNG.addListener(new ClaimingListener(claims));
+            testNG.run();
+        }
+    }
+
+    /**
+     * Claims the class of each &lt;test&gt; when it starts and reports the final outcome of its invocations;
+     * attempts that were retried are left out
+     */
+    static final class ClaimingListener implements IMethodInterceptor, ITestListener {
+        private final ClassClaims claims;
+        private final Set<String> claimed = ConcurrentHashMap.newKeySet();
+        private final Map<String, List<ForkCoordinator.Outcome>> outcomes = new ConcurrentHashMap<>();
+
+        ClaimingListener(ClassClaims claims) {
+            this.claims = claims;
+        }
+
+        @Override
+        public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+            // Called as each <test> starts: an unclaimed class runs nothing, not even its class configuration
+            String testClass = context.getName();
+            try {
+                if (claims.claim(testClass)) {
+                    claimed.add(testClass);
+                    return methods;
+                }
+            } catch (IOException e) {
+                logger.error("Could not claim {}: {}", testClass, e.getMessage());
+            }
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void onFinish(ITestContext context) {
+            String testClass = context.getName();
+            if (claimed.remove(testClass)) {
+                List<ForkCoordinator.Outcome> classOutcomes = outcomes.remove(testClass);
+                claims.finish(testClass, classOutcomes == null ? List.of() : classOutcomes);
+            }
+        }
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            add(result, ForkCoordinator.Outcome.Status.PASSED);
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            add(result, ForkCoordinator.Outcome.Status.FAILED);
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            if (!result.wasRetried()) {
+                add(result, ForkCoordinator.Outcome.Status.SKIPPED);
+            }
+        }
+
+        private void add(ITestResult result, ForkCoordinator.Outcome.Status status) {
+            String message = result.getThrowable() == null ? "" : String.valueOf(result.getThrowable());
+            outcomes.computeIfAbsent(result.getTestContext().getName(), key -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(new ForkCoordinator.Outcome(
+                            result.getTestClass().getName() + "." + result.getMethod().getMethodName(), status,
+                            result.getEndMillis() - result.getStartMillis(), message, System.getProperty("fork.index", "?")));
+        }
+    }
+}
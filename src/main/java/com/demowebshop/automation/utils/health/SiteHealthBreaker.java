@@ -0,0 +1,175 @@
+package com.demowebshop.automation.utils.health;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.metrics.FrameworkMetrics;
+import com.demowebshop.automation.utils.replay.ReplayProxy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker for the site under test, shared by all test threads
+ * <ul>
+ *   <li>CLOSED: navigation is allowed; consecutive navigation failures are counted across threads</li>
+ *   <li>OPEN: after failure.threshold consecutive failures tests are skipped without starting a browser</li>
+ *   <li>HALF_OPEN: once open.seconds have passed, one thread probes the site with a plain HTTP GET;
+ *       a response below 500 closes the breaker, anything else keeps it open for another period</li>
+ * </ul>
+ * Any successful navigation resets the failure count, so a single slow page does not trip the breaker.
+ */
+public class SiteHealthBreaker {
+    private static final Logger logger = LogManager.getLogger(SiteHealthBreaker.class);
+    private static volatile SiteHealthBreaker shared;
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final URI probeUri;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Duration probeTimeout;
+    private final HttpClient httpClient;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAtNanos;
+    private volatile String lastFailure = "";
+
+    /**
+     * @param probeUri URL requested by the half-open probe
+     * @param failureThreshold Consecutive navigation failures that open the breaker
+     * @param openDuration Time the breaker stays open before the next probe
+     * @param probeTimeout Connect and response timeout of the probe
+     */
+    public SiteHealthBreaker(URI probeUri, int failureThreshold, Duration openDuration, Duration probeTimeout) {
+        this.probeUri = probeUri;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+        this.probeTimeout = probeTimeout;
+        this.httpClient = ReplayProxy.routeThrough(HttpClient.newBuilder()
+                .connectTimeout(probeTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL))
+                .build();
+    }
+
+    /**
+     * Breaker for the configured site, created on first use
+     * @return Shared breaker
+     */
+    public static SiteHealthBreaker shared() {
+        SiteHealthBreaker breaker = shared;
+        if (breaker == null) {
+            synchronized (SiteHealthBreaker.class) {
+                breaker = shared;
+                if (breaker == null) {
+                    breaker = new SiteHealthBreaker(URI.create(ConfigManager.getSiteHealthProbeUrl()),
+                            ConfigManager.getSiteHealthFailureThreshold(),
+                            Duration.ofSeconds(ConfigManager.getSiteHealthOpenSeconds()),
+                            Duration.ofSeconds(ConfigManager.getSiteHealthProbeTimeoutSeconds()));
+                    shared = breaker;
+                }
+            }
+        }
+        return breaker;
+    }
+
+    /**
+     * Whether a test may navigate to the site; while open, the first caller after the open period
+     * runs the half-open probe and the others are refused until it completes
+     * @return true if the site is considered healthy
+     */
+    public boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && System.nanoTime() - openedAtNanos >= openDuration.toNanos()
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            return probe();
+        }
+        return false;
+    }
+
+    /**
+     * Record a successful navigation
+     */
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    /**
+     * Record a failed navigation; opens the breaker when the threshold is reached
+     * @param reason Short description of the failure
+     */
+    public void recordFailure(String reason) {
+        lastFailure = reason == null ? "" : reason;
+        int failures = consecutiveFailures.incrementAndGet();
+        if (failures >= failureThreshold && state.get() == State.CLOSED) {
+            // Set before the transition so no thread sees OPEN with a stale timestamp and probes at once
+            openedAtNanos = System.nanoTime();
+            if (!state.compareAndSet(State.CLOSED, State.OPEN)) {
+                return;
+            }
+            FrameworkMetrics.recordSiteBreakerTransition(State.OPEN.name());
+            logger.error("Site health breaker OPEN after {} consecutive navigation failures (last: {}); "
+                    + "remaining tests are skipped until {} responds", failures, lastFailure, probeUri);
+        }
+    }
+
+    private boolean probe() {
+        String outcome;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(probeUri).timeout(probeTimeout).GET().build();
+            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status < 500) {
+                consecutiveFailures.set(0);
+                state.set(State.CLOSED);
+                FrameworkMetrics.recordSiteBreakerTransition(State.CLOSED.name());
+                logger.info("Site health probe of {} returned HTTP {}, breaker CLOSED", probeUri, status);
+                return true;
+            }
+            outcome = "HTTP " + status;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "interrupted";
+        } catch (Exception e) {
+            outcome = e.getClass().getSimpleName() + (e.getMessage() == null ? "" : ": " + e.getMessage());
+        }
+        lastFailure = "probe " + outcome;
+        openedAtNanos = System.nanoTime();
+        state.set(State.OPEN);
+        logger.warn("Site health probe of {} failed ({}), breaker stays OPEN for {}s",
+                probeUri, outcome, openDuration.getSeconds());
+        return false;
+    }
+
+    /**
+     * Reason to report for tests skipped while the breaker is open
+     * @return Skip message
+     */
+    public String getOpenReason() {
+        long remainingMillis = Math.max(0, (openDuration.toNanos() - (System.nanoTime() - openedAtNanos)) / 1_000_000);
+        return String.format("Site %s is unhealthy (%d consecutive navigation failures, last: %s); "
+                        + "circuit breaker is %s, next probe in %ds",
+                probeUri, consecutiveFailures.get(), lastFailure, state.get(), remainingMillis / 1000);
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Close the breaker and forget all failures
+     */
+    public void reset() {
+        consecutiveFailures.set(0);
+        lastFailure = "";
+        state.set(State.CLOSED);
+    }
+}
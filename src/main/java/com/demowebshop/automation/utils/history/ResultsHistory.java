@@ -0,0 +1,152 @@
+package com.demowebshop.automation.utils.history;
+
+import com.demowebshop.automation.utils.sharding.TestDurationHistory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Per-method trends over the runs selected from a {@link ResultsStore}
+ * Each stored row is one finished invocation (data-provider rows count separately), so rates are
+ * per invocation: failure rate = failed / (passed + failed), retry rate = invocations that needed a
+ * retry / (passed + failed). Skipped invocations are counted but excluded from both rates.
+ */
+public class ResultsHistory {
+    private final int runs;
+    private final Map<String, MethodTrend> trends = new TreeMap<>();
+
+    ResultsHistory(List<RunSegment> segments, int runs) {
+        this.runs = runs;
+        for (RunSegment segment : segments) {
+            for (int row = 0; row < segment.size(); row++) {
+                trends.computeIfAbsent(segment.methodAt(row), MethodTrend::new)
+                        .add(segment.durationAt(row), segment.statusAt(row), segment.retriesAt(row));
+            }
+        }
+    }
+
+    /**
+     * 95th percentile duration (nearest rank) of passed and failed invocations
+     * @param testKey Test method key
+     * @return Milliseconds, or -1 if the method has no finished invocation in the history
+     */
+    public long p95DurationMillis(String testKey) {
+        MethodTrend trend = trends.get(testKey);
+        return trend == null ? -1 : trend.percentileDuration(95);
+    }
+
+    public double failureRate(String testKey) {
+        MethodTrend trend = trends.get(testKey);
+        return trend == null ? 0 : trend.getFailureRate();
+    }
+
+    public double retryRate(String testKey) {
+        MethodTrend trend = trends.get(testKey);
+        return trend == null ? 0 : trend.getRetryRate();
+    }
+
+    public MethodTrend get(String testKey) {
+        return trends.get(testKey);
+    }
+
+    public Set<String> getMethods() {
+        return Collections.unmodifiableSet(trends.keySet());
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    /**
+     * Duration history for shard planning and test ordering, using the p95 of each method
+     * @return TestDurationHistory
+     */
+    public TestDurationHistory toDurationHistory() {
+        Map<String, Long> durations = new TreeMap<>();
+        trends.forEach((key, trend) -> {
+            long p95 = trend.percentileDuration(95);
+            if (p95 >= 0) {
+                durations.put(key, p95);
+            }
+        });
+        return new TestDurationHistory(durations);
+    }
+
+    /**
+     * Invocations of one test method over the selected runs
+     */
+    public static final class MethodTrend {
+        private final String testKey;
+        private final List<Integer> durations = new ArrayList<>();
+        private int passed;
+        private int failed;
+        private int skipped;
+        private int retried;
+        private int[] sortedDurations;
+
+        MethodTrend(String testKey) {
+            this.testKey = testKey;
+        }
+
+        void add(int durationMillis, byte status, int retries) {
+            if (status == RunSegment.SKIPPED) {
+                skipped++;
+                return;
+            }
+            if (status == RunSegment.FAILED) {
+                failed++;
+            } else {
+                passed++;
+            }
+            if (retries > 0) {
+                retried++;
+            }
+            durations.add(durationMillis);
+            sortedDurations = null;
+        }
+
+        /**
+         * Duration percentile (nearest rank)
+         * @param percentile 1-100
+         * @return Milliseconds, or -1 without finished invocations
+         */
+        public long percentileDuration(int percentile) {
+            if (durations.isEmpty()) {
+                return -1;
+            }
+            if (sortedDurations == null) {
+                sortedDurations = durations.stream().mapToInt(Integer::intValue).toArray();
+                Arrays.sort(sortedDurations);
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sortedDurations.length);
+            return sortedDurations[Math.max(0, rank - 1)];
+        }
+
+        public double getFailureRate() {
+            int finished = passed + failed;
+            return finished == 0 ? 0 : (double) failed / finished;
+        }
+
+        public double getRetryRate() {
+            int finished = passed + failed;
+            return finished == 0 ? 0 : (double) retried / finished;
+        }
+
+        public String getTestKey() { return testKey; }
+        public int getPassed() { return passed; }
+        public int getFailed() { return failed; }
+        public int getSkipped() { return skipped; }
+        public int getRetried() { return retried; }
+
+        @Override
+        public String toString() {
+            return String.format("MethodTrend{%s, p95=%dms, failureRate=%.2f, retryRate=%.2f, n=%d}",
+                    testKey, percentileDuration(95), getFailureRate(), getRetryRate(), passed + failed);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.demowebshop.automation.utils.history;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.concurrent.SideTaskExecutor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Collects the results of the current run and appends them to the results store at the end
+ * Fed by TestListener; the store lives in results.store.dir (point it at the CI cache directory)
+ * and keeps the newest results.store.max.runs runs.
+ */
+public class ResultsRecorder {
+    private static final Logger logger = LogManager.getLogger(ResultsRecorder.class);
+    private static volatile RunSegment current = newSegment();
+
+    private ResultsRecorder() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Start a new run, discarding anything not yet flushed
+     */
+    public static void startRun() {
+        current = newSegment();
+    }
+
+    /**
+     * Record one finished invocation
+     * @param testKey Test method key (fully.qualified.Class.method)
+     * @param durationMillis Wall time of the final attempt
+     * @param status RunSegment.PASSED, FAILED or SKIPPED
+     * @param retries Retries the invocation needed
+     */
+    public static void record(String testKey, long durationMillis, byte status, int retries) {
+        if (ConfigManager.isResultsStoreEnabled()) {
+            current.add(testKey, durationMillis, status, retries);
+        }
+    }
+
+    /**
+     * Append the recorded results to the store and prune old runs, on a side task
+     * @return Future completed when the store is written (or the write failed and was logged)
+     */
+    public static CompletableFuture<Void> finishRun() {
+        RunSegment segment = current;
+        current = newSegment();
+        if (!ConfigManager.isResultsStoreEnabled() || segment.size() == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        ResultsStore store = new ResultsStore(Paths.get(ConfigManager.getResultsStoreDirectory()));
+        return SideTaskExecutor.execute("write results store " + store.getDirectory(), () -> {
+            try {
+                Path file = store.append(segment);
+                int pruned = store.prune(ConfigManager.getResultsStoreMaxRuns());
+                logger.info("Stored {} results of run {} in {}{}", segment.size(), segment.getRunId(), file,
+                        pruned > 0 ? " (pruned " + pruned + " old segments)" : "");
+            } catch (IOException e) {
+                logger.error("Could not write results store {}: {}", store.getDirectory(), e.getMessage());
+            }
+        });
+    }
+
+    private static RunSegment newSegment() {
+        return new RunSegment(ConfigManager.getResultsRunId(), System.currentTimeMillis());
+    }
+}
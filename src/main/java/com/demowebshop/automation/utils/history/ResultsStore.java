@@ -0,0 +1,192 @@
+package com.demowebshop.automation.utils.history;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.sharding.TestDurationHistory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Append-only store of test results across runs, kept in a local directory (e.g. the CI cache)
+ * Every run (or shard) adds one immutable {@link RunSegment} file; files are never rewritten, so
+ * shards sharing the directory do not conflict. The oldest segments are pruned beyond a run limit.
+ * It is also the duration history that shard planning and longest-first ordering read, see
+ * {@link #plannedDurations()}.
+ */
+public class ResultsStore {
+    private static final Logger logger = LogManager.getLogger(ResultsStore.class);
+    private static final String SEGMENT_PREFIX = "run-";
+    private static final String SEGMENT_SUFFIX = ".rseg";
+
+    private final Path directory;
+
+    public ResultsStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Add the results of a run as a new segment
+     * @param segment Results to store
+     * @return Written segment file
+     */
+    public Path append(RunSegment segment) throws IOException {
+        Files.createDirectories(directory);
+        String fileName = String.format("%s%013d-%s-%s%s", SEGMENT_PREFIX, segment.getStartedAt(),
+                sanitize(segment.getRunId()), UUID.randomUUID().toString().substring(0, 8), SEGMENT_SUFFIX);
+        Path target = directory.resolve(fileName);
+        Path temp = Files.createTempFile(directory, ".segment", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                segment.writeTo(out);
+            }
+            // Readers only list finished segments
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return target;
+    }
+
+    /**
+     * Delete the segments of all but the newest runs
+     * @param runsToKeep Runs to keep
+     * @return Number of deleted segment files
+     */
+    public int prune(int runsToKeep) throws IOException {
+        List<RunSegment> segments = readSegments();
+        Set<String> keep = newestRunIds(segments, runsToKeep);
+        int deleted = 0;
+        for (Path file : listSegmentFiles()) {
+            String runId = runIdOf(file);
+            if (runId != null && !keep.contains(runId)) {
+                Files.deleteIfExists(file);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Results of the newest runs
+     * @param runs Number of runs (segments with the same run ID, e.g. shards, count as one run)
+     * @return History over at most that many runs
+     */
+    public ResultsHistory history(int runs) throws IOException {
+        List<RunSegment> segments = readSegments();
+        Set<String> selected = newestRunIds(segments, runs);
+        List<RunSegment> selectedSegments = new ArrayList<>();
+        for (RunSegment segment : segments) {
+            if (selected.contains(sanitize(segment.getRunId()))) {
+                selectedSegments.add(segment);
+            }
+        }
+        return new ResultsHistory(selectedSegments, selected.size());
+    }
+
+    /**
+     * Duration history for shard planning and test ordering
+     * p95 durations from the newest results.store.history.runs runs of the configured store; shard.history.file
+     * only supplies methods the store has no finished invocation of (new tests, or an empty CI cache).
+     * @return TestDurationHistory
+     */
+    public static TestDurationHistory plannedDurations() {
+        TestDurationHistory fallback = TestDurationHistory.load(Paths.get(ConfigManager.getShardHistoryFile()));
+        if (!ConfigManager.isResultsStoreEnabled()) {
+            return fallback;
+        }
+        return new ResultsStore(Paths.get(ConfigManager.getResultsStoreDirectory()))
+                .plannedDurations(ConfigManager.getResultsStoreHistoryRuns(), fallback);
+    }
+
+    /**
+     * Duration history from the p95 durations of the newest runs, completed by a fallback history
+     * @param runs Number of runs to take durations from
+     * @param fallback Durations of methods the store has not seen
+     * @return TestDurationHistory, the fallback itself if the store is empty or unreadable
+     */
+    public TestDurationHistory plannedDurations(int runs, TestDurationHistory fallback) {
+        try {
+            ResultsHistory history = history(runs);
+            if (history.getRuns() == 0) {
+                return fallback;
+            }
+            Map<String, Long> durations = new TreeMap<>(fallback.getDurations());
+            durations.putAll(history.toDurationHistory().getDurations());
+            logger.info("Planning from {} runs in {} ({} methods with stored durations)", history.getRuns(),
+                    directory, history.getMethods().size());
+            return new TestDurationHistory(durations);
+        } catch (IOException e) {
+            logger.warn("Could not read results store {}, planning from the fallback history: {}", directory,
+                    e.getMessage());
+            return fallback;
+        }
+    }
+
+    private List<RunSegment> readSegments() throws IOException {
+        List<RunSegment> segments = new ArrayList<>();
+        for (Path file : listSegmentFiles()) {
+            try (InputStream in = Files.newInputStream(file)) {
+                segments.add(RunSegment.readFrom(in));
+            } catch (IOException e) {
+                // A truncated file (e.g. an interrupted cache upload) must not break the whole history
+                logger.warn("Skipping unreadable results segment {}: {}", file.getFileName(), e.getMessage());
+            }
+        }
+        segments.sort(Comparator.comparingLong(RunSegment::getStartedAt).reversed());
+        return segments;
+    }
+
+    private List<Path> listSegmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        return files;
+    }
+
+    private static Set<String> newestRunIds(List<RunSegment> segmentsNewestFirst, int runs) {
+        Set<String> runIds = new LinkedHashSet<>();
+        for (RunSegment segment : segmentsNewestFirst) {
+            if (runIds.size() >= runs) {
+                break;
+            }
+            runIds.add(sanitize(segment.getRunId()));
+        }
+        return runIds;
+    }
+
+    private static String runIdOf(Path file) {
+        // run-<startedAt>-<runId>-<suffix>.rseg
+        String name = file.getFileName().toString();
+        int first = name.indexOf('-', SEGMENT_PREFIX.length());
+        int last = name.lastIndexOf('-');
+        return first < 0 || last <= first ? null : name.substring(first + 1, last);
+    }
+
+    private static String sanitize(String runId) {
+        return runId.replaceAll("[^A-Za-z0-9_.]", "_");
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+}
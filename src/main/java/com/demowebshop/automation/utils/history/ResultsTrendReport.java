@@ -0,0 +1,83 @@
+package com.demowebshop.automation.utils.history;
+
+import com.demowebshop.automation.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints per-method trends from the results store, optionally exporting p95 durations for sharding
+ *
+ * Usage:
+ * <pre>
+ *   mvn -q compile exec:java -Dexec.mainClass=com.demowebshop.automation.utils.history.ResultsTrendReport \
+ *     -Dexec.args="--runs 20 --sort failure --top 15"
+ *
+ *   # Refresh the shard planning history from the p95 of the last 20 runs
+ *   mvn -q compile exec:java -Dexec.mainClass=com.demowebshop.automation.utils.history.ResultsTrendReport \
+ *     -Dexec.args="--runs 20 --durations-out src/test/resources/config/shards/test-durations.properties"
+ * </pre>
+ */
+public class ResultsTrendReport {
+    private static final Logger logger = LogManager.getLogger(ResultsTrendReport.class);
+
+    private ResultsTrendReport() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArguments(args);
+        Path directory = Paths.get(options.getOrDefault("dir", ConfigManager.getResultsStoreDirectory()));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "20"));
+        int top = Integer.parseInt(options.getOrDefault("top", "20"));
+
+        ResultsHistory history = new ResultsStore(directory).history(runs);
+        logger.info("{} methods over the last {} runs in {}", history.getMethods().size(), history.getRuns(), directory);
+
+        List<ResultsHistory.MethodTrend> trends = new ArrayList<>();
+        history.getMethods().forEach(method -> trends.add(history.get(method)));
+        trends.sort(comparatorFor(options.getOrDefault("sort", "p95")));
+        trends.stream().limit(top).forEach(trend -> logger.info(String.format("%8dms  fail %5.1f%%  retry %5.1f%%  %s",
+                trend.percentileDuration(95), trend.getFailureRate() * 100, trend.getRetryRate() * 100,
+                trend.getTestKey())));
+
+        if (options.containsKey("durations-out")) {
+            Path durationsFile = Paths.get(options.get("durations-out"));
+            history.toDurationHistory().save(durationsFile);
+            logger.info("Wrote p95 durations of {} methods to {}", history.getMethods().size(), durationsFile);
+        }
+    }
+
+    private static Comparator<ResultsHistory.MethodTrend> comparatorFor(String sort) {
+        switch (sort) {
+            case "failure":
+                return Comparator.comparingDouble(ResultsHistory.MethodTrend::getFailureRate).reversed();
+            case "retry":
+                return Comparator.comparingDouble(ResultsHistory.MethodTrend::getRetryRate).reversed();
+            case "p95":
+                return Comparator.comparingLong((ResultsHistory.MethodTrend trend) -> trend.percentileDuration(95)).reversed();
+            default:
+                throw new IllegalArgumentException("Unknown sort: " + sort + " (p95, failure, retry)");
+        }
+    }
+
+    private static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(name, hasValue ? args[++i] : "true");
+        }
+        return options;
+    }
+}
@@ -0,0 +1,166 @@
+package com.demowebshop.automation.utils.history;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Test results of one run (or one shard of a run), stored column by column
+ * Layout (gzip compressed): magic, version, run ID, start time, row count, the dictionary of method
+ * keys, then one column each for method index, duration, status and retries. Integers are written
+ * as unsigned varints, so a row costs a few bytes before compression.
+ */
+public final class RunSegment {
+    private static final int MAGIC = 0x44575253; // "DWRS"
+    private static final int VERSION = 1;
+
+    public static final byte PASSED = 0;
+    public static final byte FAILED = 1;
+    public static final byte SKIPPED = 2;
+
+    private final String runId;
+    private final long startedAt;
+    private final List<String> methods = new ArrayList<>();
+    private final Map<String, Integer> methodIndex = new HashMap<>();
+    private int[] methodColumn = new int[64];
+    private int[] durationColumn = new int[64];
+    private byte[] statusColumn = new byte[64];
+    private int[] retriesColumn = new int[64];
+    private int rows;
+
+    public RunSegment(String runId, long startedAt) {
+        this.runId = runId;
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Append one finished test invocation
+     * @param testKey Test method key (fully.qualified.Class.method)
+     * @param durationMillis Wall time of the invocation
+     * @param status PASSED, FAILED or SKIPPED
+     * @param retries Retries the invocation needed
+     */
+    public synchronized void add(String testKey, long durationMillis, byte status, int retries) {
+        if (rows == methodColumn.length) {
+            int capacity = rows * 2;
+            methodColumn = Arrays.copyOf(methodColumn, capacity);
+            durationColumn = Arrays.copyOf(durationColumn, capacity);
+            statusColumn = Arrays.copyOf(statusColumn, capacity);
+            retriesColumn = Arrays.copyOf(retriesColumn, capacity);
+        }
+        methodColumn[rows] = methodIndex.computeIfAbsent(testKey, key -> {
+            methods.add(key);
+            return methods.size() - 1;
+        });
+        durationColumn[rows] = (int) Math.max(0, Math.min(Integer.MAX_VALUE, durationMillis));
+        statusColumn[rows] = status;
+        retriesColumn[rows] = Math.max(0, retries);
+        rows++;
+    }
+
+    public synchronized void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(out)));
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeUTF(runId);
+        data.writeLong(startedAt);
+        writeVarInt(data, rows);
+        writeVarInt(data, methods.size());
+        for (String method : methods) {
+            data.writeUTF(method);
+        }
+        for (int i = 0; i < rows; i++) {
+            writeVarInt(data, methodColumn[i]);
+        }
+        for (int i = 0; i < rows; i++) {
+            writeVarInt(data, durationColumn[i]);
+        }
+        data.write(statusColumn, 0, rows);
+        for (int i = 0; i < rows; i++) {
+            writeVarInt(data, retriesColumn[i]);
+        }
+        data.flush();
+        data.close();
+    }
+
+    public static RunSegment readFrom(InputStream in) throws IOException {
+        try (DataInputStream data = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in)))) {
+            if (data.readInt() != MAGIC) {
+                throw new IOException("Not a results segment");
+            }
+            int version = data.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported results segment version " + version);
+            }
+            RunSegment segment = new RunSegment(data.readUTF(), data.readLong());
+            int rowCount = readVarInt(data);
+            int dictionarySize = readVarInt(data);
+            for (int i = 0; i < dictionarySize; i++) {
+                String method = data.readUTF();
+                segment.methodIndex.put(method, segment.methods.size());
+                segment.methods.add(method);
+            }
+            segment.methodColumn = new int[Math.max(1, rowCount)];
+            segment.durationColumn = new int[Math.max(1, rowCount)];
+            segment.statusColumn = new byte[Math.max(1, rowCount)];
+            segment.retriesColumn = new int[Math.max(1, rowCount)];
+            for (int i = 0; i < rowCount; i++) {
+                segment.methodColumn[i] = readVarInt(data);
+                if (segment.methodColumn[i] >= dictionarySize) {
+                    throw new IOException("Corrupt results segment: method index out of range");
+                }
+            }
+            for (int i = 0; i < rowCount; i++) {
+                segment.durationColumn[i] = readVarInt(data);
+            }
+            data.readFully(segment.statusColumn, 0, rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                segment.retriesColumn[i] = readVarInt(data);
+            }
+            segment.rows = rowCount;
+            return segment;
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt results segment: varint too long");
+    }
+
+    public String getRunId() { return runId; }
+    public long getStartedAt() { return startedAt; }
+    public synchronized int size() { return rows; }
+    public synchronized List<String> getMethods() { return Collections.unmodifiableList(new ArrayList<>(methods)); }
+
+    synchronized String methodAt(int row) { return methods.get(methodColumn[row]); }
+    synchronized int durationAt(int row) { return durationColumn[row]; }
+    synchronized byte statusAt(int row) { return statusColumn[row]; }
+    synchronized int retriesAt(int row) { return retriesColumn[row]; }
+}
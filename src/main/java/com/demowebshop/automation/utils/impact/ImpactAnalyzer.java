@@ -0,0 +1,213 @@
+package com.demowebshop.automation.utils.impact;
+
+import com.demowebshop.automation.utils.sharding.TestDependencies;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Selects the tests affected by a set of changed files
+ * <ul>
+ *   <li>Page object (pages/*.java): tests that constructed that page</li>
+ *   <li>Selector file (selectors/*.json): tests that resolved a changed selector path; the old and new JSON are
+ *       diffed when the old version is available, otherwise every selector of the file counts as changed</li>
+ *   <li>Test class: all its methods</li>
+ *   <li>Files outside src/ and pom.xml (docs, workflows): nothing</li>
+ *   <li>Anything else (BasePage, utilities, listeners, config, test data, pom.xml): the whole suite</li>
+ * </ul>
+ * Tests without an entry in the impact map are selected whenever a page or selector changed, so a stale
+ * map can only make the selection larger, never skip a test that may be affected.
+ * The dependsOnMethods/dependsOnGroups prerequisites of selected tests are selected too, since TestNG
+ * does not run a dependent without them.
+ */
+public class ImpactAnalyzer {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String MAIN_JAVA = "src/main/java/";
+    private static final String TEST_JAVA = "src/test/java/";
+    private static final String PAGES_PACKAGE = "com/demowebshop/automation/pages/";
+    private static final String SHARED_PAGES_PACKAGE = PAGES_PACKAGE + "common/";
+    private static final String SELECTORS_DIR = "src/main/resources/selectors/";
+
+    private final TestImpactMap impactMap;
+    private final Function<String, String> previousContent;
+    private final Function<String, String> currentContent;
+    private final TestDependencies.Resolver dependencies;
+
+    /**
+     * @param impactMap Recorded test impact
+     * @param previousContent Content of a changed file before the change (null if unknown or new)
+     * @param currentContent Content of a changed file after the change (null if deleted)
+     */
+    public ImpactAnalyzer(TestImpactMap impactMap, Function<String, String> previousContent,
+                          Function<String, String> currentContent) {
+        this(impactMap, previousContent, currentContent, TestDependencies.ANNOTATIONS);
+    }
+
+    /**
+     * @param impactMap Recorded test impact
+     * @param previousContent Content of a changed file before the change (null if unknown or new)
+     * @param currentContent Content of a changed file after the change (null if deleted)
+     * @param dependencies Resolver of the prerequisites of a test method
+     */
+    public ImpactAnalyzer(TestImpactMap impactMap, Function<String, String> previousContent,
+                          Function<String, String> currentContent, TestDependencies.Resolver dependencies) {
+        this.impactMap = impactMap;
+        this.previousContent = previousContent;
+        this.currentContent = currentContent;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Select the affected methods of a suite
+     * @param changedFiles Repository-relative paths of the changed files
+     * @param suiteMethods Methods of the base suite (fully.qualified.Class.method)
+     * @return Selection
+     */
+    public Selection select(Collection<String> changedFiles, Collection<String> suiteMethods) {
+        Set<String> pages = new TreeSet<>();
+        Set<String> changedSelectors = new TreeSet<>();
+        Set<String> testClasses = new TreeSet<>();
+        List<String> reasons = new ArrayList<>();
+
+        for (String rawPath : changedFiles) {
+            String path = rawPath.replace('\\', '/').trim();
+            if (path.isEmpty()) {
+                continue;
+            }
+            if (path.startsWith(MAIN_JAVA + PAGES_PACKAGE) && !path.startsWith(MAIN_JAVA + SHARED_PAGES_PACKAGE)
+                    && path.endsWith(".java")) {
+                pages.add(classNameOf(path, MAIN_JAVA));
+            } else if (path.startsWith(SELECTORS_DIR) && path.endsWith(".json")) {
+                changedSelectors.addAll(changedSelectorKeys(path));
+            } else if (path.startsWith(TEST_JAVA + "tests/") && path.endsWith(".java")) {
+                testClasses.add(classNameOf(path, TEST_JAVA));
+            } else if (path.startsWith("src/") || path.equals("pom.xml")) {
+                reasons.add(path + " is shared framework code or configuration");
+                return Selection.all(suiteMethods, reasons);
+            }
+        }
+
+        Set<String> selected = new LinkedHashSet<>();
+        boolean pageOrSelectorChanged = !pages.isEmpty() || !changedSelectors.isEmpty();
+        for (String method : suiteMethods) {
+            String testClass = method.substring(0, method.lastIndexOf('.'));
+            if (testClasses.contains(testClass)) {
+                selected.add(method);
+            } else if (pageOrSelectorChanged && !impactMap.contains(method)) {
+                selected.add(method);
+            } else if (touchesPage(method, pages) || touchesSelector(method, changedSelectors)) {
+                selected.add(method);
+            }
+        }
+        pages.forEach(page -> reasons.add("page object " + page + " changed"));
+        changedSelectors.forEach(selector -> reasons.add("selector " + selector + " changed"));
+        testClasses.forEach(testClass -> reasons.add("test class " + testClass + " changed"));
+
+        Set<String> withPrerequisites = TestDependencies.closure(selected, suiteMethods, dependencies);
+        withPrerequisites.stream().filter(method -> !selected.contains(method))
+                .forEach(method -> reasons.add("prerequisite " + method + " of a selected test"));
+        return new Selection(false, withPrerequisites, reasons);
+    }
+
+    private boolean touchesPage(String method, Set<String> changedPages) {
+        for (String page : impactMap.getPages(method)) {
+            if (changedPages.contains(page)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean touchesSelector(String method, Set<String> changedSelectors) {
+        for (String used : impactMap.getSelectors(method)) {
+            for (String changed : changedSelectors) {
+                boolean wholeFile = changed.endsWith("#") && used.startsWith(changed);
+                if (wholeFile || changed.equals(used) || changed.startsWith(used + ".") || used.startsWith(changed + ".")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Keys of the selectors that differ between the old and new version of a selector file
+     * @param path Repository-relative path of the selector file
+     * @return Changed selector keys; "file.json#" (whole file) if the versions cannot be compared
+     */
+    Set<String> changedSelectorKeys(String path) {
+        String file = Paths.get(path).getFileName().toString();
+        Set<String> keys = new TreeSet<>();
+        String before = previousContent.apply(path);
+        String after = currentContent.apply(path);
+        if (before == null || after == null) {
+            keys.add(file + "#");
+            return keys;
+        }
+        try {
+            List<String> changedPaths = new ArrayList<>();
+            diff(objectMapper.readTree(before), objectMapper.readTree(after), "", changedPaths);
+            changedPaths.forEach(changed -> keys.add(ImpactTracer.selectorKey(file, changed)));
+        } catch (IOException e) {
+            keys.add(file + "#");
+        }
+        return keys;
+    }
+
+    private static void diff(JsonNode before, JsonNode after, String path, List<String> changedPaths) {
+        if (before != null && after != null && before.isObject() && after.isObject()) {
+            Set<String> fields = new TreeSet<>();
+            before.fieldNames().forEachRemaining(fields::add);
+            after.fieldNames().forEachRemaining(fields::add);
+            for (String field : fields) {
+                diff(before.get(field), after.get(field), path.isEmpty() ? field : path + "." + field, changedPaths);
+            }
+        } else if (before == null || !before.equals(after)) {
+            changedPaths.add(path);
+        }
+    }
+
+    private static String classNameOf(String path, String sourceRoot) {
+        return path.substring(sourceRoot.length(), path.length() - ".java".length()).replace('/', '.');
+    }
+
+    /**
+     * Result of an impact analysis
+     */
+    public static final class Selection {
+        private final boolean allTests;
+        private final Set<String> methods;
+        private final List<String> reasons;
+
+        Selection(boolean allTests, Set<String> methods, List<String> reasons) {
+            this.allTests = allTests;
+            this.methods = methods;
+            this.reasons = reasons;
+        }
+
+        static Selection all(Collection<String> suiteMethods, List<String> reasons) {
+            return new Selection(true, new LinkedHashSet<>(suiteMethods), reasons);
+        }
+
+        public boolean isAllTests() { return allTests; }
+        public Set<String> getMethods() { return Collections.unmodifiableSet(methods); }
+        public List<String> getReasons() { return Collections.unmodifiableList(reasons); }
+
+        @Override
+        public String toString() {
+            return String.format("Selection{methods=%d, all=%s, first reason=%s}", methods.size(), allTests,
+                    reasons.isEmpty() ? "-" : reasons.get(0));
+        }
+    }
+}
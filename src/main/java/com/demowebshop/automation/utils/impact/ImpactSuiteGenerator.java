@@ -0,0 +1,152 @@
+package com.demowebshop.automation.utils.impact;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.history.ResultsStore;
+import com.demowebshop.automation.utils.sharding.ShardSuiteGenerator;
+import com.demowebshop.automation.utils.sharding.TestDurationHistory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.xml.XmlSuite;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes a TestNG suite with only the tests affected by a change
+ * Changed files come from git (diff of the working tree against the merge base with --base) or from
+ * --changed; the selection uses the impact map recorded by {@link ImpactTracer}.
+ *
+ * Usage (test classes must be on the classpath):
+ * <pre>
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.demowebshop.automation.utils.impact.ImpactSuiteGenerator \
+ *     -Dexec.args="--base origin/main --out target/impact/testng-impact.xml"
+ *
+ *   mvn test -DsuiteXmlFile=target/impact/testng-impact.xml
+ * </pre>
+ */
+public class ImpactSuiteGenerator {
+    private static final Logger logger = LogManager.getLogger(ImpactSuiteGenerator.class);
+
+    private ImpactSuiteGenerator() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArguments(args);
+        Path suiteFile = Paths.get(options.getOrDefault("suite", "src/test/resources/config/testng-complete.xml"));
+        Path mapFile = Paths.get(options.getOrDefault("map", ConfigManager.getImpactMapFile()));
+        Path outputFile = Paths.get(options.getOrDefault("out", "target/impact/testng-impact.xml"));
+
+        ImpactAnalyzer analyzer;
+        List<String> changedFiles;
+        if (options.containsKey("changed")) {
+            changedFiles = Arrays.asList(options.get("changed").split(","));
+            analyzer = new ImpactAnalyzer(TestImpactMap.load(mapFile), path -> null, ImpactSuiteGenerator::readWorkingCopy);
+        } else {
+            String mergeBase = git("merge-base", options.getOrDefault("base", "origin/main"), "HEAD").trim();
+            changedFiles = Arrays.asList(git("diff", "--name-only", mergeBase).split("\\R"));
+            analyzer = new ImpactAnalyzer(TestImpactMap.load(mapFile),
+                    path -> gitOrNull("show", mergeBase + ":" + path), ImpactSuiteGenerator::readWorkingCopy);
+        }
+
+        ImpactAnalyzer.Selection selection = generate(suiteFile, changedFiles, analyzer, outputFile);
+        selection.getReasons().forEach(reason -> logger.info("  {}", reason));
+        logger.info("Wrote {} with {} methods{}", outputFile, selection.getMethods().size(),
+                selection.isAllTests() ? " (full suite)" : "");
+    }
+
+    /**
+     * Select the affected methods of a suite and write them as a new suite
+     * @param suiteFile Base suite
+     * @param changedFiles Repository-relative paths of the changed files
+     * @param analyzer Impact analyzer
+     * @param outputFile Suite file to write
+     * @return Selection that was written
+     */
+    public static ImpactAnalyzer.Selection generate(Path suiteFile, List<String> changedFiles, ImpactAnalyzer analyzer,
+                                                    Path outputFile) throws IOException {
+        XmlSuite baseSuite = ShardSuiteGenerator.loadSuite(suiteFile);
+        Set<String> suiteMethods = ShardSuiteGenerator.collectMethods(baseSuite);
+        ImpactAnalyzer.Selection selection = analyzer.select(changedFiles, suiteMethods);
+
+        // Longest first, like the full run, so the slowest affected tests do not start last
+        TestDurationHistory history = ResultsStore.plannedDurations();
+        List<String> methods = new ArrayList<>(selection.getMethods());
+        methods.sort(Comparator.comparingLong(history::estimate).reversed());
+
+        XmlSuite suite = ShardSuiteGenerator.buildSuite(baseSuite, baseSuite.getName() + " - Impacted",
+                String.format("Impacted tests (%d of %d)", methods.size(), suiteMethods.size()), methods);
+        Path parent = outputFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(outputFile, suite.toXml().getBytes(StandardCharsets.UTF_8));
+        return selection;
+    }
+
+    private static String readWorkingCopy(String path) {
+        try {
+            Path file = Paths.get(path);
+            return Files.exists(file) ? new String(Files.readAllBytes(file), StandardCharsets.UTF_8) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String gitOrNull(String... args) {
+        try {
+            return git(args);
+        } catch (IOException e) {
+            // File did not exist at the merge base
+            return null;
+        }
+    }
+
+    private static String git(String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            in.transferTo(buffer);
+            output = buffer.toString(StandardCharsets.UTF_8);
+        }
+        try {
+            if (process.waitFor() != 0) {
+                throw new IOException("git " + String.join(" ", args) + " failed with exit code " + process.exitValue());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running git", e);
+        }
+        return output;
+    }
+
+    private static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(name, hasValue ? args[++i] : "true");
+        }
+        return options;
+    }
+}
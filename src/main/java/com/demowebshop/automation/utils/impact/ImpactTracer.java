@@ -0,0 +1,93 @@
+package com.demowebshop.automation.utils.impact;
+
+import com.demowebshop.automation.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Records at runtime which page objects and selectors the test on the current thread uses
+ * BaseTest binds the test, BasePage reports page construction and SelectorUtils reports selector
+ * lookups. Disabled unless impact.trace.enabled is set; at the end of the suite the recording is
+ * merged into impact.map.file for {@link ImpactSuiteGenerator}.
+ */
+public class ImpactTracer {
+    private static final Logger logger = LogManager.getLogger(ImpactTracer.class);
+    private static final ThreadLocal<String> CURRENT_TEST = new ThreadLocal<>();
+    private static volatile TestImpactMap recording = new TestImpactMap();
+
+    private ImpactTracer() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Bind a test to the current thread
+     * @param testKey fully.qualified.Class.method
+     */
+    public static void begin(String testKey) {
+        if (ConfigManager.isImpactTracingEnabled()) {
+            CURRENT_TEST.set(testKey);
+        }
+    }
+
+    public static void end() {
+        CURRENT_TEST.remove();
+    }
+
+    /**
+     * Record that the current test constructed a page object
+     * @param pageClass Fully qualified page class name
+     */
+    public static void recordPage(String pageClass) {
+        String testKey = CURRENT_TEST.get();
+        if (testKey != null) {
+            recording.recordPage(testKey, pageClass);
+        }
+    }
+
+    /**
+     * Record that the current test resolved a selector
+     * @param selectorFile Selector file resource path (e.g. /selectors/cart-checkout-selectors.json)
+     * @param elementPath Dot-separated element path inside the file
+     */
+    public static void recordSelector(String selectorFile, String elementPath) {
+        String testKey = CURRENT_TEST.get();
+        if (testKey != null) {
+            recording.recordSelector(testKey, selectorKey(selectorFile, elementPath));
+        }
+    }
+
+    /**
+     * Key of a selector in the impact map
+     * @param selectorFile Selector file path or name
+     * @param elementPath Dot-separated element path
+     * @return file-name.json#element.path
+     */
+    public static String selectorKey(String selectorFile, String elementPath) {
+        return Paths.get(selectorFile).getFileName() + "#" + elementPath;
+    }
+
+    public static TestImpactMap getRecording() {
+        return recording;
+    }
+
+    /**
+     * Merge this run's recording into the map file (no-op when tracing is disabled or nothing was recorded)
+     */
+    public static void saveIfEnabled() {
+        if (!ConfigManager.isImpactTracingEnabled() || recording.isEmpty()) {
+            return;
+        }
+        Path mapFile = Paths.get(ConfigManager.getImpactMapFile());
+        try {
+            TestImpactMap.load(mapFile).merge(recording).save(mapFile);
+            logger.info("Test impact of {} tests merged into {}", recording.getTests().size(), mapFile);
+        } catch (IOException e) {
+            logger.error("Could not write test impact map {}: {}", mapFile, e.getMessage());
+        }
+        recording = new TestImpactMap();
+    }
+}
@@ -0,0 +1,129 @@
+package com.demowebshop.automation.utils.impact;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Which page objects and selectors each test touches
+ * Keys are test methods ("fully.qualified.Class.method"); each entry holds the page-object classes
+ * constructed during the test and the selectors it resolved ("file.json#dot.separated.path").
+ * Built by {@link ImpactTracer} at runtime and kept as JSON so PR runs can select tests from it.
+ */
+public class TestImpactMap {
+    private static final Logger logger = LogManager.getLogger(TestImpactMap.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<String, TestImpact> tests = new TreeMap<>();
+
+    /**
+     * Load a map file, empty map if it does not exist
+     * @param file JSON map file
+     * @return TestImpactMap
+     */
+    public static TestImpactMap load(Path file) {
+        TestImpactMap map = new TestImpactMap();
+        if (!Files.exists(file)) {
+            return map;
+        }
+        try {
+            JsonNode testsNode = objectMapper.readTree(file.toFile()).path("tests");
+            testsNode.fields().forEachRemaining(entry -> {
+                TestImpact impact = map.impactOf(entry.getKey());
+                entry.getValue().path("pages").forEach(page -> impact.pages.add(page.asText()));
+                entry.getValue().path("selectors").forEach(selector -> impact.selectors.add(selector.asText()));
+            });
+        } catch (IOException e) {
+            logger.warn("Could not read test impact map {}: {}", file, e.getMessage());
+        }
+        return map;
+    }
+
+    /**
+     * Save as JSON, sorted for stable diffs
+     * @param file Target file
+     */
+    public void save(Path file) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode testsNode = root.putObject("tests");
+        tests.forEach((test, impact) -> {
+            ObjectNode node = testsNode.putObject(test);
+            ArrayNode pages = node.putArray("pages");
+            impact.pages.forEach(pages::add);
+            ArrayNode selectors = node.putArray("selectors");
+            impact.selectors.forEach(selectors::add);
+        });
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        objectMapper.writeValue(file.toFile(), root);
+    }
+
+    /**
+     * Replace the entries of all tests present in a newer map (tests that did not run keep their entry)
+     * @param latest Map recorded by the latest run
+     * @return this
+     */
+    public TestImpactMap merge(TestImpactMap latest) {
+        latest.tests.forEach((test, impact) -> {
+            TestImpact merged = new TestImpact();
+            merged.pages.addAll(impact.pages);
+            merged.selectors.addAll(impact.selectors);
+            tests.put(test, merged);
+        });
+        return this;
+    }
+
+    public synchronized void recordPage(String testKey, String pageClass) {
+        impactOf(testKey).pages.add(pageClass);
+    }
+
+    public synchronized void recordSelector(String testKey, String selectorKey) {
+        impactOf(testKey).selectors.add(selectorKey);
+    }
+
+    private TestImpact impactOf(String testKey) {
+        return tests.computeIfAbsent(testKey, key -> new TestImpact());
+    }
+
+    public boolean contains(String testKey) {
+        return tests.containsKey(testKey);
+    }
+
+    public Set<String> getTests() {
+        return Collections.unmodifiableSet(tests.keySet());
+    }
+
+    public Set<String> getPages(String testKey) {
+        TestImpact impact = tests.get(testKey);
+        return impact == null ? Collections.emptySet() : Collections.unmodifiableSet(impact.pages);
+    }
+
+    public Set<String> getSelectors(String testKey) {
+        TestImpact impact = tests.get(testKey);
+        return impact == null ? Collections.emptySet() : Collections.unmodifiableSet(impact.selectors);
+    }
+
+    public boolean isEmpty() {
+        return tests.isEmpty();
+    }
+
+    private static final class TestImpact {
+        private final Set<String> pages = new TreeSet<>();
+        private final Set<String> selectors = new TreeSet<>();
+    }
+}
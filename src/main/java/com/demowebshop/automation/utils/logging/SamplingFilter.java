@@ -0,0 +1,123 @@
+package com.demowebshop.automation.utils.logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.filter.AbstractFilter;
+import org.apache.logging.log4j.message.Message;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Log4j2 filter that samples repetitive low-level messages (wait/poll loops)
+ * Messages at or below the configured level whose template matches the regex are
+ * passed once every N occurrences per template; everything else is left untouched.
+ *
+ * Usage in log4j2 configuration:
+ * <pre>
+ *   &lt;SamplingFilter level="DEBUG" rate="20" regex="(?i).*(wait|poll|still).*"/&gt;
+ * </pre>
+ */
+@Plugin(name = "SamplingFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+public final class SamplingFilter extends AbstractFilter {
+    private static final int MAX_TRACKED_TEMPLATES = 1024;
+
+    private final Level level;
+    private final int rate;
+    private final Pattern pattern;
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    private SamplingFilter(Level level, int rate, Pattern pattern, Result onMatch, Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.level = level;
+        this.rate = rate;
+        this.pattern = pattern;
+    }
+
+    @Override
+    public Result filter(LogEvent event) {
+        return sample(event.getLevel(), templateOf(event.getMessage()));
+    }
+
+    @Override
+    public Result filter(Logger logger, Level eventLevel, Marker marker, Message msg, Throwable t) {
+        return sample(eventLevel, templateOf(msg));
+    }
+
+    @Override
+    public Result filter(Logger logger, Level eventLevel, Marker marker, Object msg, Throwable t) {
+        return sample(eventLevel, msg != null ? msg.toString() : null);
+    }
+
+    @Override
+    public Result filter(Logger logger, Level eventLevel, Marker marker, String msg, Object... params) {
+        return sample(eventLevel, msg);
+    }
+
+    private Result sample(Level eventLevel, String template) {
+        // Lower intLevel means more severe - anything more severe than the sampling level is never sampled
+        if (template == null || eventLevel.intLevel() < level.intLevel()) {
+            return onMatch;
+        }
+        if (!pattern.matcher(template).matches()) {
+            return onMatch;
+        }
+
+        AtomicLong counter = counters.get(template);
+        if (counter == null) {
+            if (counters.size() >= MAX_TRACKED_TEMPLATES) {
+                // Unbounded template growth means messages are not templated - stop tracking, just sample globally
+                counter = counters.computeIfAbsent("", key -> new AtomicLong());
+            } else {
+                counter = counters.computeIfAbsent(template, key -> new AtomicLong());
+            }
+        }
+
+        // First occurrence always passes, then one in every 'rate'
+        return (counter.getAndIncrement() % rate == 0) ? onMatch : onMismatch;
+    }
+
+    private static String templateOf(Message message) {
+        if (message == null) {
+            return null;
+        }
+        String format = message.getFormat();
+        return format != null ? format : message.getFormattedMessage();
+    }
+
+    @Override
+    public String toString() {
+        return "SamplingFilter{level=" + level + ", rate=" + rate + ", regex=" + pattern.pattern() + "}";
+    }
+
+    /**
+     * Create a sampling filter from configuration attributes
+     * @param levelName Most severe level that is sampled (default DEBUG)
+     * @param rate Pass one of every N matching messages (default 10)
+     * @param regex Regex matched against the message template
+     * @param match Result when the message is kept (default NEUTRAL)
+     * @param mismatch Result when the message is dropped (default DENY)
+     * @return SamplingFilter
+     */
+    @PluginFactory
+    public static SamplingFilter createFilter(@PluginAttribute("level") String levelName,
+                                              @PluginAttribute(value = "rate", defaultInt = 10) int rate,
+                                              @PluginAttribute("regex") String regex,
+                                              @PluginAttribute("onMatch") Result match,
+                                              @PluginAttribute("onMismatch") Result mismatch) {
+        Level samplingLevel = Level.toLevel(levelName, Level.DEBUG);
+        Pattern messagePattern = Pattern.compile(regex != null ? regex : "(?i).*(wait|poll).*");
+        Result onMatch = match != null ? match : Result.NEUTRAL;
+        Result onMismatch = mismatch != null ? mismatch : Result.DENY;
+        return new SamplingFilter(samplingLevel, Math.max(1, rate), messagePattern, onMatch, onMismatch);
+    }
+}
@@ -0,0 +1,98 @@
+package com.demowebshop.automation.utils.logging;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.ThreadContext;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Binds the currently executing test to the logging thread context (MDC)
+ * Every log line written by a test thread carries the test ID under {@link #TEST_ID_KEY},
+ * which the log patterns print as %X{testId}. Each invocation (data provider row, retry) also gets a
+ * run-unique number under {@link #INVOCATION_KEY}, so rows of one method running in parallel are
+ * routed to separate log segments.
+ */
+public final class TestLogContext {
+    public static final String TEST_ID_KEY = "testId";
+    public static final String INVOCATION_KEY = "testInvocation";
+    public static final String SEGMENT_LOGGER_NAME = "TestSegments";
+    public static final Marker TEST_END_MARKER = MarkerManager.getMarker("TEST_SEGMENT_END");
+
+    private static final Logger segmentLogger = LogManager.getLogger(SEGMENT_LOGGER_NAME);
+    private static final AtomicLong invocations = new AtomicLong();
+
+    private TestLogContext() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Bind a test to the current thread
+     * Binding the test that is already bound keeps its invocation, since both the test listener and
+     * the base class setup bind the same invocation
+     * @param testClass Simple name of the test class
+     * @param testMethod Test method name
+     * @return Test ID that was bound
+     */
+    public static String bind(String testClass, String testMethod) {
+        String testId = testIdOf(testClass, testMethod);
+        if (!testId.equals(currentTestId()) || ThreadContext.get(INVOCATION_KEY) == null) {
+            ThreadContext.put(TEST_ID_KEY, testId);
+            ThreadContext.put(INVOCATION_KEY, String.valueOf(invocations.incrementAndGet()));
+        }
+        return testId;
+    }
+
+    /**
+     * Build the test ID used as log routing key
+     * @param testClass Simple name of the test class
+     * @param testMethod Test method name
+     * @return Test ID (Class.method)
+     */
+    public static String testIdOf(String testClass, String testMethod) {
+        return testClass + "." + testMethod;
+    }
+
+    /**
+     * Build the key of one invocation's log segment
+     * @param testId Test ID (Class.method)
+     * @param invocation Invocation number, or null when none is bound
+     * @return Segment key (Class.method#invocation)
+     */
+    public static String segmentKeyOf(String testId, String invocation) {
+        return invocation == null ? testId : testId + "#" + invocation;
+    }
+
+    /**
+     * Get the segment key of the invocation bound to the current thread
+     * @return Segment key or null if no test is bound
+     */
+    public static String currentSegmentKey() {
+        String testId = currentTestId();
+        return testId == null ? null : segmentKeyOf(testId, ThreadContext.get(INVOCATION_KEY));
+    }
+
+    /**
+     * Get the test ID bound to the current thread
+     * @return Test ID or null if no test is bound
+     */
+    public static String currentTestId() {
+        return ThreadContext.get(TEST_ID_KEY);
+    }
+
+    /**
+     * Remove the test binding from the current thread (pooled threads are reused across tests)
+     * Logs an end marker first so the per-test segment store closes the test's segment in order,
+     * even when events are still queued in an async logger
+     */
+    public static void clear() {
+        String testId = currentTestId();
+        if (testId != null) {
+            segmentLogger.info(TEST_END_MARKER, "--- end of log for {} ---", testId);
+        }
+        ThreadContext.remove(TEST_ID_KEY);
+        ThreadContext.remove(INVOCATION_KEY);
+    }
+}
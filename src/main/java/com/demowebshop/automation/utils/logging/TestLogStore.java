@@ -0,0 +1,215 @@
+package com.demowebshop.automation.utils.logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Segmented per-test log store
+ * Segment file: raw log text, each test segment written contiguously
+ * Index file: one binary record per segment - [u16 id length][UTF-8 segment key][i64 offset][i32 length]
+ * The segment key is the test ID plus the invocation number (Class.method#7); reads accept either.
+ *
+ * Written by {@link TestSegmentAppender}; read by reporting to attach a single test's log slice
+ * with one positional read instead of scanning the full framework log.
+ */
+public class TestLogStore {
+    public static final String DEFAULT_SEGMENT_FILE = "logs/test-segments.log";
+
+    private final Path segmentFile;
+    private final Path indexFile;
+    private FileChannel segmentChannel;
+    private FileChannel indexChannel;
+
+    public TestLogStore(Path segmentFile, Path indexFile) {
+        this.segmentFile = segmentFile;
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Open the store of the current run: the live appender's store, or the default files on disk
+     * @return TestLogStore
+     */
+    public static TestLogStore forCurrentRun() {
+        TestSegmentAppender appender = TestSegmentAppender.getActive();
+        if (appender != null) {
+            return appender.getStore();
+        }
+        Path segments = Paths.get(DEFAULT_SEGMENT_FILE);
+        return new TestLogStore(segments, Paths.get(segments + ".idx"));
+    }
+
+    // Writing
+    synchronized void openForWriting() throws IOException {
+        Path parent = segmentFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        segmentChannel = FileChannel.open(segmentFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        indexChannel = FileChannel.open(indexFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    synchronized void appendSegment(String testId, byte[] content) throws IOException {
+        if (segmentChannel == null) {
+            throw new IOException("Segment store is not open for writing");
+        }
+        long offset = segmentChannel.size();
+        ByteBuffer data = ByteBuffer.wrap(content);
+        while (data.hasRemaining()) {
+            segmentChannel.write(data, offset + data.position());
+        }
+
+        byte[] id = testId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(2 + id.length + 8 + 4);
+        record.putShort((short) id.length).put(id).putLong(offset).putInt(content.length).flip();
+        long indexPosition = indexChannel.size();
+        while (record.hasRemaining()) {
+            indexChannel.write(record, indexPosition + record.position());
+        }
+    }
+
+    synchronized void close() {
+        closeQuietly(segmentChannel);
+        closeQuietly(indexChannel);
+        segmentChannel = null;
+        indexChannel = null;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Best effort close on shutdown
+            }
+        }
+    }
+
+    // Reading
+    /**
+     * Read the whole index
+     * @return All segments in write order
+     */
+    public List<Segment> readIndex() throws IOException {
+        if (!Files.exists(indexFile)) {
+            return Collections.emptyList();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+        List<Segment> segments = new ArrayList<>();
+        while (buffer.remaining() >= 2) {
+            int idLength = Short.toUnsignedInt(buffer.getShort());
+            if (buffer.remaining() < idLength + 12) {
+                break; // Partially written trailing record
+            }
+            byte[] id = new byte[idLength];
+            buffer.get(id);
+            segments.add(new Segment(new String(id, StandardCharsets.UTF_8), buffer.getLong(), buffer.getInt()));
+        }
+        return segments;
+    }
+
+    /**
+     * Get index entries for one test (retries and data-driven rows produce several segments)
+     * @param testId Test ID (Class.method) for every invocation, or a segment key for one
+     * @return Matching segments in write order
+     */
+    public List<Segment> segmentsFor(String testId) throws IOException {
+        List<Segment> matching = new ArrayList<>();
+        for (Segment segment : readIndex()) {
+            if (matches(segment.getTestId(), testId)) {
+                matching.add(segment);
+            }
+        }
+        return matching;
+    }
+
+    static boolean matches(String segmentKey, String testId) {
+        return segmentKey.equals(testId) || segmentKey.startsWith(testId + "#");
+    }
+
+    /**
+     * Read the complete log of a test, including lines not yet flushed by a live appender
+     * @param testId Test ID (Class.method) or segment key (Class.method#invocation)
+     * @return Log text, empty if the test has no log
+     */
+    public String read(String testId) throws IOException {
+        StringBuilder log = new StringBuilder();
+        List<Segment> segments;
+        String pending = "";
+        // Index and pending lines are taken together, while no queued segment can move into the file
+        synchronized (this) {
+            segments = segmentsFor(testId);
+            TestSegmentAppender appender = TestSegmentAppender.writing(this);
+            if (appender != null) {
+                pending = appender.pendingLines(testId);
+            }
+        }
+        if (!segments.isEmpty()) {
+            try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ)) {
+                for (Segment segment : segments) {
+                    ByteBuffer data = ByteBuffer.allocate(segment.getLength());
+                    while (data.hasRemaining()) {
+                        if (channel.read(data, segment.getOffset() + data.position()) < 0) {
+                            break;
+                        }
+                    }
+                    log.append(new String(data.array(), 0, data.position(), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return log.append(pending).toString();
+    }
+
+    /**
+     * Read at most the last maxChars characters of a test's log (for report attachments)
+     * @param testId Test ID
+     * @param maxChars Maximum characters to return
+     * @return Log tail
+     */
+    public String readTail(String testId, int maxChars) throws IOException {
+        String log = read(testId);
+        return log.length() <= maxChars ? log : "...\n" + log.substring(log.length() - maxChars);
+    }
+
+    public Path getSegmentFile() {
+        return segmentFile;
+    }
+
+    public Path getIndexFile() {
+        return indexFile;
+    }
+
+    /**
+     * One index record
+     */
+    public static final class Segment {
+        private final String testId;
+        private final long offset;
+        private final int length;
+
+        public Segment(String testId, long offset, int length) {
+            this.testId = testId;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public String getTestId() { return testId; }
+        public long getOffset() { return offset; }
+        public int getLength() { return length; }
+
+        @Override
+        public String toString() {
+            return String.format("Segment{testId='%s', offset=%d, length=%d}", testId, offset, length);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.demowebshop.automation.utils.logging;
+
+import com.demowebshop.automation.utils.concurrent.SideTaskExecutor;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log4j2 appender that routes events by the test ID in the thread context (see {@link TestLogContext})
+ * Each test invocation's lines are buffered and written as one contiguous segment to a shared
+ * segment file when the invocation ends, and a compact binary index record (test ID, offset, length) is appended
+ * so {@link TestLogStore} can read a single test's log without scanning the whole file.
+ * Segments are written in order on a {@link SideTaskExecutor} task, so the logging test thread never waits
+ * on the disk; until a segment is in the file, readers get it from {@link #pendingLines(String)}.
+ *
+ * Usage in log4j2 configuration:
+ * <pre>
+ *   &lt;TestSegment name="TestSegments" fileName="logs/test-segments.log"&gt;
+ *       &lt;PatternLayout pattern="..."/&gt;
+ *   &lt;/TestSegment&gt;
+ * </pre>
+ */
+@Plugin(name = "TestSegment", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE, printObject = true)
+public final class TestSegmentAppender extends AbstractAppender {
+    private static final Map<String, TestSegmentAppender> ACTIVE = new ConcurrentHashMap<>();
+    private static final Duration STOP_WRITE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final TestLogStore store;
+    private final int maxBufferSize;
+    private final Map<String, ByteArrayOutputStream> buffers = new ConcurrentHashMap<>();
+    private final Queue<QueuedSegment> queued = new ConcurrentLinkedQueue<>();
+    private CompletableFuture<Void> lastWrite = CompletableFuture.completedFuture(null);
+
+    private TestSegmentAppender(String name, Filter filter, Layout<? extends Serializable> layout,
+                                TestLogStore store, int maxBufferSize) {
+        super(name, filter, layout, true, Property.EMPTY_ARRAY);
+        this.store = store;
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    @Override
+    public void start() {
+        try {
+            store.openForWriting();
+        } catch (IOException e) {
+            error("Could not open test segment store " + store.getSegmentFile() + ": " + e.getMessage());
+        }
+        ACTIVE.put(getName(), this);
+        super.start();
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        String testId = event.getContextData().getValue(TestLogContext.TEST_ID_KEY);
+        if (testId == null) {
+            return; // Suite-level lines stay in the regular framework log only
+        }
+        // One buffer per invocation: parallel data provider rows of a method must not share a segment
+        String segmentKey = TestLogContext.segmentKeyOf(testId, event.getContextData().getValue(TestLogContext.INVOCATION_KEY));
+
+        ByteArrayOutputStream buffer = buffers.computeIfAbsent(segmentKey, key -> new ByteArrayOutputStream(8192));
+        byte[] line = getLayout().toByteArray(event);
+        boolean testEnded = event.getMarker() != null && event.getMarker().isInstanceOf(TestLogContext.TEST_END_MARKER);
+
+        synchronized (buffer) {
+            buffer.write(line, 0, line.length);
+            if (testEnded || buffer.size() >= maxBufferSize) {
+                flushSegment(segmentKey, buffer);
+            }
+            if (testEnded) {
+                buffers.remove(segmentKey, buffer);
+            }
+        }
+    }
+
+    private void flushSegment(String testId, ByteArrayOutputStream buffer) {
+        if (buffer.size() == 0) {
+            return;
+        }
+        queue(new QueuedSegment(testId, buffer.toByteArray()));
+        buffer.reset();
+    }
+
+    // Writes are chained so the segments of an invocation reach the file in the order they were flushed
+    private synchronized void queue(QueuedSegment segment) {
+        queued.add(segment);
+        lastWrite = lastWrite.exceptionally(error -> null)
+                .thenCompose(previous -> SideTaskExecutor.execute("write log segment " + segment.segmentKey,
+                        () -> write(segment)));
+    }
+
+    private void write(QueuedSegment segment) {
+        // Appended and dequeued under the store lock, so a reader sees the lines in exactly one place
+        synchronized (store) {
+            try {
+                store.appendSegment(segment.segmentKey, segment.content);
+            } catch (IOException e) {
+                error("Could not write log segment for " + segment.segmentKey + ": " + e.getMessage());
+            } finally {
+                queued.remove(segment);
+            }
+        }
+    }
+
+    /**
+     * Wait until every flushed segment is in the segment file
+     * @param timeout Maximum time to wait
+     * @return true if all writes finished in time
+     */
+    public boolean awaitWrites(Duration timeout) {
+        CompletableFuture<Void> pending;
+        synchronized (this) {
+            pending = lastWrite;
+        }
+        try {
+            pending.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return pending.isDone();
+        }
+    }
+
+    /**
+     * Get lines of a test that are not in the segment file yet (test not finished, or segment still being written)
+     * @param testId Test ID (all invocations) or segment key (one invocation)
+     * @return Buffered log text, empty if nothing is pending
+     */
+    public String pendingLines(String testId) {
+        StringBuilder pending = new StringBuilder();
+        for (QueuedSegment segment : queued) {
+            if (TestLogStore.matches(segment.segmentKey, testId)) {
+                pending.append(new String(segment.content, StandardCharsets.UTF_8));
+            }
+        }
+        buffers.forEach((segmentKey, buffer) -> {
+            if (TestLogStore.matches(segmentKey, testId)) {
+                synchronized (buffer) {
+                    pending.append(buffer.toString(StandardCharsets.UTF_8));
+                }
+            }
+        });
+        return pending.toString();
+    }
+
+    public TestLogStore getStore() {
+        return store;
+    }
+
+    @Override
+    public boolean stop(long timeout, TimeUnit timeUnit) {
+        setStopping();
+        // Flush tests that never logged their end marker (aborted runs, suite timeouts)
+        buffers.forEach((testId, buffer) -> {
+            synchronized (buffer) {
+                flushSegment(testId, buffer);
+            }
+        });
+        buffers.clear();
+        if (!awaitWrites(STOP_WRITE_TIMEOUT)) {
+            error("Log segments still being written after " + STOP_WRITE_TIMEOUT.toSeconds() + "s, closing "
+                    + store.getSegmentFile());
+        }
+        store.close();
+        ACTIVE.remove(getName(), this);
+        setStopped();
+        return true;
+    }
+
+    /**
+     * Get the first running segment appender, if logging is configured with one
+     * @return Active appender or null
+     */
+    public static TestSegmentAppender getActive() {
+        return ACTIVE.values().stream().findFirst().orElse(null);
+    }
+
+    /**
+     * Get the running appender that writes a store
+     * @param store Segment store
+     * @return Appender or null if no running appender writes it
+     */
+    static TestSegmentAppender writing(TestLogStore store) {
+        return ACTIVE.values().stream().filter(appender -> appender.store == store).findFirst().orElse(null);
+    }
+
+    /**
+     * Create the appender from configuration
+     * @param name Appender name
+     * @param fileName Segment file path
+     * @param indexFileName Index file path (default: segment file + ".idx")
+     * @param maxBufferSize Bytes buffered per test before a partial segment is written (default 1MB)
+     * @param layout Layout for each line (default pattern layout)
+     * @param filter Optional filter
+     * @return TestSegmentAppender
+     */
+    @PluginFactory
+    public static TestSegmentAppender createAppender(@PluginAttribute("name") String name,
+                                                     @PluginAttribute("fileName") String fileName,
+                                                     @PluginAttribute("indexFileName") String indexFileName,
+                                                     @PluginAttribute(value = "maxBufferSize", defaultInt = 1048576) int maxBufferSize,
+                                                     @PluginElement("Layout") Layout<? extends Serializable> layout,
+                                                     @PluginElement("Filter") Filter filter) {
+        if (name == null) {
+            LOGGER.error("No name provided for TestSegment appender");
+            return null;
+        }
+        Path segmentFile = Paths.get(fileName != null ? fileName : "logs/test-segments.log");
+        Path indexFile = indexFileName != null ? Paths.get(indexFileName) : Paths.get(segmentFile + ".idx");
+        Layout<? extends Serializable> segmentLayout = layout != null ? layout : PatternLayout.createDefaultLayout();
+        return new TestSegmentAppender(name, filter, segmentLayout, new TestLogStore(segmentFile, indexFile),
+                Math.max(4096, maxBufferSize));
+    }
+
+    /**
+     * Flushed segment waiting for its side task to write it
+     */
+    private static final class QueuedSegment {
+        private final String segmentKey;
+        private final byte[] content;
+
+        private QueuedSegment(String segmentKey, byte[] content) {
+            this.segmentKey = segmentKey;
+            this.content = content;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.demowebshop.automation.utils.metrics;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.concurrent.SideTaskExecutor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntSupplier;
+
+/**
+ * Run-level metrics of the framework
+ * Updated by WebDriverFactory (driver creation, active sessions), the wait utilities (wait time)
+ * and the test listeners (results, retries); exported as an OpenMetrics textfile at suite end
+ * and optionally served by {@link MetricsEndpoint} while the run is in progress.
+ */
+public class FrameworkMetrics {
+    private static final Logger logger = LogManager.getLogger(FrameworkMetrics.class);
+    private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    private static final MetricsRegistry.Counter TESTS = REGISTRY.counter(
+            "demowebshop_tests", "Finished test invocations by result", "result");
+    private static final MetricsRegistry.Counter RETRIES = REGISTRY.counter(
+            "demowebshop_test_retries", "Test invocations scheduled for retry", "test_class");
+    private static final MetricsRegistry.Histogram DRIVER_CREATION = REGISTRY.histogram(
+            "demowebshop_driver_creation_seconds", "WebDriver session creation latency",
+            0.5, 1, 2, 5, 10, 20, 30, 60, 120, 180);
+    private static final MetricsRegistry.Counter DRIVER_CREATION_FAILURES = REGISTRY.counter(
+            "demowebshop_driver_creation_failures", "WebDriver sessions that could not be created", "browser");
+    private static final MetricsRegistry.Gauge ACTIVE_SESSIONS = REGISTRY.gauge(
+            "demowebshop_active_sessions", "WebDriver sessions currently open");
+    private static final MetricsRegistry.Counter WAIT_SECONDS = REGISTRY.counter(
+            "demowebshop_wait_seconds", "Time spent in explicit waits", "outcome");
+    private static final MetricsRegistry.Counter SITE_BREAKER_TRANSITIONS = REGISTRY.counter(
+            "demowebshop_site_breaker_transitions", "Site health circuit breaker state changes", "state");
+    private static final MetricsRegistry.Gauge TESTS_PER_MINUTE = REGISTRY.gauge(
+            "demowebshop_tests_per_minute", "Finished tests per minute since the run started");
+    private static final MetricsRegistry.Gauge RUN_START = REGISTRY.gauge(
+            "demowebshop_run_start_timestamp_seconds", "Unix time the run started");
+
+    private static volatile long runStartMillis = System.currentTimeMillis();
+
+    static {
+        RUN_START.setSupplier(() -> runStartMillis / 1000.0);
+        TESTS_PER_MINUTE.setSupplier(FrameworkMetrics::testsPerMinute);
+    }
+
+    private FrameworkMetrics() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static MetricsRegistry getRegistry() {
+        return REGISTRY;
+    }
+
+    /**
+     * Mark the start of a run: resets values and starts the HTTP endpoint if metrics.http.port is set
+     */
+    public static void startRun() {
+        REGISTRY.reset();
+        runStartMillis = System.currentTimeMillis();
+        int port = ConfigManager.getMetricsHttpPort();
+        if (port > 0) {
+            MetricsEndpoint.start(REGISTRY, port);
+        }
+    }
+
+    /**
+     * Mark the end of a run: writes the textfile on a side task and stops the HTTP endpoint
+     * @return Future completed when the textfile is written (or the write failed and was logged)
+     */
+    public static CompletableFuture<Void> finishRun() {
+        Path textfile = Paths.get(ConfigManager.getMetricsTextfilePath());
+        CompletableFuture<Void> written = SideTaskExecutor.execute("write " + textfile, () -> {
+            try {
+                REGISTRY.writeTextfile(textfile);
+                logger.info("Metrics written to {}", textfile);
+            } catch (IOException e) {
+                logger.error("Could not write metrics textfile {}: {}", textfile, e.getMessage());
+            }
+        });
+        MetricsEndpoint.stop();
+        return written;
+    }
+
+    // Recording methods
+    public static void recordTestResult(String result) {
+        TESTS.inc(result);
+    }
+
+    public static void recordRetry(String testClass) {
+        RETRIES.inc(testClass);
+    }
+
+    public static void recordDriverCreated(long durationMillis) {
+        DRIVER_CREATION.observe(durationMillis / 1000.0);
+    }
+
+    public static void recordDriverCreationFailed(String browser) {
+        DRIVER_CREATION_FAILURES.inc(browser);
+    }
+
+    /**
+     * Report open sessions from the driver factory's own tracking
+     * Sessions outlive suites (warm and pooled browsers), so the gauge is not counted here and reset per run.
+     * @param openSessions Number of drivers currently open
+     */
+    public static void trackActiveSessions(IntSupplier openSessions) {
+        ACTIVE_SESSIONS.setSupplier(openSessions::getAsInt);
+    }
+
+    public static void recordWait(long durationMillis, boolean timedOut) {
+        WAIT_SECONDS.inc(durationMillis / 1000.0, timedOut ? "timeout" : "satisfied");
+    }
+
+    public static void recordSiteBreakerTransition(String state) {
+        SITE_BREAKER_TRANSITIONS.inc(state);
+    }
+
+    private static double testsPerMinute() {
+        double finished = TESTS.get("passed") + TESTS.get("failed") + TESTS.get("skipped");
+        double minutes = (System.currentTimeMillis() - runStartMillis) / 60000.0;
+        return minutes <= 0 ? 0 : finished / minutes;
+    }
+}
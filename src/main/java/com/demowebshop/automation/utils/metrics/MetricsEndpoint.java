@@ -0,0 +1,65 @@
+package com.demowebshop.automation.utils.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Local HTTP endpoint serving a registry at /metrics while the run is in progress
+ * Bound to the loopback interface only; a scraper or sidecar on the same host can pull from it.
+ */
+public class MetricsEndpoint {
+    private static final Logger logger = LogManager.getLogger(MetricsEndpoint.class);
+    private static HttpServer server;
+
+    private MetricsEndpoint() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Start serving the registry (no-op if already running)
+     * @param registry Registry to expose
+     * @param port Port on 127.0.0.1, 0 for an ephemeral port
+     * @return Port actually bound, -1 if the endpoint could not be started
+     */
+    public static synchronized int start(MetricsRegistry registry, int port) {
+        if (server != null) {
+            return server.getAddress().getPort();
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext("/metrics", exchange -> {
+                byte[] body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", MetricsRegistry.CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            int boundPort = server.getAddress().getPort();
+            logger.info("Metrics endpoint listening on http://127.0.0.1:{}/metrics", boundPort);
+            return boundPort;
+        } catch (IOException e) {
+            logger.warn("Could not start metrics endpoint on port {}: {}", port, e.getMessage());
+            server = null;
+            return -1;
+        }
+    }
+
+    /**
+     * Stop the endpoint if it is running
+     */
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+}
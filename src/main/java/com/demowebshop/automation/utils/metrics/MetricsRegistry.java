@@ -0,0 +1,322 @@
+package com.demowebshop.automation.utils.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Minimal in-process metrics registry rendered in the OpenMetrics text format
+ * Counters, gauges and histograms are lock-free on the update path (adders per label set),
+ * so test threads can update them without contending; formatting only happens on scrape.
+ */
+public class MetricsRegistry {
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    /**
+     * Register (or get the already registered) counter
+     * @param name Metric family name without the _total suffix
+     * @param help Help text
+     * @param labelNames Label names
+     * @return Counter
+     */
+    public Counter counter(String name, String help, String... labelNames) {
+        return register(new Counter(name, help, labelNames), Counter.class);
+    }
+
+    /**
+     * Register (or get the already registered) gauge
+     * @param name Metric family name
+     * @param help Help text
+     * @param labelNames Label names
+     * @return Gauge
+     */
+    public Gauge gauge(String name, String help, String... labelNames) {
+        return register(new Gauge(name, help, labelNames), Gauge.class);
+    }
+
+    /**
+     * Register (or get the already registered) histogram without labels
+     * @param name Metric family name
+     * @param help Help text
+     * @param buckets Upper bounds in ascending order (+Inf is added automatically)
+     * @return Histogram
+     */
+    public Histogram histogram(String name, String help, double... buckets) {
+        return register(new Histogram(name, help, buckets), Histogram.class);
+    }
+
+    private <M extends Metric> M register(M metric, Class<M> type) {
+        Metric existing = metrics.putIfAbsent(metric.name, metric);
+        if (existing == null) {
+            return metric;
+        }
+        if (!type.isInstance(existing)) {
+            throw new IllegalArgumentException("Metric " + metric.name + " is already registered as "
+                    + existing.getClass().getSimpleName());
+        }
+        return type.cast(existing);
+    }
+
+    /**
+     * Render all metrics in the OpenMetrics text exposition format
+     * @return Exposition text, terminated by # EOF
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Metric metric : metrics.values()) {
+            out.append("# TYPE ").append(metric.name).append(' ').append(metric.type()).append('\n');
+            out.append("# HELP ").append(metric.name).append(' ').append(escape(metric.help)).append('\n');
+            metric.writeSamples(out);
+        }
+        return out.append("# EOF\n").toString();
+    }
+
+    /**
+     * Write the exposition to a textfile (atomically, so a textfile collector never reads a partial file)
+     * @param file Target file, e.g. target/metrics/demowebshop.prom
+     */
+    public void writeTextfile(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, scrape().getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reset all values (registrations are kept)
+     */
+    public void reset() {
+        metrics.values().forEach(Metric::reset);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\n", "\\n").replace("\"", "\\\"");
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    /**
+     * Base class of all metric types
+     */
+    public abstract static class Metric {
+        final String name;
+        final String help;
+        final String[] labelNames;
+
+        Metric(String name, String help, String[] labelNames) {
+            this.name = name;
+            this.help = help;
+            this.labelNames = labelNames;
+        }
+
+        abstract String type();
+
+        abstract void writeSamples(StringBuilder out);
+
+        abstract void reset();
+
+        List<String> key(String... labelValues) {
+            if (labelValues.length != labelNames.length) {
+                throw new IllegalArgumentException(name + " expects labels " + Arrays.toString(labelNames));
+            }
+            return labelValues.length == 0 ? Collections.emptyList() : Arrays.asList(labelValues);
+        }
+
+        void writeSample(StringBuilder out, String suffix, List<String> labelValues, String extraLabel,
+                         String extraValue, double value) {
+            out.append(name).append(suffix);
+            if (!labelValues.isEmpty() || extraLabel != null) {
+                out.append('{');
+                for (int i = 0; i < labelValues.size(); i++) {
+                    out.append(labelNames[i]).append("=\"").append(escape(labelValues.get(i))).append("\",");
+                }
+                if (extraLabel != null) {
+                    out.append(extraLabel).append("=\"").append(extraValue).append("\",");
+                }
+                out.setLength(out.length() - 1);
+                out.append('}');
+            }
+            out.append(' ').append(format(value)).append('\n');
+        }
+    }
+
+    /**
+     * Monotonic counter, exposed as &lt;name&gt;_total
+     */
+    public static final class Counter extends Metric {
+        private final Map<List<String>, DoubleAdder> values = new ConcurrentHashMap<>();
+
+        Counter(String name, String help, String[] labelNames) {
+            super(name, help, labelNames);
+        }
+
+        public void inc(String... labelValues) {
+            inc(1, labelValues);
+        }
+
+        public void inc(double amount, String... labelValues) {
+            if (amount < 0) {
+                throw new IllegalArgumentException("Counters can only increase");
+            }
+            values.computeIfAbsent(key(labelValues), k -> new DoubleAdder()).add(amount);
+        }
+
+        public double get(String... labelValues) {
+            DoubleAdder adder = values.get(key(labelValues));
+            return adder == null ? 0 : adder.sum();
+        }
+
+        @Override
+        String type() { return "counter"; }
+
+        @Override
+        void writeSamples(StringBuilder out) {
+            values.forEach((labels, adder) -> writeSample(out, "_total", labels, null, null, adder.sum()));
+        }
+
+        @Override
+        void reset() { values.clear(); }
+    }
+
+    /**
+     * Gauge that is either set/incremented directly or computed on scrape from a supplier
+     */
+    public static final class Gauge extends Metric {
+        private final Map<List<String>, DoubleAdder> values = new ConcurrentHashMap<>();
+        private volatile DoubleSupplier supplier;
+
+        Gauge(String name, String help, String[] labelNames) {
+            super(name, help, labelNames);
+        }
+
+        public void inc(String... labelValues) {
+            values.computeIfAbsent(key(labelValues), k -> new DoubleAdder()).add(1);
+        }
+
+        public void dec(String... labelValues) {
+            values.computeIfAbsent(key(labelValues), k -> new DoubleAdder()).add(-1);
+        }
+
+        public void set(double value, String... labelValues) {
+            DoubleAdder adder = new DoubleAdder();
+            adder.add(value);
+            values.put(key(labelValues), adder);
+        }
+
+        /**
+         * Compute the (unlabelled) value on every scrape
+         * @param supplier Value supplier
+         */
+        public void setSupplier(DoubleSupplier supplier) {
+            this.supplier = supplier;
+        }
+
+        public double get(String... labelValues) {
+            if (supplier != null && labelValues.length == 0) {
+                return supplier.getAsDouble();
+            }
+            DoubleAdder adder = values.get(key(labelValues));
+            return adder == null ? 0 : adder.sum();
+        }
+
+        @Override
+        String type() { return "gauge"; }
+
+        @Override
+        void writeSamples(StringBuilder out) {
+            if (supplier != null) {
+                writeSample(out, "", Collections.emptyList(), null, null, supplier.getAsDouble());
+                return;
+            }
+            values.forEach((labels, adder) -> writeSample(out, "", labels, null, null, adder.sum()));
+        }
+
+        @Override
+        void reset() { values.clear(); }
+    }
+
+    /**
+     * Cumulative histogram with fixed buckets
+     */
+    public static final class Histogram extends Metric {
+        private final double[] bounds;
+        private final LongAdder[] buckets;
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+
+        Histogram(String name, String help, double[] bounds) {
+            super(name, help, new String[0]);
+            this.bounds = bounds.clone();
+            Arrays.sort(this.bounds);
+            this.buckets = new LongAdder[this.bounds.length];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void observe(double value) {
+            for (int i = 0; i < bounds.length; i++) {
+                if (value <= bounds[i]) {
+                    buckets[i].increment();
+                    break;
+                }
+            }
+            count.increment();
+            sum.add(value);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getSum() {
+            return sum.sum();
+        }
+
+        @Override
+        String type() { return "histogram"; }
+
+        @Override
+        void writeSamples(StringBuilder out) {
+            long cumulative = 0;
+            List<String> none = Collections.emptyList();
+            for (int i = 0; i < bounds.length; i++) {
+                cumulative += buckets[i].sum();
+                writeSample(out, "_bucket", none, "le", Double.toString(bounds[i]), cumulative);
+            }
+            writeSample(out, "_bucket", none, "le", "+Inf", count.sum());
+            writeSample(out, "_count", none, null, null, count.sum());
+            writeSample(out, "_sum", none, null, null, sum.sum());
+        }
+
+        @Override
+        void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            count.reset();
+            sum.reset();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.demowebshop.automation.utils.performance;
+
+import java.util.Map;
+
+/**
+ * Browser-side timings of a single navigation, read from the Navigation Timing,
+ * Paint Timing and Resource Timing APIs. All durations are in milliseconds relative
+ * to navigation start; -1 means the browser did not report the value.
+ */
+public class PageTiming {
+    private final String pageClass;
+    private final String url;
+    private final long capturedAt;
+    private final double timeToFirstByte;
+    private final double domContentLoaded;
+    private final double loadEventEnd;
+    private final double firstPaint;
+    private final double firstContentfulPaint;
+    private final int resourceCount;
+    private final long transferBytes;
+    private final double slowestResource;
+
+    public PageTiming(String pageClass, String url, long capturedAt, double timeToFirstByte,
+                      double domContentLoaded, double loadEventEnd, double firstPaint,
+                      double firstContentfulPaint, int resourceCount, long transferBytes,
+                      double slowestResource) {
+        this.pageClass = pageClass;
+        this.url = url;
+        this.capturedAt = capturedAt;
+        this.timeToFirstByte = timeToFirstByte;
+        this.domContentLoaded = domContentLoaded;
+        this.loadEventEnd = loadEventEnd;
+        this.firstPaint = firstPaint;
+        this.firstContentfulPaint = firstContentfulPaint;
+        this.resourceCount = resourceCount;
+        this.transferBytes = transferBytes;
+        this.slowestResource = slowestResource;
+    }
+
+    /**
+     * Build a timing from the map returned by {@link PageTimingCollector}'s browser script
+     * @param pageClass Page object class that triggered the capture
+     * @param raw Script result
+     * @return PageTiming
+     */
+    static PageTiming fromScriptResult(String pageClass, Map<?, ?> raw) {
+        return new PageTiming(
+                pageClass,
+                String.valueOf(raw.get("url")),
+                System.currentTimeMillis(),
+                number(raw, "ttfb"),
+                number(raw, "dcl"),
+                number(raw, "load"),
+                number(raw, "fp"),
+                number(raw, "fcp"),
+                (int) number(raw, "resources"),
+                (long) number(raw, "transferBytes"),
+                number(raw, "slowestResource"));
+    }
+
+    private static double number(Map<?, ?> raw, String key) {
+        Object value = raw.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : -1;
+    }
+
+    // Getters
+    public String getPageClass() { return pageClass; }
+    public String getUrl() { return url; }
+    public long getCapturedAt() { return capturedAt; }
+    public double getTimeToFirstByte() { return timeToFirstByte; }
+    public double getDomContentLoaded() { return domContentLoaded; }
+    public double getLoadEventEnd() { return loadEventEnd; }
+    public double getFirstPaint() { return firstPaint; }
+    public double getFirstContentfulPaint() { return firstContentfulPaint; }
+    public int getResourceCount() { return resourceCount; }
+    public long getTransferBytes() { return transferBytes; }
+    public double getSlowestResource() { return slowestResource; }
+
+    @Override
+    public String toString() {
+        return String.format("PageTiming{page='%s', url='%s', ttfb=%.0f, dcl=%.0f, load=%.0f, fcp=%.0f, resources=%d}",
+                pageClass, url, timeToFirstByte, domContentLoaded, loadEventEnd, firstContentfulPaint, resourceCount);
+    }
+}
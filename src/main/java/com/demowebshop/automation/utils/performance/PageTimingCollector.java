@@ -0,0 +1,102 @@
+package com.demowebshop.automation.utils.performance;
+
+import com.demowebshop.automation.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Collects browser-side performance metrics per navigation
+ * Navigation Timing, Paint Timing and Resource Timing are read in a single script round trip,
+ * and each navigation is recorded once even if several page hooks fire for it.
+ */
+public class PageTimingCollector {
+    private static final Logger logger = LogManager.getLogger(PageTimingCollector.class);
+
+    private static final String TIMING_SCRIPT =
+            "var nav = performance.getEntriesByType('navigation')[0];" +
+            "if (!nav || !nav.loadEventEnd) { return null; }" +
+            "var result = { url: location.href, timeOrigin: performance.timeOrigin," +
+            "  ttfb: nav.responseStart, dcl: nav.domContentLoadedEventEnd, load: nav.loadEventEnd };" +
+            "performance.getEntriesByType('paint').forEach(function (p) {" +
+            "  if (p.name === 'first-paint') { result.fp = p.startTime; }" +
+            "  if (p.name === 'first-contentful-paint') { result.fcp = p.startTime; }" +
+            "});" +
+            "var resources = performance.getEntriesByType('resource');" +
+            "var bytes = nav.transferSize || 0, slowest = 0;" +
+            "resources.forEach(function (r) { bytes += r.transferSize || 0; slowest = Math.max(slowest, r.duration); });" +
+            "result.resources = resources.length; result.transferBytes = bytes; result.slowestResource = slowest;" +
+            "return result;";
+
+    private static final Map<String, List<PageTiming>> TIMINGS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Object> LAST_TIME_ORIGIN = new ThreadLocal<>();
+
+    private PageTimingCollector() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Capture the timings of the page currently loaded in the browser
+     * Does nothing if metrics are disabled, the page is still loading, or this navigation was already recorded
+     * @param driver WebDriver instance
+     * @param pageClass Simple name of the page object class
+     */
+    public static void capture(WebDriver driver, String pageClass) {
+        if (!ConfigManager.isPerformanceMetricsEnabled() || !(driver instanceof JavascriptExecutor)) {
+            return;
+        }
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(TIMING_SCRIPT);
+            if (!(result instanceof Map)) {
+                return; // load event not finished yet - the page load hook will capture it
+            }
+            Map<?, ?> raw = (Map<?, ?>) result;
+            Object timeOrigin = raw.get("timeOrigin");
+            if (timeOrigin != null && timeOrigin.equals(LAST_TIME_ORIGIN.get())) {
+                return;
+            }
+            LAST_TIME_ORIGIN.set(timeOrigin);
+
+            PageTiming timing = PageTiming.fromScriptResult(pageClass, raw);
+            record(timing);
+            logger.debug("Recorded {}", timing);
+        } catch (Exception e) {
+            // Metrics must never fail a test
+            logger.debug("Could not capture page timings for {}: {}", pageClass, e.getMessage());
+        }
+    }
+
+    /**
+     * Record a timing (also used to merge timings captured elsewhere)
+     * @param timing Page timing
+     */
+    public static void record(PageTiming timing) {
+        TIMINGS.computeIfAbsent(timing.getPageClass(), key -> new CopyOnWriteArrayList<>()).add(timing);
+    }
+
+    /**
+     * Get a snapshot of all timings recorded in this run, grouped by page class
+     * @return Page class to timings
+     */
+    public static Map<String, List<PageTiming>> getTimings() {
+        Map<String, List<PageTiming>> snapshot = new ConcurrentHashMap<>();
+        TIMINGS.forEach((page, timings) -> snapshot.put(page, Collections.unmodifiableList(new ArrayList<>(timings))));
+        return snapshot;
+    }
+
+    /**
+     * Clear all recorded timings
+     */
+    public static void reset() {
+        TIMINGS.clear();
+        LAST_TIME_ORIGIN.remove();
+    }
+}
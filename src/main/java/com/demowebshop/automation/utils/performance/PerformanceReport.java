@@ -0,0 +1,215 @@
+package com.demowebshop.automation.utils.performance;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.concurrent.SideTaskExecutor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Per-run browser performance report
+ * Aggregates the timings recorded by {@link PageTimingCollector} per page class, writes
+ * page-timings.json and checks p95 load times against configured budgets and an optional
+ * baseline report from an earlier run.
+ */
+public class PerformanceReport {
+    private static final Logger logger = LogManager.getLogger(PerformanceReport.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public static final String REPORT_FILE_NAME = "page-timings.json";
+
+    private final Map<String, PageStats> pages;
+    private final List<String> violations = new ArrayList<>();
+
+    private PerformanceReport(Map<String, PageStats> pages) {
+        this.pages = pages;
+    }
+
+    /**
+     * Build a report from timings grouped by page class
+     * @param timings Page class to timings
+     * @return PerformanceReport
+     */
+    public static PerformanceReport from(Map<String, List<PageTiming>> timings) {
+        Map<String, PageStats> pages = new TreeMap<>();
+        timings.forEach((page, list) -> {
+            if (!list.isEmpty()) {
+                pages.put(page, new PageStats(list));
+            }
+        });
+        return new PerformanceReport(pages);
+    }
+
+    /**
+     * Write the report of the current run and enforce thresholds
+     * Throws if regressions were found and performance.fail.on.regression is enabled
+     */
+    public static void generateForCurrentRun() {
+        if (!ConfigManager.isPerformanceMetricsEnabled()) {
+            return;
+        }
+        PerformanceReport report = from(PageTimingCollector.getTimings());
+        if (report.pages.isEmpty()) {
+            logger.info("No page timings recorded, skipping performance report");
+            return;
+        }
+
+        report.checkThresholds();
+        String baseline = ConfigManager.getPerformanceBaselineFile();
+        if (!baseline.isEmpty()) {
+            report.compareWithBaseline(Paths.get(baseline), ConfigManager.getPerformanceRegressionTolerancePercent());
+        }
+
+        // Written on a side task; SideTaskExecutor.shutdown() at suite end waits for it
+        Path reportFile = Paths.get(ConfigManager.getPerformanceReportDirectory(), REPORT_FILE_NAME);
+        SideTaskExecutor.execute("write " + reportFile, () -> {
+            try {
+                report.write(reportFile);
+                logger.info("Performance report written to {} ({} pages)", reportFile, report.pages.size());
+            } catch (IOException e) {
+                logger.error("Could not write performance report: {}", e.getMessage());
+            }
+        });
+
+        if (!report.violations.isEmpty()) {
+            report.violations.forEach(violation -> logger.warn("Performance regression: {}", violation));
+            if (ConfigManager.shouldFailOnPerformanceRegression()) {
+                throw new IllegalStateException("Page performance regressions detected:\n  - "
+                        + String.join("\n  - ", report.violations));
+            }
+        }
+    }
+
+    /**
+     * Check each page's p95 load time against its configured budget
+     */
+    public void checkThresholds() {
+        pages.forEach((page, stats) -> {
+            int threshold = ConfigManager.getPageLoadP95Threshold(page);
+            if (threshold > 0 && stats.getLoadP95() > threshold) {
+                violations.add(String.format("%s p95 load %.0f ms exceeds budget %d ms (%d samples)",
+                        page, stats.getLoadP95(), threshold, stats.getCount()));
+            }
+        });
+    }
+
+    /**
+     * Compare p95 load times with a report written by an earlier run
+     * @param baselineFile Earlier page-timings.json
+     * @param tolerancePercent Allowed increase in percent before a page counts as regressed
+     */
+    public void compareWithBaseline(Path baselineFile, int tolerancePercent) {
+        if (!Files.exists(baselineFile)) {
+            logger.warn("Performance baseline not found: {}", baselineFile);
+            return;
+        }
+        try {
+            JsonNode baselinePages = objectMapper.readTree(baselineFile.toFile()).path("pages");
+            pages.forEach((page, stats) -> {
+                double baselineP95 = baselinePages.path(page).path("load").path("p95").asDouble(0);
+                double limit = baselineP95 * (100 + tolerancePercent) / 100.0;
+                if (baselineP95 > 0 && stats.getLoadP95() > limit) {
+                    violations.add(String.format("%s p95 load %.0f ms regressed from baseline %.0f ms (tolerance %d%%)",
+                            page, stats.getLoadP95(), baselineP95, tolerancePercent));
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Could not read performance baseline {}: {}", baselineFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Write the report as JSON
+     * @param file Target file
+     */
+    public void write(Path file) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("generatedAt", System.currentTimeMillis());
+        ObjectNode pagesNode = root.putObject("pages");
+        pages.forEach((page, stats) -> stats.writeTo(pagesNode.putObject(page)));
+        ArrayNode violationsNode = root.putArray("violations");
+        violations.forEach(violationsNode::add);
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        objectMapper.writeValue(file.toFile(), root);
+    }
+
+    public Map<String, PageStats> getPages() {
+        return pages;
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+
+    /**
+     * Aggregated timings of one page class
+     */
+    public static final class PageStats {
+        private final List<PageTiming> timings;
+        private final double[] load;
+
+        PageStats(List<PageTiming> timings) {
+            this.timings = timings;
+            this.load = sorted(timings, PageTiming::getLoadEventEnd);
+        }
+
+        public int getCount() { return timings.size(); }
+        public double getLoadP50() { return percentile(load, 50); }
+        public double getLoadP95() { return percentile(load, 95); }
+        public double getLoadMax() { return load.length == 0 ? -1 : load[load.length - 1]; }
+
+        private void writeTo(ObjectNode node) {
+            node.put("count", getCount());
+            writeMetric(node.putObject("ttfb"), sorted(timings, PageTiming::getTimeToFirstByte));
+            writeMetric(node.putObject("domContentLoaded"), sorted(timings, PageTiming::getDomContentLoaded));
+            writeMetric(node.putObject("load"), load);
+            writeMetric(node.putObject("firstContentfulPaint"), sorted(timings, PageTiming::getFirstContentfulPaint));
+            writeMetric(node.putObject("slowestResource"), sorted(timings, PageTiming::getSlowestResource));
+            node.put("avgResourceCount", timings.stream().mapToInt(PageTiming::getResourceCount).average().orElse(0));
+            node.put("avgTransferBytes", timings.stream().mapToLong(PageTiming::getTransferBytes).average().orElse(0));
+        }
+
+        private static void writeMetric(ObjectNode node, double[] values) {
+            node.put("p50", percentile(values, 50));
+            node.put("p95", percentile(values, 95));
+            node.put("max", values.length == 0 ? -1 : values[values.length - 1]);
+        }
+
+        private static double[] sorted(List<PageTiming> timings, ToDoubleFunction<PageTiming> metric) {
+            // Values the browser did not report (-1) are left out of the percentiles
+            double[] values = timings.stream().mapToDouble(metric).filter(v -> v >= 0).toArray();
+            Arrays.sort(values);
+            return values;
+        }
+
+        /**
+         * Nearest-rank percentile of sorted values
+         */
+        static double percentile(double[] sortedValues, int percentile) {
+            if (sortedValues.length == 0) {
+                return -1;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sortedValues.length);
+            return sortedValues[Math.max(0, rank - 1)];
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.demowebshop.automation.utils.replay;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Recorded HTTP exchanges, stored as a gzipped HAR 1.2 file
+ * Gunzipped, the file opens in any HAR viewer; each entry also carries its request key (_key) so the
+ * index can be rebuilt on load. The same key can occur several times, e.g. the cart page before and
+ * after adding an item: replay hands the responses of a key out in recorded order and repeats the
+ * last one once they are used up. Entries whose exact key (which includes the form body) is not
+ * found are matched by method and URL alone.
+ */
+public class ReplayArchive {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * One recorded request and the response the site gave
+     */
+    static final class Entry {
+        final String key;
+        final String looseKey;
+        final String method;
+        final String url;
+        final String requestContentType;
+        final byte[] requestBody;
+        final int status;
+        final List<String[]> headers;
+        final byte[] body;
+        final long startedAt;
+        final long timeMillis;
+
+        Entry(String key, String looseKey, String method, String url, String requestContentType, byte[] requestBody,
+              int status, List<String[]> headers, byte[] body, long startedAt, long timeMillis) {
+            this.key = key;
+            this.looseKey = looseKey;
+            this.method = method;
+            this.url = url;
+            this.requestContentType = requestContentType;
+            this.requestBody = requestBody;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.startedAt = startedAt;
+            this.timeMillis = timeMillis;
+        }
+
+        String header(String name) {
+            for (String[] header : headers) {
+                if (header[0].equalsIgnoreCase(name)) {
+                    return header[1];
+                }
+            }
+            return null;
+        }
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, List<Entry>> byKey = new HashMap<>();
+    private final Map<String, List<Entry>> byLooseKey = new HashMap<>();
+    private final Map<String, Integer> cursors = new HashMap<>();
+
+    /**
+     * Read an archive written by {@link #save(Path)}
+     * @param file Archive file
+     * @return Archive with every entry indexed
+     */
+    public static ReplayArchive load(Path file) throws IOException {
+        ReplayArchive archive = new ReplayArchive();
+        JsonNode har;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            har = objectMapper.readTree(in);
+        }
+        for (JsonNode node : har.path("log").path("entries")) {
+            JsonNode request = node.path("request");
+            JsonNode response = node.path("response");
+            List<String[]> headers = new ArrayList<>();
+            for (JsonNode header : response.path("headers")) {
+                headers.add(new String[]{header.path("name").asText(), header.path("value").asText()});
+            }
+            JsonNode content = response.path("content");
+            byte[] body = "base64".equals(content.path("encoding").asText())
+                    ? Base64.getDecoder().decode(content.path("text").asText())
+                    : content.path("text").asText().getBytes(StandardCharsets.UTF_8);
+            JsonNode postData = request.path("postData");
+            byte[] requestBody = postData.isMissingNode() ? new byte[0]
+                    : Base64.getDecoder().decode(postData.path("_base64").asText(""));
+            archive.add(new Entry(node.path("_key").asText(), node.path("_looseKey").asText(),
+                    request.path("method").asText(), request.path("url").asText(),
+                    postData.path("mimeType").asText(null), requestBody, response.path("status").asInt(), headers, body,
+                    Instant.parse(node.path("startedDateTime").asText(Instant.EPOCH.toString())).toEpochMilli(),
+                    node.path("time").asLong()));
+        }
+        return archive;
+    }
+
+    /**
+     * Append a recorded exchange
+     */
+    synchronized void add(Entry entry) {
+        entries.add(entry);
+        byKey.computeIfAbsent(entry.key, key -> new ArrayList<>()).add(entry);
+        byLooseKey.computeIfAbsent(entry.looseKey, key -> new ArrayList<>()).add(entry);
+    }
+
+    /**
+     * Next recorded response for a request
+     * @param key Exact request key
+     * @param looseKey Method and URL only, used when the exact key was never recorded
+     * @return Entry, or null if neither key was recorded
+     */
+    synchronized Entry next(String key, String looseKey) {
+        Entry entry = next("=" + key, byKey.get(key));
+        return entry != null ? entry : next("~" + looseKey, byLooseKey.get(looseKey));
+    }
+
+    private Entry next(String cursorKey, List<Entry> candidates) {
+        if (candidates == null || candidates.isEmpty()) {
+            return null;
+        }
+        int position = cursors.merge(cursorKey, 1, Integer::sum) - 1;
+        return candidates.get(Math.min(position, candidates.size() - 1));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Write the archive; the file is replaced atomically, so a reader never sees half an archive
+     * @param file Archive file
+     */
+    public synchronized void save(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp));
+             JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeObjectFieldStart("log");
+            json.writeStringField("version", "1.2");
+            json.writeObjectFieldStart("creator");
+            json.writeStringField("name", ReplayProxy.class.getSimpleName());
+            json.writeStringField("version", "1.0");
+            json.writeEndObject();
+            json.writeArrayFieldStart("entries");
+            for (Entry entry : entries) {
+                writeEntry(json, entry);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeEntry(JsonGenerator json, Entry entry) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("startedDateTime", Instant.ofEpochMilli(entry.startedAt).toString());
+        json.writeNumberField("time", entry.timeMillis);
+        json.writeStringField("_key", entry.key);
+        json.writeStringField("_looseKey", entry.looseKey);
+
+        json.writeObjectFieldStart("request");
+        json.writeStringField("method", entry.method);
+        json.writeStringField("url", entry.url);
+        json.writeStringField("httpVersion", "HTTP/1.1");
+        json.writeArrayFieldStart("headers");
+        json.writeEndArray();
+        json.writeArrayFieldStart("queryString");
+        json.writeEndArray();
+        json.writeArrayFieldStart("cookies");
+        json.writeEndArray();
+        json.writeNumberField("headersSize", -1);
+        json.writeNumberField("bodySize", entry.requestBody.length);
+        if (entry.requestBody.length > 0) {
+            json.writeObjectFieldStart("postData");
+            json.writeStringField("mimeType", entry.requestContentType == null ? "" : entry.requestContentType);
+            json.writeStringField("text", new String(entry.requestBody, StandardCharsets.UTF_8));
+            // HAR keeps post data as text; the exact bytes are kept alongside for binary bodies
+            json.writeStringField("_base64", Base64.getEncoder().encodeToString(entry.requestBody));
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+
+        json.writeObjectFieldStart("response");
+        json.writeNumberField("status", entry.status);
+        json.writeStringField("statusText", "");
+        json.writeStringField("httpVersion", "HTTP/1.1");
+        json.writeArrayFieldStart("headers");
+        for (String[] header : entry.headers) {
+            json.writeStartObject();
+            json.writeStringField("name", header[0]);
+            json.writeStringField("value", header[1]);
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeArrayFieldStart("cookies");
+        json.writeEndArray();
+        json.writeObjectFieldStart("content");
+        json.writeNumberField("size", entry.body.length);
+        String contentType = entry.header("Content-Type");
+        json.writeStringField("mimeType", contentType == null ? "" : contentType);
+        json.writeStringField("text", Base64.getEncoder().encodeToString(entry.body));
+        json.writeStringField("encoding", "base64");
+        json.writeEndObject();
+        String location = entry.header("Location");
+        json.writeStringField("redirectURL", location == null ? "" : location);
+        json.writeNumberField("headersSize", -1);
+        json.writeNumberField("bodySize", entry.body.length);
+        json.writeEndObject();
+
+        json.writeObjectFieldStart("cache");
+        json.writeEndObject();
+        json.writeObjectFieldStart("timings");
+        json.writeNumberField("send", 0);
+        json.writeNumberField("wait", entry.timeMillis);
+        json.writeNumberField("receive", 0);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+}
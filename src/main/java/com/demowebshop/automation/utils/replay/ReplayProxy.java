@@ -0,0 +1,397 @@
+package com.demowebshop.automation.utils.replay;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Proxy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP proxy that records the shop's responses during one run and replays them in later runs
+ * Browsers are pointed at it through their proxy settings (see {@link #browserProxy()}) and the HTTP
+ * seeding clients through {@link #routeThrough(HttpClient.Builder)}. The site is served to them over
+ * plain http and fetched upstream with the site's own scheme: an https site can be recorded without
+ * intercepting TLS, and absolute links, redirects and cookies are rewritten to match. Requests for
+ * other hosts are forwarded as they are in record mode and refused in replay mode, which keeps
+ * third-party latency out of replayed timings.
+ *
+ * Requests are matched by method, URL and form body; the anti-forgery token and jQuery's cache
+ * buster are left out because they change on every run. Replay only lines up when the run sends the
+ * same requests, so record and replay with the same test.data.seed.
+ */
+public class ReplayProxy implements Closeable {
+    private static final Logger logger = LogManager.getLogger(ReplayProxy.class);
+    private static final Set<String> VOLATILE_FIELDS = Set.of("__RequestVerificationToken", "_");
+    // Not forwarded either way: connection handling is per hop, and the body length is recomputed
+    private static final Set<String> HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-connection",
+            "proxy-authorization", "transfer-encoding", "content-length", "host", "upgrade", "te", "trailer",
+            "expect", "accept-encoding", "content-encoding", "strict-transport-security", "alt-svc");
+    private static volatile ReplayProxy shared;
+
+    /**
+     * What the proxy does with a request
+     */
+    public enum Mode {
+        /** Forward to the site and append the exchange to the archive */
+        RECORD,
+        /** Answer from the archive only */
+        REPLAY
+    }
+
+    private final Mode mode;
+    private final URI upstream;
+    private final ReplayArchive archive;
+    private final Path archiveFile;
+    private final HttpClient upstreamClient;
+    private final Duration timeout;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final AtomicInteger replayed = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * @param mode Record or replay
+     * @param upstream Site root, e.g. https://demowebshop.tricentis.com
+     * @param archiveFile Archive to write (record) or read (replay)
+     * @param port Port on 127.0.0.1, 0 for a free one
+     * @param timeout Timeout of upstream requests
+     */
+    public ReplayProxy(Mode mode, URI upstream, Path archiveFile, int port, Duration timeout) throws IOException {
+        this.mode = mode;
+        this.upstream = upstream;
+        this.archiveFile = archiveFile;
+        this.timeout = timeout;
+        this.archive = mode == Mode.REPLAY ? ReplayArchive.load(archiveFile) : new ReplayArchive();
+        this.upstreamClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+        logger.info("Replay proxy ({}) listening on 127.0.0.1:{} for {}, archive {} ({} entries)",
+                mode.name().toLowerCase(Locale.ROOT), getPort(), upstream, archiveFile, archive.size());
+    }
+
+    /**
+     * Start the proxy if replay.mode is record or replay, and serve the site over http from then on
+     * by rewriting base.url
+     */
+    public static void startShared() {
+        String configured = ConfigManager.getReplayMode().trim().toUpperCase(Locale.ROOT);
+        if (configured.isEmpty() || configured.equals("OFF")) {
+            return;
+        }
+        synchronized (ReplayProxy.class) {
+            if (shared != null) {
+                return;
+            }
+            URI site = URI.create(ConfigManager.getBaseUrl());
+            Path file = Paths.get(ConfigManager.getReplayArchive());
+            try {
+                Mode mode = Mode.valueOf(configured);
+                if (mode == Mode.REPLAY && !Files.isRegularFile(file)) {
+                    logger.warn("Replay archive {} not found, running against the live site", file);
+                    return;
+                }
+                shared = new ReplayProxy(mode, URI.create(site.getScheme() + "://" + site.getAuthority()), file,
+                        ConfigManager.getReplayProxyPort(), Duration.ofSeconds(ConfigManager.getReplayUpstreamTimeoutSeconds()));
+            } catch (IllegalArgumentException | IOException e) {
+                throw new IllegalStateException("Could not start the replay proxy (replay.mode="
+                        + ConfigManager.getReplayMode() + "): " + e.getMessage(), e);
+            }
+            System.setProperty("base.url", shared.getBrowserOrigin() + site.getRawPath().replaceAll("/$", ""));
+        }
+    }
+
+    /**
+     * Stop the shared proxy; a recording is written to the archive file
+     */
+    public static void closeShared() {
+        ReplayProxy proxy;
+        synchronized (ReplayProxy.class) {
+            proxy = shared;
+            shared = null;
+        }
+        if (proxy != null) {
+            proxy.close();
+        }
+    }
+
+    /**
+     * Proxy settings for a browser session, or null when no proxy runs
+     * @return Manual http proxy pointing at the shared proxy
+     */
+    public static Proxy browserProxy() {
+        ReplayProxy proxy = shared;
+        if (proxy == null) {
+            return null;
+        }
+        String address = "127.0.0.1:" + proxy.getPort();
+        return new Proxy().setProxyType(Proxy.ProxyType.MANUAL).setHttpProxy(address).setSslProxy(address);
+    }
+
+    /**
+     * Send an HTTP client's requests through the shared proxy, if one runs
+     * @param builder Client builder
+     * @return The same builder
+     */
+    public static HttpClient.Builder routeThrough(HttpClient.Builder builder) {
+        ReplayProxy proxy = shared;
+        if (proxy != null) {
+            builder.proxy(ProxySelector.of(new InetSocketAddress(InetAddress.getLoopbackAddress(), proxy.getPort())));
+        }
+        return builder;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Origin under which browsers reach the site through the proxy
+     */
+    public String getBrowserOrigin() {
+        return "http://" + upstream.getAuthority();
+    }
+
+    public int getRecordedCount() {
+        return recorded.get();
+    }
+
+    public int getReplayedCount() {
+        return replayed.get();
+    }
+
+    public int getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+        if (mode == Mode.RECORD) {
+            try {
+                archive.save(archiveFile);
+            } catch (IOException e) {
+                logger.warn("Could not write replay archive {}: {}", archiveFile, e.getMessage());
+            }
+        }
+        logger.info("Replay proxy stopped: {} recorded, {} replayed, {} not in the archive", recorded.get(),
+                replayed.get(), misses.get());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            URI target = targetOf(exchange.getRequestURI());
+            byte[] requestBody = exchange.getRequestBody().readAllBytes();
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            String method = exchange.getRequestMethod().toUpperCase(Locale.ROOT);
+            String looseKey = method + " " + normalizedUrl(target);
+            String key = looseKey + bodyKey(contentType, requestBody);
+            boolean site = isSite(target);
+
+            ReplayArchive.Entry entry;
+            if (mode == Mode.REPLAY) {
+                entry = site ? archive.next(key, looseKey) : null;
+                if (entry == null) {
+                    misses.incrementAndGet();
+                    logger.warn("Not in the replay archive: {}", key);
+                    sendText(exchange, 502, "Not in the replay archive: " + key);
+                    return;
+                }
+                replayed.incrementAndGet();
+            } else {
+                entry = forward(exchange, method, target, contentType, requestBody, key, looseKey);
+                if (site) {
+                    archive.add(entry);
+                    recorded.incrementAndGet();
+                }
+            }
+            send(exchange, entry, site);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Replay proxy failed on {} {}: {}", exchange.getRequestMethod(), exchange.getRequestURI(), e.toString());
+            sendText(exchange, 502, "Replay proxy error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Requests through a proxy carry the absolute URL; a request sent to the proxy directly is for the site
+     */
+    private URI targetOf(URI requestUri) {
+        if (requestUri.isAbsolute()) {
+            return requestUri;
+        }
+        return URI.create(getBrowserOrigin() + requestUri.getRawPath()
+                + (requestUri.getRawQuery() == null ? "" : "?" + requestUri.getRawQuery()));
+    }
+
+    private boolean isSite(URI target) {
+        return upstream.getAuthority().equalsIgnoreCase(target.getRawAuthority());
+    }
+
+    private ReplayArchive.Entry forward(HttpExchange exchange, String method, URI target, String contentType,
+                                        byte[] requestBody, String key, String looseKey) throws IOException {
+        boolean site = isSite(target);
+        URI upstreamUri = site ? URI.create(upstream.getScheme() + "://" + upstream.getRawAuthority()
+                + target.getRawPath() + (target.getRawQuery() == null ? "" : "?" + target.getRawQuery())) : target;
+        HttpRequest.Builder request = HttpRequest.newBuilder(upstreamUri).timeout(timeout)
+                .method(method, requestBody.length == 0 ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(requestBody));
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            if (HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                return;
+            }
+            for (String value : values) {
+                try {
+                    request.header(name, site ? value.replace(getBrowserOrigin(), upstreamOrigin()) : value);
+                } catch (IllegalArgumentException restricted) {
+                    // A header the client sets itself
+                }
+            }
+        });
+
+        long started = System.currentTimeMillis();
+        HttpResponse<byte[]> response;
+        try {
+            response = upstreamClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while forwarding " + target, e);
+        }
+        List<String[]> headers = new ArrayList<>();
+        response.headers().map().forEach((name, values) -> {
+            if (!HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT)) && !name.startsWith(":")) {
+                values.forEach(value -> headers.add(new String[]{name, value}));
+            }
+        });
+        return new ReplayArchive.Entry(key, looseKey, method, upstreamUri.toString(), contentType, requestBody,
+                response.statusCode(), headers, response.body(), started, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Send a recorded or forwarded response, rewritten for a browser that reaches the site over http
+     */
+    private void send(HttpExchange exchange, ReplayArchive.Entry entry, boolean site) throws IOException {
+        String contentType = entry.header("Content-Type");
+        byte[] body = entry.body;
+        boolean rewrite = site && !upstreamOrigin().equals(getBrowserOrigin());
+        if (rewrite && isText(contentType)) {
+            body = new String(body, StandardCharsets.UTF_8).replace(upstreamOrigin(), getBrowserOrigin())
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+        for (String[] header : entry.headers) {
+            String value = header[1];
+            if (header[0].equalsIgnoreCase("Set-Cookie")) {
+                // The browser talks plain http to the proxy; it would drop cookies only valid over https
+                value = value.replaceAll("(?i);\\s*secure\\b", "").replaceAll("(?i);\\s*samesite=none", "");
+            } else if (rewrite && header[0].equalsIgnoreCase("Location")) {
+                value = value.replace(upstreamOrigin(), getBrowserOrigin());
+            }
+            exchange.getResponseHeaders().add(header[0], value);
+        }
+        boolean noBody = entry.status == 204 || entry.status == 304 || exchange.getRequestMethod().equalsIgnoreCase("HEAD");
+        exchange.sendResponseHeaders(entry.status, noBody || body.length == 0 ? -1 : body.length);
+        if (!noBody && body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private String upstreamOrigin() {
+        return upstream.getScheme() + "://" + upstream.getAuthority();
+    }
+
+    private static boolean isText(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || type.contains("javascript") || type.contains("json") || type.contains("xml");
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String text) {
+        try {
+            byte[] body = text.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (IOException e) {
+            logger.debug("Could not answer {}: {}", exchange.getRequestURI(), e.getMessage());
+        }
+    }
+
+    /**
+     * Host, path and query with the query parameters sorted and volatile ones dropped
+     */
+    static String normalizedUrl(URI target) {
+        String query = target.getRawQuery();
+        StringBuilder url = new StringBuilder(target.getRawAuthority().toLowerCase(Locale.ROOT))
+                .append(target.getRawPath() == null || target.getRawPath().isEmpty() ? "/" : target.getRawPath());
+        String fields = stableFields(query);
+        return fields.isEmpty() ? url.toString() : url.append('?').append(fields).toString();
+    }
+
+    private static String bodyKey(String contentType, byte[] body) {
+        if (body.length == 0) {
+            return "";
+        }
+        byte[] stable = contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("application/x-www-form-urlencoded")
+                ? stableFields(new String(body, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8)
+                : body;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(stable);
+            return " #" + HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String stableFields(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return "";
+        }
+        Set<String> fields = new TreeSet<>();
+        for (String pair : encoded.split("&")) {
+            String name = URLDecoder.decode(pair.split("=", 2)[0], StandardCharsets.UTF_8);
+            if (!pair.isEmpty() && !VOLATILE_FIELDS.contains(name)) {
+                fields.add(pair);
+            }
+        }
+        return String.join("&", fields);
+    }
+}
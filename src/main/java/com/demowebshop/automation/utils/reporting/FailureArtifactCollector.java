@@ -0,0 +1,234 @@
+package com.demowebshop.automation.utils.reporting;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.concurrent.SideTaskExecutor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Collects failure artifacts (page source, browser console log, screenshot) lazily
+ * Nothing is captured for passing tests. On failure all artifacts are captured in one pass,
+ * capped in size, gzip-compressed where useful, and shared by every listener that asks for them.
+ * Only the browser reads happen on the test thread; compression and file writes run as side tasks.
+ * The returned paths are therefore assigned before the files exist: {@link FailureArtifacts#getWritten()}
+ * completes once they are on disk, at the latest when the test's task scope closes.
+ */
+public class FailureArtifactCollector {
+    private static final Logger logger = LogManager.getLogger(FailureArtifactCollector.class);
+
+    // Truncate in the browser so oversized documents never cross the wire in full
+    private static final String PAGE_SOURCE_SCRIPT =
+            "var html = document.documentElement ? document.documentElement.outerHTML : '';" +
+            "var max = arguments[0];" +
+            "return { url: location.href, title: document.title, length: html.length," +
+            "  html: html.length > max ? html.substring(0, max) : html };";
+
+    // Invocations whose artifacts are captured or being captured; released when the invocation is torn down
+    private static final Map<String, CompletableFuture<FailureArtifacts>> COLLECTED = new ConcurrentHashMap<>();
+
+    private FailureArtifactCollector() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Collect the artifacts of a failed test, or return the ones already collected for it
+     * @param driver WebDriver instance of the failed test
+     * @param testId Test ID (Class.method)
+     * @param testStartMillis Start time of the test invocation, distinguishes retries and data rows
+     * @return Collected artifacts (paths are null for artifacts that could not be captured, files may still be
+     *         being written - see {@link FailureArtifacts#getWritten()})
+     */
+    public static FailureArtifacts collect(WebDriver driver, String testId, long testStartMillis) {
+        // The first listener captures outside the map, so slow browser reads never block other keys;
+        // listeners asking for the same invocation meanwhile wait for its result
+        CompletableFuture<FailureArtifacts> capturing = new CompletableFuture<>();
+        CompletableFuture<FailureArtifacts> existing = COLLECTED.putIfAbsent(keyOf(testId, testStartMillis), capturing);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            capturing.complete(capture(driver, testId, testStartMillis));
+        } catch (RuntimeException e) {
+            capturing.completeExceptionally(e);
+            throw e;
+        }
+        return capturing.join();
+    }
+
+    /**
+     * Forget the artifacts of a finished invocation once every listener has used them (files stay on disk)
+     * @param testId Test ID (Class.method)
+     * @param testStartMillis Start time of the test invocation
+     */
+    public static void release(String testId, long testStartMillis) {
+        COLLECTED.remove(keyOf(testId, testStartMillis));
+    }
+
+    private static String keyOf(String testId, long testStartMillis) {
+        return testId + "@" + testStartMillis;
+    }
+
+    private static FailureArtifacts capture(WebDriver driver, String testId, long testStartMillis) {
+        Path directory = Paths.get(ConfigManager.getFailureArtifactsDirectory(),
+                testId.replaceAll("[^A-Za-z0-9._-]", "_") + "_" + testStartMillis);
+        if (driver == null) {
+            logger.warn("No driver available, skipping failure artifacts for {}", testId);
+            return new FailureArtifacts(directory, null, null, null, List.of());
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            logger.error("Could not create failure artifact directory {}: {}", directory, e.getMessage());
+            return new FailureArtifacts(directory, null, null, null, List.of());
+        }
+
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        String screenshot = captureScreenshot(driver, directory, writes);
+        String pageSource = capturePageSource(driver, directory, writes);
+        String consoleLog = captureConsoleLog(driver, directory, writes);
+        logger.info("Failure artifacts for {} saved to {}", testId, directory);
+        return new FailureArtifacts(directory, screenshot, pageSource, consoleLog, writes);
+    }
+
+    private static String captureScreenshot(WebDriver driver, Path directory, List<CompletableFuture<Void>> writes) {
+        try {
+            byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            int maxBytes = ConfigManager.getFailureScreenshotMaxKb() * 1024;
+            if (png.length > maxBytes) {
+                logger.warn("Screenshot of {} KB exceeds cap of {} KB, not saved", png.length / 1024, maxBytes / 1024);
+                return null;
+            }
+            // PNG is already compressed - stored as is so reports can embed it
+            Path file = directory.resolve("screenshot.png");
+            writes.add(SideTaskExecutor.execute("write " + file, () -> Files.write(file, png)));
+            return file.toString();
+        } catch (Exception e) {
+            logger.warn("Could not capture screenshot: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String capturePageSource(WebDriver driver, Path directory, List<CompletableFuture<Void>> writes) {
+        try {
+            String source = readPageSource(driver);
+            if (source == null) {
+                return null;
+            }
+            Path file = directory.resolve("page-source.html.gz");
+            writes.add(SideTaskExecutor.execute("write " + file, () -> writeGzip(file, source)));
+            return file.toString();
+        } catch (Exception e) {
+            logger.warn("Could not capture page source: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String captureConsoleLog(WebDriver driver, Path directory, List<CompletableFuture<Void>> writes) {
+        try {
+            int maxLines = ConfigManager.getFailureConsoleMaxLines();
+            List<LogEntry> entries = driver.manage().logs().get(LogType.BROWSER).getAll();
+            if (entries.isEmpty()) {
+                return null;
+            }
+            StringBuilder log = new StringBuilder();
+            int from = Math.max(0, entries.size() - maxLines);
+            if (from > 0) {
+                log.append("... ").append(from).append(" earlier entries dropped\n");
+            }
+            for (LogEntry entry : entries.subList(from, entries.size())) {
+                log.append(entry.getTimestamp()).append(' ').append(entry.getLevel())
+                        .append(' ').append(entry.getMessage()).append('\n');
+            }
+            Path file = directory.resolve("console.log.gz");
+            String content = log.toString();
+            writes.add(SideTaskExecutor.execute("write " + file, () -> writeGzip(file, content)));
+            return file.toString();
+        } catch (Exception e) {
+            // Browser logs are not supported by every driver
+            logger.debug("Could not capture browser console log: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Read the page source, truncated in the browser to the configured cap
+     * @param driver WebDriver instance
+     * @return Page source with a header comment, or null if it could not be read
+     */
+    public static String readPageSource(WebDriver driver) {
+        int maxChars = ConfigManager.getFailurePageSourceMaxKb() * 1024;
+        Object result = ((JavascriptExecutor) driver).executeScript(PAGE_SOURCE_SCRIPT, maxChars);
+        if (!(result instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> page = (Map<?, ?>) result;
+        long length = page.get("length") instanceof Number ? ((Number) page.get("length")).longValue() : 0;
+        String header = String.format("<!-- url: %s | title: %s | %d chars%s -->%n", page.get("url"), page.get("title"),
+                length, length > maxChars ? ", truncated to " + maxChars : "");
+        return header + page.get("html");
+    }
+
+    private static void writeGzip(Path file, String content) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Forget collected artifacts (files stay on disk)
+     */
+    public static void reset() {
+        COLLECTED.clear();
+    }
+
+    /**
+     * Artifacts collected for one failed test invocation
+     */
+    public static final class FailureArtifacts {
+        private final Path directory;
+        private final String screenshotPath;
+        private final String pageSourcePath;
+        private final String consoleLogPath;
+        private final CompletableFuture<Void> written;
+
+        FailureArtifacts(Path directory, String screenshotPath, String pageSourcePath, String consoleLogPath,
+                         List<CompletableFuture<Void>> writes) {
+            this.directory = directory;
+            this.screenshotPath = screenshotPath;
+            this.pageSourcePath = pageSourcePath;
+            this.consoleLogPath = consoleLogPath;
+            this.written = CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0]));
+        }
+
+        public Path getDirectory() { return directory; }
+        public String getScreenshotPath() { return screenshotPath; }
+        public String getPageSourcePath() { return pageSourcePath; }
+        public String getConsoleLogPath() { return consoleLogPath; }
+
+        /**
+         * Completion of the file writes
+         * @return Future completed when every file is on disk; completed exceptionally if a write failed,
+         *         in which case that path points to a missing or partial file
+         */
+        public CompletableFuture<Void> getWritten() { return written; }
+    }
+}
@@ -1,5 +1,6 @@
 package com.demowebshop.automation.utils.reporting;
 
+import com.demowebshop.automation.utils.concurrent.SideTaskExecutor;
 import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -11,6 +12,7 @@ import java.io.File;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Utility class for handling screenshot operations
@@ -32,23 +34,12 @@ public class ScreenshotUtils {
      * Take screenshot and save to file
      * @param driver WebDriver instance
      * @param testName Name of the test
-     * @return Path to saved screenshot
+     * @return Path to saved screenshot, or null if it could not be taken or saved
      */
     public static String takeScreenshot(WebDriver driver, String testName) {
         try {
-            TakesScreenshot takesScreenshot = (TakesScreenshot) driver;
-            File sourceFile = takesScreenshot.getScreenshotAs(OutputType.FILE);
-
-            String timestamp = new SimpleDateFormat(DATE_FORMAT).format(new Date());
-            String fileName = String.format("%s_%s.png", testName, timestamp);
-            String filePath = SCREENSHOT_DIR + File.separator + fileName;
-
-            File destFile = new File(filePath);
-            FileUtils.copyFile(sourceFile, destFile);
-
-            logger.info("Screenshot saved: {}", filePath);
-            return filePath;
-
+            File sourceFile = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
+            return saveScreenshot(sourceFile, testName);
         } catch (IOException e) {
             logger.error("Failed to take screenshot: {}", e.getMessage());
             return null;
@@ -58,6 +49,38 @@ public class ScreenshotUtils {
         }
     }
 
+    /**
+     * Take screenshot on the calling thread and save it to file as a side task
+     * For callers that do not need the file right away: only the browser read blocks the test thread.
+     * The save belongs to the current test's task scope, so it is finished when the test ends.
+     * @param driver WebDriver instance
+     * @param testName Name of the test
+     * @return Future completed with the path once the file is written, or with null if it could not be taken or saved
+     */
+    public static CompletableFuture<String> takeScreenshotAsync(WebDriver driver, String testName) {
+        File sourceFile;
+        try {
+            sourceFile = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
+        } catch (Exception e) {
+            logger.error("Unexpected error while taking screenshot: {}", e.getMessage());
+            return CompletableFuture.completedFuture(null);
+        }
+        return SideTaskExecutor.submit("save screenshot " + testName, () -> saveScreenshot(sourceFile, testName))
+                .exceptionally(e -> null);
+    }
+
+    private static String saveScreenshot(File sourceFile, String testName) throws IOException {
+        String timestamp = new SimpleDateFormat(DATE_FORMAT).format(new Date());
+        String fileName = String.format("%s_%s.png", testName, timestamp);
+        String filePath = SCREENSHOT_DIR + File.separator + fileName;
+
+        File destFile = new File(filePath);
+        FileUtils.copyFile(sourceFile, destFile);
+
+        logger.info("Screenshot saved: {}", filePath);
+        return filePath;
+    }
+
     /**
      * Take screenshot with custom file name
      * @param driver WebDriver instance
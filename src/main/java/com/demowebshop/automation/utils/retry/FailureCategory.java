@@ -0,0 +1,23 @@
+package com.demowebshop.automation.utils.retry;
+
+/**
+ * Root cause category of a test failure, decides whether a retry can help
+ */
+public enum FailureCategory {
+    /** Browser, session, grid or network trouble - a retry on a fresh session can pass */
+    INFRASTRUCTURE,
+    /** Element not found, stale or not interactable - usually a broken locator or page change */
+    SELECTOR,
+    /** A real assertion on application behaviour failed */
+    ASSERTION,
+    /** Anything else (test code bugs, unexpected exceptions) */
+    UNKNOWN;
+
+    /**
+     * Only infrastructure failures are worth a retry
+     * @return true if a retry may pass
+     */
+    public boolean isRetryable() {
+        return this == INFRASTRUCTURE;
+    }
+}
@@ -0,0 +1,133 @@
+package com.demowebshop.automation.utils.retry;
+
+import com.codeborne.selenide.ex.ElementIsNotClickableError;
+import com.codeborne.selenide.ex.ElementNotFound;
+import com.codeborne.selenide.ex.FrameNotFoundError;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.InvalidElementStateException;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchFrameException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpTimeoutException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Classifies test failures by exception type along the whole cause chain
+ * Infrastructure trouble anywhere in the chain wins (a crashed browser also makes the next locator
+ * and assertion fail), then selector problems, then assertion failures. Messages are only consulted
+ * for generic WebDriver exceptions and timeouts, whose type alone does not tell the cause.
+ */
+public class FailureClassifier {
+    private static final int MAX_CAUSE_DEPTH = 20;
+
+    // Messages of generic WebDriverException/TimeoutException that point at the browser or network
+    private static final String[] INFRASTRUCTURE_MESSAGES = {
+            "chrome not reachable",
+            "timed out receiving message from renderer",
+            "target crashed",
+            "tab crashed",
+            "session deleted",
+            "disconnected: not connected to devtools",
+            "devtoolsactiveport",
+            "cannot determine loading status",
+            "unable to connect",
+            "connection refused",
+            "net::err_",
+            "timeout: timed out receiving message",
+            "page load"
+    };
+
+    private FailureClassifier() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Classify a failure
+     * @param failure Throwable of the failed test (may be null)
+     * @return Failure category, UNKNOWN for null or unrecognised failures
+     */
+    public static FailureCategory classify(Throwable failure) {
+        boolean selector = false;
+        boolean assertion = false;
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        int depth = 0;
+        for (Throwable current = failure; current != null && depth < MAX_CAUSE_DEPTH && seen.add(current);
+             current = current.getCause(), depth++) {
+            FailureCategory category = classifySingle(current);
+            if (category == FailureCategory.INFRASTRUCTURE) {
+                return category;
+            }
+            selector |= category == FailureCategory.SELECTOR;
+            assertion |= category == FailureCategory.ASSERTION;
+        }
+        if (selector) {
+            return FailureCategory.SELECTOR;
+        }
+        return assertion ? FailureCategory.ASSERTION : FailureCategory.UNKNOWN;
+    }
+
+    private static FailureCategory classifySingle(Throwable throwable) {
+        if (throwable instanceof SessionNotCreatedException
+                || throwable instanceof NoSuchSessionException
+                || throwable instanceof UnreachableBrowserException
+                || throwable instanceof NoSuchWindowException
+                || throwable instanceof SocketException
+                || throwable instanceof SocketTimeoutException
+                || throwable instanceof UnknownHostException
+                || throwable instanceof HttpTimeoutException) {
+            return FailureCategory.INFRASTRUCTURE;
+        }
+        if (throwable instanceof ElementNotFound
+                || throwable instanceof ElementIsNotClickableError
+                || throwable instanceof FrameNotFoundError
+                || throwable instanceof NoSuchElementException
+                || throwable instanceof StaleElementReferenceException
+                || throwable instanceof ElementNotInteractableException
+                || throwable instanceof InvalidElementStateException
+                || throwable instanceof InvalidSelectorException
+                || throwable instanceof NoSuchFrameException) {
+            return FailureCategory.SELECTOR;
+        }
+        if (throwable instanceof AssertionError) {
+            return FailureCategory.ASSERTION;
+        }
+        if (throwable instanceof WebDriverException) {
+            if (hasInfrastructureMessage(throwable)) {
+                return FailureCategory.INFRASTRUCTURE;
+            }
+            // An explicit wait that ran out waited for an element or page state
+            return throwable instanceof TimeoutException ? FailureCategory.SELECTOR : FailureCategory.UNKNOWN;
+        }
+        return FailureCategory.UNKNOWN;
+    }
+
+    private static boolean hasInfrastructureMessage(Throwable throwable) {
+        String message = throwable.getMessage();
+        if (message == null) {
+            return false;
+        }
+        // WebDriverException appends build/system info; only the first line describes the error
+        int endOfLine = message.indexOf('\n');
+        String firstLine = (endOfLine >= 0 ? message.substring(0, endOfLine) : message).toLowerCase(Locale.ROOT);
+        for (String pattern : INFRASTRUCTURE_MESSAGES) {
+            if (firstLine.contains(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
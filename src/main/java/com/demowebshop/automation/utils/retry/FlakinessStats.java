@@ -0,0 +1,167 @@
+package com.demowebshop.automation.utils.retry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-test flakiness statistics of a run
+ * Counts failed attempts by category, retries, and final outcomes; a test that passed only after a
+ * retry is flaky. Written as JSON at the end of the run so trends can be tracked across runs.
+ */
+public class FlakinessStats {
+    private static final Logger logger = LogManager.getLogger(FlakinessStats.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final Map<String, TestStats> STATS = new ConcurrentHashMap<>();
+
+    private FlakinessStats() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Record a failed attempt and the retry decision taken for it
+     * @param testKey Test method key (fully.qualified.Class.method)
+     * @param decision Retry decision
+     */
+    public static void recordFailedAttempt(String testKey, RetryPolicy.Decision decision) {
+        STATS.computeIfAbsent(testKey, key -> new TestStats()).recordFailedAttempt(decision);
+    }
+
+    /**
+     * Record the final result of an invocation
+     * @param testKey Test method key (fully.qualified.Class.method)
+     * @param passed Whether the invocation finally passed
+     * @param retries Retries the invocation needed
+     */
+    public static void recordOutcome(String testKey, boolean passed, int retries) {
+        STATS.computeIfAbsent(testKey, key -> new TestStats()).recordOutcome(passed, retries);
+    }
+
+    public static TestStats get(String testKey) {
+        return STATS.get(testKey);
+    }
+
+    /**
+     * Write the statistics as JSON
+     * @param file Target file
+     */
+    public static void write(Path file) throws IOException {
+        write(STATS, RetryPolicy.getRetriesUsed(), file);
+    }
+
+    /**
+     * Merge statistics files written by several JVMs (the forks of a run) into one
+     * @param files Statistics files; missing ones are skipped
+     * @param target Merged file
+     */
+    public static void merge(List<Path> files, Path target) throws IOException {
+        Map<String, TestStats> merged = new TreeMap<>();
+        int retriesUsed = 0;
+        for (Path file : files) {
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+            JsonNode root = objectMapper.readTree(file.toFile());
+            retriesUsed += root.path("retriesUsed").asInt();
+            root.path("tests").fields().forEachRemaining(entry ->
+                    merged.computeIfAbsent(entry.getKey(), key -> new TestStats()).add(entry.getValue()));
+        }
+        write(merged, retriesUsed, target);
+    }
+
+    private static void write(Map<String, TestStats> stats, int retriesUsed, Path file) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("generatedAt", System.currentTimeMillis());
+        root.put("retriesUsed", retriesUsed);
+        ObjectNode tests = root.putObject("tests");
+        new TreeMap<>(stats).forEach((key, testStats) -> testStats.writeTo(tests.putObject(key)));
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        objectMapper.writeValue(file.toFile(), root);
+        long flaky = stats.values().stream().filter(testStats -> testStats.getPassedAfterRetry() > 0).count();
+        logger.info("Flakiness statistics for {} tests ({} flaky, {} retries) written to {}",
+                stats.size(), flaky, retriesUsed, file);
+    }
+
+    public static void reset() {
+        STATS.clear();
+    }
+
+    /**
+     * Statistics of one test method (all data-provider rows together)
+     */
+    public static final class TestStats {
+        private final Map<FailureCategory, Integer> failedAttempts = new EnumMap<>(FailureCategory.class);
+        private int retries;
+        private int passed;
+        private int failed;
+        private int passedAfterRetry;
+
+        private synchronized void recordFailedAttempt(RetryPolicy.Decision decision) {
+            failedAttempts.merge(decision.getCategory(), 1, Integer::sum);
+            if (decision.shouldRetry()) {
+                retries++;
+            }
+        }
+
+        private synchronized void recordOutcome(boolean success, int retriesNeeded) {
+            if (success) {
+                passed++;
+                if (retriesNeeded > 0) {
+                    passedAfterRetry++;
+                }
+            } else {
+                failed++;
+            }
+        }
+
+        public synchronized int getRetries() { return retries; }
+        public synchronized int getPassed() { return passed; }
+        public synchronized int getFailed() { return failed; }
+        public synchronized int getPassedAfterRetry() { return passedAfterRetry; }
+        public synchronized int getFailedAttempts(FailureCategory category) { return failedAttempts.getOrDefault(category, 0); }
+
+        /**
+         * Share of finished invocations that passed only after a retry
+         * @return Flakiness rate between 0 and 1
+         */
+        public synchronized double getFlakinessRate() {
+            int runs = passed + failed;
+            return runs == 0 ? 0 : (double) passedAfterRetry / runs;
+        }
+
+        private synchronized void add(JsonNode node) {
+            passed += node.path("passed").asInt();
+            failed += node.path("failed").asInt();
+            retries += node.path("retries").asInt();
+            passedAfterRetry += node.path("passedAfterRetry").asInt();
+            node.path("failedAttempts").fields().forEachRemaining(entry ->
+                    failedAttempts.merge(FailureCategory.valueOf(entry.getKey()), entry.getValue().asInt(), Integer::sum));
+        }
+
+        private synchronized void writeTo(ObjectNode node) {
+            node.put("passed", passed);
+            node.put("failed", failed);
+            node.put("retries", retries);
+            node.put("passedAfterRetry", passedAfterRetry);
+            node.put("flakinessRate", getFlakinessRate());
+            ObjectNode failures = node.putObject("failedAttempts");
+            failedAttempts.forEach((category, count) -> failures.put(category.name(), count));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.demowebshop.automation.utils.retry;
+
+import com.demowebshop.automation.config.ConfigManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Run-wide retry policy
+ * A failed invocation is retried only if its failure is classified as infrastructure, it has retries
+ * left (retry.count per invocation) and the run-wide budget (retry.budget) is not used up, so a broken
+ * build cannot double its own run time with retries. Backoff is exponential with full jitter, which
+ * spreads the retries of tests that failed together (e.g. during a grid hiccup).
+ */
+public class RetryPolicy {
+    private static final Map<String, Integer> ATTEMPTS = new ConcurrentHashMap<>();
+    private static final AtomicInteger RETRIES_USED = new AtomicInteger();
+
+    private RetryPolicy() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Decide whether a failed invocation is retried, reserving budget if it is
+     * @param invocationKey Key of the test invocation (method plus data-provider parameters)
+     * @param failure Throwable of the failed attempt
+     * @return Decision with category, attempt number and backoff
+     */
+    public static Decision evaluate(String invocationKey, Throwable failure) {
+        FailureCategory category = FailureClassifier.classify(failure);
+        if (!category.isRetryable()) {
+            return Decision.noRetry(category, "not retried, failure category " + category);
+        }
+        int maxRetries = ConfigManager.getRetryCount();
+        if (ATTEMPTS.getOrDefault(invocationKey, 0) >= maxRetries) {
+            return Decision.noRetry(category, "retry limit of " + maxRetries + " reached");
+        }
+        int budget = ConfigManager.getRetryBudget();
+        if (RETRIES_USED.incrementAndGet() > budget) {
+            RETRIES_USED.decrementAndGet();
+            return Decision.noRetry(category, "run retry budget of " + budget + " used up");
+        }
+        int attempt = ATTEMPTS.merge(invocationKey, 1, Integer::sum);
+        return new Decision(true, category, attempt, backoffMillis(attempt), "retry " + attempt + "/" + maxRetries);
+    }
+
+    /**
+     * Jittered exponential backoff: uniform in [0, min(max, base * 2^(attempt-1))]
+     * @param attempt Retry attempt (1-based)
+     * @return Delay in milliseconds
+     */
+    static long backoffMillis(int attempt) {
+        long base = ConfigManager.getRetryBackoffBaseMillis();
+        long cap = Math.min(ConfigManager.getRetryBackoffMaxMillis(), base << Math.min(attempt - 1, 16));
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    /**
+     * Forget the attempts of an invocation once it reached its final result
+     * @param invocationKey Key of the test invocation
+     * @return Number of retries the invocation had
+     */
+    public static int complete(String invocationKey) {
+        Integer retries = ATTEMPTS.remove(invocationKey);
+        return retries != null ? retries : 0;
+    }
+
+    public static int getRetriesUsed() {
+        return RETRIES_USED.get();
+    }
+
+    /**
+     * Reset attempts and budget (start of a run)
+     */
+    public static void reset() {
+        ATTEMPTS.clear();
+        RETRIES_USED.set(0);
+    }
+
+    /**
+     * Outcome of a retry evaluation
+     */
+    public static final class Decision {
+        private final boolean retry;
+        private final FailureCategory category;
+        private final int attempt;
+        private final long backoffMillis;
+        private final String reason;
+
+        Decision(boolean retry, FailureCategory category, int attempt, long backoffMillis, String reason) {
+            this.retry = retry;
+            this.category = category;
+            this.attempt = attempt;
+            this.backoffMillis = backoffMillis;
+            this.reason = reason;
+        }
+
+        static Decision noRetry(FailureCategory category, String reason) {
+            return new Decision(false, category, 0, 0, reason);
+        }
+
+        public boolean shouldRetry() { return retry; }
+        public FailureCategory getCategory() { return category; }
+        public int getAttempt() { return attempt; }
+        public long getBackoffMillis() { return backoffMillis; }
+        public String getReason() { return reason; }
+    }
+}
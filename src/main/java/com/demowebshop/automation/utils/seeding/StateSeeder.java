@@ -0,0 +1,352 @@
+package com.demowebshop.automation.utils.seeding;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.replay.ReplayProxy;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import models.User;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Puts the shop into a test's starting state over plain HTTP instead of through the browser
+ * Registers or logs in a customer with the same form posts the pages send (including the
+ * anti-forgery token) and adds products through the add-to-cart AJAX endpoint. The resulting
+ * session cookies are then copied into the WebDriver session, so only the flow under test runs in
+ * the browser. One seeder holds one customer session; it is not meant to be shared between threads.
+ */
+public class StateSeeder {
+    private static final Logger logger = LogManager.getLogger(StateSeeder.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String TOKEN_FIELD = "__RequestVerificationToken";
+    private static final Pattern TOKEN_INPUT = Pattern.compile(
+            "<input[^>]*name=\"" + TOKEN_FIELD + "\"[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern VALUE_ATTRIBUTE = Pattern.compile("value=\"([^\"]*)\"", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CART_ITEM = Pattern.compile("name=\"removefromcart\"[^>]*value=\"(\\d+)\"");
+    private static final Pattern ADDRESS_DELETE = Pattern.compile("/customer/addressdelete/(\\d+)");
+    private static final Pattern VALIDATION_ERRORS = Pattern.compile(
+            "<div class=\"(?:validation-summary-errors|message-error)\">(.*?)</div>", Pattern.DOTALL);
+
+    private final URI baseUri;
+    private final Duration timeout;
+    private final CookieManager cookieManager = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+    private final HttpClient httpClient;
+
+    /**
+     * @param baseUri Site root, e.g. https://demowebshop.tricentis.com/
+     * @param timeout Connect and response timeout of every request
+     */
+    public StateSeeder(URI baseUri, Duration timeout) {
+        this.baseUri = baseUri.getPath().endsWith("/") ? baseUri : URI.create(baseUri + "/");
+        this.timeout = timeout;
+        // Redirects are inspected, not followed: a redirect is how the site reports a successful form post
+        this.httpClient = ReplayProxy.routeThrough(HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .cookieHandler(cookieManager)
+                .followRedirects(HttpClient.Redirect.NEVER))
+                .build();
+    }
+
+    /**
+     * Seeder for the configured site
+     * @return New seeder with an empty session
+     */
+    public static StateSeeder forConfiguredSite() {
+        return new StateSeeder(URI.create(ConfigManager.getBaseUrl()),
+                Duration.ofSeconds(ConfigManager.getStateSeedingTimeoutSeconds()));
+    }
+
+    /**
+     * Register a customer
+     * @param user Customer to register
+     * @return true if registered, false if the email is already taken
+     * @throws StateSeedingException if the site rejected the registration for another reason
+     */
+    public boolean register(User user) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("Gender", user.getGender() != null && user.getGender().toUpperCase().startsWith("F") ? "F" : "M");
+        form.put("FirstName", user.getFirstName());
+        form.put("LastName", user.getLastName());
+        form.put("Email", user.getEmail());
+        form.put("Password", user.getPassword());
+        form.put("ConfirmPassword", user.getPassword());
+        form.put("register-button", "Register");
+
+        HttpResponse<String> response = postForm("register", form);
+        if (isRedirect(response)) {
+            logger.info("Registered {} over HTTP", user.getEmail());
+            return true;
+        }
+        String errors = validationErrors(response.body());
+        if (errors.toLowerCase().contains("already exists")) {
+            logger.info("{} is already registered", user.getEmail());
+            return false;
+        }
+        throw new StateSeedingException("Registration of " + user.getEmail() + " failed: HTTP "
+                + response.statusCode() + (errors.isEmpty() ? "" : ", " + errors));
+    }
+
+    /**
+     * Log a customer in
+     * @param email Email
+     * @param password Password
+     * @throws StateSeedingException if the credentials were rejected
+     */
+    public void login(String email, String password) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("Email", email);
+        form.put("Password", password);
+        form.put("RememberMe", "false");
+
+        HttpResponse<String> response = postForm("login", form);
+        if (!isRedirect(response)) {
+            String errors = validationErrors(response.body());
+            throw new StateSeedingException("Login of " + email + " failed: HTTP " + response.statusCode()
+                    + (errors.isEmpty() ? "" : ", " + errors));
+        }
+        logger.info("Logged in {} over HTTP", email);
+    }
+
+    /**
+     * Register the customer, or log in if the email is already taken; the site does not log a
+     * customer in on registration, so both paths end with a login
+     * @param user Customer
+     */
+    public void registerOrLogin(User user) {
+        register(user);
+        login(user.getEmail(), user.getPassword());
+    }
+
+    /**
+     * Add a product to the session's cart through the product page's AJAX endpoint
+     * @param productId Product ID
+     * @param quantity Quantity
+     * @throws StateSeedingException if the site refused to add the product
+     */
+    public void addToCart(int productId, int quantity) {
+        Map<String, String> form = Map.of(String.format("addtocart_%d.EnteredQuantity", productId), String.valueOf(quantity));
+        HttpResponse<String> response = send(HttpRequest.newBuilder(
+                        baseUri.resolve(String.format("addproducttocart/details/%d/1", productId)))
+                .header("X-Requested-With", "XMLHttpRequest")
+                .header("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(encode(form))));
+        try {
+            JsonNode result = objectMapper.readTree(response.body());
+            if (response.statusCode() == 200 && result.path("success").asBoolean()) {
+                logger.info("Added {} x product {} to the cart over HTTP", quantity, productId);
+                return;
+            }
+            JsonNode message = result.path("message");
+            throw new StateSeedingException("Adding product " + productId + " to the cart failed: "
+                    + (message.isArray() ? message.toString() : message.asText("HTTP " + response.statusCode())));
+        } catch (IOException e) {
+            throw new StateSeedingException("Unexpected add-to-cart response (HTTP " + response.statusCode() + ")", e);
+        }
+    }
+
+    /**
+     * Remove every item from the session's cart
+     * @return Number of cart lines removed
+     */
+    public int clearCart() {
+        HttpResponse<String> cart = send(HttpRequest.newBuilder(baseUri.resolve("cart")).GET());
+        List<String> itemIds = allGroups(CART_ITEM, cart.body());
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        StringBuilder form = new StringBuilder(encode(Map.of("updatecart", "Update shopping cart")));
+        for (String itemId : itemIds) {
+            form.append("&removefromcart=").append(itemId);
+        }
+        String token = antiForgeryToken(cart.body());
+        if (token != null) {
+            form.append('&').append(encode(Map.of(TOKEN_FIELD, token)));
+        }
+        HttpResponse<String> response = send(HttpRequest.newBuilder(baseUri.resolve("cart"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form.toString())));
+        if (response.statusCode() >= 400) {
+            throw new StateSeedingException("Clearing the cart failed: HTTP " + response.statusCode());
+        }
+        return itemIds.size();
+    }
+
+    /**
+     * Delete every address in the logged-in customer's address book
+     * @return Number of addresses deleted
+     */
+    public int deleteAddresses() {
+        HttpResponse<String> addresses = send(HttpRequest.newBuilder(baseUri.resolve("customer/addresses")).GET());
+        if (isRedirect(addresses)) {
+            throw new StateSeedingException("Address book requires a logged-in customer");
+        }
+        List<String> addressIds = allGroups(ADDRESS_DELETE, addresses.body());
+        for (String addressId : addressIds) {
+            deleteAddress(addressId);
+        }
+        return addressIds.size();
+    }
+
+    /**
+     * Delete one address of the logged-in customer
+     * @param addressId Address ID, as in the address book's delete links
+     */
+    public void deleteAddress(String addressId) {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(
+                baseUri.resolve("customer/addressdelete/" + addressId)).GET());
+        if (response.statusCode() >= 400) {
+            throw new StateSeedingException("Deleting address " + addressId + " failed: HTTP " + response.statusCode());
+        }
+    }
+
+    /**
+     * Session cookies the site has set so far
+     * @return Cookies
+     */
+    public List<HttpCookie> getCookies() {
+        return new ArrayList<>(cookieManager.getCookieStore().get(baseUri));
+    }
+
+    /**
+     * Session cookies as browser cookies, e.g. to cache a login
+     * @return Cookies for the site's domain
+     */
+    public List<Cookie> getBrowserCookies() {
+        List<Cookie> cookies = new ArrayList<>();
+        for (HttpCookie cookie : getCookies()) {
+            Cookie.Builder builder = new Cookie.Builder(cookie.getName(), cookie.getValue())
+                    .path(cookie.getPath() == null ? "/" : cookie.getPath())
+                    .isSecure(cookie.getSecure())
+                    .isHttpOnly(cookie.isHttpOnly());
+            if (cookie.getMaxAge() > 0) {
+                builder.expiresOn(new Date(System.currentTimeMillis() + cookie.getMaxAge() * 1000));
+            }
+            cookies.add(builder.build());
+        }
+        return cookies;
+    }
+
+    /**
+     * Continue a session that was started elsewhere (a cached login, a browser session)
+     * @param cookies Cookies of that session
+     */
+    public void adoptCookies(Collection<Cookie> cookies) {
+        for (Cookie cookie : cookies) {
+            HttpCookie httpCookie = new HttpCookie(cookie.getName(), cookie.getValue());
+            httpCookie.setPath(cookie.getPath() == null ? "/" : cookie.getPath());
+            httpCookie.setVersion(0);
+            cookieManager.getCookieStore().add(baseUri, httpCookie);
+        }
+    }
+
+    /**
+     * Copy the session cookies into a browser
+     * Pages loaded afterwards see the seeded customer and cart.
+     * @param driver Browser session
+     */
+    public void injectInto(WebDriver driver) {
+        injectCookies(driver, baseUri, getBrowserCookies());
+    }
+
+    /**
+     * Add cookies to a browser for a site; the browser is first pointed at the site if it is
+     * elsewhere, because cookies can only be added for the current document's domain
+     * @param driver Browser session
+     * @param siteUri Site the cookies belong to
+     * @param cookies Cookies to add, replacing any with the same name
+     */
+    public static void injectCookies(WebDriver driver, URI siteUri, Collection<Cookie> cookies) {
+        String currentUrl = driver.getCurrentUrl();
+        if (currentUrl == null || !currentUrl.startsWith(siteUri.getScheme() + "://" + siteUri.getAuthority())) {
+            driver.get(siteUri.resolve("/robots.txt").toString());
+        }
+        for (Cookie cookie : cookies) {
+            driver.manage().deleteCookieNamed(cookie.getName());
+            driver.manage().addCookie(cookie);
+        }
+        logger.debug("Injected {} cookies into the browser", cookies.size());
+    }
+
+    private HttpResponse<String> postForm(String path, Map<String, String> fields) {
+        HttpResponse<String> page = send(HttpRequest.newBuilder(baseUri.resolve(path)).GET());
+        Map<String, String> form = new LinkedHashMap<>(fields);
+        String token = antiForgeryToken(page.body());
+        if (token != null) {
+            form.put(TOKEN_FIELD, token);
+        }
+        return send(HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(encode(form))));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) {
+        try {
+            return httpClient.send(request.timeout(timeout).build(), HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StateSeedingException("Interrupted while seeding test state", e);
+        } catch (IOException e) {
+            throw new StateSeedingException("Request to " + baseUri + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    static String antiForgeryToken(String html) {
+        Matcher input = TOKEN_INPUT.matcher(html);
+        if (!input.find()) {
+            return null;
+        }
+        Matcher value = VALUE_ATTRIBUTE.matcher(input.group());
+        return value.find() ? value.group(1) : null;
+    }
+
+    private static List<String> allGroups(Pattern pattern, String html) {
+        List<String> values = new ArrayList<>();
+        Matcher matcher = pattern.matcher(html);
+        while (matcher.find()) {
+            if (!values.contains(matcher.group(1))) {
+                values.add(matcher.group(1));
+            }
+        }
+        return values;
+    }
+
+    private static String validationErrors(String html) {
+        Matcher errors = VALIDATION_ERRORS.matcher(html);
+        return errors.find() ? errors.group(1).replaceAll("<[^>]+>", " ").replaceAll("\\s+", " ").trim() : "";
+    }
+
+    private static boolean isRedirect(HttpResponse<?> response) {
+        return response.statusCode() == 301 || response.statusCode() == 302 || response.statusCode() == 303;
+    }
+
+    private static String encode(Map<String, String> form) {
+        return form.entrySet().stream()
+                .map(field -> URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(field.getValue() == null ? "" : field.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+}
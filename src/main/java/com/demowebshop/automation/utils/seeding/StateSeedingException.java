@@ -0,0 +1,15 @@
+package com.demowebshop.automation.utils.seeding;
+
+/**
+ * Thrown when the site refuses an HTTP seeding step; callers fall back to the UI
+ */
+public class StateSeedingException extends RuntimeException {
+
+    public StateSeedingException(String message) {
+        super(message);
+    }
+
+    public StateSeedingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,6 +1,7 @@
 package com.demowebshop.automation.utils.selenium;
 
 import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
@@ -26,7 +27,7 @@ public class AjaxUtils {
 
     public AjaxUtils(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(ConfigManager.getExplicitTimeout()));
+        this.wait = new MeasuredWait(driver, Duration.ofSeconds(ConfigManager.getExplicitTimeout()));
         this.jsExecutor = (JavascriptExecutor) driver;
     }
 
@@ -43,7 +44,7 @@ public class AjaxUtils {
      * @param timeoutSeconds Timeout in seconds
      */
     public void waitForJQueryToComplete(int timeoutSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
+        WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutSeconds));
 
         try {
             customWait.until(new ExpectedCondition<Boolean>() {
@@ -87,7 +88,7 @@ public class AjaxUtils {
      * @param timeoutSeconds Timeout in seconds
      */
     public void waitForAjaxToComplete(int timeoutSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
+        WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutSeconds));
 
         try {
             customWait.until(new ExpectedCondition<Boolean>() {
@@ -204,7 +205,7 @@ public class AjaxUtils {
      * @return true if value changed
      */
     public boolean waitForElementValueChange(WebElement element, String originalValue, int timeoutSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
+        WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutSeconds));
 
         try {
             return customWait.until(new ExpectedCondition<Boolean>() {
@@ -257,7 +258,7 @@ public class AjaxUtils {
      * @return true if quantity matches
      */
     public boolean waitForCartQuantityUpdate(int expectedQuantity, int timeoutSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
+        WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutSeconds));
 
         try {
             return customWait.until(new ExpectedCondition<Boolean>() {
@@ -327,7 +328,7 @@ public class AjaxUtils {
      * @return WebElement if found and stable
      */
     public WebElement waitForElementToBeStable(By locator, long stabilityTimeMs, int timeoutSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
+        WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutSeconds));
 
         return customWait.until(new ExpectedCondition<WebElement>() {
             @Override
@@ -340,7 +341,7 @@ public class AjaxUtils {
 
                         // Wait for stability period
                         try {
-                            Thread.sleep(stabilityTimeMs);
+                            TestDeadline.sleep(stabilityTimeMs);
                         } catch (InterruptedException e) {
                             Thread.currentThread().interrupt();
                         }
@@ -422,7 +423,7 @@ public class AjaxUtils {
      * @return Result of condition
      */
     public <T> T waitFor(Function<WebDriver, T> condition, int timeoutSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
+        WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutSeconds));
         return customWait.until(condition::apply);
     }
 }
\ No newline at end of file
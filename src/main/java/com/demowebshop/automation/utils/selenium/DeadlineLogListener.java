@@ -0,0 +1,25 @@
+package com.demowebshop.automation.utils.selenium;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.LogEventListener;
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
+
+/**
+ * Selenide listener that refuses new Selenide commands once the test budget is spent
+ * Selenide's own wait timeout is a global setting, so a command that starts in time can still take up
+ * to selenide.timeout; every command after that fails instead of waiting again.
+ * Selenide listeners are per thread: BaseTest registers this one for each test.
+ */
+public class DeadlineLogListener implements LogEventListener {
+    public static final String NAME = "test-deadline";
+
+    @Override
+    public void beforeEvent(LogEvent currentLog) {
+        TestDeadline.check(currentLog.getElement() + " " + currentLog.getSubject());
+    }
+
+    @Override
+    public void afterEvent(LogEvent currentLog) {
+        // Nothing to do after the command
+    }
+}
@@ -1,5 +1,6 @@
 package com.demowebshop.automation.utils.selenium;
 
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
@@ -45,7 +46,7 @@ public class ElementUtils {
                 logger.warn("Element is stale, re-finding and retrying ({}/{})", attempt, maxRetries);
                 // Wait a bit before retry to allow page to stabilize
                 try {
-                    Thread.sleep(500);
+                    TestDeadline.sleep(500);
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
                     throw new RuntimeException("Interrupted during stale element retry", ie);
@@ -66,7 +67,7 @@ public class ElementUtils {
                     }
                     logger.warn("JavaScript click also failed, retrying ({}/{})", attempt, maxRetries);
                     try {
-                        Thread.sleep(500);
+                        TestDeadline.sleep(500);
                     } catch (InterruptedException ie) {
                         Thread.currentThread().interrupt();
                     }
@@ -83,7 +84,7 @@ public class ElementUtils {
                     }
                     logger.warn("JavaScript click also failed, retrying ({}/{})", attempt, maxRetries);
                     try {
-                        Thread.sleep(500);
+                        TestDeadline.sleep(500);
                     } catch (InterruptedException ie) {
                         Thread.currentThread().interrupt();
                     }
@@ -95,7 +96,7 @@ public class ElementUtils {
                 }
                 logger.warn("Element not found, retrying ({}/{}): {}", attempt, maxRetries, by);
                 try {
-                    Thread.sleep(1000);
+                    TestDeadline.sleep(1000);
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
                 }
@@ -111,7 +112,7 @@ public class ElementUtils {
                     }
                     logger.warn("JavaScript click also failed, retrying ({}/{})", attempt, maxRetries);
                     try {
-                        Thread.sleep(500);
+                        TestDeadline.sleep(500);
                     } catch (InterruptedException ie) {
                         Thread.currentThread().interrupt();
                     }
@@ -140,7 +141,7 @@ public class ElementUtils {
                 logger.warn("Element is stale, cannot re-find without locator ({}/{})", attempt, maxRetries);
                 // Wait a bit before retry to allow page to stabilize
                 try {
-                    Thread.sleep(500);
+                    TestDeadline.sleep(500);
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
                     throw new RuntimeException("Interrupted during stale element retry", ie);
@@ -156,7 +157,7 @@ public class ElementUtils {
                     }
                     logger.warn("JavaScript click also failed, retrying ({}/{})", attempt, maxRetries);
                     try {
-                        Thread.sleep(500);
+                        TestDeadline.sleep(500);
                     } catch (InterruptedException ie) {
                         Thread.currentThread().interrupt();
                     }
@@ -172,7 +173,7 @@ public class ElementUtils {
                     }
                     logger.warn("JavaScript click also failed, retrying ({}/{})", attempt, maxRetries);
                     try {
-                        Thread.sleep(500);
+                        TestDeadline.sleep(500);
                     } catch (InterruptedException ie) {
                         Thread.currentThread().interrupt();
                     }
@@ -188,7 +189,7 @@ public class ElementUtils {
                     }
                     logger.warn("JavaScript click also failed, retrying ({}/{})", attempt, maxRetries);
                     try {
-                        Thread.sleep(500);
+                        TestDeadline.sleep(500);
                     } catch (InterruptedException ie) {
                         Thread.currentThread().interrupt();
                     }
@@ -281,7 +282,7 @@ public class ElementUtils {
         for (char c : text.toCharArray()) {
             element.sendKeys(String.valueOf(c));
             try {
-                Thread.sleep(50); // 50ms delay between characters
+                TestDeadline.sleep(50); // 50ms delay between characters
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
@@ -430,7 +431,7 @@ public class ElementUtils {
             jsExecutor.executeScript("arguments[0].setAttribute('style', 'border: 3px solid red; background-color: yellow;');", element);
 
             try {
-                Thread.sleep(500); // Highlight for 500ms
+                TestDeadline.sleep(500); // Highlight for 500ms
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
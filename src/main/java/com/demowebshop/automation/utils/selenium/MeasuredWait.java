@@ -0,0 +1,43 @@
+package com.demowebshop.automation.utils.selenium;
+
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
+import com.demowebshop.automation.utils.metrics.FrameworkMetrics;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * WebDriverWait that reports the time spent waiting to the framework metrics
+ * Each wait is limited to the remaining budget of the current test ({@link TestDeadline}); a wait
+ * cut short by the budget fails with a TestBudgetExceededException.
+ */
+public class MeasuredWait extends WebDriverWait {
+    private final Duration timeout;
+
+    public MeasuredWait(WebDriver driver, Duration timeout) {
+        super(driver, timeout);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        Duration effectiveTimeout = TestDeadline.cap(timeout);
+        withTimeout(effectiveTimeout);
+        long start = System.currentTimeMillis();
+        boolean timedOut = false;
+        try {
+            return super.until(isTrue);
+        } catch (TimeoutException e) {
+            timedOut = true;
+            if (effectiveTimeout.compareTo(timeout) < 0) {
+                throw TestDeadline.exceeded(e);
+            }
+            throw e;
+        } finally {
+            FrameworkMetrics.recordWait(System.currentTimeMillis() - start, timedOut);
+        }
+    }
+}
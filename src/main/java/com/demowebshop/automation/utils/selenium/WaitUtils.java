@@ -23,7 +23,7 @@ public class WaitUtils {
     public WaitUtils(WebDriver driver) {
         this.driver = driver;
         this.defaultTimeout = ConfigManager.getExplicitTimeout();
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(defaultTimeout));
+        this.wait = new MeasuredWait(driver, Duration.ofSeconds(defaultTimeout));
     }
 
     /**
@@ -43,7 +43,7 @@ public class WaitUtils {
      */
     public WebElement waitForElementToBeVisible(By locator, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             return customWait.until(ExpectedConditions.visibilityOfElementLocated(locator));
         } catch (TimeoutException e) {
             logger.error("Element not visible within {} seconds: {}", timeoutInSeconds, locator);
@@ -68,7 +68,7 @@ public class WaitUtils {
      */
     public WebElement waitForElementToBeVisible(WebElement element, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             return customWait.until(ExpectedConditions.visibilityOf(element));
         } catch (TimeoutException e) {
             logger.error("Element not visible within {} seconds: {}", timeoutInSeconds, element);
@@ -93,7 +93,7 @@ public class WaitUtils {
      */
     public List<WebElement> waitForElementsToBeVisible(By locator, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             return customWait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
         } catch (TimeoutException e) {
             logger.error("Elements not visible within {} seconds: {}", timeoutInSeconds, locator);
@@ -118,7 +118,7 @@ public class WaitUtils {
      */
     public WebElement waitForElementToBeClickable(By locator, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             return customWait.until(ExpectedConditions.elementToBeClickable(locator));
         } catch (TimeoutException e) {
             logger.error("Element not clickable within {} seconds: {}", timeoutInSeconds, locator);
@@ -143,7 +143,7 @@ public class WaitUtils {
      */
     public WebElement waitForElementToBeClickable(WebElement element, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             return customWait.until(ExpectedConditions.elementToBeClickable(element));
         } catch (TimeoutException e) {
             logger.error("Element not clickable within {} seconds: {}", timeoutInSeconds, element);
@@ -168,7 +168,7 @@ public class WaitUtils {
      */
     public WebElement waitForElementToBePresent(By locator, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             return customWait.until(ExpectedConditions.presenceOfElementLocated(locator));
         } catch (TimeoutException e) {
             logger.error("Element not present within {} seconds: {}", timeoutInSeconds, locator);
@@ -191,7 +191,7 @@ public class WaitUtils {
      */
     public void waitForElementToBeInvisible(By locator, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             customWait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
         } catch (TimeoutException e) {
             logger.error("Element still visible after {} seconds: {}", timeoutInSeconds, locator);
@@ -216,7 +216,7 @@ public class WaitUtils {
      */
     public void waitForTextToBePresentInElement(By locator, String text, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             customWait.until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
         } catch (TimeoutException e) {
             logger.error("Text '{}' not present in element within {} seconds: {}", text, timeoutInSeconds, locator);
@@ -239,7 +239,7 @@ public class WaitUtils {
      */
     public void waitForUrlToContain(String urlFragment, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             customWait.until(ExpectedConditions.urlContains(urlFragment));
         } catch (TimeoutException e) {
             logger.error("URL does not contain '{}' within {} seconds. Current URL: {}",
@@ -263,7 +263,7 @@ public class WaitUtils {
      */
     public void waitForTitleToContain(String titleFragment, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             customWait.until(ExpectedConditions.titleContains(titleFragment));
         } catch (TimeoutException e) {
             logger.error("Title does not contain '{}' within {} seconds. Current title: {}",
@@ -285,7 +285,7 @@ public class WaitUtils {
      */
     public void waitForPageToLoad(int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             customWait.until(new ExpectedCondition<Boolean>() {
                 @Override
                 public Boolean apply(WebDriver driver) {
@@ -313,7 +313,7 @@ public class WaitUtils {
      */
     public void waitForAjaxToComplete(int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             customWait.until(new ExpectedCondition<Boolean>() {
                 @Override
                 public Boolean apply(WebDriver driver) {
@@ -336,7 +336,7 @@ public class WaitUtils {
      */
     public <T> T waitForCondition(ExpectedCondition<T> condition, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             return customWait.until(condition);
         } catch (TimeoutException e) {
             logger.error("Condition not met within {} seconds", timeoutInSeconds);
@@ -361,7 +361,7 @@ public class WaitUtils {
      */
     public WebElement waitForAnyElementToBeVisible(int timeoutInSeconds, By... locators) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             return customWait.until(driver -> {
                 for (By locator : locators) {
                     try {
@@ -401,7 +401,7 @@ public class WaitUtils {
      */
     public boolean waitForElementExistenceState(By locator, boolean shouldExist, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             return customWait.until(driver -> {
                 try {
                     List<WebElement> elements = driver.findElements(locator);
@@ -435,7 +435,7 @@ public class WaitUtils {
      */
     public WebElement softWaitForElementToBeVisible(By locator, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             return customWait.until(ExpectedConditions.visibilityOfElementLocated(locator));
         } catch (TimeoutException e) {
             logger.debug("Element not visible within {} seconds (soft wait): {}", timeoutInSeconds, locator);
@@ -458,7 +458,7 @@ public class WaitUtils {
      */
     public void waitForUrlToChangeFrom(String currentUrl, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             customWait.until(driver -> !driver.getCurrentUrl().equals(currentUrl));
             logger.debug("URL changed from: {}", currentUrl);
         } catch (TimeoutException e) {
@@ -500,7 +500,7 @@ public class WaitUtils {
      */
     public List<WebElement> softWaitForElementsToBeVisible(By locator, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+            WebDriverWait customWait = new MeasuredWait(driver, Duration.ofSeconds(timeoutInSeconds));
             return customWait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
         } catch (TimeoutException e) {
             logger.debug("Elements not visible within {} seconds (soft wait): {}", timeoutInSeconds, locator);
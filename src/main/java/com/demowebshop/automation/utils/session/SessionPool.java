@@ -0,0 +1,136 @@
+package com.demowebshop.automation.utils.session;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Pool of idle browser sessions shared by the worker threads of data-driven tests
+ * Sessions are kept per affinity key: {@link #ANONYMOUS} for clean sessions, or a key naming the user a
+ * session is logged in as. A row asking for a user first gets an idle session of that user, then a clean
+ * one it can log in with; clean rows never receive a logged-in session.
+ * @param <S> Session type (WebDriver in the tests)
+ */
+public class SessionPool<S> {
+    private static final Logger logger = LogManager.getLogger(SessionPool.class);
+    public static final String ANONYMOUS = "";
+
+    private final int maxIdle;
+    private final Consumer<S> closer;
+    private final Map<String, Deque<S>> idle = new HashMap<>();
+    private int idleCount;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * @param maxIdle Idle sessions kept at most; sessions released beyond that are closed
+     * @param closer Closes a session that is not kept
+     */
+    public SessionPool(int maxIdle, Consumer<S> closer) {
+        this.maxIdle = Math.max(0, maxIdle);
+        this.closer = closer;
+    }
+
+    /**
+     * Take an idle session for a row
+     * @param affinity {@link #ANONYMOUS} or the user key of the row
+     * @return Lease, or null if a new session must be created
+     */
+    public synchronized Lease<S> acquire(String affinity) {
+        S session = poll(affinity);
+        if (session != null) {
+            hits.incrementAndGet();
+            return new Lease<>(session, affinity, true);
+        }
+        if (!ANONYMOUS.equals(affinity)) {
+            session = poll(ANONYMOUS);
+            if (session != null) {
+                hits.incrementAndGet();
+                return new Lease<>(session, affinity, false);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    private S poll(String affinity) {
+        Deque<S> sessions = idle.get(affinity);
+        S session = sessions == null ? null : sessions.pollFirst();
+        if (session != null) {
+            idleCount--;
+        }
+        return session;
+    }
+
+    /**
+     * Return a session after a row
+     * @param session Session used by the row
+     * @param affinity Key the session now belongs to ({@link #ANONYMOUS} once it was reset)
+     * @param reusable Whether the session is healthy and may serve another row
+     */
+    public void release(S session, String affinity, boolean reusable) {
+        if (reusable) {
+            synchronized (this) {
+                if (idleCount < maxIdle) {
+                    idle.computeIfAbsent(affinity, key -> new ArrayDeque<>()).addFirst(session);
+                    idleCount++;
+                    return;
+                }
+            }
+        }
+        closer.accept(session);
+    }
+
+    /**
+     * Remove all idle sessions from the pool without closing them
+     * @return Removed sessions
+     */
+    public synchronized List<S> drain() {
+        List<S> sessions = new ArrayList<>();
+        idle.values().forEach(sessions::addAll);
+        idle.clear();
+        idleCount = 0;
+        if (hits.get() + misses.get() > 0) {
+            logger.info("Session pool served {} of {} data-driven rows with a warm session",
+                    hits.get(), hits.get() + misses.get());
+        }
+        return sessions;
+    }
+
+    public synchronized int getIdleCount() {
+        return idleCount;
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Session handed to one row
+     * @param <S> Session type
+     */
+    public static final class Lease<S> {
+        private final S session;
+        private final String affinity;
+        private final boolean affinityMatch;
+
+        Lease(S session, String affinity, boolean affinityMatch) {
+            this.session = session;
+            this.affinity = affinity;
+            this.affinityMatch = affinityMatch;
+        }
+
+        public S getSession() { return session; }
+        public String getAffinity() { return affinity; }
+        /** @return true if the session already belonged to the requested key (e.g. is logged in as that user) */
+        public boolean isAffinityMatch() { return affinityMatch; }
+    }
+}
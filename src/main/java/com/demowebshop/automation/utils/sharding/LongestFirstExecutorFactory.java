@@ -0,0 +1,96 @@
+package com.demowebshop.automation.utils.sharding;
+
+import org.testng.IDynamicGraph;
+import org.testng.ISuite;
+import org.testng.ITestNGMethod;
+import org.testng.internal.thread.DefaultThreadPoolExecutorFactory;
+import org.testng.internal.thread.graph.GraphThreadPoolExecutor;
+import org.testng.thread.IExecutorFactory;
+import org.testng.thread.ITestNGThreadPoolExecutor;
+import org.testng.thread.IThreadWorkerFactory;
+import org.testng.thread.IWorker;
+
+import java.util.Comparator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TestNG executor factory whose method workers share one longest-first queue
+ * Every method that becomes runnable goes into the same priority queue, and each idle worker thread
+ * takes the longest remaining one from it, so slow methods start early and short ones fill the gaps
+ * at the end of the run. Explicit TestNG priorities still come first; durations only break their ties.
+ * Installed with {@code TestNG#setExecutorFactory} by programmatic runs such as the fork workers.
+ */
+public class LongestFirstExecutorFactory implements IExecutorFactory {
+    private static final int INITIAL_QUEUE_CAPACITY = 64;
+
+    private final IExecutorFactory suiteExecutors = new DefaultThreadPoolExecutorFactory();
+    private final TestDurationHistory history;
+
+    public LongestFirstExecutorFactory(TestDurationHistory history) {
+        this.history = history;
+    }
+
+    @Override
+    public ITestNGThreadPoolExecutor newSuiteExecutor(String name, IDynamicGraph<ISuite> graph,
+                                                      IThreadWorkerFactory<ISuite> factory, int corePoolSize,
+                                                      int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                                      BlockingQueue<Runnable> queue, Comparator<ISuite> comparator) {
+        return suiteExecutors.newSuiteExecutor(name, graph, factory, corePoolSize, maximumPoolSize,
+                keepAliveTime, unit, queue, comparator);
+    }
+
+    @Override
+    public ITestNGThreadPoolExecutor newTestMethodExecutor(String name, IDynamicGraph<ITestNGMethod> graph,
+                                                           IThreadWorkerFactory<ITestNGMethod> factory,
+                                                           int corePoolSize, int maximumPoolSize, long keepAliveTime,
+                                                           TimeUnit unit, BlockingQueue<Runnable> queue,
+                                                           Comparator<ITestNGMethod> comparator) {
+        // TestNG's own queue and comparator are replaced: FIFO, or priority then declaration order
+        return new GraphThreadPoolExecutor<>(name, graph, factory, corePoolSize, maximumPoolSize, keepAliveTime,
+                unit, new PriorityBlockingQueue<>(INITIAL_QUEUE_CAPACITY, workerOrder()), methodOrder());
+    }
+
+    /**
+     * Order of runnable methods: lowest TestNG priority, then longest estimate, then name
+     * TestNG's own comparator is not reused, it breaks priority ties by declaration order
+     * @return Comparator
+     */
+    Comparator<ITestNGMethod> methodOrder() {
+        return Comparator.comparingInt(ITestNGMethod::getPriority)
+                .thenComparing(Comparator.comparingLong((ITestNGMethod method) -> history.estimate(keyOf(method)))
+                        .reversed())
+                .thenComparing(LongestFirstExecutorFactory::keyOf);
+    }
+
+    /**
+     * Order of the shared work queue: lowest TestNG priority, then longest estimated worker first
+     * @return Comparator over queued workers
+     */
+    Comparator<Runnable> workerOrder() {
+        return Comparator.comparingInt(LongestFirstExecutorFactory::priorityOf)
+                .thenComparing(Comparator.comparingLong(this::estimateOf).reversed());
+    }
+
+    private static int priorityOf(Runnable task) {
+        return task instanceof IWorker<?> worker ? worker.getPriority() : 0;
+    }
+
+    private long estimateOf(Runnable task) {
+        if (!(task instanceof IWorker<?> worker)) {
+            return 0;
+        }
+        long estimate = 0;
+        for (Object method : worker.getTasks()) {
+            if (method instanceof ITestNGMethod testMethod) {
+                estimate += history.estimate(keyOf(testMethod));
+            }
+        }
+        return estimate;
+    }
+
+    private static String keyOf(ITestNGMethod method) {
+        return method.getRealClass().getName() + "." + method.getMethodName();
+    }
+}
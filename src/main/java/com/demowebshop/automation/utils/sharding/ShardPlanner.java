@@ -0,0 +1,100 @@
+package com.demowebshop.automation.utils.sharding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Duration-aware shard planner
+ * Bin-packs test methods into N shards with the longest-processing-time-first heuristic:
+ * methods are taken longest first and each goes to the currently lightest shard, which keeps
+ * the slowest shard (the critical path of a sharded run) within 4/3 of the optimum.
+ * A method and its dependsOnMethods/dependsOnGroups prerequisites are packed as one unit, since
+ * TestNG skips (or, for a missing method, refuses to run) a dependent whose prerequisites are in another shard.
+ * The plan only depends on the method set and the history, so every shard JVM computes the same plan.
+ */
+public class ShardPlanner {
+    private final TestDurationHistory history;
+    private final TestDependencies.Resolver dependencies;
+
+    public ShardPlanner(TestDurationHistory history) {
+        this(history, TestDependencies.ANNOTATIONS);
+    }
+
+    public ShardPlanner(TestDurationHistory history, TestDependencies.Resolver dependencies) {
+        this.history = history;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Plan shards
+     * @param methodKeys Methods to distribute (fully.qualified.Class.method, duplicates ignored)
+     * @param shardCount Number of shards
+     * @return Shards ordered by index (1-based), methods inside each shard longest first;
+     *         prerequisites missing from methodKeys are planned with their dependents
+     */
+    public List<Shard> plan(Collection<String> methodKeys, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1, was " + shardCount);
+        }
+        List<Set<String>> units = TestDependencies.units(new TreeSet<>(methodKeys), dependencies);
+        Map<Set<String>, Long> unitEstimates = new HashMap<>();
+        for (Set<String> unit : units) {
+            unitEstimates.put(unit, unit.stream().mapToLong(history::estimate).sum());
+        }
+        // Units are sorted sets ordered by their first method, so the sort is stable across JVMs
+        units.sort(Comparator.comparing((Set<String> unit) -> unitEstimates.get(unit)).reversed());
+
+        List<Shard> shards = new ArrayList<>();
+        PriorityQueue<Shard> lightestFirst = new PriorityQueue<>(
+                Comparator.comparingLong(Shard::getEstimatedMillis).thenComparingInt(Shard::getIndex));
+        for (int i = 1; i <= shardCount; i++) {
+            Shard shard = new Shard(i);
+            shards.add(shard);
+            lightestFirst.add(shard);
+        }
+
+        for (Set<String> unit : units) {
+            Shard lightest = lightestFirst.poll();
+            unit.forEach(method -> lightest.add(method, history.estimate(method)));
+            lightestFirst.add(lightest);
+        }
+        shards.forEach(shard -> shard.methods.sort(
+                Comparator.comparingLong(history::estimate).reversed().thenComparing(Comparator.naturalOrder())));
+        return shards;
+    }
+
+    /**
+     * One planned shard
+     */
+    public static final class Shard {
+        private final int index;
+        private final List<String> methods = new ArrayList<>();
+        private long estimatedMillis;
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        private void add(String method, long durationMillis) {
+            methods.add(method);
+            estimatedMillis += durationMillis;
+        }
+
+        public int getIndex() { return index; }
+        public List<String> getMethods() { return Collections.unmodifiableList(methods); }
+        public long getEstimatedMillis() { return estimatedMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("Shard{index=%d, methods=%d, estimated=%ds}", index, methods.size(), estimatedMillis / 1000);
+        }
+    }
+}
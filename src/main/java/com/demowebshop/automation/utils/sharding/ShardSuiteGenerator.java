@@ -0,0 +1,236 @@
+package com.demowebshop.automation.utils.sharding;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlPackage;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates balanced shard suite XMLs from a base suite and the duration history
+ * Replaces hand-maintained shard files; the same plan is applied at runtime by the shard
+ * method interceptor when a run is started with -Dshard.index/-Dshard.count.
+ *
+ * Usage (test classes must be on the classpath):
+ * <pre>
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.demowebshop.automation.utils.sharding.ShardSuiteGenerator \
+ *     -Dexec.args="--suite src/test/resources/config/testng-complete.xml --shards 4 --out target/shards"
+ *
+ *   # Fold the latest reports into the committed history
+ *   ... -Dexec.args="--update-history --reports target/surefire-reports"
+ * </pre>
+ */
+public class ShardSuiteGenerator {
+    private static final Logger logger = LogManager.getLogger(ShardSuiteGenerator.class);
+
+    public static final String DEFAULT_HISTORY_FILE = "src/test/resources/config/shards/test-durations.properties";
+
+    private ShardSuiteGenerator() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArguments(args);
+        Path historyFile = Paths.get(options.getOrDefault("history", DEFAULT_HISTORY_FILE));
+        TestDurationHistory history = TestDurationHistory.load(historyFile);
+
+        if (options.containsKey("update-history")) {
+            List<Path> reportDirectories = new ArrayList<>();
+            for (String directory : options.getOrDefault("reports", "target/surefire-reports").split(",")) {
+                reportDirectories.add(Paths.get(directory.trim()));
+            }
+            TestDurationHistory latest = TestDurationHistory.fromReports(reportDirectories);
+            history.merge(latest).save(historyFile);
+            logger.info("Merged {} method durations into {}", latest.getDurations().size(), historyFile);
+            return;
+        }
+
+        Path suiteFile = Paths.get(options.getOrDefault("suite", "src/test/resources/config/testng-complete.xml"));
+        int shardCount = Integer.parseInt(options.getOrDefault("shards", "4"));
+        Path outputDirectory = Paths.get(options.getOrDefault("out", "target/shards"));
+        for (Path written : generate(suiteFile, shardCount, history, outputDirectory)) {
+            logger.info("Wrote {}", written);
+        }
+    }
+
+    /**
+     * Plan the methods of a base suite and write one suite XML per shard
+     * @param suiteFile Base suite
+     * @param shardCount Number of shards
+     * @param history Duration history
+     * @param outputDirectory Output directory
+     * @return Written files (testng-shard-&lt;i&gt;-of-&lt;n&gt;.xml)
+     */
+    public static List<Path> generate(Path suiteFile, int shardCount, TestDurationHistory history,
+                                      Path outputDirectory) throws IOException {
+        XmlSuite baseSuite = loadSuite(suiteFile);
+        List<ShardPlanner.Shard> shards = new ShardPlanner(history).plan(collectMethods(baseSuite), shardCount);
+
+        Files.createDirectories(outputDirectory);
+        List<Path> written = new ArrayList<>();
+        for (ShardPlanner.Shard shard : shards) {
+            XmlSuite suite = toSuite(baseSuite, shard, shardCount);
+            Path file = outputDirectory.resolve(String.format("testng-shard-%d-of-%d.xml", shard.getIndex(), shardCount));
+            Files.write(file, suite.toXml().getBytes(StandardCharsets.UTF_8));
+            logger.info("{}: {} methods, estimated {}s", file.getFileName(), shard.getMethods().size(),
+                    shard.getEstimatedMillis() / 1000);
+            written.add(file);
+        }
+        return written;
+    }
+
+    /**
+     * Parse a suite file
+     * @param suiteFile Suite XML
+     * @return Top-level suite of the file
+     */
+    public static XmlSuite loadSuite(Path suiteFile) throws IOException {
+        Collection<XmlSuite> suites = Parser.parse(suiteFile.toString(), null);
+        if (suites.isEmpty()) {
+            throw new IOException("No suite in " + suiteFile);
+        }
+        return suites.iterator().next();
+    }
+
+    /**
+     * Collect the test methods a suite selects (explicit includes, or all @Test methods of listed classes and packages)
+     * @param suite Parsed suite
+     * @return Method keys (fully.qualified.Class.method)
+     */
+    public static Set<String> collectMethods(XmlSuite suite) {
+        Set<String> methods = new LinkedHashSet<>();
+        for (XmlTest test : suite.getTests()) {
+            List<XmlClass> classes = new ArrayList<>(test.getClasses());
+            for (XmlPackage xmlPackage : test.getXmlPackages()) {
+                classes.addAll(xmlPackage.getXmlClasses());
+            }
+            for (XmlClass xmlClass : classes) {
+                if (!xmlClass.getIncludedMethods().isEmpty()) {
+                    for (XmlInclude include : xmlClass.getIncludedMethods()) {
+                        methods.add(xmlClass.getName() + "." + include.getName());
+                    }
+                } else {
+                    methods.addAll(testMethodsOf(xmlClass.getName()));
+                }
+            }
+        }
+        return methods;
+    }
+
+    private static List<String> testMethodsOf(String className) {
+        List<String> methods = new ArrayList<>();
+        try {
+            Class<?> testClass = Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+            for (Method method : testClass.getMethods()) {
+                if (method.isAnnotationPresent(Test.class)) {
+                    methods.add(className + "." + method.getName());
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            logger.warn("Test class {} not on the classpath, skipped", className);
+        }
+        return methods;
+    }
+
+    private static XmlSuite toSuite(XmlSuite baseSuite, ShardPlanner.Shard shard, int shardCount) {
+        return buildSuite(baseSuite,
+                String.format("%s - Shard %d of %d", baseSuite.getName(), shard.getIndex(), shardCount),
+                String.format("Shard %d (estimated %ds)", shard.getIndex(), shard.getEstimatedMillis() / 1000),
+                shard.getMethods());
+    }
+
+    /**
+     * Build a suite running the given methods with the settings and listeners of a base suite
+     * @param baseSuite Base suite
+     * @param suiteName Name of the new suite
+     * @param testName Name of its single &lt;test&gt;
+     * @param methodKeys Methods to include (fully.qualified.Class.method), in execution order
+     * @return Suite
+     */
+    public static XmlSuite buildSuite(XmlSuite baseSuite, String suiteName, String testName,
+                                      Collection<String> methodKeys) {
+        XmlSuite suite = buildSuite(baseSuite, suiteName);
+        addTest(suite, testName, methodKeys);
+        return suite;
+    }
+
+    /**
+     * Build a suite without tests that has the settings and listeners of a base suite
+     * @param baseSuite Base suite
+     * @param suiteName Name of the new suite
+     * @return Suite
+     */
+    public static XmlSuite buildSuite(XmlSuite baseSuite, String suiteName) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName(suiteName);
+        suite.setParallel(baseSuite.getParallel());
+        suite.setThreadCount(baseSuite.getThreadCount());
+        suite.setDataProviderThreadCount(baseSuite.getDataProviderThreadCount());
+        suite.setTimeOut(baseSuite.getTimeOut());
+        suite.setVerbose(baseSuite.getVerbose());
+        suite.setParameters(baseSuite.getParameters());
+        suite.setListeners(baseSuite.getListeners());
+        return suite;
+    }
+
+    /**
+     * Add a &lt;test&gt; running the given methods to a suite
+     * @param suite Suite
+     * @param testName Name of the test
+     * @param methodKeys Methods to include (fully.qualified.Class.method), in execution order
+     * @return Added test
+     */
+    public static XmlTest addTest(XmlSuite suite, String testName, Collection<String> methodKeys) {
+        XmlTest test = new XmlTest(suite);
+        test.setName(testName);
+        test.setPreserveOrder(false);
+
+        // Group methods per class, keeping the given (e.g. longest-first) order
+        Map<String, List<XmlInclude>> includesByClass = new LinkedHashMap<>();
+        for (String methodKey : methodKeys) {
+            int separator = methodKey.lastIndexOf('.');
+            includesByClass.computeIfAbsent(methodKey.substring(0, separator), key -> new ArrayList<>())
+                    .add(new XmlInclude(methodKey.substring(separator + 1)));
+        }
+        List<XmlClass> classes = new ArrayList<>();
+        includesByClass.forEach((className, includes) -> {
+            XmlClass xmlClass = new XmlClass(className, false);
+            xmlClass.setIncludedMethods(includes);
+            classes.add(xmlClass);
+        });
+        test.setXmlClasses(classes);
+        return test;
+    }
+
+    private static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(name, hasValue ? args[++i] : "true");
+        }
+        return options;
+    }
+}
@@ -0,0 +1,209 @@
+package com.demowebshop.automation.utils.sharding;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * dependsOnMethods / dependsOnGroups of test methods, read from their @Test annotations
+ * TestNG refuses to run a method whose prerequisites are not part of the run, and a suite that
+ * includes only the dependent method is aborted. Anything that splits or narrows a suite
+ * (shards, impact selection) therefore has to keep each method together with its prerequisites.
+ */
+public final class TestDependencies {
+    private static final Logger logger = LogManager.getLogger(TestDependencies.class);
+
+    /**
+     * Resolves the direct prerequisites of one method
+     */
+    @FunctionalInterface
+    public interface Resolver {
+        /**
+         * @param methodKey Method (fully.qualified.Class.method)
+         * @param candidates Methods of the run, searched for members of the groups the method depends on
+         * @return Direct prerequisites (fully.qualified.Class.method)
+         */
+        Set<String> prerequisitesOf(String methodKey, Collection<String> candidates);
+    }
+
+    /** Reads the @Test annotations of the test classes on the classpath */
+    public static final Resolver ANNOTATIONS = TestDependencies::prerequisitesOf;
+
+    private TestDependencies() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Add the prerequisites of every method, transitively
+     * @param methodKeys Selected methods
+     * @param candidates Methods of the run (group members are looked up here)
+     * @param resolver Dependency resolver
+     * @return Selected methods followed by the prerequisites they pull in
+     */
+    public static Set<String> closure(Collection<String> methodKeys, Collection<String> candidates, Resolver resolver) {
+        Set<String> closed = new LinkedHashSet<>(methodKeys);
+        Deque<String> pending = new ArrayDeque<>(methodKeys);
+        while (!pending.isEmpty()) {
+            for (String prerequisite : resolver.prerequisitesOf(pending.poll(), candidates)) {
+                if (closed.add(prerequisite)) {
+                    pending.add(prerequisite);
+                }
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Split methods into units that must run in the same JVM: each method with all of its prerequisites
+     * Methods sharing a prerequisite end up in one unit.
+     * @param methodKeys Methods of the run; prerequisites outside it are added to their unit
+     * @param resolver Dependency resolver
+     * @return Units, each sorted, ordered by their first method
+     */
+    public static List<Set<String>> units(Collection<String> methodKeys, Resolver resolver) {
+        Map<String, String> parent = new HashMap<>();
+        for (String method : closure(methodKeys, methodKeys, resolver)) {
+            parent.putIfAbsent(method, method);
+            for (String prerequisite : resolver.prerequisitesOf(method, methodKeys)) {
+                parent.putIfAbsent(prerequisite, prerequisite);
+                parent.put(root(parent, method), root(parent, prerequisite));
+            }
+        }
+        Map<String, TreeSet<String>> byRoot = new HashMap<>();
+        for (String method : new ArrayList<>(parent.keySet())) {
+            byRoot.computeIfAbsent(root(parent, method), key -> new TreeSet<>()).add(method);
+        }
+        TreeMap<String, Set<String>> byFirstMethod = new TreeMap<>();
+        byRoot.values().forEach(unit -> byFirstMethod.put(unit.first(), unit));
+        return new ArrayList<>(byFirstMethod.values());
+    }
+
+    private static String root(Map<String, String> parent, String method) {
+        String root = method;
+        while (!parent.get(root).equals(root)) {
+            root = parent.get(root);
+        }
+        parent.put(method, root);
+        return root;
+    }
+
+    /**
+     * Direct prerequisites from the method's and its class's @Test annotations
+     * @param methodKey Method (fully.qualified.Class.method)
+     * @param candidates Methods searched for members of the groups the method depends on
+     * @return Direct prerequisites; empty if the class is not on the classpath
+     */
+    public static Set<String> prerequisitesOf(String methodKey, Collection<String> candidates) {
+        int separator = methodKey.lastIndexOf('.');
+        Class<?> testClass = load(methodKey.substring(0, separator));
+        Set<String> prerequisites = new TreeSet<>();
+        if (testClass == null) {
+            return prerequisites;
+        }
+        List<Test> annotations = annotationsOf(testClass, methodKey.substring(separator + 1));
+        for (Test test : annotations) {
+            for (String dependency : test.dependsOnMethods()) {
+                prerequisites.addAll(resolveMethod(testClass, dependency));
+            }
+        }
+        Set<String> groups = new TreeSet<>();
+        annotations.forEach(test -> groups.addAll(Arrays.asList(test.dependsOnGroups())));
+        if (!groups.isEmpty()) {
+            for (String candidate : candidates) {
+                if (!candidate.equals(methodKey) && inAnyGroup(candidate, groups)) {
+                    prerequisites.add(candidate);
+                }
+            }
+        }
+        prerequisites.remove(methodKey);
+        return prerequisites;
+    }
+
+    private static List<Test> annotationsOf(Class<?> testClass, String methodName) {
+        List<Test> annotations = new ArrayList<>();
+        Test classLevel = testClass.getAnnotation(Test.class);
+        if (classLevel != null) {
+            annotations.add(classLevel);
+        }
+        for (Method method : testClass.getMethods()) {
+            if (method.getName().equals(methodName) && method.isAnnotationPresent(Test.class)) {
+                annotations.add(method.getAnnotation(Test.class));
+            }
+        }
+        return annotations;
+    }
+
+    /**
+     * A dependsOnMethods entry is a method of the same class (a name or a regular expression),
+     * or a fully qualified Class.method
+     */
+    private static Set<String> resolveMethod(Class<?> testClass, String dependency) {
+        Set<String> methods = new TreeSet<>();
+        int separator = dependency.lastIndexOf('.');
+        if (separator > 0 && load(dependency.substring(0, separator)) != null) {
+            methods.add(dependency);
+            return methods;
+        }
+        for (Method method : testClass.getMethods()) {
+            if (method.isAnnotationPresent(Test.class) && matches(method.getName(), dependency)) {
+                methods.add(testClass.getName() + "." + method.getName());
+            }
+        }
+        if (methods.isEmpty()) {
+            logger.warn("{} depends on {}, which matches no test method", testClass.getName(), dependency);
+        }
+        return methods;
+    }
+
+    private static boolean inAnyGroup(String methodKey, Set<String> groups) {
+        int separator = methodKey.lastIndexOf('.');
+        Class<?> testClass = load(methodKey.substring(0, separator));
+        if (testClass == null) {
+            return false;
+        }
+        for (Test test : annotationsOf(testClass, methodKey.substring(separator + 1))) {
+            for (String group : test.groups()) {
+                for (String wanted : groups) {
+                    if (matches(group, wanted)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(String name, String pattern) {
+        if (name.equals(pattern)) {
+            return true;
+        }
+        try {
+            return name.matches(pattern);
+        } catch (PatternSyntaxException e) {
+            return false;
+        }
+    }
+
+    private static Class<?> load(String className) {
+        try {
+            return Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+}
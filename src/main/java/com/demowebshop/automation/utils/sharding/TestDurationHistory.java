@@ -0,0 +1,233 @@
+package com.demowebshop.automation.utils.sharding;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Historical per-method test durations
+ * Keys are "fully.qualified.Class.method", values the smoothed wall time in milliseconds of all
+ * invocations of the method in one run (data-provider rows and retries included).
+ * Durations are harvested from TestNG (testng-results.xml) or surefire (TEST-*.xml) reports and
+ * kept in a small properties file so every shard of a run plans from the same numbers.
+ */
+public class TestDurationHistory {
+    private static final Logger logger = LogManager.getLogger(TestDurationHistory.class);
+
+    public static final long DEFAULT_DURATION_MS = 30_000;
+    // Weight of the newest run when merging into the existing history
+    private static final double SMOOTHING = 0.5;
+
+    private final Map<String, Long> durations;
+    private final long medianDuration;
+
+    public TestDurationHistory(Map<String, Long> durations) {
+        this.durations = new TreeMap<>(durations);
+        this.medianDuration = median(this.durations.values());
+    }
+
+    public static TestDurationHistory empty() {
+        return new TestDurationHistory(Collections.emptyMap());
+    }
+
+    /**
+     * Load the history file, empty history if it does not exist
+     * @param historyFile Properties file (key=milliseconds)
+     * @return TestDurationHistory
+     */
+    public static TestDurationHistory load(Path historyFile) {
+        Map<String, Long> durations = new HashMap<>();
+        if (Files.exists(historyFile)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(historyFile)) {
+                properties.load(in);
+            } catch (IOException e) {
+                logger.warn("Could not read duration history {}: {}", historyFile, e.getMessage());
+            }
+            properties.forEach((key, value) -> {
+                try {
+                    durations.put(key.toString(), Long.parseLong(value.toString().trim()));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring invalid duration for {}: {}", key, value);
+                }
+            });
+        }
+        return new TestDurationHistory(durations);
+    }
+
+    /**
+     * Read the per-method durations of one run from report directories
+     * Each directory tree is searched for testng-results.xml; directories without it fall back to
+     * surefire TEST-*.xml files (junitreports copies are skipped to avoid double counting).
+     * @param reportDirectories Report directories, e.g. target/surefire-reports or downloaded shard artifacts
+     * @return Durations of that run
+     */
+    public static TestDurationHistory fromReports(List<Path> reportDirectories) throws IOException {
+        Map<String, Long> durations = new HashMap<>();
+        for (Path root : reportDirectories) {
+            if (!Files.isDirectory(root)) {
+                logger.warn("Report directory not found: {}", root);
+                continue;
+            }
+            List<Path> directories;
+            try (Stream<Path> walk = Files.walk(root)) {
+                directories = walk.filter(Files::isDirectory)
+                        .filter(dir -> !dir.getFileName().toString().equals("junitreports"))
+                        .collect(Collectors.toList());
+            }
+            for (Path directory : directories) {
+                Path testngResults = directory.resolve("testng-results.xml");
+                if (Files.exists(testngResults)) {
+                    readTestNgResults(testngResults, durations);
+                } else {
+                    try (Stream<Path> files = Files.list(directory)) {
+                        for (Path file : files.filter(f -> f.getFileName().toString().matches("TEST-.*\\.xml"))
+                                .collect(Collectors.toList())) {
+                            readSurefireReport(file, durations);
+                        }
+                    }
+                }
+            }
+        }
+        return new TestDurationHistory(durations);
+    }
+
+    private static void readTestNgResults(Path file, Map<String, Long> durations) {
+        Document document = parse(file);
+        if (document == null) {
+            return;
+        }
+        NodeList classes = document.getElementsByTagName("class");
+        for (int i = 0; i < classes.getLength(); i++) {
+            Element testClass = (Element) classes.item(i);
+            NodeList methods = testClass.getElementsByTagName("test-method");
+            for (int j = 0; j < methods.getLength(); j++) {
+                Element method = (Element) methods.item(j);
+                if ("true".equals(method.getAttribute("is-config"))) {
+                    continue;
+                }
+                long duration = parseLong(method.getAttribute("duration-ms"));
+                durations.merge(testClass.getAttribute("name") + "." + method.getAttribute("name"), duration, Long::sum);
+            }
+        }
+    }
+
+    private static void readSurefireReport(Path file, Map<String, Long> durations) {
+        Document document = parse(file);
+        if (document == null) {
+            return;
+        }
+        NodeList testCases = document.getElementsByTagName("testcase");
+        for (int i = 0; i < testCases.getLength(); i++) {
+            Element testCase = (Element) testCases.item(i);
+            long duration = Math.round(parseDouble(testCase.getAttribute("time")) * 1000);
+            durations.merge(testCase.getAttribute("classname") + "." + testCase.getAttribute("name"), duration, Long::sum);
+        }
+    }
+
+    private static Document parse(Path file) {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            return builder.parse(file.toFile());
+        } catch (Exception e) {
+            logger.warn("Could not parse report {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value.trim().replace(",", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Merge a newer run into this history (exponential smoothing, new methods are added as is)
+     * @param latestRun Durations of the latest run
+     * @return Merged history
+     */
+    public TestDurationHistory merge(TestDurationHistory latestRun) {
+        Map<String, Long> merged = new HashMap<>(durations);
+        latestRun.durations.forEach((key, latest) -> merged.merge(key, latest,
+                (previous, current) -> Math.round(previous * (1 - SMOOTHING) + current * SMOOTHING)));
+        return new TestDurationHistory(merged);
+    }
+
+    /**
+     * Save as a sorted properties file
+     * @param historyFile Target file
+     */
+    public void save(Path historyFile) throws IOException {
+        Path parent = historyFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(historyFile, StandardCharsets.ISO_8859_1)) {
+            writer.write("# Per-method test durations in milliseconds, used by the shard planner\n");
+            writer.write("# Update with: ShardSuiteGenerator --update-history --reports <report dirs>\n");
+            for (Map.Entry<String, Long> entry : durations.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+            }
+        }
+    }
+
+    /**
+     * Estimated duration of a method: its history, or the median of known methods if it is new
+     * @param methodKey fully.qualified.Class.method
+     * @return Duration in milliseconds
+     */
+    public long estimate(String methodKey) {
+        Long known = durations.get(methodKey);
+        return known != null ? known : medianDuration;
+    }
+
+    private static long median(Collection<Long> durations) {
+        if (durations.isEmpty()) {
+            return DEFAULT_DURATION_MS;
+        }
+        List<Long> values = new ArrayList<>(durations);
+        Collections.sort(values);
+        return values.get(values.size() / 2);
+    }
+
+    public boolean contains(String methodKey) {
+        return durations.containsKey(methodKey);
+    }
+
+    public Map<String, Long> getDurations() {
+        return Collections.unmodifiableMap(durations);
+    }
+}
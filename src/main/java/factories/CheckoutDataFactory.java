@@ -6,18 +6,12 @@ import models.PaymentInfo;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.security.SecureRandom;
-import java.util.Locale;
-import java.util.Random;
-
 /**
  * Factory class for generating checkout and payment related test data
  * Used for testing billing, shipping, and payment processes
  */
 public class CheckoutDataFactory {
     private static final Logger logger = LogManager.getLogger(CheckoutDataFactory.class);
-    private static final Faker faker = new Faker(new Locale("en-US"));
-    private static final Random random = new SecureRandom();
 
     private static final String[] COUNTRIES = {
         "United States", "Canada", "United Kingdom", "Germany", "France",
@@ -40,19 +34,21 @@ public class CheckoutDataFactory {
      * Create a random valid billing address
      */
     public static Address createRandomBillingAddress() {
-        Address address = new Address();
-        address.setFirstName(faker.name().firstName());
-        address.setLastName(faker.name().lastName());
-        address.setEmail(faker.internet().emailAddress());
-        address.setCompany(faker.company().name());
-        address.setCountry(getRandomCountry());
-        address.setState(faker.address().state());
-        address.setCity(faker.address().city());
-        address.setAddress1(faker.address().streetAddress());
-        address.setAddress2(faker.address().secondaryAddress());
-        address.setZipPostalCode(faker.address().zipCode());
-        address.setPhoneNumber(faker.phoneNumber().phoneNumber());
-        address.setFaxNumber(faker.phoneNumber().phoneNumber());
+        Faker faker = DataEngine.faker();
+        Address address = Address.builder()
+                .firstName(faker.name().firstName())
+                .lastName(faker.name().lastName())
+                .email(faker.internet().emailAddress())
+                .company(faker.company().name())
+                .country(getRandomCountry())
+                .state(faker.address().state())
+                .city(faker.address().city())
+                .address1(faker.address().streetAddress())
+                .address2(faker.address().secondaryAddress())
+                .zipPostalCode(faker.address().zipCode())
+                .phoneNumber(faker.phoneNumber().phoneNumber())
+                .faxNumber(faker.phoneNumber().phoneNumber())
+                .build();
 
         logger.debug("Created random billing address for: {} {}",
                     address.getFirstName(), address.getLastName());
@@ -63,6 +59,7 @@ public class CheckoutDataFactory {
      * Create a random valid shipping address
      */
     public static Address createRandomShippingAddress() {
+        Faker faker = DataEngine.faker();
         Address address = Address.builder()
                 .firstName(faker.name().firstName())
                 .lastName(faker.name().lastName())
@@ -165,7 +162,7 @@ public class CheckoutDataFactory {
      * Get random country
      */
     public static String getRandomCountry() {
-        return COUNTRIES[random.nextInt(COUNTRIES.length)];
+        return DataEngine.pick(COUNTRIES);
     }
 
     /**
@@ -179,7 +176,7 @@ public class CheckoutDataFactory {
      * Get random shipping method
      */
     public static String getRandomShippingMethod() {
-        String method = SHIPPING_METHODS[random.nextInt(SHIPPING_METHODS.length)];
+        String method = DataEngine.pick(SHIPPING_METHODS);
         logger.debug("Selected shipping method: {}", method);
         return method;
     }
@@ -195,7 +192,7 @@ public class CheckoutDataFactory {
      * Get random payment method
      */
     public static String getRandomPaymentMethod() {
-        String method = PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)];
+        String method = DataEngine.pick(PAYMENT_METHODS);
         logger.debug("Selected payment method: {}", method);
         return method;
     }
@@ -213,12 +210,12 @@ public class CheckoutDataFactory {
      */
     public static PaymentInfo createRandomPaymentInfo() {
         PaymentInfo paymentInfo = PaymentInfo.builder()
-                .cardHolderName(faker.name().fullName())
+                .cardHolderName(DataEngine.faker().name().fullName())
                 .cardNumber(generateValidCardNumber())
                 .cardType(getRandomCardType())
-                .expirationMonth(String.format("%02d", random.nextInt(12) + 1))
-                .expirationYear(String.valueOf(2024 + random.nextInt(5)))
-                .cvv(String.format("%03d", random.nextInt(1000)))
+                .expirationMonth(String.format("%02d", DataEngine.nextInt(12) + 1))
+                .expirationYear(String.valueOf(2024 + DataEngine.nextInt(5)))
+                .cvv(String.format("%03d", DataEngine.nextInt(1000)))
                 .build();
 
         logger.debug("Created random payment info for: {}", paymentInfo.getCardHolderName());
@@ -257,7 +254,7 @@ public class CheckoutDataFactory {
      * Get random card type
      */
     public static String getRandomCardType() {
-        return CARD_TYPES[random.nextInt(CARD_TYPES.length)];
+        return DataEngine.pick(CARD_TYPES);
     }
 
     /**
@@ -271,7 +268,7 @@ public class CheckoutDataFactory {
             "378282246310005",  // American Express
             "6011111111111117"  // Discover
         };
-        return testCards[random.nextInt(testCards.length)];
+        return DataEngine.pick(testCards);
     }
 
     /**
@@ -286,30 +283,28 @@ public class CheckoutDataFactory {
             "abcd1234efgh5678", // Contains letters
             "4111-1111-1111-1111" // Contains dashes
         };
-        return invalidCards[random.nextInt(invalidCards.length)];
+        return DataEngine.pick(invalidCards);
     }
 
     /**
-     * Generate checkout test data for data-driven testing
+     * Generate checkout test data for data-driven testing, one row at a time
      */
-    public static Object[][] getCheckoutTestData() {
-        return new Object[][]{
-            {createTestBillingAddress(), createTestShippingAddress(), "Ground", "Credit Card", true},
-            {createRandomBillingAddress(), createRandomShippingAddress(), "Express", "Check / Money Order", true},
-            {createTestBillingAddress(), null, "Standard", "Cash On Delivery (COD)", true}, // Same address
-            {createInvalidAddress(), createTestShippingAddress(), "Ground", "Credit Card", false}, // Invalid billing
-            {createTestBillingAddress(), createInvalidAddress(), "Ground", "Credit Card", false} // Invalid shipping
-        };
+    public static LazyRows getCheckoutTestData() {
+        return LazyRows.named("checkoutTestData")
+            .row(1, () -> new Object[]{createTestBillingAddress(), createTestShippingAddress(), "Ground", "Credit Card", true}, "positive")
+            .row(() -> new Object[]{createRandomBillingAddress(), createRandomShippingAddress(), "Express", "Check / Money Order", true}, "positive", "random")
+            .row(() -> new Object[]{createTestBillingAddress(), null, "Standard", "Cash On Delivery (COD)", true}, "positive") // Same address
+            .row(() -> new Object[]{createInvalidAddress(), createTestShippingAddress(), "Ground", "Credit Card", false}, "negative") // Invalid billing
+            .row(() -> new Object[]{createTestBillingAddress(), createInvalidAddress(), "Ground", "Credit Card", false}, "negative"); // Invalid shipping
     }
 
     /**
-     * Generate payment test data
+     * Generate payment test data, one row at a time
      */
-    public static Object[][] getPaymentTestData() {
-        return new Object[][]{
-            {createTestPaymentInfo(), true, "Valid payment info should be accepted"},
-            {createInvalidPaymentInfo(), false, "Invalid payment info should be rejected"},
-            {createRandomPaymentInfo(), true, "Random valid payment info should work"}
-        };
+    public static LazyRows getPaymentTestData() {
+        return LazyRows.named("paymentTestData")
+            .row(1, () -> new Object[]{createTestPaymentInfo(), true, "Valid payment info should be accepted"}, "positive")
+            .row(() -> new Object[]{createInvalidPaymentInfo(), false, "Invalid payment info should be rejected"}, "negative")
+            .row(() -> new Object[]{createRandomPaymentInfo(), true, "Random valid payment info should work"}, "positive", "random");
     }
-}
\ No newline at end of file
+}
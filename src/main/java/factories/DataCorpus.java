@@ -0,0 +1,383 @@
+package factories;
+
+import models.Address;
+import models.PaymentInfo;
+import models.User;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Pre-generated corpus of users, addresses or payment records (see {@link DataCorpusGenerator})
+ * The file is memory-mapped and rows are decoded only when asked for, so a data provider can
+ * stream thousands of rows without them ever being on the heap together.
+ *
+ * Layout: magic, version, kind, seed, row count, an offset table with one entry per row plus the
+ * end, then the rows. A row is its fields in {@link Kind} order, each a varint of the UTF-8 length
+ * plus one (0 for null) followed by the bytes.
+ */
+public final class DataCorpus {
+    private static final Logger logger = LogManager.getLogger(DataCorpus.class);
+    private static final int MAGIC = 0x44574443; // "DWDC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 1 + 1 + 8 + 4;
+    public static final String RESOURCE_DIRECTORY = "testdata";
+    private static final Map<Kind, DataCorpus> SHARED = new ConcurrentHashMap<>();
+
+    /**
+     * Record types, with their fields in file order
+     */
+    public enum Kind {
+        USERS("users", List.of("firstName", "lastName", "email", "password", "gender", "dateOfBirth",
+                "company", "newsletter")),
+        ADDRESSES("addresses", List.of("firstName", "lastName", "email", "company", "country", "state", "city",
+                "address1", "address2", "zipPostalCode", "phoneNumber", "faxNumber")),
+        PAYMENTS("payments", List.of("cardHolderName", "cardNumber", "cardType", "expirationMonth",
+                "expirationYear", "cvv"));
+
+        private final String fileName;
+        private final List<String> fields;
+
+        Kind(String fileName, List<String> fields) {
+            this.fileName = fileName;
+            this.fields = fields;
+        }
+
+        /**
+         * @return Base name of the corpus files of this kind, e.g. "users"
+         */
+        public String getFileName() {
+            return fileName;
+        }
+
+        public List<String> getFields() {
+            return fields;
+        }
+
+        public static Kind fromName(String name) {
+            for (Kind kind : values()) {
+                if (kind.fileName.equalsIgnoreCase(name) || kind.name().equalsIgnoreCase(name)) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Unknown corpus kind: " + name + " (users, addresses, payments)");
+        }
+    }
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final Kind kind;
+    private final long seed;
+    private final int rowCount;
+    private final int dataStart;
+
+    private DataCorpus(Path file, ByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a data corpus: " + file);
+        }
+        if (buffer.get(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported data corpus version " + buffer.get(4) + ": " + file);
+        }
+        this.kind = Kind.values()[buffer.get(5)];
+        this.seed = buffer.getLong(6);
+        this.rowCount = buffer.getInt(14);
+        this.dataStart = HEADER_SIZE + (rowCount + 1) * 4;
+    }
+
+    /**
+     * Map a corpus file
+     * @param file Corpus file
+     * @return Corpus reading from the mapping
+     */
+    public static DataCorpus open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new DataCorpus(file, mapped);
+        }
+    }
+
+    /**
+     * Map the corpus of a kind from the test data resources
+     * @param kind Record type
+     * @return Corpus reading from the mapping
+     */
+    public static DataCorpus openResource(Kind kind) throws IOException {
+        String name = RESOURCE_DIRECTORY + "/" + kind.getFileName() + DataCorpusGenerator.BINARY_SUFFIX;
+        URL resource = DataCorpus.class.getClassLoader().getResource(name);
+        if (resource == null) {
+            throw new IOException("Data corpus " + name + " not found on the classpath; generate it with "
+                    + "mvn generate-test-resources (" + DataCorpusGenerator.class.getName() + ")");
+        }
+        if ("file".equals(resource.getProtocol())) {
+            try {
+                return open(Paths.get(resource.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IOException("Invalid resource location: " + resource, e);
+            }
+        }
+        // Inside a jar there is nothing to map; copy it out once
+        Path copy = Files.createTempFile(kind.getFileName(), DataCorpusGenerator.BINARY_SUFFIX);
+        copy.toFile().deleteOnExit();
+        try (InputStream in = resource.openStream()) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        logger.debug("Copied data corpus {} to {}", name, copy);
+        return open(copy);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return Seed the corpus was generated with
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * Raw fields of a row, in {@link Kind} order
+     * @param row Row index
+     * @return Field values (null where the record had none)
+     */
+    public String[] fields(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rowCount + " in " + file);
+        }
+        int position = dataStart + buffer.getInt(HEADER_SIZE + row * 4);
+        String[] values = new String[kind.getFields().size()];
+        for (int i = 0; i < values.length; i++) {
+            int length = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                length |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            if (length == 0) {
+                continue;
+            }
+            byte[] bytes = new byte[length - 1];
+            // Absolute get leaves the shared buffer position alone, so rows can be read from many threads
+            buffer.get(position, bytes);
+            position += bytes.length;
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    /**
+     * User of a row. The stored email gets this run's unique ID inserted before the domain,
+     * so the same corpus row can be registered again in a later run.
+     * @param row Row index
+     * @return New User instance
+     */
+    public User user(int row) {
+        String[] values = fieldsOf(Kind.USERS, row);
+        String email = values[2];
+        int at = email.indexOf('@');
+        return User.builder()
+                .firstName(values[0])
+                .lastName(values[1])
+                .email(email.substring(0, at) + "." + DataEngine.uniqueId() + email.substring(at))
+                .password(values[3])
+                .gender(values[4])
+                .dateOfBirth(values[5] == null ? null
+                        : Date.from(LocalDate.parse(values[5]).atStartOfDay(ZoneOffset.UTC).toInstant()))
+                .company(values[6])
+                .newsletter(Boolean.parseBoolean(values[7]))
+                .build();
+    }
+
+    /**
+     * Address of a row
+     * @param row Row index
+     * @return New Address instance
+     */
+    public Address address(int row) {
+        String[] values = fieldsOf(Kind.ADDRESSES, row);
+        return Address.builder()
+                .firstName(values[0])
+                .lastName(values[1])
+                .email(values[2])
+                .company(values[3])
+                .country(values[4])
+                .state(values[5])
+                .city(values[6])
+                .address1(values[7])
+                .address2(values[8])
+                .zipPostalCode(values[9])
+                .phoneNumber(values[10])
+                .faxNumber(values[11])
+                .build();
+    }
+
+    /**
+     * Payment record of a row
+     * @param row Row index
+     * @return New PaymentInfo instance
+     */
+    public PaymentInfo paymentInfo(int row) {
+        String[] values = fieldsOf(Kind.PAYMENTS, row);
+        return PaymentInfo.builder()
+                .cardHolderName(values[0])
+                .cardNumber(values[1])
+                .cardType(values[2])
+                .expirationMonth(values[3])
+                .expirationYear(values[4])
+                .cvv(values[5])
+                .build();
+    }
+
+    /**
+     * Lazily materialized rows, e.g. for a data provider returning {@code Iterator<Object[]>}
+     * @param from First row
+     * @param count Maximum number of rows
+     * @param mapper Builds the element of a row index, e.g. {@code row -> new Object[]{corpus.user(row)}}
+     * @return Iterator that maps each row only when it is reached
+     */
+    public <T> Iterator<T> rows(int from, int count, IntFunction<T> mapper) {
+        int end = (int) Math.min(rowCount, Math.max(0, (long) from) + Math.max(0, count));
+        return new Iterator<>() {
+            private int next = Math.max(0, from);
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return mapper.apply(next++);
+            }
+        };
+    }
+
+    private String[] fieldsOf(Kind expected, int row) {
+        if (kind != expected) {
+            throw new IllegalStateException(file + " holds " + kind.getFileName() + ", not " + expected.getFileName());
+        }
+        return fields(row);
+    }
+
+    /**
+     * Write a corpus file
+     * @param out Destination
+     * @param kind Record type
+     * @param seed Seed the rows were generated with
+     * @param rows Field values per row, in {@link Kind} order
+     */
+    public static void write(OutputStream out, Kind kind, long seed, List<String[]> rows) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream(rows.size() * 64);
+        int[] offsets = new int[rows.size() + 1];
+        for (int row = 0; row < rows.size(); row++) {
+            offsets[row] = data.size();
+            for (String value : rows.get(row)) {
+                if (value == null) {
+                    writeVarInt(data, 0);
+                    continue;
+                }
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(data, bytes.length + 1);
+                data.write(bytes);
+            }
+        }
+        offsets[rows.size()] = data.size();
+
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeByte(VERSION);
+        header.writeByte(kind.ordinal());
+        header.writeLong(seed);
+        header.writeInt(rows.size());
+        for (int offset : offsets) {
+            header.writeInt(offset);
+        }
+        data.writeTo(header);
+        header.flush();
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Convert a generated record into corpus fields
+     */
+    static String[] toFields(User user) {
+        LocalDate birthday = user.getDateOfBirth() == null ? null
+                : user.getDateOfBirth().toInstant().atZone(ZoneOffset.UTC).toLocalDate();
+        return new String[]{user.getFirstName(), user.getLastName(), user.getEmail(), user.getPassword(),
+                user.getGender(), birthday == null ? null : birthday.toString(), user.getCompany(),
+                String.valueOf(user.isNewsletter())};
+    }
+
+    static String[] toFields(Address address) {
+        return new String[]{address.getFirstName(), address.getLastName(), address.getEmail(), address.getCompany(),
+                address.getCountry(), address.getState(), address.getCity(), address.getAddress1(),
+                address.getAddress2(), address.getZipPostalCode(), address.getPhoneNumber(), address.getFaxNumber()};
+    }
+
+    static String[] toFields(PaymentInfo paymentInfo) {
+        return new String[]{paymentInfo.getCardHolderName(), paymentInfo.getCardNumber(), paymentInfo.getCardType(),
+                paymentInfo.getExpirationMonth(), paymentInfo.getExpirationYear(), paymentInfo.getCvv()};
+    }
+
+    /**
+     * Corpus of a kind from the test data resources, mapped once per JVM
+     * @param kind Record type
+     * @return Shared corpus
+     * @throws UncheckedIOException if the corpus is missing, as data providers cannot throw checked exceptions
+     */
+    public static DataCorpus shared(Kind kind) {
+        return SHARED.computeIfAbsent(kind, k -> {
+            try {
+                return openResource(k);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,174 @@
+package factories;
+
+import com.opencsv.CSVWriter;
+import models.User;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Writes the bulk test data corpus read by {@link DataCorpus}
+ * Rows are generated in parallel chunks, each reseeded from the corpus seed and its chunk number,
+ * so the same seed always produces the same files regardless of the number of cores.
+ * Birthdays are drawn relative to {@link #BIRTHDAY_REFERENCE} rather than today for the same reason.
+ * The build runs it in generate-test-resources (see the exec-maven-plugin in pom.xml), writing to
+ * target/test-classes/testdata; nothing generated is committed.
+ *
+ * Usage:
+ * <pre>
+ *   mvn -q generate-test-resources -Dtest.data.corpus.seed=20241019 -Dtest.data.corpus.size=5000
+ *
+ *   # Run the generator directly
+ *   mvn -q compile exec:java -Dexec.mainClass=factories.DataCorpusGenerator \
+ *     -Dexec.args="--kind all --rows 5000 --seed 20241019 --out target/test-classes/testdata"
+ *
+ *   # CSV copy of the users for inspection or other tools
+ *   mvn -q compile exec:java -Dexec.mainClass=factories.DataCorpusGenerator \
+ *     -Dexec.args="--kind users --rows 500 --format csv --out target/testdata"
+ * </pre>
+ */
+public class DataCorpusGenerator {
+    private static final Logger logger = LogManager.getLogger(DataCorpusGenerator.class);
+    public static final String BINARY_SUFFIX = ".corpus";
+    public static final String CSV_SUFFIX = ".csv";
+    // Fixed "today" for corpus birthdays, so users are 18 to 80 years old whenever the corpus is built
+    public static final LocalDate BIRTHDAY_REFERENCE = LocalDate.of(2024, 1, 1);
+    private static final int MIN_AGE_DAYS = 18 * 366;
+    private static final int MAX_AGE_DAYS = 80 * 365;
+    private static final int CHUNK_SIZE = 1024;
+
+    private DataCorpusGenerator() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArguments(args);
+        if (options.containsKey("seed")) {
+            // Read by DataEngine when it is first used, which has not happened yet
+            System.setProperty("test.data.seed", options.get("seed"));
+        }
+        String kindOption = options.getOrDefault("kind", "all");
+        int rows = Integer.parseInt(options.getOrDefault("rows", "10000"));
+        String format = options.getOrDefault("format", "binary");
+        Path directory = Paths.get(options.getOrDefault("out", "target/test-classes/testdata"));
+
+        List<DataCorpus.Kind> kinds = "all".equalsIgnoreCase(kindOption)
+                ? List.of(DataCorpus.Kind.values()) : List.of(DataCorpus.Kind.fromName(kindOption));
+        for (DataCorpus.Kind kind : kinds) {
+            long started = System.currentTimeMillis();
+            List<String[]> records = generate(kind, rows);
+            Path file = write(directory, kind, records, format);
+            logger.info("Wrote {} {} to {} ({} bytes, seed {}) in {}ms", rows, kind.getFileName(), file,
+                    Files.size(file), DataEngine.getRunSeed(), System.currentTimeMillis() - started);
+        }
+    }
+
+    /**
+     * Generate the rows of a corpus
+     * @param kind Record type
+     * @param rows Number of rows
+     * @return Field values per row
+     */
+    public static List<String[]> generate(DataCorpus.Kind kind, int rows) {
+        int chunks = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        List<String[]> records = new ArrayList<>(rows);
+        IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> generateChunk(kind, chunk, Math.min(CHUNK_SIZE, rows - chunk * CHUNK_SIZE)))
+                .forEachOrdered(records::addAll);
+        return records;
+    }
+
+    private static List<String[]> generateChunk(DataCorpus.Kind kind, int chunk, int size) {
+        DataEngine.reseed("corpus/" + kind.getFileName() + "/" + chunk);
+        List<String[]> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int row = chunk * CHUNK_SIZE + i;
+            switch (kind) {
+                case USERS:
+                    records.add(DataCorpus.toFields(corpusUser(row)));
+                    break;
+                case ADDRESSES:
+                    records.add(DataCorpus.toFields(CheckoutDataFactory.createRandomBillingAddress()));
+                    break;
+                case PAYMENTS:
+                    records.add(DataCorpus.toFields(CheckoutDataFactory.createRandomPaymentInfo()));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown corpus kind: " + kind);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Random user with a stable email; the run-unique part is added when the row is read
+     */
+    private static User corpusUser(int row) {
+        User user = UserDataFactory.createRandomUser();
+        String email = user.getEmail();
+        String local = (user.getFirstName() + "." + user.getLastName()).toLowerCase().replaceAll("[^a-z0-9.]", "");
+        LocalDate birthday = BIRTHDAY_REFERENCE.minusDays(DataEngine.nextInt(MIN_AGE_DAYS, MAX_AGE_DAYS));
+        return user.toBuilder()
+                .email(local + "." + row + email.substring(email.indexOf('@')))
+                .dateOfBirth(Date.from(birthday.atStartOfDay(ZoneOffset.UTC).toInstant()))
+                .build();
+    }
+
+    private static Path write(Path directory, DataCorpus.Kind kind, List<String[]> records, String format)
+            throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"binary".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Unknown format: " + format + " (binary, csv)");
+        }
+        Files.createDirectories(directory);
+        Path target = directory.resolve(kind.getFileName() + (csv ? CSV_SUFFIX : BINARY_SUFFIX));
+        Path temp = Files.createTempFile(directory, "." + kind.getFileName(), ".tmp");
+        try {
+            if (csv) {
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8);
+                     CSVWriter csvWriter = new CSVWriter(writer)) {
+                    csvWriter.writeNext(kind.getFields().toArray(new String[0]));
+                    csvWriter.writeAll(records);
+                }
+            } else {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                    DataCorpus.write(out, kind, DataEngine.getRunSeed(), records);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return target;
+    }
+
+    private static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(name, hasValue ? args[++i] : "true");
+        }
+        return options;
+    }
+}
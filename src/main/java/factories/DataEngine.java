@@ -0,0 +1,177 @@
+package factories;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.github.javafaker.Faker;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Source of randomness and unique IDs for the data factories.
+ * Every thread gets its own seeded generators, so threads never contend on a shared Random or Faker.
+ * Generators are derived from one run seed: reseeding a thread with a key (the test name) makes the
+ * data of that test depend only on the seed and the key, not on which thread ran it or in which order.
+ * A failing run's data is replayed by passing its logged seed back as -Dtest.data.seed.
+ * Unique IDs come from an atomic counter behind a per-JVM run ID and are never replayed,
+ * as the site rejects a second registration with the same email.
+ */
+public final class DataEngine {
+    private static final Logger logger = LogManager.getLogger(DataEngine.class);
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final long RUN_SEED = initRunSeed();
+    private static final String RUN_ID = initRunId();
+    private static final AtomicLong ID_COUNTER = new AtomicLong();
+    private static final AtomicLong THREAD_COUNTER = new AtomicLong();
+    private static final ThreadLocal<Generator> GENERATOR =
+            ThreadLocal.withInitial(() -> new Generator(mix(RUN_SEED + GOLDEN_GAMMA * THREAD_COUNTER.incrementAndGet())));
+
+    private DataEngine() {
+        // Private constructor to prevent instantiation
+    }
+
+    private static long initRunSeed() {
+        long seed = ConfigManager.getTestDataSeed();
+        if (seed == 0) {
+            seed = ThreadLocalRandom.current().nextLong();
+        }
+        logger.info("Test data seed: {} (replay with -Dtest.data.seed={})", seed, seed);
+        return seed;
+    }
+
+    private static String initRunId() {
+        String runId = ConfigManager.getTestDataRunId();
+        if (runId.isBlank()) {
+            // Time plus a random suffix keeps forks started in the same millisecond apart
+            runId = Long.toString(System.currentTimeMillis(), 36)
+                    + Integer.toString(ThreadLocalRandom.current().nextInt(36 * 36 * 36), 36);
+        }
+        return runId.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Seed of this run, logged at startup
+     * @return Run seed
+     */
+    public static long getRunSeed() {
+        return RUN_SEED;
+    }
+
+    /**
+     * Prefix of the unique IDs handed out by this JVM
+     * @return Run ID
+     */
+    public static String getRunId() {
+        return RUN_ID;
+    }
+
+    /**
+     * Restart the current thread's generators from a seed derived from the run seed and a key
+     * @param key Stable name of the unit of work, e.g. the test method
+     */
+    public static void reseed(String key) {
+        GENERATOR.get().reseed(seedFor(key));
+    }
+
+    /**
+     * Seed the current thread's generators get for a key, for logging next to a failure
+     * @param key Stable name of the unit of work
+     * @return Derived seed
+     */
+    public static long seedFor(String key) {
+        return mix(RUN_SEED + GOLDEN_GAMMA * key.hashCode());
+    }
+
+    /**
+     * Faker of the current thread, drawing from the thread's seeded Random
+     * @return Faker for this thread only
+     */
+    public static Faker faker() {
+        return GENERATOR.get().faker;
+    }
+
+    public static int nextInt(int bound) {
+        return GENERATOR.get().random.nextInt(bound);
+    }
+
+    public static int nextInt(int origin, int bound) {
+        return GENERATOR.get().random.nextInt(origin, bound);
+    }
+
+    public static boolean nextBoolean() {
+        return GENERATOR.get().random.nextBoolean();
+    }
+
+    public static double nextDouble() {
+        return GENERATOR.get().random.nextDouble();
+    }
+
+    /**
+     * Random element of an array
+     * @param values Candidates
+     * @return One of the candidates
+     */
+    public static <T> T pick(T[] values) {
+        return values[nextInt(values.length)];
+    }
+
+    /**
+     * Shuffle the characters of a string
+     * @param input Characters to shuffle
+     * @return Shuffled string
+     */
+    public static String shuffle(String input) {
+        SplittableRandom random = GENERATOR.get().random;
+        char[] chars = input.toCharArray();
+        for (int i = chars.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            char temp = chars[i];
+            chars[i] = chars[j];
+            chars[j] = temp;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * ID unique across threads and JVMs of this run and across runs: run ID plus a counter
+     * @return Short lower-case ID such as "m2x9k1ab3-1f"
+     */
+    public static String uniqueId() {
+        return RUN_ID + "-" + Long.toString(ID_COUNTER.incrementAndGet(), 36);
+    }
+
+    /**
+     * SplitMix64 finalizer, spreads close inputs (consecutive counters, similar hash codes) over all bits
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Generators of one thread. Faker needs a java.util.Random; it is only used by its thread,
+     * so its internal CAS never contends, and it is reseeded in place because building a Faker is slow.
+     */
+    private static final class Generator {
+        private final Random fakerRandom;
+        private final Faker faker;
+        private SplittableRandom random;
+
+        private Generator(long seed) {
+            this.fakerRandom = new Random(seed);
+            this.faker = new Faker(Locale.forLanguageTag(ConfigManager.getFakerLocale()), fakerRandom);
+            this.random = new SplittableRandom(seed);
+        }
+
+        private void reseed(long seed) {
+            fakerRandom.setSeed(seed);
+            random = new SplittableRandom(seed);
+        }
+    }
+}
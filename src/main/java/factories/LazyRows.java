@@ -0,0 +1,218 @@
+package factories;
+
+import com.demowebshop.automation.config.ConfigManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Data provider rows that are generated only when TestNG asks for them
+ * A provider declares its rows as suppliers, each with a priority (1 = most important) and tags
+ * such as "positive" or "negative", and returns {@link #iterator()}. Rows filtered out by
+ * dataprovider.tags, dataprovider.exclude.tags or dataprovider.max.priority are never generated.
+ * Before a row is generated the thread's {@link DataEngine} is reseeded with the provider name and
+ * row index, so provider data replays with the run seed no matter which thread asks for it.
+ *
+ * With parallel data providers TestNG takes every row from the iterator before it dispatches them
+ * to the pool, so the first row waits for the others to be generated. The framework's annotation
+ * transformer therefore runs providers returning an Iterator sequentially, and each row is generated
+ * just before its invocation.
+ *
+ * <pre>
+ *   return LazyRows.named("checkoutTestData")
+ *           .row(1, () -> new Object[]{createTestBillingAddress(), true}, "positive")
+ *           .rows(1000, i -> new Object[]{createRandomBillingAddress(), true}, "positive", "random")
+ *           .iterator();
+ * </pre>
+ */
+public final class LazyRows implements Iterable<Object[]> {
+    public static final int DEFAULT_PRIORITY = 2;
+
+    private final String name;
+    private final List<Block> blocks = new ArrayList<>();
+    private Filter filter = Filter.fromConfig();
+
+    private LazyRows(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param name Provider name, part of the seed of every row
+     * @return Empty row set
+     */
+    public static LazyRows named(String name) {
+        return new LazyRows(name);
+    }
+
+    /**
+     * Add one row with the default priority
+     */
+    public LazyRows row(Supplier<Object[]> row, String... tags) {
+        return row(DEFAULT_PRIORITY, row, tags);
+    }
+
+    /**
+     * Add one row
+     * @param priority 1 for the rows that must always run, higher numbers for less important ones
+     * @param row Builds the row parameters
+     * @param tags Tags the row can be selected by
+     */
+    public LazyRows row(int priority, Supplier<Object[]> row, String... tags) {
+        blocks.add(new Block(priority, 1, index -> row.get(), tags));
+        return this;
+    }
+
+    /**
+     * Add a block of generated rows with the default priority; only the generator is held, not the rows
+     * @param count Number of rows
+     * @param row Builds the parameters of the row with the given index within the block
+     */
+    public LazyRows rows(int count, IntFunction<Object[]> row, String... tags) {
+        return rows(DEFAULT_PRIORITY, count, row, tags);
+    }
+
+    public LazyRows rows(int priority, int count, IntFunction<Object[]> row, String... tags) {
+        blocks.add(new Block(priority, count, row, tags));
+        return this;
+    }
+
+    /**
+     * Replace the configured row filter, e.g. for a provider that must always run in full
+     */
+    public LazyRows filter(Filter filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    /**
+     * @return Number of declared rows, before filtering
+     */
+    public int size() {
+        return blocks.stream().mapToInt(block -> block.count).sum();
+    }
+
+    @Override
+    public Iterator<Object[]> iterator() {
+        return new Iterator<>() {
+            private int blockIndex;
+            private int rowInBlock;
+            private int rowIndex;
+
+            @Override
+            public boolean hasNext() {
+                while (blockIndex < blocks.size()) {
+                    Block block = blocks.get(blockIndex);
+                    if (rowInBlock < block.count && filter.accepts(block.priority, block.tags)) {
+                        return true;
+                    }
+                    // Skipped rows still count, so the seed of a row does not depend on the filter
+                    rowIndex += block.count - rowInBlock;
+                    blockIndex++;
+                    rowInBlock = 0;
+                }
+                return false;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Block block = blocks.get(blockIndex);
+                DataEngine.reseed(name + "#" + rowIndex);
+                Object[] row = block.generator.apply(rowInBlock);
+                rowInBlock++;
+                rowIndex++;
+                return row;
+            }
+        };
+    }
+
+    /**
+     * Materialize all accepted rows, for callers that still need an array
+     */
+    public Object[][] toArray() {
+        List<Object[]> rows = new ArrayList<>();
+        iterator().forEachRemaining(rows::add);
+        return rows.toArray(new Object[0][]);
+    }
+
+    private static final class Block {
+        private final int priority;
+        private final int count;
+        private final IntFunction<Object[]> generator;
+        private final Set<String> tags;
+
+        private Block(int priority, int count, IntFunction<Object[]> generator, String[] tags) {
+            this.priority = priority;
+            this.count = count;
+            this.generator = generator;
+            this.tags = normalize(Arrays.asList(tags));
+        }
+    }
+
+    /**
+     * Which rows run: any of the included tags (all rows when none are given), none of the excluded
+     * tags, and a priority number no higher than the maximum (no limit when 0)
+     */
+    public static final class Filter {
+        private static final Filter ALL = new Filter(Set.of(), Set.of(), 0);
+
+        private final Set<String> includedTags;
+        private final Set<String> excludedTags;
+        private final int maxPriority;
+
+        public Filter(Set<String> includedTags, Set<String> excludedTags, int maxPriority) {
+            this.includedTags = normalize(includedTags);
+            this.excludedTags = normalize(excludedTags);
+            this.maxPriority = maxPriority;
+        }
+
+        public static Filter all() {
+            return ALL;
+        }
+
+        /**
+         * Filter from dataprovider.tags, dataprovider.exclude.tags and dataprovider.max.priority
+         */
+        public static Filter fromConfig() {
+            return new Filter(split(ConfigManager.getDataProviderTags()),
+                    split(ConfigManager.getDataProviderExcludedTags()),
+                    ConfigManager.getDataProviderMaxPriority());
+        }
+
+        public boolean accepts(int priority, Set<String> tags) {
+            if (maxPriority > 0 && priority > maxPriority) {
+                return false;
+            }
+            if (!Collections.disjoint(excludedTags, tags)) {
+                return false;
+            }
+            return includedTags.isEmpty() || !Collections.disjoint(includedTags, tags);
+        }
+
+        private static Set<String> split(String value) {
+            return normalize(Arrays.asList(value.split(",")));
+        }
+    }
+
+    private static Set<String> normalize(Iterable<String> tags) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags) {
+            String trimmed = tag.trim().toLowerCase(Locale.ROOT);
+            if (!trimmed.isEmpty()) {
+                normalized.add(trimmed);
+            }
+        }
+        return normalized;
+    }
+}
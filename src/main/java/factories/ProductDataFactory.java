@@ -1,16 +1,12 @@
 package factories;
 
-import com.github.javafaker.Faker;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.math.BigDecimal;
-import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Locale;
-import java.util.Random;
 
 /**
  * Factory class for generating product-related test data
@@ -18,8 +14,6 @@ import java.util.Random;
  */
 public class ProductDataFactory {
     private static final Logger logger = LogManager.getLogger(ProductDataFactory.class);
-    private static final Faker faker = new Faker(new Locale("en-US"));
-    private static final Random random = new SecureRandom();
 
     // DemoWebShop specific product categories and data
     private static final String[] CATEGORIES = {
@@ -56,7 +50,7 @@ public class ProductDataFactory {
      * Get a random valid search term
      */
     public static String getRandomValidSearchTerm() {
-        String term = SEARCH_TERMS_VALID[random.nextInt(SEARCH_TERMS_VALID.length)];
+        String term = DataEngine.pick(SEARCH_TERMS_VALID);
         logger.debug("Generated valid search term: {}", term);
         return term;
     }
@@ -65,7 +59,7 @@ public class ProductDataFactory {
      * Get a random partial search term (for autocomplete testing)
      */
     public static String getRandomPartialSearchTerm() {
-        String term = SEARCH_TERMS_PARTIAL[random.nextInt(SEARCH_TERMS_PARTIAL.length)];
+        String term = DataEngine.pick(SEARCH_TERMS_PARTIAL);
         logger.debug("Generated partial search term: {}", term);
         return term;
     }
@@ -74,7 +68,7 @@ public class ProductDataFactory {
      * Get a random invalid search term (should return no results)
      */
     public static String getRandomInvalidSearchTerm() {
-        String term = SEARCH_TERMS_INVALID[random.nextInt(SEARCH_TERMS_INVALID.length)];
+        String term = DataEngine.pick(SEARCH_TERMS_INVALID);
         logger.debug("Generated invalid search term: {}", term);
         return term;
     }
@@ -104,7 +98,7 @@ public class ProductDataFactory {
      * Get a random category name
      */
     public static String getRandomCategory() {
-        String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+        String category = DataEngine.pick(CATEGORIES);
         logger.debug("Generated random category: {}", category);
         return category;
     }
@@ -134,7 +128,7 @@ public class ProductDataFactory {
      * Get a random sort option for catalog sorting tests
      */
     public static String getRandomSortOption() {
-        String sortOption = SORT_OPTIONS[random.nextInt(SORT_OPTIONS.length)];
+        String sortOption = DataEngine.pick(SORT_OPTIONS);
         logger.debug("Generated sort option: {}", sortOption);
         return sortOption;
     }
@@ -150,7 +144,7 @@ public class ProductDataFactory {
      * Generate random quantity for cart operations (1-5)
      */
     public static int getRandomQuantity() {
-        int quantity = random.nextInt(5) + 1; // 1-5
+        int quantity = DataEngine.nextInt(5) + 1; // 1-5
         logger.debug("Generated random quantity: {}", quantity);
         return quantity;
     }
@@ -159,7 +153,7 @@ public class ProductDataFactory {
      * Generate random quantity for cart operations with specified range
      */
     public static int getRandomQuantity(int min, int max) {
-        int quantity = random.nextInt(max - min + 1) + min;
+        int quantity = DataEngine.nextInt(max - min + 1) + min;
         logger.debug("Generated random quantity: {} (range: {}-{})", quantity, min, max);
         return quantity;
     }
@@ -177,35 +171,31 @@ public class ProductDataFactory {
     }
 
     /**
-     * Generate search data combinations for comprehensive testing
+     * Generate search data combinations for comprehensive testing, one row at a time
      */
-    public static Object[][] getSearchTestData() {
-        List<Object[]> testData = new ArrayList<>();
+    public static LazyRows getSearchTestData() {
+        LazyRows rows = LazyRows.named("searchTestData");
 
         // Valid search terms
-        for (String term : SEARCH_TERMS_VALID) {
-            testData.add(new Object[]{term, true, "Valid search term should return results"});
-        }
+        rows.rows(1, SEARCH_TERMS_VALID.length,
+                i -> new Object[]{SEARCH_TERMS_VALID[i], true, "Valid search term should return results"}, "positive");
 
         // Partial search terms
-        for (String term : SEARCH_TERMS_PARTIAL) {
-            testData.add(new Object[]{term, true, "Partial search term should return results"});
-        }
+        rows.rows(SEARCH_TERMS_PARTIAL.length,
+                i -> new Object[]{SEARCH_TERMS_PARTIAL[i], true, "Partial search term should return results"}, "positive");
 
         // Invalid search terms
-        for (String term : SEARCH_TERMS_INVALID) {
-            testData.add(new Object[]{term, false, "Invalid search term should return no results"});
-        }
+        rows.rows(SEARCH_TERMS_INVALID.length,
+                i -> new Object[]{SEARCH_TERMS_INVALID[i], false, "Invalid search term should return no results"}, "negative");
 
         // Empty search
-        testData.add(new Object[]{"", false, "Empty search should handle gracefully"});
+        rows.row(3, () -> new Object[]{"", false, "Empty search should handle gracefully"}, "negative", "edge");
 
         // Special characters
-        testData.add(new Object[]{"@#$%", false, "Special characters should be handled"});
+        rows.row(3, () -> new Object[]{"@#$%", false, "Special characters should be handled"}, "negative", "edge");
 
-        Object[][] result = testData.toArray(new Object[0][]);
-        logger.info("Generated {} search test data combinations", result.length);
-        return result;
+        logger.info("Declared {} search test data combinations", rows.size());
+        return rows;
     }
 
     /**
@@ -262,9 +252,9 @@ public class ProductDataFactory {
         String[] products = {"Laptop", "Desktop", "Monitor", "Keyboard", "Mouse", "Speaker", "Headphones"};
         String[] suffixes = {"Pro", "Plus", "Elite", "Standard", "Lite"};
 
-        String prefix = prefixes[random.nextInt(prefixes.length)];
-        String product = products[random.nextInt(products.length)];
-        String suffix = suffixes[random.nextInt(suffixes.length)];
+        String prefix = DataEngine.pick(prefixes);
+        String product = DataEngine.pick(products);
+        String suffix = DataEngine.pick(suffixes);
 
         return prefix + " " + product + " " + suffix;
     }
@@ -273,7 +263,7 @@ public class ProductDataFactory {
      * Generate realistic price for testing
      */
     public static BigDecimal generatePrice() {
-        double price = 10.0 + (1000.0 - 10.0) * random.nextDouble(); // $10 to $1000
+        double price = 10.0 + (1000.0 - 10.0) * DataEngine.nextDouble(); // $10 to $1000
         return BigDecimal.valueOf(Math.round(price * 100.0) / 100.0); // Round to 2 decimal places
     }
 
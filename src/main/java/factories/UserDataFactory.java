@@ -5,19 +5,14 @@ import models.User;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.security.SecureRandom;
-import java.util.Locale;
-import java.util.Random;
-
 public class UserDataFactory {
     private static final Logger logger = LogManager.getLogger(UserDataFactory.class);
-    private static final Faker faker = new Faker(new Locale("en-US"));
-    private static final Random random = new SecureRandom();
 
     private static final String[] GENDERS = {"Male", "Female"};
     private static final String[] DOMAINS = {"gmail.com", "yahoo.com", "hotmail.com", "outlook.com", "test.com"};
 
     public static User createRandomUser() {
+        Faker faker = DataEngine.faker();
         String firstName = faker.name().firstName();
         String lastName = faker.name().lastName();
         String email = generateUniqueEmail(firstName, lastName);
@@ -28,10 +23,10 @@ public class UserDataFactory {
                 .lastName(lastName)
                 .email(email)
                 .password(password)
-                .gender(GENDERS[random.nextInt(GENDERS.length)])
+                .gender(DataEngine.pick(GENDERS))
                 .dateOfBirth(faker.date().birthday(18, 80))
                 .company(faker.company().name())
-                .newsletter(random.nextBoolean())
+                .newsletter(DataEngine.nextBoolean())
                 .build();
 
         logger.debug("Created random user: {}", user.getEmail());
@@ -39,6 +34,7 @@ public class UserDataFactory {
     }
 
     public static User createUserWithSpecificEmail(String email) {
+        Faker faker = DataEngine.faker();
         String firstName = faker.name().firstName();
         String lastName = faker.name().lastName();
 
@@ -47,10 +43,10 @@ public class UserDataFactory {
                 .lastName(lastName)
                 .email(email)
                 .password(generateSecurePassword())
-                .gender(GENDERS[random.nextInt(GENDERS.length)])
+                .gender(DataEngine.pick(GENDERS))
                 .dateOfBirth(faker.date().birthday(18, 80))
                 .company(faker.company().name())
-                .newsletter(random.nextBoolean())
+                .newsletter(DataEngine.nextBoolean())
                 .build();
 
         logger.debug("Created user with specific email: {}", email);
@@ -58,15 +54,16 @@ public class UserDataFactory {
     }
 
     public static User createUserWithSpecificData(String firstName, String lastName, String email, String password) {
+        Faker faker = DataEngine.faker();
         User user = User.builder()
                 .firstName(firstName)
                 .lastName(lastName)
                 .email(email)
                 .password(password)
-                .gender(GENDERS[random.nextInt(GENDERS.length)])
+                .gender(DataEngine.pick(GENDERS))
                 .dateOfBirth(faker.date().birthday(18, 80))
                 .company(faker.company().name())
-                .newsletter(random.nextBoolean())
+                .newsletter(DataEngine.nextBoolean())
                 .build();
 
         logger.debug("Created user with specific data: {}", email);
@@ -77,7 +74,7 @@ public class UserDataFactory {
         return createUserWithSpecificData(
                 "Test",
                 "User",
-                "test.user." + System.currentTimeMillis() + "@test.com",
+                "test.user." + DataEngine.uniqueId() + "@test.com",
                 "TestPassword123!"
         );
     }
@@ -86,12 +83,13 @@ public class UserDataFactory {
         return createUserWithSpecificData(
                 "Admin",
                 "User",
-                "admin.user." + System.currentTimeMillis() + "@test.com",
+                "admin.user." + DataEngine.uniqueId() + "@test.com",
                 "AdminPassword123!"
         );
     }
 
     public static User createGuestUser() {
+        Faker faker = DataEngine.faker();
         String firstName = faker.name().firstName();
         String lastName = faker.name().lastName();
 
@@ -100,17 +98,17 @@ public class UserDataFactory {
                 .lastName(lastName)
                 .email(generateUniqueEmail(firstName, lastName))
                 .password(generateSecurePassword())
-                .gender(GENDERS[random.nextInt(GENDERS.length)])
+                .gender(DataEngine.pick(GENDERS))
                 .build();
     }
 
     // Additional helper methods for test scenarios
     public static String generateFirstName() {
-        return faker.name().firstName();
+        return DataEngine.faker().name().firstName();
     }
 
     public static String generateLastName() {
-        return faker.name().lastName();
+        return DataEngine.faker().name().lastName();
     }
 
     public static String generateStrongPassword() {
@@ -119,14 +117,9 @@ public class UserDataFactory {
 
 
     public static String generateUniqueEmail(String firstName, String lastName) {
-        String domain = DOMAINS[random.nextInt(DOMAINS.length)];
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        String nanoTime = String.valueOf(System.nanoTime());
-        String randomNumber = String.valueOf(random.nextInt(100000)); // Larger range
-        String threadId = String.valueOf(Thread.currentThread().getId());
-
-        // Use combination of timestamp, nanotime, thread ID and random for maximum uniqueness
-        return (firstName + "." + lastName + "." + timestamp + "." + nanoTime.substring(nanoTime.length() - 6) + "." + threadId + "." + randomNumber + "@" + domain).toLowerCase();
+        String domain = DataEngine.pick(DOMAINS);
+        // Run ID plus an atomic counter is unique across threads and forks without any shared lock
+        return (firstName + "." + lastName + "." + DataEngine.uniqueId() + "@" + domain).toLowerCase();
     }
 
     public static String generateSecurePassword() {
@@ -147,29 +140,18 @@ public class UserDataFactory {
         StringBuilder password = new StringBuilder();
 
         // Ensure at least one character from each category
-        password.append(upperCase.charAt(random.nextInt(upperCase.length())));
-        password.append(lowerCase.charAt(random.nextInt(lowerCase.length())));
-        password.append(digits.charAt(random.nextInt(digits.length())));
-        password.append(specialChars.charAt(random.nextInt(specialChars.length())));
+        password.append(upperCase.charAt(DataEngine.nextInt(upperCase.length())));
+        password.append(lowerCase.charAt(DataEngine.nextInt(lowerCase.length())));
+        password.append(digits.charAt(DataEngine.nextInt(digits.length())));
+        password.append(specialChars.charAt(DataEngine.nextInt(specialChars.length())));
 
         // Fill the rest randomly
         for (int i = 4; i < length; i++) {
-            password.append(allChars.charAt(random.nextInt(allChars.length())));
+            password.append(allChars.charAt(DataEngine.nextInt(allChars.length())));
         }
 
         // Shuffle the password
-        return shuffleString(password.toString());
-    }
-
-    private static String shuffleString(String input) {
-        char[] chars = input.toCharArray();
-        for (int i = chars.length - 1; i > 0; i--) {
-            int j = random.nextInt(i + 1);
-            char temp = chars[i];
-            chars[i] = chars[j];
-            chars[j] = temp;
-        }
-        return new String(chars);
+        return DataEngine.shuffle(password.toString());
     }
 
     public static String generateInvalidEmail() {
@@ -182,7 +164,7 @@ public class UserDataFactory {
                 "user space@domain.com",
                 "user@domain..com"
         };
-        return invalidEmails[random.nextInt(invalidEmails.length)];
+        return DataEngine.pick(invalidEmails);
     }
 
     public static String generateWeakPassword() {
@@ -194,7 +176,7 @@ public class UserDataFactory {
                 "abc123",
                 "password123"
         };
-        return weakPasswords[random.nextInt(weakPasswords.length)];
+        return DataEngine.pick(weakPasswords);
     }
 
     public static User[] createMultipleUsers(int count) {
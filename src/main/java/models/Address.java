@@ -1,42 +1,39 @@
 package models;
 
+import java.util.Objects;
+
 /**
- * Address model class for storing address information
- * Supports both setter/getter and builder pattern for flexibility
+ * Immutable address, used for billing, shipping and address book forms alike
+ * Variants are made with {@link #toBuilder()} or the with-methods, which copy references only.
  */
-public class Address {
-    private String firstName;
-    private String lastName;
-    private String email;
-    private String company;
-    private String country;
-    private String state;
-    private String city;
-    private String address1;
-    private String address2;
-    private String zipPostalCode;
-    private String phoneNumber;
-    private String faxNumber;
-
-    // Default constructor
-    public Address() {}
-
-    // Constructor with all fields
-    public Address(String firstName, String lastName, String email, String company,
-                  String country, String state, String city, String address1, String address2,
-                  String zipPostalCode, String phoneNumber, String faxNumber) {
-        this.firstName = firstName;
-        this.lastName = lastName;
-        this.email = email;
-        this.company = company;
-        this.country = country;
-        this.state = state;
-        this.city = city;
-        this.address1 = address1;
-        this.address2 = address2;
-        this.zipPostalCode = zipPostalCode;
-        this.phoneNumber = phoneNumber;
-        this.faxNumber = faxNumber;
+public final class Address {
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final String company;
+    private final String country;
+    private final String state;
+    private final String city;
+    private final String address1;
+    private final String address2;
+    private final String zipPostalCode;
+    private final String phoneNumber;
+    private final String faxNumber;
+    private int hash;
+
+    private Address(Builder builder) {
+        this.firstName = builder.firstName;
+        this.lastName = builder.lastName;
+        this.email = builder.email;
+        this.company = builder.company;
+        this.country = builder.country;
+        this.state = builder.state;
+        this.city = builder.city;
+        this.address1 = builder.address1;
+        this.address2 = builder.address2;
+        this.zipPostalCode = builder.zipPostalCode;
+        this.phoneNumber = builder.phoneNumber;
+        this.faxNumber = builder.faxNumber;
     }
 
     // Getters
@@ -57,29 +54,34 @@ public class Address {
     public String getPostalCode() { return zipPostalCode; }
     public String getPhone() { return phoneNumber; }
 
-    // Setters
-    public void setFirstName(String firstName) { this.firstName = firstName; }
-    public void setLastName(String lastName) { this.lastName = lastName; }
-    public void setEmail(String email) { this.email = email; }
-    public void setCompany(String company) { this.company = company; }
-    public void setCountry(String country) { this.country = country; }
-    public void setState(String state) { this.state = state; }
-    public void setCity(String city) { this.city = city; }
-    public void setAddress1(String address1) { this.address1 = address1; }
-    public void setAddress2(String address2) { this.address2 = address2; }
-    public void setZipPostalCode(String zipPostalCode) { this.zipPostalCode = zipPostalCode; }
-    public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
-    public void setFaxNumber(String faxNumber) { this.faxNumber = faxNumber; }
-
-    // Alternative setter names for compatibility
-    public void setPostalCode(String postalCode) { this.zipPostalCode = postalCode; }
-    public void setPhone(String phone) { this.phoneNumber = phone; }
+    // Copies with fields changed
+    public Address withName(String firstName, String lastName) {
+        return toBuilder().firstName(firstName).lastName(lastName).build();
+    }
+
+    public Address withEmail(String email) { return toBuilder().email(email).build(); }
+    public Address withAddress1(String address1) { return toBuilder().address1(address1).build(); }
+    public Address withCity(String city) { return toBuilder().city(city).build(); }
+    public Address withCountry(String country) { return toBuilder().country(country).build(); }
+    public Address withZipPostalCode(String zipPostalCode) { return toBuilder().zipPostalCode(zipPostalCode).build(); }
+    public Address withPhoneNumber(String phoneNumber) { return toBuilder().phoneNumber(phoneNumber).build(); }
 
     // Builder pattern
     public static Builder builder() {
         return new Builder();
     }
 
+    /**
+     * Builder pre-filled with this address
+     * @return Builder for a modified copy
+     */
+    public Builder toBuilder() {
+        return new Builder()
+                .firstName(firstName).lastName(lastName).email(email).company(company)
+                .country(country).state(state).city(city).address1(address1).address2(address2)
+                .zipPostalCode(zipPostalCode).phoneNumber(phoneNumber).faxNumber(faxNumber);
+    }
+
     public static class Builder {
         private String firstName;
         private String lastName;
@@ -108,9 +110,33 @@ public class Address {
         public Builder faxNumber(String faxNumber) { this.faxNumber = faxNumber; return this; }
 
         public Address build() {
-            return new Address(firstName, lastName, email, company, country, state, city,
-                             address1, address2, zipPostalCode, phoneNumber, faxNumber);
+            return new Address(this);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+
+        Address other = (Address) obj;
+        return Objects.equals(firstName, other.firstName) && Objects.equals(lastName, other.lastName)
+                && Objects.equals(email, other.email) && Objects.equals(company, other.company)
+                && Objects.equals(country, other.country) && Objects.equals(state, other.state)
+                && Objects.equals(city, other.city) && Objects.equals(address1, other.address1)
+                && Objects.equals(address2, other.address2) && Objects.equals(zipPostalCode, other.zipPostalCode)
+                && Objects.equals(phoneNumber, other.phoneNumber) && Objects.equals(faxNumber, other.faxNumber);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(firstName, lastName, email, company, country, state, city,
+                    address1, address2, zipPostalCode, phoneNumber, faxNumber);
+            hash = h;
         }
+        return h;
     }
 
     @Override
@@ -119,4 +145,4 @@ public class Address {
                            "address1='%s', city='%s', state='%s', country='%s', zipPostalCode='%s'}",
                            firstName, lastName, email, address1, city, state, country, zipPostalCode);
     }
-}
\ No newline at end of file
+}
@@ -1,34 +1,31 @@
 package models;
 
+import java.util.Objects;
+
 /**
- * PaymentInfo model class for storing payment information
- * Supports builder pattern for easy construction and validation
+ * Immutable payment details for the checkout payment step
+ * Card numbers are masked in {@link #toString()} so they stay out of logs and reports.
  */
-public class PaymentInfo {
-    private String cardHolderName;
-    private String cardNumber;
-    private String cardType;
-    private String expirationMonth;
-    private String expirationYear;
-    private String cvv;
-    private String billingAddress;
-    private String paymentMethod;
-
-    // Default constructor
-    public PaymentInfo() {}
+public final class PaymentInfo {
+    private final String cardHolderName;
+    private final String cardNumber;
+    private final String cardType;
+    private final String expirationMonth;
+    private final String expirationYear;
+    private final String cvv;
+    private final String billingAddress;
+    private final String paymentMethod;
+    private int hash;
 
-    // Constructor with all fields
-    public PaymentInfo(String cardHolderName, String cardNumber, String cardType,
-                      String expirationMonth, String expirationYear, String cvv,
-                      String billingAddress, String paymentMethod) {
-        this.cardHolderName = cardHolderName;
-        this.cardNumber = cardNumber;
-        this.cardType = cardType;
-        this.expirationMonth = expirationMonth;
-        this.expirationYear = expirationYear;
-        this.cvv = cvv;
-        this.billingAddress = billingAddress;
-        this.paymentMethod = paymentMethod;
+    private PaymentInfo(Builder builder) {
+        this.cardHolderName = builder.cardHolderName;
+        this.cardNumber = builder.cardNumber;
+        this.cardType = builder.cardType;
+        this.expirationMonth = builder.expirationMonth;
+        this.expirationYear = builder.expirationYear;
+        this.cvv = builder.cvv;
+        this.billingAddress = builder.billingAddress;
+        this.paymentMethod = builder.paymentMethod;
     }
 
     // Getters
@@ -41,21 +38,22 @@ public class PaymentInfo {
     public String getBillingAddress() { return billingAddress; }
     public String getPaymentMethod() { return paymentMethod; }
 
-    // Setters
-    public void setCardHolderName(String cardHolderName) { this.cardHolderName = cardHolderName; }
-    public void setCardNumber(String cardNumber) { this.cardNumber = cardNumber; }
-    public void setCardType(String cardType) { this.cardType = cardType; }
-    public void setExpirationMonth(String expirationMonth) { this.expirationMonth = expirationMonth; }
-    public void setExpirationYear(String expirationYear) { this.expirationYear = expirationYear; }
-    public void setCvv(String cvv) { this.cvv = cvv; }
-    public void setBillingAddress(String billingAddress) { this.billingAddress = billingAddress; }
-    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
-
     // Builder pattern
     public static Builder builder() {
         return new Builder();
     }
 
+    /**
+     * Builder pre-filled with these payment details
+     * @return Builder for a modified copy
+     */
+    public Builder toBuilder() {
+        return new Builder()
+                .cardHolderName(cardHolderName).cardNumber(cardNumber).cardType(cardType)
+                .expirationMonth(expirationMonth).expirationYear(expirationYear).cvv(cvv)
+                .billingAddress(billingAddress).paymentMethod(paymentMethod);
+    }
+
     public static class Builder {
         private String cardHolderName;
         private String cardNumber;
@@ -76,8 +74,7 @@ public class PaymentInfo {
         public Builder paymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; return this; }
 
         public PaymentInfo build() {
-            return new PaymentInfo(cardHolderName, cardNumber, cardType, expirationMonth,
-                                 expirationYear, cvv, billingAddress, paymentMethod);
+            return new PaymentInfo(this);
         }
     }
 
@@ -106,6 +103,29 @@ public class PaymentInfo {
                cvv != null && !cvv.trim().isEmpty();
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+
+        PaymentInfo other = (PaymentInfo) obj;
+        return Objects.equals(cardNumber, other.cardNumber) && Objects.equals(cardHolderName, other.cardHolderName)
+                && Objects.equals(cardType, other.cardType) && Objects.equals(expirationMonth, other.expirationMonth)
+                && Objects.equals(expirationYear, other.expirationYear) && Objects.equals(cvv, other.cvv)
+                && Objects.equals(billingAddress, other.billingAddress) && Objects.equals(paymentMethod, other.paymentMethod);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(cardHolderName, cardNumber, cardType, expirationMonth, expirationYear,
+                    cvv, billingAddress, paymentMethod);
+            hash = h;
+        }
+        return h;
+    }
+
     @Override
     public String toString() {
         return String.format("PaymentInfo{cardHolderName='%s', cardType='%s', " +
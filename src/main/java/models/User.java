@@ -1,16 +1,23 @@
 package models;
 
 import java.util.Date;
-
-public class User {
-    private String firstName;
-    private String lastName;
-    private String email;
-    private String password;
-    private String gender;
-    private Date dateOfBirth;
-    private String company;
-    private boolean newsletter;
+import java.util.Objects;
+
+/**
+ * Immutable customer account data, safe to share between threads and data provider rows
+ * Variants are made with {@link #toBuilder()} or the with-methods, which copy references only.
+ */
+public final class User {
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final String password;
+    private final String gender;
+    // Date is mutable, so only the instant is kept
+    private final Long dateOfBirth;
+    private final String company;
+    private final boolean newsletter;
+    private int hash;
 
     // Private constructor for builder pattern
     private User(Builder builder) {
@@ -29,6 +36,23 @@ public class User {
         return new Builder();
     }
 
+    /**
+     * Builder pre-filled with this user's fields
+     * @return Builder for a modified copy
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.firstName = firstName;
+        builder.lastName = lastName;
+        builder.email = email;
+        builder.password = password;
+        builder.gender = gender;
+        builder.dateOfBirth = dateOfBirth;
+        builder.company = company;
+        builder.newsletter = newsletter;
+        return builder;
+    }
+
     // Builder class
     public static class Builder {
         private String firstName;
@@ -36,7 +60,7 @@ public class User {
         private String email;
         private String password;
         private String gender;
-        private Date dateOfBirth;
+        private Long dateOfBirth;
         private String company;
         private boolean newsletter;
 
@@ -66,7 +90,7 @@ public class User {
         }
 
         public Builder dateOfBirth(Date dateOfBirth) {
-            this.dateOfBirth = dateOfBirth;
+            this.dateOfBirth = dateOfBirth == null ? null : dateOfBirth.getTime();
             return this;
         }
 
@@ -106,8 +130,11 @@ public class User {
         return gender;
     }
 
+    /**
+     * @return Copy of the date of birth, or null
+     */
     public Date getDateOfBirth() {
-        return dateOfBirth;
+        return dateOfBirth == null ? null : new Date(dateOfBirth);
     }
 
     public String getCompany() {
@@ -122,37 +149,21 @@ public class User {
         return firstName + " " + lastName;
     }
 
-    // Setters
-    public void setFirstName(String firstName) {
-        this.firstName = firstName;
-    }
-
-    public void setLastName(String lastName) {
-        this.lastName = lastName;
-    }
-
-    public void setEmail(String email) {
-        this.email = email;
-    }
-
-    public void setPassword(String password) {
-        this.password = password;
+    // Copies with one field changed
+    public User withFirstName(String firstName) {
+        return toBuilder().firstName(firstName).build();
     }
 
-    public void setGender(String gender) {
-        this.gender = gender;
+    public User withLastName(String lastName) {
+        return toBuilder().lastName(lastName).build();
     }
 
-    public void setDateOfBirth(Date dateOfBirth) {
-        this.dateOfBirth = dateOfBirth;
+    public User withEmail(String email) {
+        return toBuilder().email(email).build();
     }
 
-    public void setCompany(String company) {
-        this.company = company;
-    }
-
-    public void setNewsletter(boolean newsletter) {
-        this.newsletter = newsletter;
+    public User withPassword(String password) {
+        return toBuilder().password(password).build();
     }
 
     // Utility methods
@@ -174,11 +185,24 @@ public class User {
         if (obj == null || getClass() != obj.getClass()) return false;
 
         User user = (User) obj;
-        return email != null ? email.equals(user.email) : user.email == null;
+        return newsletter == user.newsletter
+                && Objects.equals(email, user.email)
+                && Objects.equals(password, user.password)
+                && Objects.equals(firstName, user.firstName)
+                && Objects.equals(lastName, user.lastName)
+                && Objects.equals(gender, user.gender)
+                && Objects.equals(dateOfBirth, user.dateOfBirth)
+                && Objects.equals(company, user.company);
     }
 
     @Override
     public int hashCode() {
-        return email != null ? email.hashCode() : 0;
+        // Computed once; a race only computes the same value twice
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(firstName, lastName, email, password, gender, dateOfBirth, company, newsletter);
+            hash = h;
+        }
+        return h;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package utils;
 
+import com.demowebshop.automation.utils.reporting.FailureArtifactCollector;
 import io.qameta.allure.Allure;
 import io.qameta.allure.Attachment;
 import org.apache.logging.log4j.LogManager;
@@ -23,10 +24,15 @@ public class AllureUtils {
         }
     }
 
+    /**
+     * Attach the page source, truncated in the browser to report.failure.page.source.max.kb
+     * Meant for failure handling only - passing tests should not pay for the transfer
+     */
     @Attachment(value = "Page Source", type = "text/html")
     public static String capturePageSource(WebDriver driver) {
         try {
-            return driver.getPageSource();
+            String source = FailureArtifactCollector.readPageSource(driver);
+            return source != null ? source : "Page source not available";
         } catch (Exception e) {
             logger.error("Failed to capture page source for Allure", e);
             return "Failed to capture page source";
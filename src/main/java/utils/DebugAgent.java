@@ -329,7 +329,7 @@ public class DebugAgent {
                 logger.error("Failed to recover element '{}' using fallback strategies", elementName, e);
 
                 // Take screenshot for debugging
-                ScreenshotUtils.takeScreenshot(driver, "element_recovery_failed_" + elementName);
+                ScreenshotUtils.takeScreenshotAsync(driver, "element_recovery_failed_" + elementName);
 
                 // Perform DOM analysis for future improvements
                 DOMAnalyzer domAnalyzer = new DOMAnalyzer(driver);
@@ -5,33 +5,97 @@ import com.demowebshop.automation.factories.driver.WebDriverFactory;
 import com.demowebshop.automation.enums.BrowserType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
 import org.openqa.selenium.WebDriver;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+import org.testng.internal.TestResult;
 import org.testng.annotations.*;
 import com.demowebshop.automation.pages.HomePage;
+import com.demowebshop.automation.utils.reporting.FailureArtifactCollector;
 import com.demowebshop.automation.utils.reporting.ScreenshotUtils;
+import com.demowebshop.automation.config.ConfigManager;
 import com.demowebshop.automation.config.SelenideConfig;
+import com.demowebshop.automation.utils.accounts.LoginCache;
+import com.demowebshop.automation.utils.accounts.UserPool;
+import com.demowebshop.automation.utils.cleanup.CleanupService;
+import com.demowebshop.automation.utils.cleanup.TestDataLedger;
+import com.demowebshop.automation.utils.concurrent.SideTaskExecutor;
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
+import com.demowebshop.automation.utils.concurrent.TestTaskScope;
+import com.demowebshop.automation.utils.health.SiteHealthBreaker;
+import com.demowebshop.automation.utils.impact.ImpactTracer;
+import com.demowebshop.automation.utils.logging.TestLogContext;
+import com.demowebshop.automation.utils.performance.PerformanceReport;
+import com.demowebshop.automation.utils.replay.ReplayProxy;
+import com.demowebshop.automation.utils.seeding.StateSeeder;
+import com.demowebshop.automation.utils.seeding.StateSeedingException;
+import com.demowebshop.automation.utils.selenium.DeadlineLogListener;
+import com.demowebshop.automation.utils.session.SessionPool;
 import com.codeborne.selenide.Configuration;
+import factories.DataEngine;
 import listeners.RetryAnalyzer;
+import models.User;
+import standin.StandInShop;
 
 import java.lang.reflect.Method;
+import java.net.URI;
 import java.time.Duration;
+import java.util.List;
 
-public abstract class BaseTest {
+public abstract class BaseTest implements IHookable {
     protected final Logger logger = LogManager.getLogger(this.getClass());
     protected ConfigurationManager config;
     private static final ThreadLocal<WebDriver> DRIVER = new ThreadLocal<>();
     private static final ThreadLocal<HomePage> HOME_PAGE = new ThreadLocal<>();
     private static final ThreadLocal<Boolean> SETUP_COMPLETED = new ThreadLocal<>();
-
-    @BeforeMethod(alwaysRun = true, timeOut = 600000) // 10 minute timeout to match page load timeout
-    public void setUp(Method method) {
+    // Warm browsers shared by the rows of data-driven tests, which may run on any data-provider thread
+    private static final SessionPool<WebDriver> SESSION_POOL =
+            new SessionPool<>(ConfigManager.getSessionPoolMaxIdle(), WebDriverFactory::quitDriver);
+    private static final ThreadLocal<String> SESSION_AFFINITY = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> SESSION_AUTHENTICATED = new ThreadLocal<>();
+    private static final ThreadLocal<StateSeeder> STATE_SEEDER = new ThreadLocal<>();
+    private static final ThreadLocal<UserPool.Lease> USER_LEASE = new ThreadLocal<>();
+    private static final ThreadLocal<TestDataLedger> DATA_LEDGER = new ThreadLocal<>();
+
+    // No timeOut here: TestNG runs timed configuration methods on a separate thread, which would lose the
+    // ThreadLocal driver; the test budget (test.budget.seconds) bounds setup and test together instead
+    @BeforeMethod(alwaysRun = true)
+    public void setUp(Method method, Object[] parameters, ITestResult invocation) {
+        String testId = TestLogContext.bind(this.getClass().getSimpleName(), method.getName());
+        TestTaskScope.open(testId);
+        TestDeadline.start(testId);
+        com.codeborne.selenide.logevents.SelenideLogger.addListener(DeadlineLogListener.NAME, new DeadlineLogListener());
+        ImpactTracer.begin(this.getClass().getName() + "." + method.getName());
+        // Data made inside the test depends only on the run seed and the test, not on the worker thread
+        DataEngine.reseed(dataSeedKey(method, parameters, invocation));
+        if (ConfigManager.shouldCleanupAfterTest()) {
+            DATA_LEDGER.set(new TestDataLedger(testId));
+        }
         logger.info("=== SETUP STARTED === Thread: {}, Test: {}.{}", 
                     Thread.currentThread().getName(), 
                     this.getClass().getSimpleName(), 
                     method.getName());
 
+        DeferredSkip.clear();
         try {
-            // Check if setup already completed for this thread (handles data-driven test iterations)
+            config = ConfigurationManager.getInstance();
+            skipIfSiteUnhealthy();
+
+            // Data-driven rows take a warm browser from the session pool when one is idle
+            String affinity = sessionAffinityOf(method, parameters);
+            SESSION_AFFINITY.set(affinity);
+            if (affinity != null && DRIVER.get() == null && setUpFromPool(affinity)) {
+                additionalSetup();
+                logger.info("=== SETUP COMPLETED (POOLED) === Thread: {}, Test: {}",
+                           Thread.currentThread().getName(), method.getName());
+                return;
+            }
+
+            // Check if setup already completed for this thread (data-driven iterations, or a browser kept warm
+            // for this worker by browser.reuse.per.thread)
             if (Boolean.TRUE.equals(SETUP_COMPLETED.get()) && DRIVER.get() != null) {
                 logger.debug("WebDriver already initialized for this thread, reusing for data-driven test iteration");
                 
@@ -41,10 +105,13 @@ public abstract class BaseTest {
                     try {
                         HomePage homePage = HOME_PAGE.get();
                         if (homePage != null) {
+                            DRIVER.get().manage().timeouts().pageLoadTimeout(TestDeadline.cap(Duration.ofSeconds(600)));
                             homePage.navigateToHomePage();
+                            SiteHealthBreaker.shared().recordSuccess();
                             logger.info("Navigated to homepage for new test iteration");
                         }
                     } catch (Exception navEx) {
+                        SiteHealthBreaker.shared().recordFailure(navEx.getClass().getSimpleName());
                         logger.warn("Could not navigate to home page for iteration, will continue: {}", navEx.getMessage());
                     }
                     
@@ -60,7 +127,6 @@ public abstract class BaseTest {
 
             tearDownThreadState(); // ensure no stale state on reused threads
 
-            config = ConfigurationManager.getInstance();
             String browserName = config.getBrowser();
             logger.info("Using browser: {} in headless mode: {}", browserName, config.isHeadless());
 
@@ -84,9 +150,11 @@ public abstract class BaseTest {
                     
                     // CRITICAL FIX: Set page load timeout IMMEDIATELY after driver creation
                     // This prevents renderer timeouts during navigation
-                    driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(600));
-                    driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(120));
-                    logger.info("Extended timeouts configured: pageLoad=600s, script=120s");
+                    // Both are limited to what is left of the test budget
+                    driver.manage().timeouts().pageLoadTimeout(TestDeadline.cap(Duration.ofSeconds(600)));
+                    driver.manage().timeouts().scriptTimeout(TestDeadline.cap(Duration.ofSeconds(120)));
+                    logger.info("Extended timeouts configured: pageLoad=600s, script=120s (capped by test budget {}s)",
+                            TestDeadline.remaining() == null ? "-" : TestDeadline.remaining().getSeconds());
                     
                 } catch (Exception driverException) {
                     retryCount++;
@@ -99,35 +167,35 @@ public abstract class BaseTest {
                     // Exponential backoff: 2s, 4s, 8s
                     int waitTime = (int) Math.pow(2, retryCount) * 1000;
                     logger.info("Waiting {}ms before retry...", waitTime);
-                    Thread.sleep(waitTime);
+                    TestDeadline.sleep(waitTime);
                 }
             }
             
             // CRITICAL: Set driver in ThreadLocal IMMEDIATELY
             DRIVER.set(driver);
-            logger.info("✓ WebDriver stored in ThreadLocal for thread: {}", Thread.currentThread().getName());
+            logger.debug("✓ WebDriver stored in ThreadLocal for thread: {}", Thread.currentThread().getName());
 
             // CRITICAL: Verify driver was actually set in ThreadLocal
             WebDriver verifyDriver = DRIVER.get();
             if (verifyDriver == null) {
                 throw new RuntimeException("CRITICAL: WebDriver failed to set in ThreadLocal despite successful creation");
             }
-            logger.info("✓ WebDriver ThreadLocal verification passed");
+            logger.debug("✓ WebDriver ThreadLocal verification passed");
 
             // Ensure Selenide WebDriver is bound for this thread
             com.codeborne.selenide.WebDriverRunner.setWebDriver(driver);
-            logger.info("✓ Selenide WebDriver bound");
+            logger.debug("✓ Selenide WebDriver bound");
 
             // CRITICAL: Create HomePage IMMEDIATELY after driver is set
             HomePage homePage = new HomePage(driver);
             HOME_PAGE.set(homePage);
-            logger.info("✓ HomePage object created and stored");
+            logger.debug("✓ HomePage object created and stored");
 
             // Verify HomePage was set
             if (HOME_PAGE.get() == null) {
                 throw new RuntimeException("CRITICAL: HomePage failed to set in ThreadLocal");
             }
-            logger.info("✓ HomePage ThreadLocal verification passed");
+            logger.debug("✓ HomePage ThreadLocal verification passed");
 
             // Navigate with enhanced retry logic for renderer timeouts
             boolean navigationSuccess = false;
@@ -136,20 +204,25 @@ public abstract class BaseTest {
             Exception lastNavException = null;
             
             while (!navigationSuccess && navAttempts < maxNavAttempts) {
+                if (navAttempts > 0) {
+                    // Other threads may have tripped the breaker while this one was backing off
+                    skipIfSiteUnhealthy();
+                }
                 navAttempts++;
+                TestDeadline.check("homepage navigation attempt " + navAttempts);
                 try {
                     logger.info("Attempting homepage navigation (attempt {}/{})", navAttempts, maxNavAttempts);
                     
                     // Refresh page load timeout before each navigation attempt
-                    driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(600));
+                    driver.manage().timeouts().pageLoadTimeout(TestDeadline.cap(Duration.ofSeconds(600)));
                     
                     homePage.navigateToHomePage();
 
                     // Wait for page to be fully loaded with extended timeout for CI
                     int maxWait = 60; // Extended to 60s for CI renderer delays
                     int waited = 0;
-                    while (!homePage.isPageLoaded() && waited < maxWait) {
-                        Thread.sleep(1000);
+                    while (!homePage.isPageLoaded() && waited < maxWait && !TestDeadline.isExpired()) {
+                        TestDeadline.sleep(1000);
                         waited++;
                         
                         if (waited % 10 == 0) {
@@ -164,10 +237,12 @@ public abstract class BaseTest {
                     }
                     
                     navigationSuccess = true;
+                    SiteHealthBreaker.shared().recordSuccess();
                     logger.info("✓ Navigated to homepage successfully on attempt {}", navAttempts);
                     
                 } catch (org.openqa.selenium.TimeoutException timeoutEx) {
                     lastNavException = timeoutEx;
+                    SiteHealthBreaker.shared().recordFailure("homepage navigation timed out");
                     logger.warn("Navigation attempt {} timed out: {}", navAttempts, timeoutEx.getMessage());
                     
                     // Enhanced handling for renderer timeouts
@@ -178,18 +253,18 @@ public abstract class BaseTest {
                         // Progressive backoff for renderer issues: 5s, 10s, 15s
                         int rendererWait = navAttempts * 5000;
                         logger.info("Waiting {}ms to allow renderer to stabilize", rendererWait);
-                        Thread.sleep(rendererWait);
+                        TestDeadline.sleep(rendererWait);
                         
                         // Try to refresh the driver's page load timeout
                         try {
-                            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(600));
-                            logger.debug("Reset page load timeout to 600s");
+                            driver.manage().timeouts().pageLoadTimeout(TestDeadline.cap(Duration.ofSeconds(600)));
+                            logger.debug("Reset page load timeout to 600s (capped by test budget)");
                         } catch (Exception e) {
                             logger.warn("Could not reset timeout: {}", e.getMessage());
                         }
                     } else {
                         // Standard timeout - shorter wait
-                        Thread.sleep(2000);
+                        TestDeadline.sleep(2000);
                     }
                     
                     if (navAttempts >= maxNavAttempts) {
@@ -200,9 +275,10 @@ public abstract class BaseTest {
                     
                 } catch (Exception navException) {
                     lastNavException = navException;
+                    SiteHealthBreaker.shared().recordFailure(navException.getClass().getSimpleName());
                     logger.warn("Navigation attempt {} failed: {}", navAttempts, navException.getMessage());
                     
-                    Thread.sleep(2000);
+                    TestDeadline.sleep(2000);
                     
                     if (navAttempts >= maxNavAttempts) {
                         logger.error("Navigation failed after {} attempts", maxNavAttempts);
@@ -219,7 +295,7 @@ public abstract class BaseTest {
             if (HOME_PAGE.get() == null) {
                 throw new RuntimeException("CRITICAL: Setup completed but HomePage is null in ThreadLocal");
             }
-            logger.info("✓ Final validation passed - Driver and HomePage are properly initialized");
+            logger.debug("✓ Final validation passed - Driver and HomePage are properly initialized");
 
             // Mark setup as completed for this thread
             SETUP_COMPLETED.set(true);
@@ -231,6 +307,13 @@ public abstract class BaseTest {
                        Thread.currentThread().getName(), 
                        method.getName());
 
+        } catch (SkipException e) {
+            // Not rethrown: a skipped configuration method would skip the rest of the class without this reason
+            logger.warn("=== SETUP SKIPPED === Thread: {}, Test: {} - {}",
+                        Thread.currentThread().getName(), method.getName(), e.getMessage());
+            safeQuitDriver();
+            tearDownThreadState();
+            DeferredSkip.defer(e.getMessage());
         } catch (Exception e) {
             logger.error("=== SETUP FAILED === Thread: {}, Test: {} - Error: {}", 
                         Thread.currentThread().getName(),
@@ -245,11 +328,35 @@ public abstract class BaseTest {
         }
     }
 
+    /**
+     * Run the test method, or skip just this invocation if setup deferred a skip
+     * @param callBack TestNG callback that runs the test method
+     * @param testResult Result of the invocation
+     */
+    @Override
+    public void run(IHookCallBack callBack, ITestResult testResult) {
+        DeferredSkip.runOrSkip(callBack, testResult);
+    }
+
+    /**
+     * @return true if setup skipped this invocation; later @BeforeMethod hooks of test classes should do nothing
+     */
+    protected boolean isSetUpSkipped() {
+        return DeferredSkip.isPending();
+    }
+
     @AfterMethod(alwaysRun = true)
-    public void tearDown(Method method) {
+    public void tearDown(Method method, ITestResult result) {
         logger.info("Cleaning up test: {}.{}\n", this.getClass().getSimpleName(), method.getName());
+        // The budget covers setup and test; cleanup must still run when it is spent
+        TestDeadline.clear();
+        com.codeborne.selenide.logevents.SelenideLogger.removeListener(DeadlineLogListener.NAME);
 
         try {
+            if (result != null && result.getStatus() == ITestResult.FAILURE) {
+                logger.info("Replay this test's data with -Dtest.data.seed={}", DataEngine.getRunSeed());
+            }
+
             // Call additional teardown hook for test classes
             additionalTeardown();
 
@@ -259,7 +366,8 @@ public abstract class BaseTest {
                     // Take screenshot on failure - check if driver is still valid
                     if (!isTestPassed() && isDriverValid()) {
                         String screenshotName = this.getClass().getSimpleName() + "_" + method.getName() + "_failed";
-                        ScreenshotUtils.takeScreenshot(driver, screenshotName);
+                        // Saved as a side task; the test's task scope below waits for it
+                        ScreenshotUtils.takeScreenshotAsync(driver, screenshotName);
                     }
                 } catch (Exception screenshotException) {
                     logger.warn("Could not take screenshot during teardown: {}", screenshotException.getMessage());
@@ -268,14 +376,140 @@ public abstract class BaseTest {
         } catch (Exception e) {
             logger.error("Error during teardown: {}", e.getMessage());
         } finally {
-            // Safe driver cleanup
-            try {
-                safeQuitDriver();
-            } catch (Exception driverException) {
-                logger.warn("Error closing driver: {}", driverException.getMessage());
+            if (SESSION_AFFINITY.get() != null) {
+                releaseToPool(result);
+            } else if (shouldKeepDriverWarm(result)) {
+                logger.debug("Keeping WebDriver warm for the next test on thread {}", Thread.currentThread().getName());
+            } else {
+                // Safe driver cleanup
+                try {
+                    safeQuitDriver();
+                } catch (Exception driverException) {
+                    logger.warn("Error closing driver: {}", driverException.getMessage());
+                }
+                tearDownThreadState();
             }
-            tearDownThreadState();
+            SESSION_AFFINITY.remove();
+            SESSION_AUTHENTICATED.remove();
+            STATE_SEEDER.remove();
+            submitDataLedger();
+            releasePooledUser();
+            // Failure listeners have run by now; wait for the side tasks (artifact writes) they started
+            TestTaskScope.closeCurrent();
+            if (result != null) {
+                FailureArtifactCollector.release(TestLogContext.testIdOf(this.getClass().getSimpleName(), method.getName()),
+                        result.getStartMillis());
+            }
+            ImpactTracer.end();
             logger.info("Test cleanup completed for: {}", method.getName());
+            TestLogContext.clear();
+        }
+    }
+
+    /**
+     * Key the test data generators are reseeded with for one invocation
+     * Rows are told apart by their index, not their values: generated rows embed unique emails with the
+     * per-JVM run ID, so a key built from the values would never be the same in a replay.
+     * @param method Test method
+     * @param parameters Data provider row
+     * @param invocation Result of the invocation about to run
+     * @return Class, method and row index
+     */
+    private String dataSeedKey(Method method, Object[] parameters, ITestResult invocation) {
+        String key = this.getClass().getName() + "." + method.getName();
+        if (parameters == null || parameters.length == 0) {
+            return key;
+        }
+        return invocation instanceof TestResult testResult ? key + "#" + testResult.getParameterIndex() : key;
+    }
+
+    /**
+     * Decide whether this worker thread keeps its browser for the next test
+     * Only passed tests hand their browser on, and only after a successful session reset
+     * @param result Result of the finished test
+     * @return true if the driver stays open
+     */
+    private boolean shouldKeepDriverWarm(ITestResult result) {
+        if (!ConfigManager.shouldReuseBrowserPerThread()
+                || result == null || result.getStatus() != ITestResult.SUCCESS) {
+            return false;
+        }
+        return Boolean.TRUE.equals(SETUP_COMPLETED.get()) && isDriverValid() && WebDriverFactory.resetSession();
+    }
+
+    /**
+     * Session pool key of a test invocation
+     * @param method Test method
+     * @param parameters Data provider row
+     * @return null if the invocation does not use the pool, {@link SessionPool#ANONYMOUS} for rows that need
+     * a clean browser, or a user key for rows of a {@link SessionAffinity} test
+     */
+    private String sessionAffinityOf(Method method, Object[] parameters) {
+        if (!ConfigManager.isSessionPoolEnabled() || parameters == null || parameters.length == 0) {
+            return null;
+        }
+        SessionAffinity sessionAffinity = method.getAnnotation(SessionAffinity.class);
+        if (sessionAffinity == null || sessionAffinity.userParameter() >= parameters.length) {
+            return SessionPool.ANONYMOUS;
+        }
+        return "user:" + parameters[sessionAffinity.userParameter()];
+    }
+
+    /**
+     * Bind an idle pooled browser to this thread and open the home page
+     * @param affinity Session pool key of the row
+     * @return false if no usable browser was idle and a new one must be created
+     */
+    private boolean setUpFromPool(String affinity) {
+        SessionPool.Lease<WebDriver> lease = SESSION_POOL.acquire(affinity);
+        if (lease == null) {
+            return false;
+        }
+        WebDriver driver = lease.getSession();
+        WebDriverFactory.bindDriver(driver);
+        try {
+            driver.manage().timeouts().pageLoadTimeout(TestDeadline.cap(Duration.ofSeconds(600)));
+            HomePage homePage = new HomePage(driver);
+            homePage.navigateToHomePage();
+            SiteHealthBreaker.shared().recordSuccess();
+            DRIVER.set(driver);
+            HOME_PAGE.set(homePage);
+            SETUP_COMPLETED.set(true);
+            SESSION_AUTHENTICATED.set(lease.isAffinityMatch() && !SessionPool.ANONYMOUS.equals(affinity));
+            return true;
+        } catch (Exception e) {
+            logger.warn("Pooled WebDriver is not usable, creating a new one: {}", e.getMessage());
+            WebDriverFactory.unbindDriver();
+            WebDriverFactory.quitDriver(driver);
+            return false;
+        }
+    }
+
+    /**
+     * Hand the browser of a data-driven row back to the session pool
+     * Clean sessions are reset first; logged-in sessions keep their cookies for the next row of the same user.
+     * Browsers of failed rows are quit.
+     * @param result Result of the finished row
+     */
+    private void releaseToPool(ITestResult result) {
+        WebDriver driver = DRIVER.get();
+        if (driver != null) {
+            String affinity = SESSION_AFFINITY.get();
+            boolean reusable = result != null && result.getStatus() == ITestResult.SUCCESS && isDriverValid()
+                    && (!SessionPool.ANONYMOUS.equals(affinity) || WebDriverFactory.resetSession());
+            WebDriverFactory.unbindDriver();
+            SESSION_POOL.release(driver, affinity, reusable);
+        }
+        tearDownThreadState();
+    }
+
+    /**
+     * Skip the test without starting a browser while the site health breaker is open
+     * Thrown inside setUp, which defers it to the test invocation
+     */
+    private void skipIfSiteUnhealthy() {
+        if (ConfigManager.isSiteHealthBreakerEnabled() && !SiteHealthBreaker.shared().allowRequest()) {
+            throw new SkipException(SiteHealthBreaker.shared().getOpenReason());
         }
     }
 
@@ -324,11 +558,31 @@ public abstract class BaseTest {
         SelenideConfig.configureSelenice();
 
         logger.info("Forced headless mode via system properties and Selenide configuration");
+
+        // The local environment runs against an in-process stand-in; base.url points at it from here on
+        StandInShop.startShared();
+        // With replay.mode set, browsers and seeding clients go through the replay proxy
+        ReplayProxy.startShared();
     }
 
     @AfterSuite
     public void afterSuite() {
         logger.info("Completed test suite execution");
+        // Idle pooled browsers are still registered with the factory and quit with the others
+        SESSION_POOL.drain();
+        WebDriverFactory.quitAllDrivers();
+        UserPool.closeShared();
+        CleanupService.closeShared();
+        ReplayProxy.closeShared();
+        StandInShop.stopShared();
+        FailureArtifactCollector.reset();
+        try {
+            PerformanceReport.generateForCurrentRun();
+            ImpactTracer.saveIfEnabled();
+        } finally {
+            // Waits for failure artifacts and the performance report written as side tasks
+            SideTaskExecutor.shutdown();
+        }
     }
 
     // Utility methods for derived test classes
@@ -350,11 +604,12 @@ public abstract class BaseTest {
     }
 
     /**
-     * Get the base URL from configuration
-     * @return Base URL
+     * Get the base URL of the selected environment (base.url)
+     * @return Base URL without a trailing slash
      */
     protected String getBaseUrl() {
-        return config.getBaseUrl();
+        String baseUrl = ConfigManager.getBaseUrl();
+        return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
     }
 
     /**
@@ -363,7 +618,7 @@ public abstract class BaseTest {
      */
     protected void waitInSeconds(int seconds) {
         try {
-            Thread.sleep(seconds * 1000);
+            TestDeadline.sleep(seconds * 1000L);
             logger.debug("Waited for {} seconds", seconds);
         } catch (InterruptedException e) {
             logger.warn("Wait interrupted: {}", e.getMessage());
@@ -393,6 +648,235 @@ public abstract class BaseTest {
         return isOnPage;
     }
 
+    /**
+     * Lease an existing account from the user pool for this test; it is returned and reset after the test
+     * @return Registered customer, or null if the pool is disabled or unavailable and the test should
+     *         register its own
+     */
+    protected User leasePooledUser() {
+        if (!ConfigManager.isUserPoolEnabled()) {
+            return null;
+        }
+        releasePooledUser();
+        try {
+            UserPool.Lease lease = UserPool.shared().lease();
+            USER_LEASE.set(lease);
+            return lease.getUser();
+        } catch (Exception e) {
+            logger.warn("User pool unavailable, registering a new user instead: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void releasePooledUser() {
+        UserPool.Lease lease = USER_LEASE.get();
+        if (lease != null) {
+            USER_LEASE.remove();
+            lease.close();
+        }
+    }
+
+    /**
+     * Tell the user pool, the login cache and the cleanup that this test changed a customer's password
+     * on the site
+     * @param user Customer before the change
+     * @param newPassword Password now set on the site
+     * @return Customer with the new password
+     */
+    protected User changedPassword(User user, String newPassword) {
+        User changed = user.withPassword(newPassword);
+        UserPool.Lease lease = USER_LEASE.get();
+        if (lease != null && lease.getUser().getEmail().equals(user.getEmail())) {
+            lease.update(changed);
+        }
+        TestDataLedger ledger = DATA_LEDGER.get();
+        if (ledger != null) {
+            ledger.update(changed);
+        }
+        // The site may keep the old ticket valid, but a cached login must not outlive the old password
+        if (ConfigManager.isLoginCacheEnabled()) {
+            LoginCache.shared().invalidate(user.getEmail());
+        }
+        return changed;
+    }
+
+    /**
+     * Record an account this test registered; customers cannot delete accounts, so it is only reported
+     * @param user Registered customer
+     */
+    protected void recordCreatedAccount(User user) {
+        TestDataLedger ledger = DATA_LEDGER.get();
+        if (ledger != null) {
+            ledger.account(user);
+        }
+    }
+
+    /**
+     * Record that this test added an address; it is deleted after the test
+     * @param owner Customer the address was added to
+     * @param addressId Address ID, or null to delete every address of the customer
+     */
+    protected void recordCreatedAddress(User owner, String addressId) {
+        TestDataLedger ledger = ledgerFor(owner);
+        if (ledger == null) {
+            return;
+        }
+        if (addressId == null) {
+            ledger.addresses(owner);
+        } else {
+            ledger.address(owner, addressId);
+        }
+    }
+
+    /**
+     * Record that this test left items in a customer's cart; the cart is emptied after the test
+     * @param owner Customer
+     */
+    protected void recordCartItems(User owner) {
+        TestDataLedger ledger = ledgerFor(owner);
+        if (ledger != null) {
+            ledger.cart(owner);
+        }
+    }
+
+    /**
+     * Record an order this test placed; orders cannot be deleted by a customer, so it is only reported
+     * @param orderNumber Order number from the order complete page
+     */
+    protected void recordPlacedOrder(String orderNumber) {
+        TestDataLedger ledger = DATA_LEDGER.get();
+        if (ledger != null && orderNumber != null && !orderNumber.isBlank()) {
+            ledger.order(orderNumber.trim());
+        }
+    }
+
+    /**
+     * Ledger to record a customer's data in, or null when cleanup is off or the customer is the leased
+     * pooled account, which the pool resets itself when it is returned
+     */
+    private TestDataLedger ledgerFor(User owner) {
+        UserPool.Lease lease = USER_LEASE.get();
+        if (owner == null || (lease != null && lease.getUser().getEmail().equals(owner.getEmail()))) {
+            return null;
+        }
+        return DATA_LEDGER.get();
+    }
+
+    /**
+     * Wait for the background cleanup an earlier test queued for a customer, before using the account
+     * again; otherwise the cleanup could empty the cart or delete the addresses this test adds
+     * @param user Customer about to be used
+     */
+    protected void awaitPendingCleanup(User user) {
+        if (user != null && !CleanupService.awaitSharedCustomer(user.getEmail())) {
+            logger.warn("Using {} while its cleanup is still pending", user.getEmail());
+        }
+    }
+
+    private void submitDataLedger() {
+        TestDataLedger ledger = DATA_LEDGER.get();
+        DATA_LEDGER.remove();
+        if (ledger != null && !ledger.isEmpty()) {
+            CleanupService.shared().submit(ledger);
+        }
+    }
+
+    /**
+     * Open the home page in the browser as a logged-in customer without going through the login page:
+     * from the login cache if it holds a valid login for the account, otherwise by registering (or
+     * logging in) over HTTP
+     * @param user Customer
+     * @return true if the browser is now logged in; false if both are disabled or failed and the
+     *         test should go through the UI instead
+     */
+    protected boolean seedLoggedInUser(User user) {
+        awaitPendingCleanup(user);
+        if (restoreCachedLogin(user)) {
+            return true;
+        }
+        if (!ConfigManager.isStateSeedingEnabled()) {
+            return false;
+        }
+        try {
+            StateSeeder seeder = StateSeeder.forConfiguredSite();
+            seeder.registerOrLogin(user);
+            seeder.injectInto(getDriver());
+            STATE_SEEDER.set(seeder);
+            if (!openHomePageLoggedIn()) {
+                return false;
+            }
+            if (ConfigManager.isLoginCacheEnabled()) {
+                LoginCache.shared().store(user.getEmail(), seeder.getBrowserCookies());
+            }
+            return true;
+        } catch (StateSeedingException e) {
+            logger.warn("HTTP state seeding failed, using the UI instead: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Cache the login of the current browser session after a UI login, so later tests can restore it
+     * @param user Logged-in customer
+     */
+    protected void rememberLogin(User user) {
+        if (ConfigManager.isLoginCacheEnabled()) {
+            LoginCache.shared().store(user.getEmail(), getDriver().manage().getCookies());
+        }
+    }
+
+    private boolean restoreCachedLogin(User user) {
+        if (!ConfigManager.isLoginCacheEnabled()) {
+            return false;
+        }
+        LoginCache cache = LoginCache.shared();
+        List<Cookie> cookies = cache.getValidCookies(user.getEmail());
+        if (cookies == null) {
+            return false;
+        }
+        StateSeeder.injectCookies(getDriver(), URI.create(ConfigManager.getBaseUrl()), cookies);
+        if (!openHomePageLoggedIn()) {
+            cache.invalidate(user.getEmail());
+            return false;
+        }
+        if (ConfigManager.isStateSeedingEnabled()) {
+            // Lets seedCartItem work in the restored session
+            StateSeeder seeder = StateSeeder.forConfiguredSite();
+            seeder.adoptCookies(cookies);
+            STATE_SEEDER.set(seeder);
+        }
+        logger.info("Restored cached login of {}", user.getEmail());
+        return true;
+    }
+
+    private boolean openHomePageLoggedIn() {
+        getDriver().get(getBaseUrl());
+        HomePage homePage = new HomePage(getDriver());
+        setHomePage(homePage);
+        return homePage.isUserLoggedIn();
+    }
+
+    /**
+     * Add a product to the cart of the customer seeded by {@link #seedLoggedInUser(User)} over HTTP
+     * @param productId Product ID
+     * @param quantity Quantity
+     * @return true if added; false if there is no seeded session or the site refused, and the test
+     *         should add the product through the UI instead
+     */
+    protected boolean seedCartItem(int productId, int quantity) {
+        StateSeeder seeder = STATE_SEEDER.get();
+        if (seeder == null) {
+            return false;
+        }
+        try {
+            seeder.addToCart(productId, quantity);
+            return true;
+        } catch (StateSeedingException e) {
+            logger.warn("Could not add product {} to the cart over HTTP: {}", productId, e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Hook method for test classes to perform additional setup
      * Override this method in test classes to add custom setup logic
@@ -454,6 +938,14 @@ public abstract class BaseTest {
         return page;
     }
 
+    /**
+     * Whether this row got a pooled browser that is already logged in as its {@link SessionAffinity} user
+     * @return true if the test can skip its login steps
+     */
+    protected boolean isSessionAuthenticated() {
+        return Boolean.TRUE.equals(SESSION_AUTHENTICATED.get());
+    }
+
     protected void setHomePage(HomePage homePage) {
         HOME_PAGE.set(homePage);
     }
@@ -0,0 +1,57 @@
+package base;
+
+import org.testng.IHookCallBack;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+
+/**
+ * Skip decided during setup, applied to the test invocation itself
+ * A SkipException thrown from a @BeforeMethod is a configuration skip: TestNG then skips every later
+ * method of the class and reports them without the original reason. Setup defers the skip here instead
+ * and the test's {@link org.testng.IHookable} skips just this invocation, so the next one runs normally
+ * once the cause (an open site health breaker) has cleared.
+ */
+public final class DeferredSkip {
+    private static final ThreadLocal<String> REASON = new ThreadLocal<>();
+
+    private DeferredSkip() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Skip the test invocation about to run on this thread
+     * @param reason Reason reported with the skip
+     */
+    public static void defer(String reason) {
+        REASON.set(reason == null ? "Skipped during setup" : reason);
+    }
+
+    /**
+     * Forget a skip deferred for an earlier invocation on this thread
+     */
+    public static void clear() {
+        REASON.remove();
+    }
+
+    /**
+     * @return true if setup deferred a skip for the invocation on this thread
+     */
+    public static boolean isPending() {
+        return REASON.get() != null;
+    }
+
+    /**
+     * Run the test method, or skip it with the deferred reason
+     * Call from {@link org.testng.IHookable#run(IHookCallBack, ITestResult)}
+     * @param callBack TestNG callback that runs the test method
+     * @param testResult Result of the invocation
+     */
+    public static void runOrSkip(IHookCallBack callBack, ITestResult testResult) {
+        String reason = REASON.get();
+        if (reason != null) {
+            REASON.remove();
+            throw new SkipException(reason);
+        }
+        callBack.runTestMethod(testResult);
+    }
+}
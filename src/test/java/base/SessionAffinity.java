@@ -0,0 +1,20 @@
+package base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that the rows of a data-driven test log in as the user given by one of their parameters
+ * Rows for the same user are handed a pooled browser that is still logged in as that user when one is
+ * idle (see {@link BaseTest#isSessionAuthenticated()}); other rows never receive that browser.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SessionAffinity {
+    /**
+     * @return Index of the test parameter identifying the user (e.g. the email)
+     */
+    int userParameter();
+}
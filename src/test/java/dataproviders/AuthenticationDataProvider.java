@@ -1,9 +1,14 @@
 package dataproviders;
 
+import com.demowebshop.automation.config.ConfigManager;
+import factories.DataCorpus;
+import factories.LazyRows;
 import factories.UserDataFactory;
 import models.User;
 import org.testng.annotations.DataProvider;
 
+import java.util.Iterator;
+
 /**
  * Data provider class for authentication related test scenarios
  * Provides test data for login, registration, and user validation tests
@@ -15,14 +20,26 @@ public class AuthenticationDataProvider {
      * Returns multiple sets of valid user data for comprehensive testing
      */
     @DataProvider(name = "validRegistrationData")
-    public static Object[][] getValidRegistrationData() {
-        return new Object[][]{
-            {UserDataFactory.createRandomUser(), "Valid user with all required fields"},
-            {UserDataFactory.createRandomUser(), "Valid user with different data set"},
-            {UserDataFactory.createRandomUser(), "Valid user for parallel execution"},
-            {UserDataFactory.createTestUser(), "Standard test user data"},
-            {UserDataFactory.createGuestUser(), "Guest user registration data"}
-        };
+    public static Iterator<Object[]> getValidRegistrationData() {
+        return LazyRows.named("validRegistrationData")
+            .row(1, () -> new Object[]{UserDataFactory.createRandomUser(), "Valid user with all required fields"}, "positive", "random")
+            .row(() -> new Object[]{UserDataFactory.createRandomUser(), "Valid user with different data set"}, "positive", "random")
+            .row(() -> new Object[]{UserDataFactory.createRandomUser(), "Valid user for parallel execution"}, "positive", "random")
+            .row(() -> new Object[]{UserDataFactory.createTestUser(), "Standard test user data"}, "positive")
+            .row(() -> new Object[]{UserDataFactory.createGuestUser(), "Guest user registration data"}, "positive", "random")
+            .iterator();
+    }
+
+    /**
+     * Provides registration data streamed from the pre-generated user corpus
+     * Rows are decoded one at a time as TestNG asks for them
+     */
+    @SerialRows
+    @DataProvider(name = "corpusRegistrationData")
+    public static Iterator<Object[]> getCorpusRegistrationData() {
+        DataCorpus corpus = DataCorpus.shared(DataCorpus.Kind.USERS);
+        return corpus.rows(ConfigManager.getTestDataCorpusOffset(), ConfigManager.getTestDataCorpusRows(),
+                row -> new Object[]{corpus.user(row), "Corpus user #" + row});
     }
 
     /**
@@ -30,33 +47,34 @@ public class AuthenticationDataProvider {
      * Tests various validation scenarios and error conditions
      */
     @DataProvider(name = "invalidRegistrationData")
-    public static Object[][] getInvalidRegistrationData() {
-        return new Object[][]{
+    public static Iterator<Object[]> getInvalidRegistrationData() {
+        return LazyRows.named("invalidRegistrationData")
             // Empty first name
-            {createUserWithEmptyFirstName(), "First name is required", "firstName"},
+            .row(1, () -> new Object[]{createUserWithEmptyFirstName(), "First name is required", "firstName"}, "negative")
 
             // Empty last name
-            {createUserWithEmptyLastName(), "Last name is required", "lastName"},
+            .row(() -> new Object[]{createUserWithEmptyLastName(), "Last name is required", "lastName"}, "negative")
 
             // Invalid email formats
-            {createUserWithInvalidEmail("invalid"), "Invalid email format", "email"},
-            {createUserWithInvalidEmail("test@"), "Invalid email format", "email"},
-            {createUserWithInvalidEmail("@domain.com"), "Invalid email format", "email"},
-            {createUserWithInvalidEmail("test..test@domain.com"), "Invalid email format", "email"},
+            .row(() -> new Object[]{createUserWithInvalidEmail("invalid"), "Invalid email format", "email"}, "negative")
+            .row(() -> new Object[]{createUserWithInvalidEmail("test@"), "Invalid email format", "email"}, "negative")
+            .row(() -> new Object[]{createUserWithInvalidEmail("@domain.com"), "Invalid email format", "email"}, "negative")
+            .row(3, () -> new Object[]{createUserWithInvalidEmail("test..test@domain.com"), "Invalid email format", "email"}, "negative", "edge")
 
             // Empty email
-            {createUserWithInvalidEmail(""), "Email is required", "email"},
+            .row(1, () -> new Object[]{createUserWithInvalidEmail(""), "Email is required", "email"}, "negative")
 
             // Weak passwords
-            {createUserWithWeakPassword("123"), "Password too short", "password"},
-            {createUserWithWeakPassword("pass"), "Password too weak", "password"},
-            {createUserWithWeakPassword(""), "Password is required", "password"}
-        };
+            .row(() -> new Object[]{createUserWithWeakPassword("123"), "Password too short", "password"}, "negative")
+            .row(() -> new Object[]{createUserWithWeakPassword("pass"), "Password too weak", "password"}, "negative")
+            .row(1, () -> new Object[]{createUserWithWeakPassword(""), "Password is required", "password"}, "negative")
+            .iterator();
     }
 
     /**
      * Provides valid login credentials for positive login testing
      */
+    @SerialRows
     @DataProvider(name = "validLoginData")
     public static Object[][] getValidLoginData() {
         // Note: In real testing, these would be pre-registered users
@@ -73,6 +91,7 @@ public class AuthenticationDataProvider {
     /**
      * Provides invalid login credentials for negative testing
      */
+    @SerialRows
     @DataProvider(name = "invalidLoginData")
     public static Object[][] getInvalidLoginData() {
         return new Object[][]{
@@ -105,7 +124,7 @@ public class AuthenticationDataProvider {
     /**
      * Provides email validation test data
      */
-    @DataProvider(name = "emailValidationData")
+    @DataProvider(name = "emailValidationData", parallel = true)
     public static Object[][] getEmailValidationData() {
         return new Object[][]{
             // Valid emails
@@ -131,41 +150,41 @@ public class AuthenticationDataProvider {
      * Provides password strength test data
      */
     @DataProvider(name = "passwordValidationData")
-    public static Object[][] getPasswordValidationData() {
-        return new Object[][]{
+    public static Iterator<Object[]> getPasswordValidationData() {
+        return LazyRows.named("passwordValidationData")
             // Strong passwords
-            {UserDataFactory.generateSecurePassword(), true, "Generated secure password"},
-            {"StrongPass123!", true, "Password with all requirements"},
-            {"MySecureP@ssw0rd", true, "Complex password"},
+            .row(1, () -> new Object[]{UserDataFactory.generateSecurePassword(), true, "Generated secure password"}, "positive", "random")
+            .row(() -> new Object[]{"StrongPass123!", true, "Password with all requirements"}, "positive")
+            .row(() -> new Object[]{"MySecureP@ssw0rd", true, "Complex password"}, "positive")
 
             // Weak passwords
-            {"123456", false, "Too short and only numbers"},
-            {"password", false, "Common weak password"},
-            {"Pass1", false, "Too short"},
-            {"", false, "Empty password"},
-            {"onlylowercase", false, "Only lowercase letters"},
-            {"ONLYUPPERCASE", false, "Only uppercase letters"},
-            {"1234567890", false, "Only numbers"},
-            {"password123", false, "Common pattern"},
-            {UserDataFactory.generateWeakPassword(), false, "Generated weak password"}
-        };
+            .row(1, () -> new Object[]{"123456", false, "Too short and only numbers"}, "negative")
+            .row(() -> new Object[]{"password", false, "Common weak password"}, "negative")
+            .row(() -> new Object[]{"Pass1", false, "Too short"}, "negative")
+            .row(1, () -> new Object[]{"", false, "Empty password"}, "negative")
+            .row(() -> new Object[]{"onlylowercase", false, "Only lowercase letters"}, "negative")
+            .row(() -> new Object[]{"ONLYUPPERCASE", false, "Only uppercase letters"}, "negative")
+            .row(() -> new Object[]{"1234567890", false, "Only numbers"}, "negative")
+            .row(() -> new Object[]{"password123", false, "Common pattern"}, "negative")
+            .row(() -> new Object[]{UserDataFactory.generateWeakPassword(), false, "Generated weak password"}, "negative", "random")
+            .iterator();
     }
 
     /**
      * Provides multiple user data sets for parallel testing
      */
+    @SerialRows
     @DataProvider(name = "parallelUserData", parallel = false)
-    public static Object[][] getParallelUserData() {
-        Object[][] userData = new Object[10][];
-        for (int i = 0; i < 10; i++) {
-            userData[i] = new Object[]{UserDataFactory.createRandomUser(), "Parallel test user " + (i + 1)};
-        }
-        return userData;
+    public static Iterator<Object[]> getParallelUserData() {
+        return LazyRows.named("parallelUserData")
+            .rows(10, i -> new Object[]{UserDataFactory.createRandomUser(), "Parallel test user " + (i + 1)}, "positive", "random")
+            .iterator();
     }
 
     /**
      * Provides remember me functionality test data
      */
+    @SerialRows
     @DataProvider(name = "rememberMeData")
     public static Object[][] getRememberMeData() {
         return new Object[][]{
@@ -179,6 +198,7 @@ public class AuthenticationDataProvider {
     /**
      * Provides logout test scenarios
      */
+    @SerialRows
     @DataProvider(name = "logoutScenarios")
     public static Object[][] getLogoutScenarios() {
         return new Object[][]{
@@ -192,26 +212,18 @@ public class AuthenticationDataProvider {
     // Helper methods for creating specific invalid user data
 
     private static User createUserWithEmptyFirstName() {
-        User user = UserDataFactory.createRandomUser();
-        user.setFirstName("");
-        return user;
+        return UserDataFactory.createRandomUser().withFirstName("");
     }
 
     private static User createUserWithEmptyLastName() {
-        User user = UserDataFactory.createRandomUser();
-        user.setLastName("");
-        return user;
+        return UserDataFactory.createRandomUser().withLastName("");
     }
 
     private static User createUserWithInvalidEmail(String invalidEmail) {
-        User user = UserDataFactory.createRandomUser();
-        user.setEmail(invalidEmail);
-        return user;
+        return UserDataFactory.createRandomUser().withEmail(invalidEmail);
     }
 
     private static User createUserWithWeakPassword(String weakPassword) {
-        User user = UserDataFactory.createRandomUser();
-        user.setPassword(weakPassword);
-        return user;
+        return UserDataFactory.createRandomUser().withPassword(weakPassword);
     }
 }
\ No newline at end of file
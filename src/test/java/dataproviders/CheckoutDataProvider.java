@@ -1,13 +1,19 @@
 package dataproviders;
 
+import com.demowebshop.automation.config.ConfigManager;
 import factories.CheckoutDataFactory;
+import factories.DataCorpus;
+import factories.LazyRows;
 import models.Address;
 import models.PaymentInfo;
 import org.testng.annotations.DataProvider;
 
+import java.util.Iterator;
+
 /**
  * Data provider class for checkout and payment related test scenarios
  * Provides test data for billing, shipping, payment, and order completion processes
+ * Providers that generate data return lazy {@link LazyRows} iterators, filtered by tag and priority
  */
 public class CheckoutDataProvider {
 
@@ -15,46 +21,68 @@ public class CheckoutDataProvider {
      * Provides comprehensive checkout test data for end-to-end testing
      */
     @DataProvider(name = "checkoutTestData")
-    public static Object[][] getCheckoutTestData() {
-        return CheckoutDataFactory.getCheckoutTestData();
+    public static Iterator<Object[]> getCheckoutTestData() {
+        return CheckoutDataFactory.getCheckoutTestData().iterator();
     }
 
     /**
      * Provides payment method test data
      */
     @DataProvider(name = "paymentTestData")
-    public static Object[][] getPaymentTestData() {
-        return CheckoutDataFactory.getPaymentTestData();
+    public static Iterator<Object[]> getPaymentTestData() {
+        return CheckoutDataFactory.getPaymentTestData().iterator();
     }
 
     /**
      * Provides valid billing address data for positive testing
      */
     @DataProvider(name = "validBillingAddresses")
-    public static Object[][] getValidBillingAddresses() {
-        return new Object[][]{
-            {CheckoutDataFactory.createTestBillingAddress(), "Standard test billing address"},
-            {CheckoutDataFactory.createRandomBillingAddress(), "Random valid billing address"},
-            {CheckoutDataFactory.createRandomBillingAddress(), "Another random billing address"}
-        };
+    public static Iterator<Object[]> getValidBillingAddresses() {
+        return LazyRows.named("validBillingAddresses")
+            .row(1, () -> new Object[]{CheckoutDataFactory.createTestBillingAddress(), "Standard test billing address"}, "positive")
+            .row(() -> new Object[]{CheckoutDataFactory.createRandomBillingAddress(), "Random valid billing address"}, "positive", "random")
+            .row(() -> new Object[]{CheckoutDataFactory.createRandomBillingAddress(), "Another random billing address"}, "positive", "random")
+            .iterator();
+    }
+
+    /**
+     * Provides billing addresses streamed from the pre-generated address corpus
+     */
+    @SerialRows
+    @DataProvider(name = "corpusBillingAddresses")
+    public static Iterator<Object[]> getCorpusBillingAddresses() {
+        DataCorpus corpus = DataCorpus.shared(DataCorpus.Kind.ADDRESSES);
+        return corpus.rows(ConfigManager.getTestDataCorpusOffset(), ConfigManager.getTestDataCorpusRows(),
+                row -> new Object[]{corpus.address(row), "Corpus billing address #" + row});
+    }
+
+    /**
+     * Provides payment records streamed from the pre-generated payment corpus
+     */
+    @SerialRows
+    @DataProvider(name = "corpusPaymentData")
+    public static Iterator<Object[]> getCorpusPaymentData() {
+        DataCorpus corpus = DataCorpus.shared(DataCorpus.Kind.PAYMENTS);
+        return corpus.rows(ConfigManager.getTestDataCorpusOffset(), ConfigManager.getTestDataCorpusRows(),
+                row -> new Object[]{corpus.paymentInfo(row), "Corpus payment #" + row});
     }
 
     /**
      * Provides valid shipping address data for positive testing
      */
     @DataProvider(name = "validShippingAddresses")
-    public static Object[][] getValidShippingAddresses() {
-        return new Object[][]{
-            {CheckoutDataFactory.createTestShippingAddress(), "Standard test shipping address"},
-            {CheckoutDataFactory.createRandomShippingAddress(), "Random valid shipping address"},
-            {CheckoutDataFactory.createRandomShippingAddress(), "Another random shipping address"}
-        };
+    public static Iterator<Object[]> getValidShippingAddresses() {
+        return LazyRows.named("validShippingAddresses")
+            .row(1, () -> new Object[]{CheckoutDataFactory.createTestShippingAddress(), "Standard test shipping address"}, "positive")
+            .row(() -> new Object[]{CheckoutDataFactory.createRandomShippingAddress(), "Random valid shipping address"}, "positive", "random")
+            .row(() -> new Object[]{CheckoutDataFactory.createRandomShippingAddress(), "Another random shipping address"}, "positive", "random")
+            .iterator();
     }
 
     /**
      * Provides shipping method test data
      */
-    @DataProvider(name = "shippingMethods")
+    @DataProvider(name = "shippingMethods", parallel = true)
     public static Object[][] getShippingMethods() {
         String[] methods = CheckoutDataFactory.getAllShippingMethods();
         Object[][] data = new Object[methods.length][];
@@ -69,7 +97,7 @@ public class CheckoutDataProvider {
     /**
      * Provides payment method test data
      */
-    @DataProvider(name = "paymentMethods")
+    @DataProvider(name = "paymentMethods", parallel = true)
     public static Object[][] getPaymentMethods() {
         String[] methods = CheckoutDataFactory.getAllPaymentMethods();
         Object[][] data = new Object[methods.length][];
@@ -84,7 +112,7 @@ public class CheckoutDataProvider {
     /**
      * Provides country selection test data
      */
-    @DataProvider(name = "countries")
+    @DataProvider(name = "countries", parallel = true)
     public static Object[][] getCountries() {
         String[] countries = CheckoutDataFactory.getAllCountries();
         Object[][] data = new Object[countries.length][];
@@ -100,42 +128,42 @@ public class CheckoutDataProvider {
      * Provides complete guest checkout scenarios
      */
     @DataProvider(name = "guestCheckoutData")
-    public static Object[][] getGuestCheckoutData() {
-        return new Object[][]{
-            {
+    public static Iterator<Object[]> getGuestCheckoutData() {
+        return LazyRows.named("guestCheckoutData")
+            .row(1, () -> new Object[]{
                 CheckoutDataFactory.createTestBillingAddress(),
                 CheckoutDataFactory.createTestShippingAddress(),
                 "Ground",
                 "Credit Card",
                 CheckoutDataFactory.createTestPaymentInfo(),
                 "Complete guest checkout with different addresses"
-            },
-            {
+            }, "positive")
+            .row(() -> new Object[]{
                 CheckoutDataFactory.createRandomBillingAddress(),
                 null, // Same as billing
                 "Express",
                 "Check / Money Order",
                 null,
                 "Guest checkout with same address for billing and shipping"
-            },
-            {
+            }, "positive", "random")
+            .row(() -> new Object[]{
                 CheckoutDataFactory.createTestBillingAddress(),
                 CheckoutDataFactory.createRandomShippingAddress(),
                 "2nd Day Air",
                 "Cash On Delivery (COD)",
                 null,
                 "Guest checkout with COD payment"
-            }
-        };
+            }, "positive", "random")
+            .iterator();
     }
 
     /**
      * Provides registered user checkout scenarios
      */
     @DataProvider(name = "registeredUserCheckoutData")
-    public static Object[][] getRegisteredUserCheckoutData() {
-        return new Object[][]{
-            {
+    public static Iterator<Object[]> getRegisteredUserCheckoutData() {
+        return LazyRows.named("registeredUserCheckoutData")
+            .row(1, () -> new Object[]{
                 "test.user@demowebshop.com",
                 "TestPassword123",
                 CheckoutDataFactory.createTestBillingAddress(),
@@ -143,8 +171,8 @@ public class CheckoutDataProvider {
                 "Credit Card",
                 CheckoutDataFactory.createTestPaymentInfo(),
                 "Registered user checkout with saved address"
-            },
-            {
+            }, "positive")
+            .row(() -> new Object[]{
                 "customer@demowebshop.com",
                 "CustomerPass123",
                 CheckoutDataFactory.createRandomBillingAddress(),
@@ -152,14 +180,23 @@ public class CheckoutDataProvider {
                 "Check / Money Order",
                 null,
                 "Registered user checkout with new address"
-            }
-        };
+            }, "positive", "random")
+            .row(() -> new Object[]{
+                "test.user@demowebshop.com",
+                "TestPassword123",
+                CheckoutDataFactory.createTestBillingAddress(),
+                "Next Day Air",
+                "Cash On Delivery (COD)",
+                null,
+                "Registered user repeat checkout in the same session"
+            }, "positive")
+            .iterator();
     }
 
     /**
      * Provides credit card validation test data
      */
-    @DataProvider(name = "creditCardData")
+    @DataProvider(name = "creditCardData", parallel = true)
     public static Object[][] getCreditCardData() {
         return new Object[][]{
             // Valid cards
@@ -183,28 +220,28 @@ public class CheckoutDataProvider {
      * Provides address validation test data
      */
     @DataProvider(name = "addressValidationData")
-    public static Object[][] getAddressValidationData() {
-        return new Object[][]{
+    public static Iterator<Object[]> getAddressValidationData() {
+        return LazyRows.named("addressValidationData")
             // Valid addresses
-            {createCompleteAddress(), true, "Complete valid address"},
-            {createMinimalAddress(), true, "Minimal required address fields"},
+            .row(1, () -> new Object[]{createCompleteAddress(), true, "Complete valid address"}, "positive")
+            .row(() -> new Object[]{createMinimalAddress(), true, "Minimal required address fields"}, "positive")
 
             // Invalid addresses
-            {createAddressWithEmptyFirstName(), false, "Missing first name"},
-            {createAddressWithEmptyLastName(), false, "Missing last name"},
-            {createAddressWithEmptyAddress(), false, "Missing street address"},
-            {createAddressWithEmptyCity(), false, "Missing city"},
-            {createAddressWithEmptyZip(), false, "Missing zip code"},
-            {createAddressWithEmptyCountry(), false, "Missing country"},
-            {createAddressWithInvalidEmail(), false, "Invalid email format"},
-            {createAddressWithInvalidPhone(), false, "Invalid phone format"}
-        };
+            .row(1, () -> new Object[]{createAddressWithEmptyFirstName(), false, "Missing first name"}, "negative")
+            .row(() -> new Object[]{createAddressWithEmptyLastName(), false, "Missing last name"}, "negative")
+            .row(() -> new Object[]{createAddressWithEmptyAddress(), false, "Missing street address"}, "negative")
+            .row(() -> new Object[]{createAddressWithEmptyCity(), false, "Missing city"}, "negative")
+            .row(() -> new Object[]{createAddressWithEmptyZip(), false, "Missing zip code"}, "negative")
+            .row(() -> new Object[]{createAddressWithEmptyCountry(), false, "Missing country"}, "negative")
+            .row(3, () -> new Object[]{createAddressWithInvalidEmail(), false, "Invalid email format"}, "negative", "edge")
+            .row(3, () -> new Object[]{createAddressWithInvalidPhone(), false, "Invalid phone format"}, "negative", "edge")
+            .iterator();
     }
 
     /**
      * Provides order total calculation test data
      */
-    @DataProvider(name = "orderTotalData")
+    @DataProvider(name = "orderTotalData", parallel = true)
     public static Object[][] getOrderTotalData() {
         return new Object[][]{
             {10.00, 5.00, 1.00, 16.00, "Basic order total calculation"},
@@ -219,35 +256,33 @@ public class CheckoutDataProvider {
      * Provides checkout validation scenarios
      */
     @DataProvider(name = "checkoutValidationData")
-    public static Object[][] getCheckoutValidationData() {
-        return new Object[][]{
+    public static Iterator<Object[]> getCheckoutValidationData() {
+        return LazyRows.named("checkoutValidationData")
             // Missing required fields
-            {null, CheckoutDataFactory.createTestShippingAddress(), "Ground", "Credit Card", false, "Missing billing address"},
-            {CheckoutDataFactory.createTestBillingAddress(), null, "Ground", "Credit Card", false, "Missing shipping address"},
-            {CheckoutDataFactory.createTestBillingAddress(), CheckoutDataFactory.createTestShippingAddress(), null, "Credit Card", false, "Missing shipping method"},
-            {CheckoutDataFactory.createTestBillingAddress(), CheckoutDataFactory.createTestShippingAddress(), "Ground", null, false, "Missing payment method"},
+            .row(() -> new Object[]{null, CheckoutDataFactory.createTestShippingAddress(), "Ground", "Credit Card", false, "Missing billing address"}, "negative")
+            .row(() -> new Object[]{CheckoutDataFactory.createTestBillingAddress(), null, "Ground", "Credit Card", false, "Missing shipping address"}, "negative")
+            .row(() -> new Object[]{CheckoutDataFactory.createTestBillingAddress(), CheckoutDataFactory.createTestShippingAddress(), null, "Credit Card", false, "Missing shipping method"}, "negative")
+            .row(() -> new Object[]{CheckoutDataFactory.createTestBillingAddress(), CheckoutDataFactory.createTestShippingAddress(), "Ground", null, false, "Missing payment method"}, "negative")
 
             // Valid complete checkout
-            {CheckoutDataFactory.createTestBillingAddress(), CheckoutDataFactory.createTestShippingAddress(), "Ground", "Credit Card", true, "Complete valid checkout"}
-        };
+            .row(1, () -> new Object[]{CheckoutDataFactory.createTestBillingAddress(), CheckoutDataFactory.createTestShippingAddress(), "Ground", "Credit Card", true, "Complete valid checkout"}, "positive")
+            .iterator();
     }
 
     /**
      * Provides parallel checkout test data for performance testing
      */
     @DataProvider(name = "parallelCheckoutData", parallel = false)
-    public static Object[][] getParallelCheckoutData() {
-        Object[][] data = new Object[5][];
-        for (int i = 0; i < 5; i++) {
-            data[i] = new Object[]{
+    public static Iterator<Object[]> getParallelCheckoutData() {
+        return LazyRows.named("parallelCheckoutData")
+            .rows(5, i -> new Object[]{
                 CheckoutDataFactory.createRandomBillingAddress(),
                 CheckoutDataFactory.createRandomShippingAddress(),
                 CheckoutDataFactory.getRandomShippingMethod(),
                 CheckoutDataFactory.getRandomPaymentMethod(),
                 "Parallel checkout test " + (i + 1)
-            };
-        }
-        return data;
+            }, "positive", "random")
+            .iterator();
     }
 
     // Helper methods for creating specific test addresses
@@ -268,50 +303,34 @@ public class CheckoutDataProvider {
     }
 
     private static Address createAddressWithEmptyFirstName() {
-        Address address = CheckoutDataFactory.createTestBillingAddress();
-        address.setFirstName("");
-        return address;
+        return CheckoutDataFactory.createTestBillingAddress().toBuilder().firstName("").build();
     }
 
     private static Address createAddressWithEmptyLastName() {
-        Address address = CheckoutDataFactory.createTestBillingAddress();
-        address.setLastName("");
-        return address;
+        return CheckoutDataFactory.createTestBillingAddress().toBuilder().lastName("").build();
     }
 
     private static Address createAddressWithEmptyAddress() {
-        Address address = CheckoutDataFactory.createTestBillingAddress();
-        address.setAddress1("");
-        return address;
+        return CheckoutDataFactory.createTestBillingAddress().withAddress1("");
     }
 
     private static Address createAddressWithEmptyCity() {
-        Address address = CheckoutDataFactory.createTestBillingAddress();
-        address.setCity("");
-        return address;
+        return CheckoutDataFactory.createTestBillingAddress().withCity("");
     }
 
     private static Address createAddressWithEmptyZip() {
-        Address address = CheckoutDataFactory.createTestBillingAddress();
-        address.setZipPostalCode("");
-        return address;
+        return CheckoutDataFactory.createTestBillingAddress().withZipPostalCode("");
     }
 
     private static Address createAddressWithEmptyCountry() {
-        Address address = CheckoutDataFactory.createTestBillingAddress();
-        address.setCountry("");
-        return address;
+        return CheckoutDataFactory.createTestBillingAddress().withCountry("");
     }
 
     private static Address createAddressWithInvalidEmail() {
-        Address address = CheckoutDataFactory.createTestBillingAddress();
-        address.setEmail("invalid-email-format");
-        return address;
+        return CheckoutDataFactory.createTestBillingAddress().withEmail("invalid-email-format");
     }
 
     private static Address createAddressWithInvalidPhone() {
-        Address address = CheckoutDataFactory.createTestBillingAddress();
-        address.setPhoneNumber("invalid-phone");
-        return address;
+        return CheckoutDataFactory.createTestBillingAddress().withPhoneNumber("invalid-phone");
     }
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package dataproviders;
 
+import factories.LazyRows;
 import factories.ProductDataFactory;
 import org.testng.annotations.DataProvider;
 
+import java.util.Iterator;
+
 /**
  * Data provider class for product-related test scenarios
  * Provides test data for product search, browsing, catalog, and cart operations
@@ -13,14 +16,14 @@ public class ProductDataProvider {
      * Provides search test data for comprehensive search functionality testing
      */
     @DataProvider(name = "searchTestData")
-    public static Object[][] getSearchTestData() {
-        return ProductDataFactory.getSearchTestData();
+    public static Iterator<Object[]> getSearchTestData() {
+        return ProductDataFactory.getSearchTestData().iterator();
     }
 
     /**
      * Provides valid search terms for positive search testing
      */
-    @DataProvider(name = "validSearchTerms")
+    @DataProvider(name = "validSearchTerms", parallel = true)
     public static Object[][] getValidSearchTerms() {
         String[] searchTerms = ProductDataFactory.getAllValidSearchTerms();
         Object[][] data = new Object[searchTerms.length][];
@@ -35,7 +38,7 @@ public class ProductDataProvider {
     /**
      * Provides partial search terms for autocomplete testing
      */
-    @DataProvider(name = "partialSearchTerms")
+    @DataProvider(name = "partialSearchTerms", parallel = true)
     public static Object[][] getPartialSearchTerms() {
         String[] searchTerms = ProductDataFactory.getAllPartialSearchTerms();
         Object[][] data = new Object[searchTerms.length][];
@@ -50,7 +53,7 @@ public class ProductDataProvider {
     /**
      * Provides invalid search terms for negative testing
      */
-    @DataProvider(name = "invalidSearchTerms")
+    @DataProvider(name = "invalidSearchTerms", parallel = true)
     public static Object[][] getInvalidSearchTerms() {
         String[] searchTerms = ProductDataFactory.getAllInvalidSearchTerms();
         Object[][] data = new Object[searchTerms.length][];
@@ -65,7 +68,7 @@ public class ProductDataProvider {
     /**
      * Provides category navigation test data
      */
-    @DataProvider(name = "categoryTestData")
+    @DataProvider(name = "categoryTestData", parallel = true)
     public static Object[][] getCategoryTestData() {
         return ProductDataFactory.getCategoryTestData();
     }
@@ -73,7 +76,7 @@ public class ProductDataProvider {
     /**
      * Provides sorting test data for catalog sorting functionality
      */
-    @DataProvider(name = "sortingTestData")
+    @DataProvider(name = "sortingTestData", parallel = true)
     public static Object[][] getSortingTestData() {
         return ProductDataFactory.getSortingTestData();
     }
@@ -90,7 +93,7 @@ public class ProductDataProvider {
      * Provides comprehensive product browsing scenarios
      * NOTE: Books category does not have subcategories on DemoWebShop
      */
-    @DataProvider(name = "productBrowsingData")
+    @DataProvider(name = "productBrowsingData", parallel = true)
     public static Object[][] getProductBrowsingData() {
         return new Object[][]{
             // Books subcategories removed - not supported by DemoWebShop
@@ -111,7 +114,7 @@ public class ProductDataProvider {
     /**
      * Provides search filter combinations
      */
-    @DataProvider(name = "searchFilterData")
+    @DataProvider(name = "searchFilterData", parallel = true)
     public static Object[][] getSearchFilterData() {
         return new Object[][]{
             {"computer", "Books", "Search computer in Books category"},
@@ -126,7 +129,7 @@ public class ProductDataProvider {
     /**
      * Provides price range test data
      */
-    @DataProvider(name = "priceRangeData")
+    @DataProvider(name = "priceRangeData", parallel = true)
     public static Object[][] getPriceRangeData() {
         return new Object[][]{
             {0, 25, "Low price range products"},
@@ -141,31 +144,25 @@ public class ProductDataProvider {
      * Provides parallel search data for performance testing
      */
     @DataProvider(name = "parallelSearchData", parallel = false)
-    public static Object[][] getParallelSearchData() {
-        return new Object[][]{
-            {ProductDataFactory.getRandomValidSearchTerm(), "Parallel search test 1"},
-            {ProductDataFactory.getRandomValidSearchTerm(), "Parallel search test 2"},
-            {ProductDataFactory.getRandomValidSearchTerm(), "Parallel search test 3"},
-            {ProductDataFactory.getRandomValidSearchTerm(), "Parallel search test 4"},
-            {ProductDataFactory.getRandomValidSearchTerm(), "Parallel search test 5"},
-            {ProductDataFactory.getRandomValidSearchTerm(), "Parallel search test 6"},
-            {ProductDataFactory.getRandomValidSearchTerm(), "Parallel search test 7"},
-            {ProductDataFactory.getRandomValidSearchTerm(), "Parallel search test 8"}
-        };
+    public static Iterator<Object[]> getParallelSearchData() {
+        return LazyRows.named("parallelSearchData")
+            .rows(8, i -> new Object[]{ProductDataFactory.getRandomValidSearchTerm(), "Parallel search test " + (i + 1)},
+                "positive", "random")
+            .iterator();
     }
 
     /**
      * Provides cart operation test data with different quantities
      */
     @DataProvider(name = "cartOperationData")
-    public static Object[][] getCartOperationData() {
-        return new Object[][]{
-            {1, "Add single item to cart"},
-            {2, "Add two items to cart"},
-            {5, "Add five items to cart"},
-            {10, "Add ten items to cart"},
-            {ProductDataFactory.getRandomQuantity(), "Add random quantity to cart"}
-        };
+    public static Iterator<Object[]> getCartOperationData() {
+        return LazyRows.named("cartOperationData")
+            .row(1, () -> new Object[]{1, "Add single item to cart"}, "positive")
+            .row(() -> new Object[]{2, "Add two items to cart"}, "positive")
+            .row(() -> new Object[]{5, "Add five items to cart"}, "positive")
+            .row(3, () -> new Object[]{10, "Add ten items to cart"}, "positive", "edge")
+            .row(() -> new Object[]{ProductDataFactory.getRandomQuantity(), "Add random quantity to cart"}, "positive", "random")
+            .iterator();
     }
 
     /**
@@ -215,7 +212,7 @@ public class ProductDataProvider {
     /**
      * Provides edge case search scenarios
      */
-    @DataProvider(name = "searchEdgeCases")
+    @DataProvider(name = "searchEdgeCases", parallel = true)
     public static Object[][] getSearchEdgeCases() {
         return new Object[][]{
             {"", "Empty search should handle gracefully"},
@@ -234,7 +231,7 @@ public class ProductDataProvider {
     /**
      * Provides product detail page test scenarios
      */
-    @DataProvider(name = "productDetailData")
+    @DataProvider(name = "productDetailData", parallel = true)
     public static Object[][] getProductDetailData() {
         return new Object[][]{
             {"Books", "Check book product details page"},
@@ -0,0 +1,16 @@
+package dataproviders;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a data provider whose rows must run one after another (e.g. rows that share one account)
+ * Rows run in parallel only for providers declaring {@code parallel = true}; this marker keeps a provider
+ * serial even if it is later switched to parallel.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SerialRows {
+}
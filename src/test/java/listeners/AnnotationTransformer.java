@@ -0,0 +1,66 @@
+package listeners;
+
+import com.demowebshop.automation.config.ConfigManager;
+import dataproviders.SerialRows;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.IAnnotationTransformer;
+import org.testng.annotations.IDataProviderAnnotation;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.internal.annotations.DisabledRetryAnalyzer;
+import org.testng.xml.XmlSuite;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Framework-wide annotation defaults (TestNG applies only one annotation transformer per run)
+ * <ul>
+ *   <li>Attaches {@link RetryAnalyzer} to every test that does not declare its own retry analyzer;
+ *       surefire's rerunFailingTestsCount is not used</li>
+ *   <li>Runs the rows of data providers that declare {@code parallel = true} in parallel, on
+ *       dataprovider.thread.count threads (available processors when 0); providers marked {@link SerialRows},
+ *       providers returning an Iterator (TestNG drains a parallel iterator before the first row runs, which
+ *       defeats lazy rows), and all providers when dataprovider.parallel is off run their rows one after
+ *       another</li>
+ * </ul>
+ */
+public class AnnotationTransformer implements IAnnotationTransformer, IAlterSuiteListener {
+    private static final Logger logger = LogManager.getLogger(AnnotationTransformer.class);
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        if (annotation.getRetryAnalyzerClass() == null
+                || annotation.getRetryAnalyzerClass() == DisabledRetryAnalyzer.class) {
+            annotation.setRetryAnalyzer(RetryAnalyzer.class);
+        }
+    }
+
+    @Override
+    public void transform(IDataProviderAnnotation annotation, Method method) {
+        // Parallel rows are opt-in: a provider's own parallel = false is never overridden
+        if (!ConfigManager.isParallelDataProviderEnabled() || method.isAnnotationPresent(SerialRows.class)
+                || Iterator.class.isAssignableFrom(method.getReturnType())) {
+            annotation.setParallel(false);
+        }
+    }
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (!ConfigManager.isParallelDataProviderEnabled()) {
+            return;
+        }
+        int threads = ConfigManager.getDataProviderThreadCount();
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        for (XmlSuite suite : suites) {
+            suite.setDataProviderThreadCount(threads);
+        }
+        logger.info("Data provider rows run in parallel on {} threads", threads);
+    }
+}
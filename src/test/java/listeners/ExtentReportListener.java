@@ -3,17 +3,22 @@ package listeners;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 import config.ConfigurationManager;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
-import com.demowebshop.automation.utils.reporting.ScreenshotUtils;
+import com.demowebshop.automation.utils.reporting.FailureArtifactCollector;
+import com.demowebshop.automation.utils.reporting.FailureArtifactCollector.FailureArtifacts;
 import com.demowebshop.automation.factories.driver.WebDriverFactory;
+import com.demowebshop.automation.utils.logging.TestLogContext;
+import com.demowebshop.automation.utils.logging.TestLogStore;
 
 import java.io.File;
 
 public class ExtentReportListener implements ITestListener {
+    private static final int MAX_LOG_SLICE_CHARS = 64 * 1024;
     private static ExtentReports extent;
     private static ThreadLocal<ExtentTest> extentTest = new ThreadLocal<>();
     private static ConfigurationManager config = ConfigurationManager.getInstance();
@@ -67,17 +72,36 @@ public class ExtentReportListener implements ITestListener {
     public void onTestFailure(ITestResult result) {
         extentTest.get().log(Status.FAIL, "Test failed: " + result.getThrowable().getMessage());
 
-        // Capture screenshot on failure
+        String testId = TestLogContext.testIdOf(result.getTestClass().getRealClass().getSimpleName(),
+                                                result.getMethod().getMethodName());
+
+        // Failure artifacts are captured once per failed invocation and shared with the other listeners
         try {
-            String screenshotPath = ScreenshotUtils.takeScreenshot(
+            FailureArtifacts artifacts = FailureArtifactCollector.collect(
                 WebDriverFactory.getDriver(),
-                result.getMethod().getMethodName() + "_failed"
+                testId,
+                result.getStartMillis()
             );
-            if (screenshotPath != null) {
-                extentTest.get().addScreenCaptureFromPath(screenshotPath);
+            if (artifacts.getScreenshotPath() != null) {
+                extentTest.get().addScreenCaptureFromPath(artifacts.getScreenshotPath());
+            }
+            if (artifacts.getPageSourcePath() != null || artifacts.getConsoleLogPath() != null) {
+                extentTest.get().info("Failure artifacts: " + artifacts.getDirectory().toAbsolutePath());
+            }
+        } catch (Exception e) {
+            extentTest.get().log(Status.WARNING, "Failed to capture failure artifacts: " + e.getMessage());
+        }
+
+        // Attach this test's log slice from the segmented log store
+        try {
+            // Failure listeners run on the test's thread, so only this invocation's lines are attached
+            String segmentKey = testId.equals(TestLogContext.currentTestId()) ? TestLogContext.currentSegmentKey() : testId;
+            String logSlice = TestLogStore.forCurrentRun().readTail(segmentKey, MAX_LOG_SLICE_CHARS);
+            if (!logSlice.isEmpty()) {
+                extentTest.get().info(MarkupHelper.createCodeBlock(logSlice));
             }
         } catch (Exception e) {
-            extentTest.get().log(Status.WARNING, "Failed to capture screenshot: " + e.getMessage());
+            extentTest.get().log(Status.WARNING, "Failed to attach test log: " + e.getMessage());
         }
     }
 
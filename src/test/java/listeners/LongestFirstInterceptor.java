@@ -0,0 +1,39 @@
+package listeners;
+
+import com.demowebshop.automation.utils.history.ResultsStore;
+import com.demowebshop.automation.utils.sharding.TestDurationHistory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Orders methods longest first from the recorded duration history
+ * This only sets the order TestNG starts methods in; its default pool still splits work by class
+ * instance and priority, so it is a best-effort ordering under surefire. Programmatic runs (fork
+ * workers) also install LongestFirstExecutorFactory, whose shared queue lets every idle thread
+ * take the longest remaining method. Declare after ShardInterceptor so only this shard's methods
+ * are ordered.
+ */
+public class LongestFirstInterceptor implements IMethodInterceptor {
+    private static final Logger logger = LogManager.getLogger(LongestFirstInterceptor.class);
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        TestDurationHistory history = ResultsStore.plannedDurations();
+        if (history.getDurations().isEmpty()) {
+            return methods;
+        }
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        ordered.sort(Comparator.comparingLong((IMethodInstance method) -> history.estimate(ShardInterceptor.keyOf(method)))
+                .reversed());
+        logger.info("Ordered {} methods of '{}' longest first, first: {}", ordered.size(), context.getName(),
+                ordered.isEmpty() ? "-" : ShardInterceptor.keyOf(ordered.get(0)));
+        return ordered;
+    }
+}
@@ -1,66 +1,69 @@
 package listeners;
 
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.metrics.FrameworkMetrics;
+import com.demowebshop.automation.utils.retry.FlakinessStats;
+import com.demowebshop.automation.utils.retry.RetryPolicy;
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Arrays;
+
 /**
  * Retry analyzer for handling flaky tests in parallel execution
- * Specifically designed to handle timeout exceptions from high-load parallel execution
+ * Retries only failures classified as infrastructure (browser, session, network), within the per-invocation
+ * retry.count and the run-wide retry.budget, after a jittered backoff. Attempts are tracked per invocation
+ * (method plus data-provider parameters) by {@link RetryPolicy}, not per analyzer instance.
+ * The retry gets a fresh browser: BaseTest only keeps the session of passed tests.
  */
 public class RetryAnalyzer implements IRetryAnalyzer {
     private static final Logger logger = LogManager.getLogger(RetryAnalyzer.class);
-    private static final int MAX_RETRY_COUNT = 2;
-    private int retryCount = 0;
 
     @Override
     public boolean retry(ITestResult result) {
-        if (retryCount < MAX_RETRY_COUNT) {
-            Throwable throwable = result.getThrowable();
-
-            // Retry only for specific timeout exceptions during parallel execution
-            if (throwable != null && shouldRetry(throwable)) {
-                retryCount++;
-                logger.warn("Retrying test {} due to timeout/parallel execution issue. Attempt {}/{}",
-                    result.getMethod().getMethodName(), retryCount, MAX_RETRY_COUNT);
+        if (!ConfigManager.shouldRetryFailedTests()) {
+            return false;
+        }
+        String testKey = testKeyOf(result);
+        RetryPolicy.Decision decision = RetryPolicy.evaluate(invocationKeyOf(result), result.getThrowable());
+        FlakinessStats.recordFailedAttempt(testKey, decision);
 
-                // Add a small delay before retry to reduce resource contention
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
+        if (!decision.shouldRetry()) {
+            logger.info("Not retrying {} ({}): {}", testKey, decision.getCategory(), decision.getReason());
+            return false;
+        }
 
-                return true;
-            }
+        logger.warn("Retrying {} after {} failure, {} in {}ms", testKey, decision.getCategory(),
+                decision.getReason(), decision.getBackoffMillis());
+        FrameworkMetrics.recordRetry(result.getTestClass().getRealClass().getSimpleName());
+        try {
+            Thread.sleep(decision.getBackoffMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        return false;
+        return true;
     }
 
     /**
-     * Determines if the test should be retried based on the exception type
-     * @param throwable The exception that caused the test failure
-     * @return true if the test should be retried
+     * Key of a test method across all its invocations
+     * @param result Test result
+     * @return fully.qualified.Class.method
      */
-    private boolean shouldRetry(Throwable throwable) {
-        String message = throwable.getMessage();
-
-        // Retry for timeout-related exceptions common in parallel execution
-        return message != null && (
-            message.contains("timeout: Timed out receiving message from renderer") ||
-            message.contains("TimeoutException") ||
-            message.contains("WebDriverException") ||
-            message.contains("timeout") ||
-            message.contains("Session not created") ||
-            message.contains("chrome not reachable")
-        );
+    public static String testKeyOf(ITestResult result) {
+        return result.getTestClass().getRealClass().getName() + "." + result.getMethod().getMethodName();
     }
 
     /**
-     * Reset retry count for the next test
+     * Key of one invocation: the method plus its data-provider parameters
+     * @param result Test result
+     * @return Invocation key
      */
-    public void reset() {
-        retryCount = 0;
+    public static String invocationKeyOf(ITestResult result) {
+        Object[] parameters = result.getParameters();
+        return parameters == null || parameters.length == 0
+                ? testKeyOf(result)
+                : testKeyOf(result) + Arrays.deepToString(parameters);
     }
-}
\ No newline at end of file
+}
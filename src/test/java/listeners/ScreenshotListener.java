@@ -5,7 +5,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
-import com.demowebshop.automation.utils.reporting.ScreenshotUtils;
+import com.demowebshop.automation.utils.logging.TestLogContext;
+import com.demowebshop.automation.utils.reporting.FailureArtifactCollector;
+import com.demowebshop.automation.utils.reporting.FailureArtifactCollector.FailureArtifacts;
 
 public class ScreenshotListener implements ITestListener {
     private static final Logger logger = LogManager.getLogger(ScreenshotListener.class);
@@ -15,19 +17,22 @@ public class ScreenshotListener implements ITestListener {
         logger.info("Test failed: {}", result.getMethod().getMethodName());
 
         try {
-            String testName = result.getTestClass().getName() + "_" + result.getMethod().getMethodName();
-            String screenshotPath = ScreenshotUtils.takeScreenshot(
+            String testId = TestLogContext.testIdOf(result.getTestClass().getRealClass().getSimpleName(),
+                                                    result.getMethod().getMethodName());
+            FailureArtifacts artifacts = FailureArtifactCollector.collect(
                 WebDriverFactory.getDriver(),
-                testName + "_failure"
+                testId,
+                result.getStartMillis()
             );
 
+            String screenshotPath = artifacts.getScreenshotPath();
             if (screenshotPath != null) {
                 logger.info("Screenshot captured for failed test: {}", screenshotPath);
                 // Set screenshot path as system property for other listeners
                 System.setProperty("screenshot.path", screenshotPath);
             }
         } catch (Exception e) {
-            logger.error("Failed to capture screenshot for test: {}", result.getMethod().getMethodName(), e);
+            logger.error("Failed to capture failure artifacts for test: {}", result.getMethod().getMethodName(), e);
         }
     }
 
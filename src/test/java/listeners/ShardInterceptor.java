@@ -0,0 +1,59 @@
+package listeners;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.history.ResultsStore;
+import com.demowebshop.automation.utils.sharding.ShardPlanner;
+import com.demowebshop.automation.utils.sharding.TestDurationHistory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs only this JVM's share of a suite, planned from historical durations
+ * Activated by -Dshard.count=N -Dshard.index=i (1-based); without them all methods run.
+ * Every shard plans the full method set with the same history file, so shards never overlap.
+ */
+public class ShardInterceptor implements IMethodInterceptor {
+    private static final Logger logger = LogManager.getLogger(ShardInterceptor.class);
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        int shardCount = ConfigManager.getShardCount();
+        if (shardCount <= 1) {
+            return methods;
+        }
+        int shardIndex = ConfigManager.getShardIndex();
+        if (shardIndex < 1 || shardIndex > shardCount) {
+            throw new IllegalArgumentException("shard.index must be between 1 and " + shardCount + ", was " + shardIndex);
+        }
+
+        Set<String> methodKeys = new LinkedHashSet<>();
+        for (IMethodInstance method : methods) {
+            methodKeys.add(keyOf(method));
+        }
+        TestDurationHistory history = ResultsStore.plannedDurations();
+        ShardPlanner.Shard shard = new ShardPlanner(history).plan(methodKeys, shardCount).get(shardIndex - 1);
+        Set<String> selected = new LinkedHashSet<>(shard.getMethods());
+
+        List<IMethodInstance> shardMethods = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            if (selected.contains(keyOf(method))) {
+                shardMethods.add(method);
+            }
+        }
+        logger.info("Shard {}/{} of '{}': {} of {} methods, estimated {}s", shardIndex, shardCount, context.getName(),
+                shardMethods.size(), methods.size(), shard.getEstimatedMillis() / 1000);
+        return shardMethods;
+    }
+
+    static String keyOf(IMethodInstance method) {
+        return method.getMethod().getRealClass().getName() + "." + method.getMethod().getMethodName();
+    }
+}
@@ -1,20 +1,57 @@
 package listeners;
 
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.concurrent.SideTaskExecutor;
+import com.demowebshop.automation.utils.history.ResultsRecorder;
+import com.demowebshop.automation.utils.history.RunSegment;
+import com.demowebshop.automation.utils.logging.TestLogContext;
+import com.demowebshop.automation.utils.metrics.FrameworkMetrics;
+import com.demowebshop.automation.utils.retry.FlakinessStats;
+import com.demowebshop.automation.utils.retry.RetryPolicy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
 
-public class TestListener implements ITestListener {
+public class TestListener implements ITestListener, ISuiteListener {
     private static final Logger logger = LogManager.getLogger(TestListener.class);
     private static final ThreadLocal<Instant> testStartTime = new ThreadLocal<>();
 
+    @Override
+    public void onStart(ISuite suite) {
+        FrameworkMetrics.startRun();
+        RetryPolicy.reset();
+        FlakinessStats.reset();
+        ResultsRecorder.startRun();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        // The run's output files are written side by side as side tasks
+        FrameworkMetrics.finishRun();
+        ResultsRecorder.finishRun();
+        SideTaskExecutor.execute("write flakiness statistics", () -> {
+            try {
+                FlakinessStats.write(Paths.get(ConfigManager.getFlakinessReportFile()));
+            } catch (IOException e) {
+                logger.error("Could not write flakiness statistics: {}", e.getMessage());
+            }
+        });
+        // The JVM may exit right after this listener, so wait for them here
+        SideTaskExecutor.shutdown();
+    }
+
     @Override
     public void onTestStart(ITestResult result) {
         testStartTime.set(Instant.now());
+        TestLogContext.bind(result.getTestClass().getRealClass().getSimpleName(), result.getMethod().getMethodName());
         logger.info("Test started: {}.{}",
                    result.getTestClass().getName(),
                    result.getMethod().getMethodName());
@@ -27,6 +64,8 @@ public class TestListener implements ITestListener {
                    result.getTestClass().getName(),
                    result.getMethod().getMethodName(),
                    duration);
+        FrameworkMetrics.recordTestResult("passed");
+        recordOutcome(result, true, duration);
         testStartTime.remove();
     }
 
@@ -38,6 +77,8 @@ public class TestListener implements ITestListener {
                     result.getMethod().getMethodName(),
                     duration,
                     result.getThrowable().getMessage());
+        FrameworkMetrics.recordTestResult("failed");
+        recordOutcome(result, false, duration);
         testStartTime.remove();
     }
 
@@ -47,6 +88,17 @@ public class TestListener implements ITestListener {
                    result.getTestClass().getName(),
                    result.getMethod().getMethodName(),
                    result.getThrowable() != null ? result.getThrowable().getMessage() : "Unknown");
+        FrameworkMetrics.recordTestResult(result.wasRetried() ? "retried" : "skipped");
+        if (!result.wasRetried()) {
+            ResultsRecorder.record(RetryAnalyzer.testKeyOf(result), 0, RunSegment.SKIPPED, 0);
+        }
         testStartTime.remove();
     }
-}
\ No newline at end of file
+
+    private void recordOutcome(ITestResult result, boolean passed, long duration) {
+        int retries = RetryPolicy.complete(RetryAnalyzer.invocationKeyOf(result));
+        FlakinessStats.recordOutcome(RetryAnalyzer.testKeyOf(result), passed, retries);
+        ResultsRecorder.record(RetryAnalyzer.testKeyOf(result), duration,
+                passed ? RunSegment.PASSED : RunSegment.FAILED, retries);
+    }
+}
@@ -0,0 +1,723 @@
+package standin;
+
+import standin.ShopState.CartLine;
+import standin.ShopState.Category;
+import standin.ShopState.Customer;
+import standin.ShopState.Order;
+import standin.ShopState.Product;
+import standin.ShopState.StoredAddress;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Markup of the stand-in shop
+ * The templates follow the live nopCommerce 2.x storefront closely enough for the page objects'
+ * selectors (ids, names, classes and button values); layout and styling are left out.
+ */
+final class ShopPages {
+
+    // Private constructor to prevent instantiation
+    private ShopPages() {
+    }
+
+    /** Address fields of the billing and address book forms, with their labels */
+    static final Map<String, String> ADDRESS_FIELDS = orderedMap(
+            "FirstName", "First name", "LastName", "Last name", "Email", "Email", "Company", "Company",
+            "CountryId", "Country", "StateProvinceId", "State / province", "City", "City", "Address1", "Address 1",
+            "Address2", "Address 2", "ZipPostalCode", "Zip / postal code", "PhoneNumber", "Phone number",
+            "FaxNumber", "Fax number");
+
+    static final List<String> SHIPPING_METHODS = List.of("Ground", "Next Day Air", "2nd Day Air");
+
+    static final Map<String, String> PAYMENT_METHODS = orderedMap(
+            "Payments.CashOnDelivery", "Cash On Delivery (COD)", "Payments.CheckMoneyOrder", "Check / Money Order",
+            "Payments.Manual", "Credit Card", "Payments.PurchaseOrder", "Purchase Order");
+
+    private static final String SCRIPTS = """
+            <script>
+            function setLocation(url) { window.location.href = url; }
+            var AjaxCart = {
+              post: function (url, body) {
+                var xhr = new XMLHttpRequest();
+                xhr.open('POST', url);
+                xhr.setRequestHeader('Content-Type', 'application/x-www-form-urlencoded');
+                xhr.setRequestHeader('X-Requested-With', 'XMLHttpRequest');
+                xhr.onload = function () {
+                  var result = JSON.parse(xhr.responseText);
+                  var bar = document.getElementById('bar-notification');
+                  bar.className = 'bar-notification ' + (result.success ? 'success' : 'error');
+                  bar.querySelector('.content').innerHTML = [].concat(result.message).join('<br />');
+                  bar.style.display = 'block';
+                  if (result.updatetopcartsectionhtml) {
+                    document.querySelector('.header-links .cart-qty').innerHTML = result.updatetopcartsectionhtml;
+                  }
+                };
+                xhr.send(body);
+              },
+              addproducttocart_catalog: function (url) { this.post(url, ''); },
+              addproducttocart_details: function (url, formselector) {
+                this.post(url, new URLSearchParams(new FormData(document.querySelector(formselector))).toString());
+              }
+            };
+            var Checkout = {
+              next: function (step) {
+                var current = document.getElementById('opc-' + step);
+                current.classList.remove('active');
+                var next = current.nextElementSibling;
+                if (next) { next.classList.add('active', 'allow'); next.scrollIntoView(); }
+              }
+            };
+            </script>
+            """;
+
+    static String layout(String title, Customer customer, String token, String pageClass, String body) {
+        StringBuilder html = new StringBuilder(16_384);
+        html.append("<!DOCTYPE html>\n<html>\n<head>\n<title>Demo Web Shop").append(title.isEmpty() ? "" : ". " + h(title))
+                .append("</title>\n<meta charset=\"utf-8\" />\n").append(SCRIPTS).append("</head>\n<body>\n")
+                .append("<div class=\"master-wrapper-page\">\n<div class=\"master-wrapper-content\">\n");
+        header(html, customer);
+        topMenu(html);
+        html.append("<div class=\"master-wrapper-main\">\n<div class=\"center-2\">\n<div class=\"page ")
+                .append(pageClass).append("\">\n").append(body.replace("{token}", tokenInput(token)))
+                .append("</div>\n</div>\n</div>\n");
+        footer(html);
+        html.append("</div>\n</div>\n")
+                .append("<div id=\"bar-notification\" class=\"bar-notification\" style=\"display: none;\">")
+                .append("<span class=\"close\" title=\"Close\" onclick=\"this.parentNode.style.display='none'\"></span>")
+                .append("<p class=\"content\"></p></div>\n</body>\n</html>\n");
+        return html.toString();
+    }
+
+    private static void header(StringBuilder html, Customer customer) {
+        html.append("<div class=\"header\">\n<div class=\"header-logo\"><a href=\"/\" class=\"logo\">")
+                .append("<img title=\"\" alt=\"Tricentis Demo Web Shop\" src=\"/Themes/DefaultClean/Content/images/logo.png\" /></a></div>\n")
+                .append("<div class=\"header-links-wrapper\"><div class=\"header-links\"><ul>\n");
+        if (customer != null && customer.isRegistered()) {
+            html.append("<li><a href=\"/customer/info\" class=\"account\">").append(h(customer.email)).append("</a></li>\n")
+                    .append("<li><a href=\"/logout\" class=\"ico-logout\">Log out</a></li>\n");
+        } else {
+            html.append("<li><a href=\"/register\" class=\"ico-register\">Register</a></li>\n")
+                    .append("<li><a href=\"/login\" class=\"ico-login\">Log in</a></li>\n");
+        }
+        int quantity = customer == null ? 0 : customer.getCartQuantity();
+        html.append("<li id=\"topcartlink\"><a href=\"/cart\" class=\"ico-cart\"><span class=\"cart-label\">Shopping cart</span> ")
+                .append("<span class=\"cart-qty\">(").append(quantity).append(")</span></a></li>\n")
+                .append("<li><a href=\"/wishlist\" class=\"ico-wishlist\"><span class=\"cart-label\">Wishlist</span> ")
+                .append("<span class=\"wishlist-qty\">(0)</span></a></li>\n</ul></div></div>\n")
+                .append("<div class=\"search-box\"><form action=\"/search\" method=\"get\" onsubmit=\"return check_small_search_form()\">")
+                .append("<input type=\"text\" class=\"search-box-text\" id=\"small-searchterms\" name=\"q\" value=\"Search store\" ")
+                .append("onfocus=\"if (this.value == 'Search store') this.value = ''\" />")
+                .append("<input type=\"submit\" class=\"button-1 search-box-button\" value=\"Search\" />")
+                .append("<script>function check_small_search_form() { var q = document.getElementById('small-searchterms'); ")
+                .append("if (q.value == '' || q.value == 'Search store') { alert('Please enter some search keyword'); q.focus(); return false; } return true; }</script>")
+                .append("</form></div>\n</div>\n");
+    }
+
+    private static void topMenu(StringBuilder html) {
+        html.append("<div class=\"header-menu\"><ul class=\"top-menu\">\n");
+        for (Category category : ShopState.CATEGORIES) {
+            if (category.parentSlug != null) {
+                continue;
+            }
+            html.append("<li><a href=\"/").append(category.slug).append("\">").append(h(category.name)).append("</a>");
+            List<Category> children = children(category.slug);
+            if (!children.isEmpty()) {
+                html.append("<div class=\"sublist-toggle\"></div><ul class=\"sublist\">");
+                for (Category child : children) {
+                    html.append("<li><a href=\"/").append(child.slug).append("\">").append(h(child.name)).append("</a></li>");
+                }
+                html.append("</ul>");
+            }
+            html.append("</li>\n");
+        }
+        html.append("</ul></div>\n");
+    }
+
+    private static void footer(StringBuilder html) {
+        html.append("<div class=\"footer\"><div class=\"footer-menu-wrapper\">\n")
+                .append(footerColumn("information", "Information", "/sitemap", "Sitemap", "/shipping-returns",
+                        "Shipping &amp; Returns", "/privacy-policy", "Privacy Notice", "/conditions-of-use",
+                        "Conditions of Use", "/about-us", "About us", "/contactus", "Contact us"))
+                .append(footerColumn("customer-service", "Customer service", "/search", "Search", "/news", "News",
+                        "/blog", "Blog", "/recentlyviewedproducts", "Recently viewed products", "/compareproducts",
+                        "Compare products list", "/newproducts", "New products"))
+                .append(footerColumn("my-account", "My account", "/customer/info", "My account", "/customer/orders",
+                        "Orders", "/customer/addresses", "Addresses", "/cart", "Shopping cart", "/wishlist", "Wishlist"))
+                .append(footerColumn("follow-us", "Follow us", "http://www.facebook.com/nopCommerce", "Facebook",
+                        "https://twitter.com/nopCommerce", "Twitter", "/news/rss/1", "RSS"))
+                .append("</div>\n<div class=\"footer-poweredby\">Powered by <a href=\"http://www.nopcommerce.com/\">nopCommerce</a></div>\n")
+                .append("<div class=\"footer-disclaimer\">Copyright &copy; 2025 Tricentis Demo Web Shop. All rights reserved.</div>\n</div>\n");
+    }
+
+    private static String footerColumn(String cssClass, String title, String... links) {
+        StringBuilder column = new StringBuilder("<div class=\"column ").append(cssClass).append("\"><h3>").append(title)
+                .append("</h3><ul>");
+        for (int i = 0; i < links.length; i += 2) {
+            column.append("<li><a href=\"").append(links[i]).append("\">").append(links[i + 1]).append("</a></li>");
+        }
+        return column.append("</ul></div>\n").toString();
+    }
+
+    static String home() {
+        StringBuilder body = new StringBuilder();
+        body.append("<div class=\"page-body\">\n<div class=\"topic-html-content\"><div class=\"topic-html-content-title\">")
+                .append("<h2 class=\"topic-html-content-header\">Welcome to our store</h2></div>")
+                .append("<div class=\"topic-html-content-body\"><p>Online shopping is the process consumers go through to purchase products or services over the Internet.</p></div></div>\n")
+                .append("<div class=\"product-grid home-page-product-grid\"><div class=\"title\"><strong>Featured products</strong></div>\n");
+        for (int id : ShopState.FEATURED) {
+            body.append(itemBox(ShopState.product(id)));
+        }
+        body.append("</div>\n")
+                .append("<div class=\"block block-newsletter\"><div class=\"title\"><strong>Newsletter</strong></div><div class=\"listbox\">")
+                .append("<div id=\"newsletter-subscribe-block\"><input id=\"newsletter-email\" name=\"NewsletterEmail\" type=\"text\" value=\"\" />")
+                .append("<input type=\"button\" value=\"Subscribe\" id=\"newsletter-subscribe-button\" class=\"button-1 newsletter-subscribe-button\" /></div></div></div>\n")
+                .append("<div class=\"block block-poll\"><div class=\"title\"><strong>Community poll</strong></div><div class=\"listbox\"><div class=\"poll\" id=\"poll-block-1\">")
+                .append("<strong class=\"poll-display-text\">Do you like nopCommerce?</strong><ul class=\"poll-options\">")
+                .append("<li><input id=\"pollanswers-1\" type=\"radio\" name=\"pollanswers-1\" value=\"1\" /><label for=\"pollanswers-1\">Excellent</label></li>")
+                .append("<li><input id=\"pollanswers-2\" type=\"radio\" name=\"pollanswers-1\" value=\"2\" /><label for=\"pollanswers-2\">Good</label></li></ul>")
+                .append("<input type=\"button\" value=\"Vote\" id=\"vote-poll-1\" class=\"button-2 vote-poll-button\" /></div></div></div>\n</div>\n");
+        return body.toString();
+    }
+
+    static String category(Category category, List<Product> products, String orderBy) {
+        StringBuilder body = new StringBuilder();
+        body.append("<div class=\"page-title\"><h1>").append(h(category.name)).append("</h1></div>\n<div class=\"page-body\">\n");
+        List<Category> children = children(category.slug);
+        if (!children.isEmpty()) {
+            body.append("<div class=\"sub-category-grid\">");
+            for (Category child : children) {
+                body.append("<div class=\"item-box\"><div class=\"sub-category-item\"><h2 class=\"title\"><a href=\"/")
+                        .append(child.slug).append("\" title=\"Show products in category ").append(h(child.name)).append("\">")
+                        .append(h(child.name)).append("</a></h2></div></div>");
+            }
+            body.append("</div>\n");
+        }
+        body.append("<div class=\"product-selectors\"><div class=\"product-viewmode\"><span>View as</span>")
+                .append("<select id=\"products-viewmode\" name=\"products-viewmode\" onchange=\"setLocation(this.value);\">")
+                .append("<option selected=\"selected\" value=\"/").append(category.slug).append("?viewmode=grid\">Grid</option>")
+                .append("<option value=\"/").append(category.slug).append("?viewmode=list\">List</option></select></div>")
+                .append("<div class=\"product-sorting\"><span>Sort by</span>")
+                .append("<select id=\"products-orderby\" name=\"orderby\" onchange=\"setLocation(this.value);\">");
+        for (String[] option : new String[][]{{"0", "Position"}, {"5", "Name: A to Z"}, {"6", "Name: Z to A"},
+                {"10", "Price: Low to High"}, {"11", "Price: High to Low"}, {"15", "Created on"}}) {
+            body.append("<option").append(option[0].equals(orderBy) ? " selected=\"selected\"" : "")
+                    .append(" value=\"/").append(category.slug).append("?orderby=").append(option[0]).append("\">")
+                    .append(option[1]).append("</option>");
+        }
+        body.append("</select></div>")
+                .append("<div class=\"product-page-size\"><span>Display</span><select id=\"products-pagesize\" name=\"pagesize\" onchange=\"setLocation(this.value);\">")
+                .append("<option value=\"/").append(category.slug).append("?pagesize=4\">4</option>")
+                .append("<option selected=\"selected\" value=\"/").append(category.slug).append("?pagesize=8\">8</option>")
+                .append("<option value=\"/").append(category.slug).append("?pagesize=12\">12</option></select><span>per page</span></div></div>\n")
+                .append("<div class=\"product-grid\">\n");
+        for (Product product : sorted(products, orderBy)) {
+            body.append(itemBox(product));
+        }
+        body.append("</div>\n</div>\n");
+        return body.toString();
+    }
+
+    private static List<Product> sorted(List<Product> products, String orderBy) {
+        Comparator<Product> order = switch (orderBy == null ? "0" : orderBy) {
+            case "5" -> Comparator.comparing(product -> product.name);
+            case "6" -> Comparator.comparing((Product product) -> product.name).reversed();
+            case "10" -> Comparator.comparing(product -> product.price);
+            case "11" -> Comparator.comparing((Product product) -> product.price).reversed();
+            default -> null;
+        };
+        return order == null ? products : products.stream().sorted(order).toList();
+    }
+
+    private static String itemBox(Product product) {
+        return "<div class=\"item-box\"><div class=\"product-item\" data-productid=\"" + product.id + "\">"
+                + "<div class=\"picture\"><a href=\"/" + product.slug + "\" title=\"Show details for " + h(product.name) + "\">"
+                + "<img alt=\"Picture of " + h(product.name) + "\" src=\"/content/images/thumbs/default-image_125.gif\" /></a></div>"
+                + "<div class=\"details\"><h2 class=\"product-title\"><a href=\"/" + product.slug + "\">" + h(product.name) + "</a></h2>"
+                + "<div class=\"product-rating-box\" title=\"0 review(s)\"><div class=\"rating\"><div style=\"width: 0%\"></div></div></div>"
+                + "<div class=\"description\">" + h(product.shortDescription) + "</div>"
+                + "<div class=\"add-info\"><div class=\"prices\"><span class=\"price actual-price\">" + product.price + "</span></div>"
+                + "<div class=\"buttons\"><input type=\"button\" value=\"Add to cart\" class=\"button-2 product-box-add-to-cart-button\" "
+                + "onclick=\"AjaxCart.addproducttocart_catalog('/addproducttocart/catalog/" + product.id + "/1/1');return false;\" />"
+                + "</div></div></div></div></div>\n";
+    }
+
+    static String product(Product product) {
+        int id = product.id;
+        Category category = ShopState.category(product.categorySlug);
+        return "<div class=\"breadcrumb\"><ul><li><a href=\"/\">Home</a> / </li><li><a href=\"/" + category.slug + "\">"
+                + h(category.name) + "</a> / </li><li><strong class=\"current-item\">" + h(product.name) + "</strong></li></ul></div>\n"
+                + "<div class=\"page-body\"><form method=\"post\" action=\"/" + product.slug + "\" id=\"product-details-form\">{token}\n"
+                + "<div class=\"product-essential\"><div class=\"gallery\"><div class=\"picture\"><img alt=\"Picture of "
+                + h(product.name) + "\" src=\"/content/images/thumbs/default-image_300.gif\" id=\"main-product-img-" + id + "\" /></div></div>\n"
+                + "<div class=\"overview\"><div class=\"product-name\"><h1 itemprop=\"name\">" + h(product.name) + "</h1></div>\n"
+                + "<div class=\"short-description\">" + h(product.shortDescription) + "</div>\n"
+                + "<div class=\"product-reviews-overview\"><div class=\"product-review-box\"><div class=\"rating\"><div style=\"width: 0%\"></div></div></div>"
+                + "<div class=\"product-review-links\"><a href=\"/productreviews/" + id + "\">0 review(s)</a></div></div>\n"
+                + "<div class=\"stock\"><span class=\"label\">Availability:</span> <span class=\"value\">In stock</span></div>\n"
+                + "<div class=\"prices\"><div class=\"product-price\"><span itemprop=\"price\" class=\"price-value-" + id + "\">"
+                + product.price + "</span></div></div>\n"
+                + "<div class=\"add-to-cart\"><div class=\"add-to-cart-panel\">"
+                + "<label class=\"qty-label\" for=\"addtocart_" + id + "_EnteredQuantity\">Qty:</label>"
+                + "<input class=\"qty-input\" id=\"addtocart_" + id + "_EnteredQuantity\" name=\"addtocart_" + id + ".EnteredQuantity\" type=\"text\" value=\"1\" /> "
+                + "<input type=\"button\" id=\"add-to-cart-button-" + id + "\" class=\"button-1 add-to-cart-button\" value=\"Add to cart\" "
+                + "data-productid=\"" + id + "\" onclick=\"AjaxCart.addproducttocart_details('/addproducttocart/details/" + id
+                + "/1', '#product-details-form');return false;\" /></div></div>\n"
+                + "<div class=\"overview-buttons\"><div class=\"add-to-wishlist\"><input type=\"button\" id=\"add-to-wishlist-button-" + id
+                + "\" class=\"button-2 add-to-wishlist-button\" value=\"Add to wishlist\" /></div>"
+                + "<div class=\"compare-products\"><input type=\"button\" value=\"Add to compare list\" id=\"add-to-compare-list-button-" + id
+                + "\" class=\"button-2 add-to-compare-list-button\" onclick=\"setLocation('/compareproducts/add/" + id + "')\" /></div></div>\n"
+                + "</div></div>\n<div class=\"product-collateral\"><div class=\"product-tags-box\"><div class=\"title\"><strong>Product tags</strong></div>"
+                + "<div class=\"product-tags-list\"><ul class=\"tags\"><li class=\"tag\"><a href=\"/producttag/1/" + category.slug
+                + "\" class=\"producttag\">" + h(category.name.toLowerCase()) + "</a></li></ul></div></div></div>\n</form></div>\n";
+    }
+
+    static String search(String term, List<Product> results, String warning) {
+        StringBuilder body = new StringBuilder();
+        body.append("<div class=\"page-title\"><h1>Search</h1></div>\n<div class=\"page-body\">\n")
+                .append("<div class=\"search-input\"><form method=\"get\" action=\"/search\"><div class=\"basic-search\">")
+                .append("<div class=\"inputs\"><label for=\"q\">Search keyword:</label><input class=\"search-text\" id=\"q\" name=\"q\" type=\"text\" value=\"")
+                .append(h(term)).append("\" /></div><div class=\"inputs reversed\"><input id=\"As\" name=\"As\" type=\"checkbox\" value=\"true\" />")
+                .append("<label for=\"As\">Advanced search</label></div></div>")
+                .append("<div class=\"buttons\"><input type=\"submit\" class=\"button-1 search-button\" value=\"Search\" /></div></form></div>\n")
+                .append("<div class=\"search-results\">\n");
+        if (warning != null) {
+            body.append("<strong class=\"warning\">").append(h(warning)).append("</strong>\n");
+        } else if (results.isEmpty()) {
+            body.append("<strong class=\"result no-results\">No products were found that matched your criteria.</strong>\n");
+        } else {
+            body.append("<div class=\"product-grid\">\n");
+            results.forEach(product -> body.append(itemBox(product)));
+            body.append("</div>\n");
+        }
+        body.append("</div>\n</div>\n");
+        return body.toString();
+    }
+
+    static String login(String action, String email, String errors, boolean checkoutAsGuest) {
+        StringBuilder body = new StringBuilder();
+        body.append("<div class=\"page-title\"><h1>Welcome, Please Sign In!</h1></div>\n<div class=\"page-body\">\n")
+                .append("<div class=\"customer-blocks\">");
+        if (checkoutAsGuest) {
+            body.append("<div class=\"new-wrapper checkout-as-guest-or-register-block\"><div class=\"title\"><strong>Checkout as a guest or register</strong></div>")
+                    .append("<div class=\"buttons\"><input type=\"button\" class=\"button-1 checkout-as-guest-button\" ")
+                    .append("onclick=\"setLocation('/onepagecheckout')\" value=\"Checkout as Guest\" />")
+                    .append("<input type=\"button\" class=\"button-1 register-button\" onclick=\"setLocation('/register')\" value=\"Register\" /></div></div>");
+        } else {
+            body.append("<div class=\"new-wrapper register-block\"><div class=\"title\"><strong>New Customer</strong></div>")
+                    .append("<div class=\"buttons\"><input type=\"button\" class=\"button-1 register-button\" onclick=\"location.href='/register'\" value=\"Register\" /></div></div>");
+        }
+        body.append("<div class=\"returning-wrapper\"><div class=\"title\"><strong>Returning Customer</strong></div>")
+                .append("<form action=\"").append(h(action)).append("\" method=\"post\">{token}")
+                .append(errors == null ? "" : "<div class=\"message-error\"><div class=\"validation-summary-errors\"><span>"
+                        + "Login was unsuccessful. Please correct the errors and try again.</span><ul><li>" + h(errors) + "</li></ul></div></div>")
+                .append("<div class=\"form-fields\"><div class=\"inputs\"><label for=\"Email\">Email:</label>")
+                .append("<input class=\"email\" id=\"Email\" name=\"Email\" type=\"text\" value=\"").append(h(email)).append("\" /></div>")
+                .append("<div class=\"inputs\"><label for=\"Password\">Password:</label><input class=\"password\" id=\"Password\" name=\"Password\" type=\"password\" /></div>")
+                .append("<div class=\"inputs reversed\"><input id=\"RememberMe\" name=\"RememberMe\" type=\"checkbox\" value=\"true\" />")
+                .append("<label for=\"RememberMe\">Remember me?</label><span class=\"forgot-password\"><a href=\"/passwordrecovery\">Forgot password?</a></span></div></div>")
+                .append("<div class=\"buttons\"><input class=\"button-1 login-button\" type=\"submit\" value=\"Log in\" /></div></form></div>")
+                .append("</div>\n</div>\n");
+        return body.toString();
+    }
+
+    static String register(Map<String, String> form, Map<String, String> fieldErrors, String summary) {
+        StringBuilder body = new StringBuilder();
+        body.append("<div class=\"page-title\"><h1>Register</h1></div>\n<div class=\"page-body\">\n")
+                .append("<form action=\"/register\" method=\"post\">{token}\n")
+                .append(summary == null ? "" : "<div class=\"message-error\"><div class=\"validation-summary-errors\"><ul><li>"
+                        + h(summary) + "</li></ul></div></div>\n")
+                .append("<div class=\"fieldset\"><div class=\"title\"><strong>Your Personal Details</strong></div><div class=\"form-fields\">")
+                .append("<div class=\"inputs\"><label>Gender:</label><div class=\"gender\">")
+                .append("<input id=\"gender-male\" name=\"Gender\" type=\"radio\" value=\"M\"").append(checked("M".equals(form.get("Gender"))))
+                .append(" /><label class=\"forcheckbox\" for=\"gender-male\">Male</label></div><div class=\"gender\">")
+                .append("<input id=\"gender-female\" name=\"Gender\" type=\"radio\" value=\"F\"").append(checked("F".equals(form.get("Gender"))))
+                .append(" /><label class=\"forcheckbox\" for=\"gender-female\">Female</label></div></div>")
+                .append(textInput("FirstName", "First name", form, fieldErrors, "text"))
+                .append(textInput("LastName", "Last name", form, fieldErrors, "text"))
+                .append(textInput("Email", "Email", form, fieldErrors, "text"))
+                .append("</div></div>\n<div class=\"fieldset\"><div class=\"title\"><strong>Your Password</strong></div><div class=\"form-fields\">")
+                .append(textInput("Password", "Password", Map.of(), fieldErrors, "password"))
+                .append(textInput("ConfirmPassword", "Confirm password", Map.of(), fieldErrors, "password"))
+                .append("</div></div>\n<div class=\"buttons\"><input type=\"submit\" id=\"register-button\" class=\"button-1 register-next-step-button\" ")
+                .append("value=\"Register\" name=\"register-button\" /></div>\n")
+                .append("<div class=\"terms-of-service\">By registering you accept our <a href=\"/conditions-of-use\">Conditions of Use</a> ")
+                .append("and <a href=\"/privacy-policy\">Privacy Notice</a>.</div>\n</form>\n</div>\n");
+        return body.toString();
+    }
+
+    static String result(String title, String message, String continueUrl) {
+        return "<div class=\"page-title\"><h1>" + h(title) + "</h1></div>\n<div class=\"page-body\">\n"
+                + "<div class=\"result\">" + h(message) + "</div>\n"
+                + (continueUrl == null ? "" : "<div class=\"buttons\"><input type=\"button\" class=\"button-1 register-continue-button\" "
+                + "value=\"Continue\" onclick=\"setLocation('" + continueUrl + "')\" /></div>\n")
+                + "</div>\n";
+    }
+
+    static String passwordRecovery(String email, String result) {
+        return "<div class=\"page-title\"><h1>Password recovery</h1></div>\n<div class=\"page-body\">\n"
+                + "<div class=\"tooltip\">Please enter your email address below. You will receive a link to reset your password.</div>\n"
+                + (result == null ? "" : "<div class=\"result\">" + h(result) + "</div>\n")
+                + "<form action=\"/passwordrecovery\" method=\"post\">{token}<div class=\"form-fields\"><div class=\"inputs\">"
+                + "<label for=\"Email\">Your email address:</label><input class=\"email\" id=\"Email\" name=\"Email\" type=\"text\" value=\""
+                + h(email) + "\" /></div></div><div class=\"buttons\"><input type=\"submit\" class=\"button-1 password-recovery-button\" "
+                + "value=\"Recover\" name=\"send-email\" /></div></form>\n</div>\n";
+    }
+
+    static String cart(Customer customer) {
+        StringBuilder body = new StringBuilder();
+        body.append("<div class=\"page-title\"><h1>Shopping cart</h1></div>\n<div class=\"page-body\">\n<div class=\"order-summary-content\">\n");
+        if (customer.cart.isEmpty()) {
+            body.append("Your Shopping Cart is empty!\n</div>\n</div>\n");
+            return body.toString();
+        }
+        body.append("<form action=\"/cart\" method=\"post\">{token}\n<table class=\"cart\">\n<thead><tr class=\"cart-header-row\">")
+                .append("<th>Remove</th><th class=\"picture\"></th><th class=\"product\">Product(s)</th><th>Price</th><th>Qty.</th><th class=\"end\">Total</th>")
+                .append("</tr></thead>\n<tbody>\n");
+        for (CartLine line : customer.cart.values()) {
+            body.append("<tr class=\"cart-item-row\"><td class=\"remove-from-cart\"><input type=\"checkbox\" name=\"removefromcart\" value=\"")
+                    .append(line.id).append("\" /></td>")
+                    .append("<td class=\"product-picture\"><img alt=\"Picture of ").append(h(line.product.name))
+                    .append("\" src=\"/content/images/thumbs/default-image_80.gif\" /></td>")
+                    .append("<td class=\"product\"><a href=\"/").append(line.product.slug).append("\" class=\"product-name\">")
+                    .append(h(line.product.name)).append("</a></td>")
+                    .append("<td class=\"unit-price nobr\"><span class=\"product-unit-price\">").append(line.product.price).append("</span></td>")
+                    .append("<td class=\"qty nobr\"><input name=\"itemquantity").append(line.id).append("\" type=\"text\" value=\"")
+                    .append(line.quantity).append("\" class=\"qty-input\" /></td>")
+                    .append("<td class=\"subtotal nobr end\"><span class=\"product-subtotal\">").append(line.getSubtotal())
+                    .append("</span></td></tr>\n");
+        }
+        BigDecimal total = customer.getCartTotal();
+        body.append("</tbody>\n</table>\n")
+                .append("<div class=\"buttons\"><div class=\"common-buttons\">")
+                .append("<input type=\"submit\" name=\"updatecart\" value=\"Update shopping cart\" class=\"button-2 update-cart-button\" />")
+                .append("<input type=\"submit\" name=\"continueshopping\" value=\"Continue shopping\" class=\"button-2 continue-shopping-button\" />")
+                .append("</div></div>\n<div class=\"cart-footer\"><div class=\"cart-collaterals\"><div class=\"coupon-box\">")
+                .append("<input name=\"discountcouponcode\" type=\"text\" class=\"discount-coupon-code\" />")
+                .append("<input type=\"submit\" name=\"applydiscountcouponcode\" value=\"Apply coupon\" class=\"button-2 apply-discount-coupon-code-button\" />")
+                .append("</div></div>\n<div class=\"totals\"><div class=\"total-info\"><table class=\"cart-total\"><tbody>")
+                .append("<tr class=\"cart-total-row\"><td class=\"cart-total-left\"><span class=\"nobr\">Sub-Total:</span></td>")
+                .append("<td class=\"cart-total-right\"><span class=\"nobr\"><span class=\"product-price\">").append(total).append("</span></span></td></tr>")
+                .append("<tr class=\"cart-total-row\"><td class=\"cart-total-left\"><span class=\"nobr\">Shipping:</span></td>")
+                .append("<td class=\"cart-total-right\"><span class=\"nobr\"><span class=\"shipping-cost\">0.00</span></span></td></tr>")
+                .append("<tr class=\"cart-total-row\"><td class=\"cart-total-left\"><span class=\"nobr\">Total:</span></td>")
+                .append("<td class=\"cart-total-right\"><span class=\"nobr\"><span class=\"product-price order-total\"><strong>").append(total)
+                .append("</strong></span></span></td></tr></tbody></table></div>")
+                .append("<div class=\"terms-of-service\"><input id=\"termsofservice\" type=\"checkbox\" name=\"termsofservice\" />")
+                .append("<label for=\"termsofservice\">I agree with the terms of service and I adhere to them unconditionally</label></div>")
+                .append("<div class=\"checkout-buttons\"><button type=\"submit\" id=\"checkout\" name=\"checkout\" value=\"checkout\" class=\"button-1 checkout-button\">Checkout</button></div>")
+                .append("</div></div>\n</form>\n</div>\n</div>\n");
+        return body.toString();
+    }
+
+    /**
+     * One-page checkout; every step is rendered open, so the Continue buttons only move the step marker
+     * and the single Confirm posts the whole form
+     */
+    static String checkout(Customer customer, Map<String, String> form, Map<String, String> errors) {
+        StringBuilder body = new StringBuilder();
+        body.append("<div class=\"page-title\"><h1>Checkout</h1></div>\n<div class=\"page-body checkout-data\">\n")
+                .append("<form action=\"/checkout/confirm\" method=\"post\" id=\"co-form\">{token}\n<ol class=\"opc\" id=\"checkout-steps\">\n");
+        if (errors.containsKey("")) {
+            body.append("<div class=\"message-error\"><div class=\"validation-summary-errors\"><ul><li>").append(h(errors.get("")))
+                    .append("</li></ul></div></div>\n");
+        }
+
+        body.append(stepStart("billing", 1, "Billing address", true));
+        if (!customer.addresses.isEmpty()) {
+            String selected = form.getOrDefault("billing_address_id", String.valueOf(customer.addresses.keySet().iterator().next()));
+            body.append("<div class=\"section select-billing-address\"><label for=\"billing-address-select\">Select a billing address from ")
+                    .append("your address book or enter a new address.</label><div><select name=\"billing_address_id\" id=\"billing-address-select\" ")
+                    .append("class=\"address-select\">");
+            for (StoredAddress address : customer.addresses.values()) {
+                String id = String.valueOf(address.id);
+                body.append("<option value=\"").append(id).append("\"").append(selected(id.equals(selected))).append(">")
+                        .append(h(summary(address))).append("</option>");
+            }
+            body.append("<option value=\"\"").append(selected(selected.isEmpty())).append(">New Address</option></select></div></div>\n");
+        }
+        body.append("<div class=\"section new-billing-address\" id=\"billing-new-address-form\"><div class=\"enter-address\"><div class=\"edit-address\">");
+        addressInputs(body, "BillingNewAddress", form, errors);
+        body.append("</div></div></div>\n")
+                .append(stepEnd("billing", "new-address-next-step-button"))
+                .append(stepStart("shipping", 2, "Shipping address", false))
+                .append("<div class=\"section ship-to-same-address\"><input id=\"ShipToSameAddress\" name=\"ShipToSameAddress\" type=\"checkbox\" value=\"true\" checked=\"checked\" />")
+                .append("<label for=\"ShipToSameAddress\">Ship to the same address</label></div>\n")
+                .append(stepEnd("shipping", "new-address-next-step-button"))
+                .append(stepStart("shipping_method", 3, "Shipping method", false))
+                .append("<div class=\"section shipping-method\"><ul class=\"method-list\">");
+        String shipping = form.getOrDefault("shippingoption", SHIPPING_METHODS.get(0) + "___Shipping.FixedRate");
+        for (int i = 0; i < SHIPPING_METHODS.size(); i++) {
+            String value = SHIPPING_METHODS.get(i) + "___Shipping.FixedRate";
+            body.append("<li><div class=\"method-name\"><input id=\"shippingoption_").append(i).append("\" type=\"radio\" name=\"shippingoption\" value=\"")
+                    .append(value).append("\"").append(checked(value.equals(shipping))).append(" /><label for=\"shippingoption_").append(i)
+                    .append("\">").append(SHIPPING_METHODS.get(i)).append(" (0.00)</label></div></li>");
+        }
+        body.append("</ul></div>\n")
+                .append(stepEnd("shipping_method", "shipping-method-next-step-button"))
+                .append(stepStart("payment_method", 4, "Payment method", false))
+                .append("<div class=\"section payment-method\"><ul class=\"method-list\">");
+        String payment = form.getOrDefault("paymentmethod", "Payments.CashOnDelivery");
+        int index = 0;
+        for (Map.Entry<String, String> method : PAYMENT_METHODS.entrySet()) {
+            body.append("<li><div class=\"method-name\"><input id=\"paymentmethod_").append(index).append("\" type=\"radio\" name=\"paymentmethod\" value=\"")
+                    .append(method.getKey()).append("\"").append(checked(method.getKey().equals(payment))).append(" /><label for=\"paymentmethod_")
+                    .append(index++).append("\">").append(h(method.getValue())).append("</label></div></li>");
+        }
+        body.append("</ul></div>\n")
+                .append(stepEnd("payment_method", "payment-method-next-step-button"))
+                .append(stepStart("payment_info", 5, "Payment information", false))
+                .append("<div class=\"section payment-info\"><div class=\"info\"><table><tbody>")
+                .append("<tr><td><label for=\"CreditCardType\">Select credit card:</label></td><td><select id=\"CreditCardType\" name=\"CreditCardType\">")
+                .append("<option value=\"Visa\">Visa</option><option value=\"MasterCard\">Master card</option></select></td></tr>")
+                .append(paymentInput("CardholderName", "Cardholder name", form, errors))
+                .append(paymentInput("CardNumber", "Card number", form, errors))
+                .append("<tr><td><label for=\"ExpireMonth\">Expiration date:</label></td><td><select id=\"ExpireMonth\" name=\"ExpireMonth\">");
+        for (int month = 1; month <= 12; month++) {
+            body.append("<option value=\"").append(month).append("\">").append(String.format("%02d", month)).append("</option>");
+        }
+        body.append("</select> / <select id=\"ExpireYear\" name=\"ExpireYear\">");
+        for (int year = 2025; year <= 2040; year++) {
+            body.append("<option value=\"").append(year).append("\">").append(year).append("</option>");
+        }
+        body.append("</select></td></tr>")
+                .append(paymentInput("CardCode", "Card code", form, errors))
+                .append(paymentInput("PurchaseOrderNumber", "PO Number", form, errors))
+                .append("</tbody></table></div></div>\n")
+                .append(stepEnd("payment_info", "payment-info-next-step-button"))
+                .append(stepStart("confirm_order", 6, "Confirm order", false))
+                .append("<div class=\"section order-summary-body\"><table class=\"cart\"><tbody>");
+        for (CartLine line : customer.cart.values()) {
+            body.append("<tr class=\"cart-item-row\"><td class=\"product\"><a href=\"/").append(line.product.slug).append("\">")
+                    .append(h(line.product.name)).append("</a></td><td class=\"unit-price\">").append(line.product.price)
+                    .append("</td><td class=\"qty\">").append(line.quantity).append("</td><td class=\"subtotal\">")
+                    .append(line.getSubtotal()).append("</td></tr>");
+        }
+        body.append("</tbody></table><table class=\"cart-total\"><tbody><tr><td class=\"cart-total-left\">Total:</td>")
+                .append("<td class=\"cart-total-right\"><span class=\"product-price order-total\">").append(customer.getCartTotal())
+                .append("</span></td></tr></tbody></table></div>\n")
+                .append("<div class=\"buttons\" id=\"confirm-order-buttons-container\"><input type=\"submit\" class=\"button-1 confirm-order-next-step-button\" ")
+                .append("value=\"Confirm\" /></div>\n</div></li>\n</ol>\n</form>\n</div>\n");
+        return body.toString();
+    }
+
+    private static String stepStart(String step, int number, String title, boolean active) {
+        return "<li id=\"opc-" + step + "\" class=\"tab-section allow" + (active ? " active" : "") + "\">"
+                + "<div class=\"step-title\"><span class=\"number\">" + number + "</span><h2 class=\"title\">" + title + "</h2></div>\n"
+                + "<div id=\"checkout-step-" + step + "\" class=\"step a-item\">\n";
+    }
+
+    private static String stepEnd(String step, String buttonClass) {
+        return "<div class=\"buttons\"><input type=\"button\" title=\"Continue\" class=\"button-1 " + buttonClass
+                + "\" onclick=\"Checkout.next('" + step + "')\" value=\"Continue\" /></div>\n</div></li>\n";
+    }
+
+    private static String paymentInput(String name, String label, Map<String, String> form, Map<String, String> errors) {
+        return "<tr><td><label for=\"" + name + "\">" + label + ":</label></td><td><input id=\"" + name + "\" name=\"" + name
+                + "\" type=\"text\" autocomplete=\"off\" value=\"" + h(form.getOrDefault(name, "")) + "\" />"
+                + fieldError(errors.get(name)) + "</td></tr>";
+    }
+
+    static String completed(Order order) {
+        return "<div class=\"page-title\"><h1>Thank you</h1></div>\n<div class=\"page-body checkout-data\">\n"
+                + "<div class=\"section order-completed\"><div class=\"title\"><strong>Your order has been successfully processed!</strong></div>"
+                + "<ul class=\"details\"><li class=\"order-number\">Order number: " + order.number + "</li>"
+                + "<li><a href=\"/orderdetails/" + order.number + "\">Click here for order details.</a></li></ul>"
+                + "<div class=\"buttons\"><input type=\"button\" value=\"Continue\" class=\"button-2 order-completed-continue-button\" "
+                + "onclick=\"setLocation('/')\" /></div></div>\n</div>\n";
+    }
+
+    static String customerInfo(Customer customer, String result) {
+        Map<String, String> form = Map.of("FirstName", customer.firstName, "LastName", customer.lastName, "Email", customer.email);
+        return accountPage("Customer info", "customer-info",
+                (result == null ? "" : "<div class=\"result\">" + h(result) + "</div>\n")
+                        + "<form action=\"/customer/info\" method=\"post\">{token}<div class=\"fieldset\"><div class=\"form-fields\">"
+                        + "<div class=\"inputs\"><label>Gender:</label><div class=\"gender\"><input id=\"gender-male\" name=\"Gender\" type=\"radio\" value=\"M\""
+                        + checked("M".equals(customer.gender)) + " /><label class=\"forcheckbox\" for=\"gender-male\">Male</label></div>"
+                        + "<div class=\"gender\"><input id=\"gender-female\" name=\"Gender\" type=\"radio\" value=\"F\"" + checked("F".equals(customer.gender))
+                        + " /><label class=\"forcheckbox\" for=\"gender-female\">Female</label></div></div>"
+                        + textInput("FirstName", "First name", form, Map.of(), "text")
+                        + textInput("LastName", "Last name", form, Map.of(), "text")
+                        + textInput("Email", "Email", form, Map.of(), "text")
+                        + "</div></div><div class=\"buttons\"><input type=\"submit\" id=\"save-info-button\" value=\"Save\" name=\"save-info-button\" "
+                        + "class=\"button-1 save-customer-info-button\" /></div></form>\n");
+    }
+
+    static String addresses(Customer customer) {
+        StringBuilder list = new StringBuilder("<div class=\"address-list\">\n");
+        if (customer.addresses.isEmpty()) {
+            list.append("No addresses\n");
+        }
+        for (StoredAddress address : customer.addresses.values()) {
+            list.append("<div class=\"section address-item\"><div class=\"title\"><strong>").append(h(address.get("FirstName")))
+                    .append(' ').append(h(address.get("LastName"))).append("</strong></div>")
+                    .append("<div class=\"buttons\"><input type=\"button\" class=\"button-2 edit-address-button\" ")
+                    .append("onclick=\"location.href='/customer/addressedit/").append(address.id).append("'\" value=\"Edit\" />")
+                    .append("<input type=\"button\" class=\"button-2 delete-address-button\" onclick=\"if (confirm('Are you sure?')) ")
+                    .append("{location.href='/customer/addressdelete/").append(address.id).append("';}\" value=\"Delete\" /></div>")
+                    .append("<ul class=\"info\"><li class=\"name\">").append(h(address.get("FirstName"))).append(' ').append(h(address.get("LastName")))
+                    .append("</li><li class=\"email\">Email: ").append(h(address.get("Email"))).append("</li>")
+                    .append("<li class=\"phone\">Phone number: ").append(h(address.get("PhoneNumber"))).append("</li>")
+                    .append("<li class=\"address1\">").append(h(address.get("Address1"))).append("</li>")
+                    .append("<li class=\"city-state-zip\">").append(h(address.get("City"))).append(", ").append(h(address.get("ZipPostalCode"))).append("</li>")
+                    .append("<li class=\"country\">").append(h(ShopState.COUNTRIES.getOrDefault(address.get("CountryId"), ""))).append("</li></ul></div>\n");
+        }
+        list.append("</div>\n<div class=\"add-button\"><input type=\"button\" class=\"button-1 add-address-button\" ")
+                .append("onclick=\"location.href='/customer/addressadd'\" value=\"Add new\" /></div>\n");
+        return accountPage("Addresses", "address-list-page", list.toString());
+    }
+
+    static String addressForm(String action, Map<String, String> form, Map<String, String> errors) {
+        StringBuilder fields = new StringBuilder();
+        addressInputs(fields, "Address", form, errors);
+        return accountPage(action.contains("edit") ? "Edit address" : "Add new address", "address-edit-page",
+                "<form action=\"" + action + "\" method=\"post\">{token}<div class=\"edit-address\">" + fields
+                        + "</div><div class=\"buttons\"><input type=\"submit\" class=\"button-1 save-address-button\" value=\"Save\" /></div></form>\n");
+    }
+
+    static String orders(Customer customer) {
+        StringBuilder list = new StringBuilder("<div class=\"order-list\">\n");
+        if (customer.orders.isEmpty()) {
+            list.append("No orders\n");
+        }
+        for (Order order : customer.orders) {
+            list.append("<div class=\"section order-item\"><div class=\"title\"><strong class=\"order-number\">Order Number: ")
+                    .append(order.number).append("</strong></div><ul class=\"info\"><li>Order status: Pending</li>")
+                    .append("<li>Order Total: <span class=\"order-total\">").append(order.total).append("</span></li></ul>")
+                    .append("<div class=\"buttons\"><input type=\"button\" value=\"Details\" class=\"button-2 order-details-button\" ")
+                    .append("onclick=\"setLocation('/orderdetails/").append(order.number).append("')\" /></div></div>\n");
+        }
+        list.append("</div>\n");
+        return accountPage("Orders", "order-list-page", list.toString());
+    }
+
+    static String orderDetails(Order order) {
+        StringBuilder body = new StringBuilder();
+        body.append("<div class=\"page-title\"><h1>Order information</h1></div>\n<div class=\"page-body\">\n")
+                .append("<div class=\"order-overview\"><div class=\"order-number\"><strong>Order #").append(order.number)
+                .append("</strong></div><div class=\"order-total\">Order Total: <strong>").append(order.total).append("</strong></div></div>\n")
+                .append("<div class=\"order-details-area\"><div class=\"billing-info\"><div class=\"title\"><strong>Billing Address</strong></div>")
+                .append("<ul class=\"info\"><li class=\"name\">").append(h(order.billing.getOrDefault("FirstName", ""))).append(' ')
+                .append(h(order.billing.getOrDefault("LastName", ""))).append("</li><li class=\"city-state-zip\">")
+                .append(h(order.billing.getOrDefault("City", ""))).append("</li></ul></div>")
+                .append("<div class=\"shipping-info\"><div class=\"title\"><strong>Shipping Method</strong></div>")
+                .append(h(order.shippingMethod)).append("</div><div class=\"payment-method-info\"><div class=\"title\"><strong>Payment Method</strong></div>")
+                .append(h(PAYMENT_METHODS.getOrDefault(order.paymentMethod, order.paymentMethod))).append("</div></div>\n")
+                .append("<div class=\"section products\"><table class=\"data-table\"><tbody>");
+        for (CartLine line : order.lines) {
+            body.append("<tr><td class=\"product\"><a href=\"/").append(line.product.slug).append("\">").append(h(line.product.name))
+                    .append("</a></td><td class=\"unit-price\">").append(line.product.price).append("</td><td class=\"quantity\">")
+                    .append(line.quantity).append("</td><td class=\"total\">").append(line.getSubtotal()).append("</td></tr>");
+        }
+        body.append("</tbody></table></div>\n</div>\n");
+        return body.toString();
+    }
+
+    static String changePassword(Map<String, String> errors, String result) {
+        return accountPage("Change password", "change-password-page",
+                (result == null ? "" : "<div class=\"result\">" + h(result) + "</div>\n")
+                        + (errors.containsKey("") ? "<div class=\"message-error\"><div class=\"validation-summary-errors\"><ul><li>"
+                        + h(errors.get("")) + "</li></ul></div></div>\n" : "")
+                        + "<form action=\"/customer/changepassword\" method=\"post\">{token}<div class=\"form-fields\">"
+                        + textInput("OldPassword", "Old password", Map.of(), errors, "password")
+                        + textInput("NewPassword", "New password", Map.of(), errors, "password")
+                        + textInput("ConfirmNewPassword", "Confirm password", Map.of(), errors, "password")
+                        + "</div><div class=\"buttons\"><input type=\"submit\" class=\"button-1 change-password-button\" value=\"Change password\" /></div></form>\n");
+    }
+
+    static String topic(String title, String text) {
+        return "<div class=\"page-title\"><h1>" + h(title) + "</h1></div>\n<div class=\"page-body\"><div class=\"topic-html-content\">"
+                + "<div class=\"topic-html-content-body\"><p>" + h(text) + "</p></div></div></div>\n";
+    }
+
+    static String notFound() {
+        return "<div class=\"page-title\"><h1>Page not found</h1></div>\n<div class=\"page-body\">"
+                + "<div class=\"topic-html-content\"><p>The page you requested was not found, and we have a fine guess why.</p></div></div>\n";
+    }
+
+    private static String accountPage(String title, String pageClass, String content) {
+        return "<div class=\"side-2\"><div class=\"block block-account-navigation\"><div class=\"title\"><strong>My account</strong></div>"
+                + "<div class=\"listbox\"><ul class=\"list\">"
+                + "<li><a href=\"/customer/info\" class=\"account\">Customer info</a></li>"
+                + "<li><a href=\"/customer/addresses\">Addresses</a></li>"
+                + "<li><a href=\"/customer/orders\">Orders</a></li>"
+                + "<li><a href=\"/customer/changepassword\">Change password</a></li></ul></div></div></div>\n"
+                + "<div class=\"account-page " + pageClass + "\"><div class=\"page-title\"><h1>My account - " + h(title) + "</h1></div>\n"
+                + "<div class=\"page-body\">\n" + content + "</div>\n</div>\n";
+    }
+
+    private static void addressInputs(StringBuilder html, String prefix, Map<String, String> form, Map<String, String> errors) {
+        for (Map.Entry<String, String> field : ADDRESS_FIELDS.entrySet()) {
+            String name = prefix + "." + field.getKey();
+            String id = prefix + "_" + field.getKey();
+            String value = form.getOrDefault(name, "");
+            html.append("<div class=\"inputs\"><label for=\"").append(id).append("\">").append(field.getValue()).append(":</label>");
+            if (field.getKey().equals("CountryId")) {
+                html.append("<select id=\"").append(id).append("\" name=\"").append(name).append("\"><option value=\"0\">Select country</option>");
+                ShopState.COUNTRIES.forEach((countryId, country) -> html.append("<option value=\"").append(countryId).append("\"")
+                        .append(selected(countryId.equals(value))).append(">").append(country).append("</option>"));
+                html.append("</select>");
+            } else if (field.getKey().equals("StateProvinceId")) {
+                html.append("<select id=\"").append(id).append("\" name=\"").append(name).append("\"><option value=\"0\">Other (Non US)</option></select>");
+            } else {
+                html.append("<input id=\"").append(id).append("\" name=\"").append(name).append("\" type=\"text\" value=\"")
+                        .append(h(value)).append("\" />");
+            }
+            html.append(fieldError(errors.get(name))).append("</div>");
+        }
+    }
+
+    private static String textInput(String name, String label, Map<String, String> form, Map<String, String> errors, String type) {
+        return "<div class=\"inputs\"><label for=\"" + name + "\">" + label + ":</label><input class=\"text-box single-line\" id=\""
+                + name + "\" name=\"" + name + "\" type=\"" + type + "\" value=\"" + h(form.getOrDefault(name, "")) + "\" />"
+                + "<span class=\"required\">*</span>" + fieldError(errors.get(name)) + "</div>";
+    }
+
+    private static String fieldError(String error) {
+        return error == null ? "" : "<span class=\"field-validation-error\"><span>" + h(error) + "</span></span>";
+    }
+
+    private static String summary(StoredAddress address) {
+        return address.get("FirstName") + " " + address.get("LastName") + ", " + address.get("Address1") + ", "
+                + address.get("City") + " " + address.get("ZipPostalCode") + ", "
+                + ShopState.COUNTRIES.getOrDefault(address.get("CountryId"), "");
+    }
+
+    private static List<Category> children(String slug) {
+        return ShopState.CATEGORIES.stream().filter(category -> slug.equals(category.parentSlug)).toList();
+    }
+
+    private static String tokenInput(String token) {
+        return "<input name=\"__RequestVerificationToken\" type=\"hidden\" value=\"" + token + "\" />";
+    }
+
+    private static String checked(boolean checked) {
+        return checked ? " checked=\"checked\"" : "";
+    }
+
+    private static String selected(boolean selected) {
+        return selected ? " selected=\"selected\"" : "";
+    }
+
+    private static Map<String, String> orderedMap(String... keysAndValues) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * HTML-escape text
+     */
+    static String h(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
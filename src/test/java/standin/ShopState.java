@@ -0,0 +1,368 @@
+package standin;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Everything the stand-in shop knows: a fixed catalog plus the customers, carts, address books and
+ * orders created while it runs. IDs come from counters that start at the same value on every start,
+ * so a run against a fresh stand-in always sees the same order numbers and address IDs.
+ * Not thread-safe: {@link StandInShop} handles each request while holding the state's monitor.
+ */
+final class ShopState {
+
+    static final class Category {
+        final String slug;
+        final String name;
+        final String parentSlug;
+
+        Category(String slug, String name, String parentSlug) {
+            this.slug = slug;
+            this.name = name;
+            this.parentSlug = parentSlug;
+        }
+    }
+
+    static final class Product {
+        final int id;
+        final String name;
+        final String slug;
+        final String categorySlug;
+        final BigDecimal price;
+        final String shortDescription;
+
+        Product(int id, String name, String slug, String categorySlug, String price, String shortDescription) {
+            this.id = id;
+            this.name = name;
+            this.slug = slug;
+            this.categorySlug = categorySlug;
+            this.price = new BigDecimal(price);
+            this.shortDescription = shortDescription;
+        }
+    }
+
+    static final class CartLine {
+        final int id;
+        final Product product;
+        int quantity;
+
+        CartLine(int id, Product product, int quantity) {
+            this.id = id;
+            this.product = product;
+            this.quantity = quantity;
+        }
+
+        BigDecimal getSubtotal() {
+            return product.price.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+
+    /**
+     * Address book entry; fields are keyed by the form field names without prefix (FirstName, City, ...)
+     */
+    static final class StoredAddress {
+        final int id;
+        final Map<String, String> fields;
+
+        StoredAddress(int id, Map<String, String> fields) {
+            this.id = id;
+            this.fields = new LinkedHashMap<>(fields);
+        }
+
+        String get(String field) {
+            return fields.getOrDefault(field, "");
+        }
+    }
+
+    static final class Order {
+        final int number;
+        final List<CartLine> lines;
+        final BigDecimal total;
+        final Map<String, String> billing;
+        final String shippingMethod;
+        final String paymentMethod;
+
+        Order(int number, List<CartLine> lines, Map<String, String> billing, String shippingMethod, String paymentMethod) {
+            this.number = number;
+            this.lines = lines;
+            this.total = lines.stream().map(CartLine::getSubtotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+            this.billing = billing;
+            this.shippingMethod = shippingMethod;
+            this.paymentMethod = paymentMethod;
+        }
+    }
+
+    /**
+     * A guest (identified by the customer cookie only) or a registered account
+     */
+    static final class Customer {
+        final String guid;
+        String email;
+        String password;
+        String firstName = "";
+        String lastName = "";
+        String gender = "";
+        final Map<Integer, CartLine> cart = new LinkedHashMap<>();
+        final Map<Integer, StoredAddress> addresses = new LinkedHashMap<>();
+        final List<Order> orders = new ArrayList<>();
+
+        Customer(String guid) {
+            this.guid = guid;
+        }
+
+        boolean isRegistered() {
+            return email != null;
+        }
+
+        int getCartQuantity() {
+            return cart.values().stream().mapToInt(line -> line.quantity).sum();
+        }
+
+        BigDecimal getCartTotal() {
+            return cart.values().stream().map(CartLine::getSubtotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+    }
+
+    static final List<Category> CATEGORIES = List.of(
+            new Category("books", "Books", null),
+            new Category("computers", "Computers", null),
+            new Category("desktops", "Desktops", "computers"),
+            new Category("notebooks", "Notebooks", "computers"),
+            new Category("accessories", "Accessories", "computers"),
+            new Category("electronics", "Electronics", null),
+            new Category("camera-photo", "Camera, photo", "electronics"),
+            new Category("cell-phones", "Cell phones", "electronics"),
+            new Category("apparel-shoes", "Apparel & Shoes", null),
+            new Category("digital-downloads", "Digital downloads", null),
+            new Category("jewelry", "Jewelry", null),
+            new Category("gift-cards", "Gift Cards", null));
+
+    static final List<Product> PRODUCTS = List.of(
+            new Product(13, "Computing and Internet", "computing-and-internet", "books", "10.00",
+                    "More Than 100 tips about computing and internet."),
+            new Product(45, "Fiction", "fiction", "books", "24.00", "Fiction in a hardcover edition."),
+            new Product(22, "Health Book", "health", "books", "10.00", "Worried about your health? Get the book."),
+            new Product(72, "Build your own cheap computer", "build-your-cheap-own-computer", "desktops", "800.00",
+                    "Build it yourself."),
+            new Product(74, "Build your own expensive computer", "build-your-own-expensive-computer", "desktops",
+                    "1800.00", "Build it yourself, without compromises."),
+            new Product(31, "14.1-inch Laptop", "141-inch-laptop", "notebooks", "1590.00",
+                    "Unique Asus Auto Night Vision, SmartLogon and Power4 Gear technologies."),
+            new Product(80, "Wireless Mouse", "wireless-mouse", "accessories", "20.00", "Plug and play."),
+            new Product(17, "Camcorder", "camcorder", "camera-photo", "349.00", "Records in full HD."),
+            new Product(43, "Smartphone", "smartphone", "cell-phones", "100.00", "Unlocked smartphone."),
+            new Product(5, "50's Rockabilly Polka Dot Top JR Plus Size", "50s-rockabilly-polka-dot-top-jr-plus-size",
+                    "apparel-shoes", "11.00", "Polka dot top."),
+            new Product(36, "Blue Jeans", "blue-jeans", "apparel-shoes", "1.00", "Classic blue jeans."),
+            new Product(51, "Music 2", "music-2", "digital-downloads", "10.00", "Album download."),
+            new Product(14, "Black & White Diamond Heart", "black-white-diamond-heart", "jewelry", "130.00",
+                    "Heart-shaped pendant."),
+            new Product(2, "$5 Virtual Gift Card", "5-virtual-gift-card", "gift-cards", "5.00",
+                    "$5 Gift Card. Gift Cards must be redeemed through our site."));
+
+    /** Products on the home page, in display order */
+    static final List<Integer> FEATURED = List.of(31, 72, 43, 2, 13, 45);
+
+    static final Map<String, String> COUNTRIES = Collections.unmodifiableMap(new TreeMap<>(Map.of(
+            "1", "United States", "2", "Canada", "3", "Germany")));
+
+    private final Map<String, Customer> customersByGuid = new HashMap<>();
+    private final Map<String, Customer> customersByEmail = new HashMap<>();
+    private final Map<String, Customer> customersByTicket = new HashMap<>();
+    private final Map<Integer, Order> ordersByNumber = new HashMap<>();
+    private int nextCustomer = 1;
+    private int nextTicket = 1;
+    private int nextCartLine = 1;
+    private int nextAddress = 1;
+    private int nextOrder = 1;
+
+    static Category category(String slug) {
+        return CATEGORIES.stream().filter(category -> category.slug.equals(slug)).findFirst().orElse(null);
+    }
+
+    static Product product(int id) {
+        return PRODUCTS.stream().filter(product -> product.id == id).findFirst().orElse(null);
+    }
+
+    static Product productBySlug(String slug) {
+        return PRODUCTS.stream().filter(product -> product.slug.equals(slug)).findFirst().orElse(null);
+    }
+
+    /**
+     * Products of a category, including those of its subcategories
+     */
+    static List<Product> productsIn(String categorySlug) {
+        List<Product> products = new ArrayList<>();
+        for (Product product : PRODUCTS) {
+            Category category = category(product.categorySlug);
+            if (category.slug.equals(categorySlug) || categorySlug.equals(category.parentSlug)) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    static List<Product> search(String term) {
+        String needle = term.toLowerCase(Locale.ROOT);
+        List<Product> found = new ArrayList<>();
+        for (Product product : PRODUCTS) {
+            if (product.name.toLowerCase(Locale.ROOT).contains(needle)
+                    || product.shortDescription.toLowerCase(Locale.ROOT).contains(needle)) {
+                found.add(product);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Customer of a request: the account of a valid auth ticket, else the guest of the customer cookie
+     * @param ticket Auth cookie value, or null
+     * @param guid Customer cookie value, or null
+     * @return Customer, or null if the request has neither a valid ticket nor a known guest
+     */
+    Customer resolve(String ticket, String guid) {
+        Customer customer = ticket == null ? null : customersByTicket.get(ticket);
+        if (customer == null && guid != null) {
+            customer = customersByGuid.get(guid);
+        }
+        return customer;
+    }
+
+    Customer newGuest() {
+        Customer guest = new Customer(String.format("00000000-0000-0000-0000-%012d", nextCustomer++));
+        customersByGuid.put(guest.guid, guest);
+        return guest;
+    }
+
+    /**
+     * @return false if the email is already registered
+     */
+    boolean register(Customer guest, String email, String password, String firstName, String lastName,
+                                  String gender) {
+        String key = email.toLowerCase(Locale.ROOT);
+        if (customersByEmail.containsKey(key)) {
+            return false;
+        }
+        // Registration turns a fresh customer record into the account; the guest keeps browsing as a guest
+        Customer account = newGuest();
+        account.email = email;
+        account.password = password;
+        account.firstName = firstName;
+        account.lastName = lastName;
+        account.gender = gender;
+        customersByEmail.put(key, account);
+        return true;
+    }
+
+    /**
+     * Log in, moving the guest's cart into the account's cart like the real shop does
+     * @return Auth ticket, or null if the credentials are wrong
+     */
+    String login(Customer guest, String email, String password) {
+        Customer account = email == null ? null : customersByEmail.get(email.toLowerCase(Locale.ROOT));
+        if (account == null || !account.password.equals(password)) {
+            return null;
+        }
+        if (guest != null && guest != account) {
+            for (CartLine line : new ArrayList<>(guest.cart.values())) {
+                addToCart(account, line.product, line.quantity);
+            }
+            guest.cart.clear();
+        }
+        String ticket = String.format("ticket-%06d", nextTicket++);
+        customersByTicket.put(ticket, account);
+        return ticket;
+    }
+
+    void logout(String ticket) {
+        if (ticket != null) {
+            customersByTicket.remove(ticket);
+        }
+    }
+
+    boolean changePassword(Customer customer, String oldPassword, String newPassword) {
+        if (!customer.password.equals(oldPassword)) {
+            return false;
+        }
+        customer.password = newPassword;
+        return true;
+    }
+
+    void updateInfo(Customer customer, Map<String, String> form) {
+        customer.firstName = form.getOrDefault("FirstName", customer.firstName);
+        customer.lastName = form.getOrDefault("LastName", customer.lastName);
+        customer.gender = form.getOrDefault("Gender", customer.gender);
+    }
+
+    void addToCart(Customer customer, Product product, int quantity) {
+        for (CartLine line : customer.cart.values()) {
+            if (line.product == product) {
+                line.quantity += quantity;
+                return;
+            }
+        }
+        CartLine line = new CartLine(nextCartLine++, product, quantity);
+        customer.cart.put(line.id, line);
+    }
+
+    /**
+     * Apply the cart form: removal checkboxes and quantity fields (itemquantity{lineId}, 0 removes)
+     */
+    void updateCart(Customer customer, List<String> removed, Map<String, String> form) {
+        for (String lineId : removed) {
+            customer.cart.remove(Integer.valueOf(lineId));
+        }
+        for (CartLine line : new ArrayList<>(customer.cart.values())) {
+            String quantity = form.get("itemquantity" + line.id);
+            if (quantity == null) {
+                continue;
+            }
+            try {
+                line.quantity = Integer.parseInt(quantity.trim());
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (line.quantity <= 0) {
+                customer.cart.remove(line.id);
+            }
+        }
+    }
+
+    StoredAddress saveAddress(Customer customer, Integer addressId, Map<String, String> fields) {
+        StoredAddress address = new StoredAddress(addressId == null ? nextAddress++ : addressId, fields);
+        customer.addresses.put(address.id, address);
+        return address;
+    }
+
+    boolean deleteAddress(Customer customer, int addressId) {
+        return customer.addresses.remove(addressId) != null;
+    }
+
+    /**
+     * Turn the cart into an order; a registered customer's new billing address is added to their address book
+     */
+    Order placeOrder(Customer customer, Map<String, String> billing, boolean newAddress,
+                                  String shippingMethod, String paymentMethod) {
+        if (newAddress && customer.isRegistered()) {
+            saveAddress(customer, null, billing);
+        }
+        Order order = new Order(nextOrder++, new ArrayList<>(customer.cart.values()), billing, shippingMethod,
+                paymentMethod);
+        customer.cart.clear();
+        customer.orders.add(order);
+        ordersByNumber.put(order.number, order);
+        return order;
+    }
+
+    Order order(Customer customer, int number) {
+        Order order = ordersByNumber.get(number);
+        return order != null && customer.orders.contains(order) ? order : null;
+    }
+}
@@ -0,0 +1,695 @@
+package standin;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import standin.ShopState.Category;
+import standin.ShopState.Customer;
+import standin.ShopState.Order;
+import standin.ShopState.Product;
+import standin.ShopState.StoredAddress;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the demo shop, so suites can run offline and without the public site's latency
+ * Emulates the storefront flows the tests drive - register, login, catalog, search, cart, one-page
+ * checkout and the address book - against in-memory state that starts empty on every start. Sessions
+ * are cookie based like on the real site: a customer cookie for guests and an auth cookie after login.
+ * GETs of paths the emulation does not handle are answered from recorded pages on the test classpath
+ * under standin/pages (path + ".html"), then from generic topic pages.
+ */
+public class StandInShop implements Closeable {
+    private static final Logger logger = LogManager.getLogger(StandInShop.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String CUSTOMER_COOKIE = "Nop.customer";
+    private static final String AUTH_COOKIE = "NOPCOMMERCE.AUTH";
+    private static final String TOKEN_FIELD = "__RequestVerificationToken";
+    private static final String RECORDED_PAGES = "/standin/pages";
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern ADD_TO_CART_DETAILS = Pattern.compile("/addproducttocart/details/(\\d+)/\\d+");
+    private static final Pattern ADD_TO_CART_CATALOG = Pattern.compile("/addproducttocart/catalog/(\\d+)/\\d+/(\\d+)");
+    private static final Pattern NUMBERED = Pattern.compile("(/[a-z/]+/)(\\d+)");
+    private static final Map<String, String> TOPICS = Map.of(
+            "/conditions-of-use", "Conditions of use",
+            "/privacy-policy", "Privacy policy",
+            "/shipping-returns", "Shipping & Returns",
+            "/about-us", "About Us",
+            "/contactus", "Contact Us",
+            "/sitemap", "Sitemap",
+            "/wishlist", "Wishlist",
+            "/newproducts", "New products",
+            "/compareproducts", "Compare products");
+    private static volatile StandInShop shared;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ShopState state = new ShopState();
+    private final AtomicLong requests = new AtomicLong();
+
+    private StandInShop(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Start a stand-in on the loopback interface
+     * @param port Port, or 0 for a free one
+     * @return Running stand-in
+     */
+    public static StandInShop start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        StandInShop shop = new StandInShop(server, executor);
+        server.createContext("/", shop::handle);
+        server.setExecutor(executor);
+        server.start();
+        logger.info("Stand-in shop listening on {}", shop.getBaseUrl());
+        return shop;
+    }
+
+    /**
+     * Start the stand-in if the environment enables it and point base.url at it, so pages, HTTP
+     * seeding and cleanup all use it; a no-op when disabled or already running
+     */
+    public static void startShared() {
+        if (!ConfigManager.isStandInEnabled()) {
+            return;
+        }
+        synchronized (StandInShop.class) {
+            if (shared != null) {
+                return;
+            }
+            try {
+                shared = start(ConfigManager.getStandInPort());
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not start the stand-in shop on port "
+                        + ConfigManager.getStandInPort() + ": " + e.getMessage(), e);
+            }
+            System.setProperty("base.url", shared.getBaseUrl());
+        }
+    }
+
+    /**
+     * Stop the shared stand-in, if one was started
+     */
+    public static void stopShared() {
+        StandInShop shop;
+        synchronized (StandInShop.class) {
+            shop = shared;
+            shared = null;
+        }
+        if (shop != null) {
+            shop.close();
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+        logger.info("Stand-in shop on {} stopped after {} requests", getBaseUrl(), requests.get());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            Request request = new Request(exchange);
+            Response response;
+            synchronized (state) {
+                request.resolveCustomer();
+                response = route(request);
+            }
+            request.setCookies.forEach(response::cookie);
+            logger.debug("{} {} -> {}", request.method, request.path, response.status);
+            response.send(exchange);
+        } catch (RuntimeException e) {
+            logger.warn("Stand-in shop failed on {} {}: {}", exchange.getRequestMethod(), exchange.getRequestURI(), e.toString());
+            byte[] body = ("Internal error: " + e).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(500, body.length);
+            exchange.getResponseBody().write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Response route(Request request) {
+        String path = request.path;
+        boolean post = request.method.equals("POST");
+        if (post && !path.startsWith("/addproducttocart/") && !request.hasValidToken()) {
+            return Response.text(400, "The required anti-forgery form field \"" + TOKEN_FIELD + "\" is not present.");
+        }
+
+        Matcher addToCart = ADD_TO_CART_DETAILS.matcher(path);
+        if (post && addToCart.matches()) {
+            int productId = Integer.parseInt(addToCart.group(1));
+            return addToCart(request, productId, request.form("addtocart_" + productId + ".EnteredQuantity", "1"));
+        }
+        addToCart = ADD_TO_CART_CATALOG.matcher(path);
+        if (post && addToCart.matches()) {
+            return addToCart(request, Integer.parseInt(addToCart.group(1)), addToCart.group(2));
+        }
+        Matcher numbered = NUMBERED.matcher(path);
+        if (numbered.matches()) {
+            return numbered(request, numbered.group(1), Integer.parseInt(numbered.group(2)));
+        }
+
+        switch (path) {
+            case "/":
+                return page(request, "", "home-page", ShopPages.home());
+            case "/robots.txt":
+                return Response.text(200, "User-agent: *\nDisallow: /cart\nDisallow: /checkout\n");
+            case "/search":
+                return search(request);
+            case "/register":
+                return post ? register(request) : page(request, "Register", "registration-page",
+                        ShopPages.register(Map.of(), Map.of(), null));
+            case "/login":
+                return post ? login(request) : page(request, "Login", "login-page", ShopPages.login(loginAction(request), "", null, false));
+            case "/login/checkoutasguest":
+                return page(request, "Login", "login-page", ShopPages.login("/login", "", null, true));
+            case "/logout":
+                state.logout(request.ticket);
+                return Response.redirect("/").cookie(AUTH_COOKIE + "=; path=/; Max-Age=0");
+            case "/passwordrecovery":
+                return passwordRecovery(request);
+            case "/cart":
+                return post ? updateCart(request) : page(request, "Shopping Cart", "shopping-cart-page",
+                        ShopPages.cart(request.customer));
+            case "/checkout":
+                return Response.redirect("/onepagecheckout");
+            case "/onepagecheckout":
+                return checkout(request);
+            case "/checkout/confirm":
+                return post ? confirm(request) : Response.redirect("/onepagecheckout");
+            default:
+                break;
+        }
+
+        if (path.startsWith("/customer/")) {
+            return account(request);
+        }
+        Category category = ShopState.category(path.substring(1));
+        if (category != null) {
+            return page(request, category.name, "category-page",
+                    ShopPages.category(category, ShopState.productsIn(category.slug), request.query("orderby", "0")));
+        }
+        Product product = ShopState.productBySlug(path.substring(1));
+        if (product != null) {
+            return page(request, product.name, "product-details-page", ShopPages.product(product));
+        }
+        String recorded = recordedPage(path);
+        if (recorded != null) {
+            return Response.html(200, recorded);
+        }
+        if (TOPICS.containsKey(path)) {
+            return page(request, TOPICS.get(path), "topic-page", ShopPages.topic(TOPICS.get(path),
+                    "This page is served by the local stand-in shop."));
+        }
+        return Response.html(404, ShopPages.layout("Page not found", request.customer, request.token(), "page-not-found",
+                ShopPages.notFound()));
+    }
+
+    private Response numbered(Request request, String prefix, int id) {
+        switch (prefix) {
+            case "/checkout/completed/": {
+                Order order = state.order(request.customer, id);
+                return order == null ? Response.redirect("/")
+                        : page(request, "Checkout", "checkout-page", ShopPages.completed(order));
+            }
+            case "/orderdetails/": {
+                Order order = state.order(request.customer, id);
+                return order == null ? Response.redirect("/login?ReturnUrl=" + encode(request.path))
+                        : page(request, "Order information", "order-details-page", ShopPages.orderDetails(order));
+            }
+            case "/registerresult/":
+                return page(request, "Register", "registration-result-page",
+                        ShopPages.result("Register", "Your registration completed", "/"));
+            default:
+                return account(request);
+        }
+    }
+
+    private Response addToCart(Request request, int productId, String quantityValue) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        Product product = ShopState.product(productId);
+        int quantity;
+        try {
+            quantity = Integer.parseInt(quantityValue.trim());
+        } catch (NumberFormatException e) {
+            quantity = 0;
+        }
+        if (product == null) {
+            result.put("success", false);
+            result.put("message", List.of("No product found with the specified ID"));
+        } else if (quantity <= 0) {
+            result.put("success", false);
+            result.put("message", List.of("Quantity should be positive"));
+        } else {
+            state.addToCart(request.customer, product, quantity);
+            result.put("success", true);
+            result.put("message", "The product has been added to your <a href=\"/cart\">shopping cart</a>");
+            result.put("updatetopcartsectionhtml", "(" + request.customer.getCartQuantity() + ")");
+        }
+        try {
+            return Response.json(objectMapper.writeValueAsString(result));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Response search(Request request) {
+        String term = request.query("q", "").trim();
+        if (term.length() < 3) {
+            return page(request, "Search", "search-page",
+                    ShopPages.search(term, List.of(), "Search term minimum length is 3 characters"));
+        }
+        return page(request, "Search", "search-page", ShopPages.search(term, ShopState.search(term), null));
+    }
+
+    private Response register(Request request) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        required(request, errors, "FirstName", "First name is required.");
+        required(request, errors, "LastName", "Last name is required.");
+        String email = request.form("Email", "").trim();
+        if (email.isEmpty()) {
+            errors.put("Email", "Email is required.");
+        } else if (!EMAIL.matcher(email).matches()) {
+            errors.put("Email", "Wrong email");
+        }
+        String password = request.form("Password", "");
+        if (password.isEmpty()) {
+            errors.put("Password", "Password is required.");
+        } else if (password.length() < 6) {
+            errors.put("Password", "The password should have at least 6 characters.");
+        }
+        if (request.form("ConfirmPassword", "").isEmpty()) {
+            errors.put("ConfirmPassword", "Password is required.");
+        } else if (!request.form("ConfirmPassword", "").equals(password)) {
+            errors.put("ConfirmPassword", "The password and confirmation password do not match.");
+        }
+        String summary = null;
+        if (errors.isEmpty() && !state.register(request.customer, email, password, request.form("FirstName", ""),
+                request.form("LastName", ""), request.form("Gender", ""))) {
+            summary = "The specified email already exists";
+        }
+        if (!errors.isEmpty() || summary != null) {
+            return page(request, "Register", "registration-page", ShopPages.register(request.formValues(), errors, summary));
+        }
+        // Like the real shop, a new customer is logged in right away
+        String ticket = state.login(request.customer, email, password);
+        return Response.redirect("/registerresult/1").cookie(authCookie(ticket));
+    }
+
+    private Response login(Request request) {
+        String email = request.form("Email", "").trim();
+        String error = null;
+        if (email.isEmpty()) {
+            error = "Please enter your email";
+        } else {
+            String ticket = state.login(request.customer, email, request.form("Password", ""));
+            if (ticket != null) {
+                String returnUrl = request.query("ReturnUrl", "/");
+                return Response.redirect(returnUrl.startsWith("/") ? returnUrl : "/").cookie(authCookie(ticket));
+            }
+            error = "The credentials provided are incorrect";
+        }
+        return page(request, "Login", "login-page", ShopPages.login(loginAction(request), email, error, false));
+    }
+
+    private static String loginAction(Request request) {
+        String returnUrl = request.query("ReturnUrl", "");
+        return returnUrl.isEmpty() ? "/login" : "/login?ReturnUrl=" + encode(returnUrl);
+    }
+
+    private Response passwordRecovery(Request request) {
+        if (!request.method.equals("POST")) {
+            return page(request, "Password Recovery", "password-recovery-page", ShopPages.passwordRecovery("", null));
+        }
+        String email = request.form("Email", "").trim();
+        String result = EMAIL.matcher(email).matches() ? "Email with instructions has been sent to you." : "Wrong email";
+        return page(request, "Password Recovery", "password-recovery-page", ShopPages.passwordRecovery(email, result));
+    }
+
+    private Response updateCart(Request request) {
+        if (request.hasField("continueshopping")) {
+            return Response.redirect("/");
+        }
+        state.updateCart(request.customer, request.formAll("removefromcart"), request.formValues());
+        if (request.hasField("checkout") && !request.customer.cart.isEmpty()) {
+            return Response.redirect(request.customer.isRegistered() ? "/onepagecheckout"
+                    : "/login/checkoutasguest?returnUrl=%2Fcart");
+        }
+        return Response.redirect("/cart");
+    }
+
+    private Response checkout(Request request) {
+        if (request.customer.cart.isEmpty()) {
+            return Response.redirect("/cart");
+        }
+        return page(request, "Checkout", "checkout-page", ShopPages.checkout(request.customer, defaultBilling(request),
+                Map.of()));
+    }
+
+    private static Map<String, String> defaultBilling(Request request) {
+        Map<String, String> form = new HashMap<>();
+        Customer customer = request.customer;
+        if (customer.isRegistered()) {
+            form.put("BillingNewAddress.FirstName", customer.firstName);
+            form.put("BillingNewAddress.LastName", customer.lastName);
+            form.put("BillingNewAddress.Email", customer.email);
+        }
+        return form;
+    }
+
+    private Response confirm(Request request) {
+        Customer customer = request.customer;
+        if (customer.cart.isEmpty()) {
+            return Response.redirect("/cart");
+        }
+        Map<String, String> errors = new LinkedHashMap<>();
+        String addressId = request.form("billing_address_id", "");
+        Map<String, String> billing;
+        boolean newAddress = addressId.isEmpty() || !customer.addresses.containsKey(Integer.valueOf(addressId));
+        if (newAddress) {
+            billing = addressFields(request, "BillingNewAddress", errors);
+        } else {
+            billing = customer.addresses.get(Integer.valueOf(addressId)).fields;
+        }
+        String payment = request.form("paymentmethod", "Payments.CashOnDelivery");
+        if (payment.equals("Payments.Manual")) {
+            required(request, errors, "CardholderName", "Enter cardholder name");
+            if (!request.form("CardNumber", "").replace(" ", "").matches("\\d{12,19}")) {
+                errors.put("CardNumber", "Wrong card number");
+            }
+            if (!request.form("CardCode", "").matches("\\d{3,4}")) {
+                errors.put("CardCode", "Wrong card code");
+            }
+        }
+        if (!errors.isEmpty()) {
+            return page(request, "Checkout", "checkout-page", ShopPages.checkout(customer, request.formValues(), errors));
+        }
+        String shipping = request.form("shippingoption", "Ground___Shipping.FixedRate").split("___")[0];
+        Order order = state.placeOrder(customer, billing, newAddress, shipping, payment);
+        return Response.redirect("/checkout/completed/" + order.number);
+    }
+
+    private Response account(Request request) {
+        Customer customer = request.customer;
+        if (!customer.isRegistered()) {
+            return Response.redirect("/login?ReturnUrl=" + encode(request.path));
+        }
+        boolean post = request.method.equals("POST");
+        String path = request.path;
+        if (path.equals("/customer/info")) {
+            if (post) {
+                state.updateInfo(customer, request.formValues());
+            }
+            return page(request, "Account", "account-page", ShopPages.customerInfo(customer, null));
+        }
+        if (path.equals("/customer/addresses")) {
+            return page(request, "Account", "account-page", ShopPages.addresses(customer));
+        }
+        if (path.equals("/customer/orders")) {
+            return page(request, "Account", "account-page", ShopPages.orders(customer));
+        }
+        if (path.equals("/customer/changepassword")) {
+            return changePassword(request);
+        }
+        if (path.equals("/customer/addressadd")) {
+            return saveAddress(request, null);
+        }
+        Matcher numbered = NUMBERED.matcher(path);
+        if (numbered.matches()) {
+            int addressId = Integer.parseInt(numbered.group(2));
+            if (numbered.group(1).equals("/customer/addressdelete/")) {
+                state.deleteAddress(customer, addressId);
+                return Response.redirect("/customer/addresses");
+            }
+            if (numbered.group(1).equals("/customer/addressedit/") && customer.addresses.containsKey(addressId)) {
+                return saveAddress(request, customer.addresses.get(addressId));
+            }
+        }
+        return Response.html(404, ShopPages.layout("Page not found", customer, request.token(), "page-not-found",
+                ShopPages.notFound()));
+    }
+
+    private Response saveAddress(Request request, StoredAddress existing) {
+        String action = existing == null ? "/customer/addressadd" : "/customer/addressedit/" + existing.id;
+        if (!request.method.equals("POST")) {
+            Map<String, String> form = new HashMap<>();
+            if (existing != null) {
+                existing.fields.forEach((field, value) -> form.put("Address." + field, value));
+            }
+            return page(request, "Account", "account-page", ShopPages.addressForm(action, form, Map.of()));
+        }
+        Map<String, String> errors = new LinkedHashMap<>();
+        Map<String, String> fields = addressFields(request, "Address", errors);
+        if (!errors.isEmpty()) {
+            return page(request, "Account", "account-page", ShopPages.addressForm(action, request.formValues(), errors));
+        }
+        state.saveAddress(request.customer, existing == null ? null : existing.id, fields);
+        return Response.redirect("/customer/addresses");
+    }
+
+    private Response changePassword(Request request) {
+        if (!request.method.equals("POST")) {
+            return page(request, "Account", "account-page", ShopPages.changePassword(Map.of(), null));
+        }
+        Map<String, String> errors = new LinkedHashMap<>();
+        required(request, errors, "OldPassword", "Old password is required");
+        String newPassword = request.form("NewPassword", "");
+        if (newPassword.length() < 6) {
+            errors.put("NewPassword", "The password should have at least 6 characters.");
+        } else if (!newPassword.equals(request.form("ConfirmNewPassword", ""))) {
+            errors.put("ConfirmNewPassword", "The new password and confirmation password do not match.");
+        }
+        if (errors.isEmpty() && !state.changePassword(request.customer, request.form("OldPassword", ""), newPassword)) {
+            errors.put("", "Old password doesn't match");
+        }
+        return page(request, "Account", "account-page",
+                ShopPages.changePassword(errors, errors.isEmpty() ? "Password was changed" : null));
+    }
+
+    /**
+     * Validate an address form and return its fields without the prefix
+     */
+    private static Map<String, String> addressFields(Request request, String prefix, Map<String, String> errors) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (String field : ShopPages.ADDRESS_FIELDS.keySet()) {
+            fields.put(field, request.form(prefix + "." + field, "").trim());
+        }
+        String[][] required = {{"FirstName", "First name is required."}, {"LastName", "Last name is required."},
+                {"Email", "Email is required."}, {"City", "City is required"}, {"Address1", "Street address is required"},
+                {"ZipPostalCode", "Zip / postal code is required"}, {"PhoneNumber", "Phone is required"}};
+        for (String[] field : required) {
+            if (fields.get(field[0]).isEmpty()) {
+                errors.put(prefix + "." + field[0], field[1]);
+            }
+        }
+        if (!fields.get("Email").isEmpty() && !EMAIL.matcher(fields.get("Email")).matches()) {
+            errors.put(prefix + ".Email", "Wrong email");
+        }
+        if (!ShopState.COUNTRIES.containsKey(fields.get("CountryId"))) {
+            errors.put(prefix + ".CountryId", "Country is required.");
+        }
+        return fields;
+    }
+
+    private static void required(Request request, Map<String, String> errors, String field, String message) {
+        if (request.form(field, "").trim().isEmpty()) {
+            errors.put(field, message);
+        }
+    }
+
+    private Response page(Request request, String title, String pageClass, String body) {
+        return Response.html(200, ShopPages.layout(title, request.customer, request.token(), pageClass, body));
+    }
+
+    private static String recordedPage(String path) {
+        String resource = RECORDED_PAGES + (path.equals("/") ? "/index" : path) + ".html";
+        try (InputStream page = StandInShop.class.getResourceAsStream(resource)) {
+            return page == null ? null : new String(page.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Could not read recorded page {}: {}", resource, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String authCookie(String ticket) {
+        return AUTH_COOKIE + "=" + ticket + "; path=/; HttpOnly";
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parsed request with the customer it belongs to
+     */
+    private final class Request {
+        final String method;
+        final String path;
+        final Map<String, List<String>> query;
+        final Map<String, List<String>> form;
+        final Map<String, String> cookies = new HashMap<>();
+        final List<String> setCookies = new ArrayList<>();
+        String ticket;
+        Customer customer;
+
+        Request(HttpExchange exchange) throws IOException {
+            method = exchange.getRequestMethod().toUpperCase();
+            String rawPath = exchange.getRequestURI().getPath();
+            path = rawPath.length() > 1 && rawPath.endsWith("/") ? rawPath.substring(0, rawPath.length() - 1) : rawPath;
+            query = parse(exchange.getRequestURI().getRawQuery());
+            form = method.equals("POST")
+                    ? parse(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8))
+                    : Map.of();
+            for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+                for (String cookie : header.split(";")) {
+                    int equals = cookie.indexOf('=');
+                    if (equals > 0) {
+                        cookies.put(cookie.substring(0, equals).trim(), cookie.substring(equals + 1).trim());
+                    }
+                }
+            }
+        }
+
+        void resolveCustomer() {
+            ticket = cookies.get(AUTH_COOKIE);
+            customer = state.resolve(ticket, cookies.get(CUSTOMER_COOKIE));
+            if (customer == null) {
+                customer = state.newGuest();
+                setCookies.add(CUSTOMER_COOKIE + "=" + customer.guid + "; path=/; HttpOnly");
+            }
+        }
+
+        /**
+         * Anti-forgery token of the session; stable per customer cookie, so forms stay valid across requests
+         */
+        String token() {
+            String guid = cookies.getOrDefault(CUSTOMER_COOKIE, customer.guid);
+            return Integer.toHexString(guid.hashCode()) + guid.replace("-", "").substring(20);
+        }
+
+        boolean hasValidToken() {
+            return customer != null && token().equals(form(TOKEN_FIELD, ""));
+        }
+
+        String query(String name, String defaultValue) {
+            List<String> values = query.get(name);
+            return values == null || values.isEmpty() ? defaultValue : values.get(0);
+        }
+
+        String form(String name, String defaultValue) {
+            List<String> values = form.get(name);
+            return values == null || values.isEmpty() ? defaultValue : values.get(0);
+        }
+
+        List<String> formAll(String name) {
+            return form.getOrDefault(name, List.of());
+        }
+
+        boolean hasField(String name) {
+            return form.containsKey(name);
+        }
+
+        Map<String, String> formValues() {
+            Map<String, String> values = new HashMap<>();
+            form.forEach((name, list) -> values.put(name, list.get(0)));
+            return values;
+        }
+
+        private Map<String, List<String>> parse(String encoded) {
+            Map<String, List<String>> values = new LinkedHashMap<>();
+            if (encoded == null || encoded.isEmpty()) {
+                return values;
+            }
+            for (String pair : encoded.split("&")) {
+                int equals = pair.indexOf('=');
+                String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+                String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+                values.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+            }
+            return values;
+        }
+    }
+
+    private static final class Response {
+        final int status;
+        final String contentType;
+        final byte[] body;
+        final Map<String, String> headers = new LinkedHashMap<>();
+        final List<String> cookies = new ArrayList<>();
+
+        private Response(int status, String contentType, String body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+        }
+
+        static Response html(int status, String html) {
+            return new Response(status, "text/html; charset=utf-8", html);
+        }
+
+        static Response json(String json) {
+            return new Response(200, "application/json; charset=utf-8", json);
+        }
+
+        static Response text(int status, String text) {
+            return new Response(status, "text/plain; charset=utf-8", text);
+        }
+
+        static Response redirect(String location) {
+            Response response = new Response(302, "text/html; charset=utf-8", "");
+            response.headers.put("Location", location);
+            return response;
+        }
+
+        Response cookie(String setCookie) {
+            cookies.add(setCookie);
+            return this;
+        }
+
+        void send(HttpExchange exchange) throws IOException {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            headers.forEach(exchange.getResponseHeaders()::set);
+            cookies.forEach(cookie -> exchange.getResponseHeaders().add("Set-Cookie", cookie));
+            exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+            if (body.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package tests.account;
 
 import base.BaseTest;
+import com.demowebshop.automation.config.ConfigManager;
 import com.demowebshop.automation.pages.*;
 import com.demowebshop.automation.pages.common.BasePage;
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
 import factories.UserDataFactory;
 import factories.CheckoutDataFactory;
 import models.User;
@@ -40,8 +42,26 @@ public class AccountManagementTests extends BaseTest {
 
     @BeforeMethod(groups = {"account"})
     public void createAndLoginUser() {
-        // Create and register a test user for account management tests
-        testUser = UserDataFactory.createRandomUser();
+        if (isSetUpSkipped()) {
+            return;
+        }
+        // Use a pre-registered account from the pool, or create and register a new test user
+        testUser = leasePooledUser();
+        boolean pooled = testUser != null;
+        if (!pooled) {
+            testUser = UserDataFactory.createRandomUser();
+        }
+        if (seedLoggedInUser(testUser)) {
+            if (!pooled) {
+                recordCreatedAccount(testUser);
+            }
+            logger.info("Test user logged in over HTTP: {}", testUser.getEmail());
+            return;
+        }
+        if (pooled) {
+            loginThroughUi();
+            return;
+        }
 
         HomePage homePage = home();
         RegisterPage registerPage = homePage.clickRegisterLink();
@@ -55,14 +75,7 @@ public class AccountManagementTests extends BaseTest {
             throw new org.testng.SkipException("WebDriver session lost, test skipped: " + e.getMessage());
         }
         
-        registerPage.selectGender(testUser.getGender())
-                   .enterFirstName(testUser.getFirstName())
-                   .enterLastName(testUser.getLastName())
-                   .enterEmail(testUser.getEmail())
-                   .enterPassword(testUser.getPassword())
-                   .confirmPassword(testUser.getPassword());
-
-        BasePage resultPage = registerPage.clickRegisterButton();
+        BasePage resultPage = registerPage.register(testUser);
 
         // Check if registration was successful
         if (resultPage instanceof RegisterPage) {
@@ -75,7 +88,7 @@ public class AccountManagementTests extends BaseTest {
                 // CRITICAL FIX: Verify session is still valid before retry
                 try {
                     // Wait and verify session health before retry
-                    Thread.sleep(2000);
+                    TestDeadline.sleep(2000);
                     regPage.isPageLoaded(); // Session validation
                 } catch (org.openqa.selenium.NoSuchSessionException | org.openqa.selenium.remote.UnreachableBrowserException e) {
                     logger.error("WebDriver session lost during registration retry - skipping test");
@@ -87,14 +100,7 @@ public class AccountManagementTests extends BaseTest {
                 // CRITICAL FIX: Re-navigate to registration page to ensure clean state
                 registerPage = new RegisterPage(getDriver()).navigateToRegisterPage();
                 
-                registerPage.selectGender(testUser.getGender())
-                           .enterFirstName(testUser.getFirstName())
-                           .enterLastName(testUser.getLastName())
-                           .enterEmail(testUser.getEmail())
-                           .enterPassword(testUser.getPassword())
-                           .confirmPassword(testUser.getPassword());
-
-                resultPage = registerPage.clickRegisterButton();
+                resultPage = registerPage.register(testUser);
 
                 if (resultPage instanceof RegisterPage) {
                     RegisterPage retryPage = (RegisterPage) resultPage;
@@ -108,16 +114,23 @@ public class AccountManagementTests extends BaseTest {
         // CRITICAL: DemoWebShop does NOT auto-login after registration
         // Must manually log in after successful registration
         logger.info("Registration successful for: {}", testUser.getEmail());
+        recordCreatedAccount(testUser);
         logger.info("Now logging in user...");
+        loginThroughUi();
+    }
 
+    private void loginThroughUi() {
         LoginPage loginPage = new LoginPage(getDriver()).navigateToLoginPage();
         BasePage loginResult = loginPage.login(testUser.getEmail(), testUser.getPassword());
         HomePage loggedInHome = (loginResult instanceof HomePage)
             ? (HomePage) loginResult
             : new HomePage(getDriver());
         updateHome(loggedInHome);
+        if (loggedInHome.isUserLoggedIn()) {
+            rememberLogin(testUser);
+        }
 
-        logger.info("Test user created and logged in: {}", testUser.getEmail());
+        logger.info("Test user logged in: {}", testUser.getEmail());
     }
 
     /**
@@ -400,12 +413,12 @@ public class AccountManagementTests extends BaseTest {
                 AddAddressPage addAddressPage = addressesPage.clickAddNewAddress();
 
                 // Fill new address form
-                Address newAddress = CheckoutDataFactory.createRandomBillingAddress();
-                newAddress.setFirstName(testUser.getFirstName());
-                newAddress.setLastName(testUser.getLastName());
+                Address newAddress = CheckoutDataFactory.createRandomBillingAddress()
+                        .withName(testUser.getFirstName(), testUser.getLastName());
 
                 addAddressPage.fillAddressForm(newAddress);
                 addAddressPage.clickSaveButton();
+                recordCreatedAddress(testUser, null);
 
                 // Verify address was added
                 if (addressesPage.isAddressAddedSuccessMessageDisplayed()) {
@@ -518,7 +531,7 @@ public class AccountManagementTests extends BaseTest {
                 softAssert.assertTrue(true, "Password change should succeed with valid data");
 
                 // Update user object with new password for future tests
-                testUser.setPassword(newPassword);
+                testUser = changedPassword(testUser, newPassword);
                 logger.info("Password changed successfully for user: {}", testUser.getEmail());
             }
 
@@ -562,8 +575,11 @@ public class AccountManagementTests extends BaseTest {
 
             // Add item to cart
             HomePage homePage = home();
-            ProductDetailsPage productPage = homePage.navigateToRandomProduct();
-            productPage.clickAddToCart();
+            if (!seedCartItem(ConfigManager.getStateSeedingProductId(), 1)) {
+                ProductDetailsPage productPage = homePage.navigateToRandomProduct();
+                productPage.clickAddToCart();
+            }
+            recordCartItems(testUser);
 
             // Quick checkout if possible
             ShoppingCartPage cartPage = homePage.clickShoppingCartLink();
@@ -574,11 +590,11 @@ public class AccountManagementTests extends BaseTest {
                 CheckoutPage checkoutPage = cartPage.clickCheckout();
 
                 if (checkoutPage.isPageLoaded()) {
-                    Address billingAddress = CheckoutDataFactory.createRandomBillingAddress();
-                    billingAddress.setFirstName(testUser.getFirstName());
-                    billingAddress.setLastName(testUser.getLastName());
+                    Address billingAddress = CheckoutDataFactory.createRandomBillingAddress()
+                            .withName(testUser.getFirstName(), testUser.getLastName());
 
                     checkoutPage.fillBillingAddress(billingAddress);
+                    recordCreatedAddress(testUser, null);
 
                     // This may not complete but provides order data
                     logger.info("Test order setup completed");
@@ -199,8 +199,7 @@ public class RegistrationTests extends BaseTest {
     public void testEmailFormatValidation(String email, boolean isValid, String description) {
         logger.info("=== Starting REG_007: Email Validation - {} ===", description);
 
-        User testUser = UserDataFactory.createRandomUser();
-        testUser.setEmail(email);
+        User testUser = UserDataFactory.createRandomUser().withEmail(email);
 
         HomePage homePage = getHomePage();
         RegisterPage registerPage = homePage.clickRegisterLink();
@@ -267,6 +266,36 @@ public class RegistrationTests extends BaseTest {
         logger.info("=== REG_008 completed: All registration page elements verified ===");
     }
 
+    /**
+     * Test ID: REG_009 - Corpus User Registration (Data-Driven)
+     * Registers users streamed from the generated user corpus (test.data.corpus.rows per run)
+     */
+    @Test(groups = {"functional", "registration", "data-driven"},
+          priority = 9,
+          dataProvider = "corpusRegistrationData",
+          dataProviderClass = AuthenticationDataProvider.class,
+          description = "Registration should succeed for users from the data corpus")
+    public void testCorpusUserRegistration(User user, String testDescription) {
+        logger.info("=== Starting REG_009: {} ===", testDescription);
+
+        HomePage homePage = getHomePage();
+        RegisterPage registerPage = homePage.clickRegisterLink();
+        assertions.assertPageUrl("register", "Should navigate to registration page");
+
+        registerPage.selectGender(user.getGender())
+                   .enterFirstName(user.getFirstName())
+                   .enterLastName(user.getLastName())
+                   .enterEmail(user.getEmail())
+                   .enterPassword(user.getPassword())
+                   .confirmPassword(user.getPassword());
+        registerPage.clickRegisterButton();
+        recordCreatedAccount(user);
+
+        assertions.assertRegistrationSuccess(registerPage, user);
+        assertions.assertAll();
+        logger.info("=== REG_009 completed: {} for user {} ===", testDescription, user.getEmail());
+    }
+
     @Override
     protected void additionalTeardown() {
         // Additional cleanup if needed
@@ -4,6 +4,7 @@ import base.BaseTest;
 import com.demowebshop.automation.pages.HomePage;
 import com.demowebshop.automation.pages.ProductDetailsPage;
 import com.demowebshop.automation.pages.ShoppingCartPage;
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
 import factories.ProductDataFactory;
 import utils.DemoWebShopAssertions;
 import org.testng.annotations.Test;
@@ -130,13 +131,13 @@ public class ShoppingCartTests extends BaseTest {
         cartPage.clickUpdateCart();
 
         // Wait for cart to update (page reload or AJAX) - using Selenide wait instead of Thread.sleep
-        com.codeborne.selenide.Selenide.sleep(5000); // Allow time for recalculation
+        com.codeborne.selenide.Selenide.sleep(TestDeadline.capMillis(5000)); // Allow time for recalculation
 
         // Refresh page to ensure we get updated values
         driver.navigate().refresh();
 
         // Wait for refresh to complete
-        com.codeborne.selenide.Selenide.sleep(2000);
+        com.codeborne.selenide.Selenide.sleep(TestDeadline.capMillis(2000));
 
         // Verify quantity updated
         int updatedQuantity = cartPage.getItemQuantity(firstItemName);
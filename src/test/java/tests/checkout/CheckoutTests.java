@@ -1,8 +1,10 @@
 package tests.checkout;
 
 import base.BaseTest;
+import base.SessionAffinity;
 import com.demowebshop.automation.pages.*;
 import com.demowebshop.automation.pages.common.BasePage;
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
 import dataproviders.CheckoutDataProvider;
 import factories.CheckoutDataFactory;
 import factories.UserDataFactory;
@@ -71,7 +73,7 @@ public class CheckoutTests extends BaseTest {
         productPage.clickAddToCart();
 
         // Wait for cart notification or cart count update using Selenide sleep
-        com.codeborne.selenide.Selenide.sleep(3000);
+        com.codeborne.selenide.Selenide.sleep(TestDeadline.capMillis(3000));
 
         // Verify cart was updated on homepage
         int cartCount = homePage.getCartItemCount();
@@ -80,13 +82,13 @@ public class CheckoutTests extends BaseTest {
         // Step 2: Navigate to cart and proceed to checkout
         // Scroll to top to ensure cart link is visible and clickable
         com.codeborne.selenide.Selenide.executeJavaScript("window.scrollTo(0, 0);");
-        com.codeborne.selenide.Selenide.sleep(500);
+        com.codeborne.selenide.Selenide.sleep(TestDeadline.capMillis(500));
 
         ShoppingCartPage cartPage = homePage.clickShoppingCartLink();
         Assert.assertTrue(cartPage.isPageLoaded(), "Shopping cart page should be loaded");
 
         // Wait for cart page to fully load using Selenide sleep (safer than Thread.sleep in parallel)
-        com.codeborne.selenide.Selenide.sleep(2000);
+        com.codeborne.selenide.Selenide.sleep(TestDeadline.capMillis(2000));
 
         // Verify cart is not empty before proceeding
         if (cartPage.isEmpty() || cartPage.getTotalItemCount() == 0) {
@@ -103,7 +105,7 @@ public class CheckoutTests extends BaseTest {
             productPage.clickAddToCart();
 
             // Wait for cart update using Selenide sleep
-            com.codeborne.selenide.Selenide.sleep(3000);
+            com.codeborne.selenide.Selenide.sleep(TestDeadline.capMillis(3000));
 
             cartPage = homePage.clickShoppingCartLink();
 
@@ -155,7 +157,7 @@ public class CheckoutTests extends BaseTest {
                         select.selectByIndex(i);
                         logger.info("Selected existing shipping address: {}", optionText);
                         // Wait for Continue button to become visible after selection
-                        com.codeborne.selenide.Selenide.sleep(1500);
+                        com.codeborne.selenide.Selenide.sleep(TestDeadline.capMillis(1500));
                         break;
                     }
                 }
@@ -222,6 +224,7 @@ public class CheckoutTests extends BaseTest {
             softAssert.assertFalse(orderNumber.trim().isEmpty(),
                                   "Order number should not be empty");
 
+            recordPlacedOrder(orderNumber);
             logger.info("Guest checkout completed with order number: {}", orderNumber);
         } else {
             logger.info("Order completion page not accessible - demo site limitation");
@@ -245,65 +248,25 @@ public class CheckoutTests extends BaseTest {
           dataProvider = "registeredUserCheckoutData",
           dataProviderClass = CheckoutDataProvider.class,
           description = "Registered user checkout should use saved information")
+    @SessionAffinity(userParameter = 0)
     public void testRegisteredUserCheckout(String email, String password, Address billingAddress,
                                           String shippingMethod, String paymentMethod,
                                           PaymentInfo paymentInfo, String testDescription) {
         logger.info("=== Starting CHECKOUT_002: {} ===", testDescription);
 
         HomePage homePage = home();
-        // Step 1: Register or login user
-        User testUser = UserDataFactory.createRandomUser();
-        testUser.setEmail(email);
-        testUser.setPassword(password);
-
-        RegisterPage registerPage = homePage.clickRegisterLink();
-        registerPage.selectGender(testUser.getGender())
-                   .enterFirstName(testUser.getFirstName())
-                   .enterLastName(testUser.getLastName())
-                   .enterEmail(testUser.getEmail())
-                   .enterPassword(testUser.getPassword())
-                   .confirmPassword(testUser.getPassword());
-
-        BasePage resultPage = registerPage.clickRegisterButton();
-
-        // Check if registration was successful
-        if (resultPage instanceof RegisterPage) {
-            RegisterPage failedRegPage = (RegisterPage) resultPage;
-            if (failedRegPage.hasValidationErrors()) {
-                java.util.List<String> errorsList = failedRegPage.getValidationErrors();
-                String errors = String.join(", ", errorsList);
-                logger.info("Registration failed with errors: {}", errors);
-
-                // If user already exists, try logging in instead
-                if (errors.toLowerCase().contains("already") || errors.toLowerCase().contains("exist")) {
-                    logger.info("User already exists - attempting login instead");
-                    LoginPage loginPage = homePage.clickLoginLink();
-                    BasePage loginResult = loginPage.login(email, password);
-
-                    // Wait for login to complete
-                    if (loginResult instanceof HomePage) {
-                        homePage = (HomePage) loginResult;
-                        updateHome(homePage);
-
-                        // Wait for login to complete using Selenide sleep
-                        com.codeborne.selenide.Selenide.sleep(2000);
-
-                        if (!homePage.isUserLoggedIn()) {
-                            Assert.fail("Login failed - cannot proceed with checkout test");
-                        }
-                        logger.info("Successfully logged in with existing user");
-                    } else {
-                        Assert.fail("Login failed - cannot proceed with checkout test");
-                    }
-                } else {
-                    Assert.fail("Registration failed - cannot proceed with checkout test");
-                }
-            } else {
-                Assert.fail("Registration failed - cannot proceed with checkout test");
-            }
+        User testUser = UserDataFactory.createRandomUser().toBuilder()
+                .email(email)
+                .password(password)
+                .build();
+
+        // Step 1: Register or login user; a pooled browser may still be logged in as this user
+        // The account is shared by the rows: let the cleanup of the previous row finish first
+        awaitPendingCleanup(testUser);
+        if (isSessionAuthenticated()) {
+            logger.info("Browser is already logged in as {}", email);
         } else {
-            homePage = (HomePage) resultPage;
-            updateHome(homePage);
+            homePage = registerOrLogin(homePage, testUser);
         }
 
         // Verify user is logged in
@@ -316,15 +279,17 @@ public class CheckoutTests extends BaseTest {
         String productTitle = productPage.getProductTitle();
         productPage.selectQuantity(1);
         productPage.clickAddToCart();
+        // The account is reused by later runs: whatever this test leaves in it is removed afterwards
+        recordCartItems(testUser);
 
         // Wait for cart to update using Selenide sleep
-        com.codeborne.selenide.Selenide.sleep(3000);
+        com.codeborne.selenide.Selenide.sleep(TestDeadline.capMillis(3000));
 
         // Step 3: Proceed to checkout
         ShoppingCartPage cartPage = homePage.clickShoppingCartLink();
 
         // Wait for cart page to load using Selenide sleep
-        com.codeborne.selenide.Selenide.sleep(2000);
+        com.codeborne.selenide.Selenide.sleep(TestDeadline.capMillis(2000));
 
         // Verify cart has items before checking out
         if (cartPage.isEmpty() || cartPage.getTotalItemCount() == 0) {
@@ -350,10 +315,10 @@ public class CheckoutTests extends BaseTest {
         if (billingAddress == null) {
             billingAddress = CheckoutDataFactory.createRandomBillingAddress();
         }
-        billingAddress.setFirstName(testUser.getFirstName());
-        billingAddress.setLastName(testUser.getLastName());
+        billingAddress = billingAddress.withName(testUser.getFirstName(), testUser.getLastName());
 
         checkoutPage.fillBillingAddress(billingAddress);
+        recordCreatedAddress(testUser, null);
 
         // Step 6: Check if address can be saved for future use
         if (checkoutPage.isSaveAddressOptionDisplayed()) {
@@ -393,6 +358,7 @@ public class CheckoutTests extends BaseTest {
             }
 
             String orderNumber = orderComplete.getOrderNumber();
+            recordPlacedOrder(orderNumber);
             logger.info("Registered user checkout completed with order number: {}", orderNumber);
         }
 
@@ -400,6 +366,63 @@ public class CheckoutTests extends BaseTest {
         logger.info("=== CHECKOUT_002 completed: {} ===", testDescription);
     }
 
+    /**
+     * Register the user, or log in if the account already exists
+     * @param homePage Current home page
+     * @param testUser User to register or log in
+     * @return Home page of the logged-in user
+     */
+    private HomePage registerOrLogin(HomePage homePage, User testUser) {
+        if (seedLoggedInUser(testUser)) {
+            logger.info("Logged in {} over HTTP", testUser.getEmail());
+            return getHomePage();
+        }
+        RegisterPage registerPage = homePage.clickRegisterLink();
+        BasePage resultPage = registerPage.register(testUser);
+
+        // Check if registration was successful
+        if (resultPage instanceof RegisterPage) {
+            RegisterPage failedRegPage = (RegisterPage) resultPage;
+            if (failedRegPage.hasValidationErrors()) {
+                java.util.List<String> errorsList = failedRegPage.getValidationErrors();
+                String errors = String.join(", ", errorsList);
+                logger.info("Registration failed with errors: {}", errors);
+
+                // If user already exists, try logging in instead
+                if (errors.toLowerCase().contains("already") || errors.toLowerCase().contains("exist")) {
+                    logger.info("User already exists - attempting login instead");
+                    LoginPage loginPage = homePage.clickLoginLink();
+                    BasePage loginResult = loginPage.login(testUser.getEmail(), testUser.getPassword());
+
+                    // Wait for login to complete
+                    if (loginResult instanceof HomePage) {
+                        homePage = (HomePage) loginResult;
+                        updateHome(homePage);
+
+                        // Wait for login to complete using Selenide sleep
+                        com.codeborne.selenide.Selenide.sleep(TestDeadline.capMillis(2000));
+
+                        if (!homePage.isUserLoggedIn()) {
+                            Assert.fail("Login failed - cannot proceed with checkout test");
+                        }
+                        rememberLogin(testUser);
+                        logger.info("Successfully logged in with existing user");
+                    } else {
+                        Assert.fail("Login failed - cannot proceed with checkout test");
+                    }
+                } else {
+                    Assert.fail("Registration failed - cannot proceed with checkout test");
+                }
+            } else {
+                Assert.fail("Registration failed - cannot proceed with checkout test");
+            }
+        } else {
+            homePage = (HomePage) resultPage;
+            updateHome(homePage);
+        }
+        return homePage;
+    }
+
     /**
      * Test ID: CHECKOUT_003 - Checkout Form Validation
      * Tests validation of required fields and invalid data in checkout forms
@@ -447,8 +470,8 @@ public class CheckoutTests extends BaseTest {
         }
 
         // Test invalid email format
-        Address invalidAddress = CheckoutDataFactory.createRandomBillingAddress();
-        invalidAddress.setEmail("invalid-email-format");
+        Address invalidAddress = CheckoutDataFactory.createRandomBillingAddress()
+                .withEmail("invalid-email-format");
 
         checkoutPage.fillBillingAddress(invalidAddress);
         checkoutPage.clickContinueOrNext();
@@ -458,7 +481,7 @@ public class CheckoutTests extends BaseTest {
         }
 
         // Test invalid phone number format
-        invalidAddress.setPhone("invalid-phone");
+        invalidAddress = invalidAddress.withPhoneNumber("invalid-phone");
         checkoutPage.fillBillingAddress(invalidAddress);
         checkoutPage.clickContinueOrNext();
 
@@ -467,7 +490,7 @@ public class CheckoutTests extends BaseTest {
         }
 
         // Test invalid postal code
-        invalidAddress.setPostalCode("INVALID");
+        invalidAddress = invalidAddress.withZipPostalCode("INVALID");
         checkoutPage.fillBillingAddress(invalidAddress);
         checkoutPage.clickContinueOrNext();
 
@@ -613,6 +636,73 @@ public class CheckoutTests extends BaseTest {
         logger.info("=== CHECKOUT_005 completed: Performance thresholds validated ===");
     }
 
+    /**
+     * Test ID: CHECKOUT_006 - Corpus Billing Addresses
+     * Tests billing address entry with addresses streamed from the bulk data corpus
+     * Validates the checkout form accepts each address without validation errors
+     */
+    @Test(groups = {"functional", "checkout", "data-driven"},
+          priority = 6,
+          dataProvider = "corpusBillingAddresses",
+          dataProviderClass = CheckoutDataProvider.class,
+          description = "Checkout should accept billing addresses from the data corpus")
+    public void testCorpusBillingAddresses(Address billingAddress, String description) {
+        logger.info("=== Starting CHECKOUT_006: {} ===", description);
+
+        HomePage homePage = home();
+        ProductDetailsPage productPage = homePage.navigateToRandomProduct();
+        productPage.clickAddToCart();
+
+        ShoppingCartPage cartPage = homePage.clickShoppingCartLink();
+        CheckoutPage checkoutPage = cartPage.clickCheckout();
+
+        checkoutPage.fillBillingAddress(billingAddress);
+        checkoutPage.clickContinueOrNext();
+
+        SoftAssert softAssert = assertions.getSoftAssert();
+        softAssert.assertFalse(checkoutPage.hasValidationErrors(),
+                              "Corpus billing address should pass validation: " + checkoutPage.getValidationErrors());
+
+        assertions.assertAll();
+        logger.info("=== CHECKOUT_006 completed: {} ===", description);
+    }
+
+    /**
+     * Test ID: CHECKOUT_007 - Corpus Payment Data
+     * Tests credit card entry with payment records streamed from the bulk data corpus
+     * Validates the payment form accepts each card without payment errors
+     */
+    @Test(groups = {"functional", "checkout", "data-driven"},
+          priority = 7,
+          dataProvider = "corpusPaymentData",
+          dataProviderClass = CheckoutDataProvider.class,
+          description = "Checkout should accept payment records from the data corpus")
+    public void testCorpusPaymentData(PaymentInfo paymentInfo, String description) {
+        logger.info("=== Starting CHECKOUT_007: {} ===", description);
+
+        HomePage homePage = home();
+        ProductDetailsPage productPage = homePage.navigateToRandomProduct();
+        productPage.clickAddToCart();
+
+        ShoppingCartPage cartPage = homePage.clickShoppingCartLink();
+        CheckoutPage checkoutPage = cartPage.clickCheckout();
+
+        checkoutPage.fillBillingAddress(CheckoutDataFactory.createRandomBillingAddress());
+        checkoutPage.selectCreditCard();
+
+        SoftAssert softAssert = assertions.getSoftAssert();
+        if (checkoutPage.isPaymentInformationRequired()) {
+            checkoutPage.fillPaymentInformation(paymentInfo);
+            softAssert.assertFalse(checkoutPage.hasPaymentErrors(),
+                                  "Corpus payment record should be accepted");
+        } else {
+            logger.info("Credit card payment not offered; skipping card entry for {}", description);
+        }
+
+        assertions.assertAll();
+        logger.info("=== CHECKOUT_007 completed: {} ===", description);
+    }
+
     @Override
     protected void additionalTeardown() {
         // Clear cart and logout user if needed
@@ -625,11 +715,11 @@ public class CheckoutTests extends BaseTest {
                 }
 
                 // Wait for page to stabilize before clicking cart link
-                com.codeborne.selenide.Selenide.sleep(1000);
+                com.codeborne.selenide.Selenide.sleep(TestDeadline.capMillis(1000));
 
                 // Scroll to top to ensure cart link is visible
                 com.codeborne.selenide.Selenide.executeJavaScript("window.scrollTo(0, 0);");
-                com.codeborne.selenide.Selenide.sleep(500);
+                com.codeborne.selenide.Selenide.sleep(TestDeadline.capMillis(500));
 
                 ShoppingCartPage cartPage = homePage.clickShoppingCartLink();
                 if (cartPage.hasItems()) {
@@ -0,0 +1,209 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.cleanup.CleanupService;
+import com.demowebshop.automation.utils.cleanup.TestDataLedger;
+import models.User;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batched background cleanup of test data against an in-memory shop
+ */
+public class CleanupServiceTests {
+
+    /**
+     * Shop with address books and carts per customer, recording every call
+     */
+    private static final class FakeShop implements CleanupService.Shop {
+        private final Map<String, List<String>> addresses = new ConcurrentHashMap<>();
+        private final Map<String, Integer> cartLines = new ConcurrentHashMap<>();
+        private final List<String> calls = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private volatile boolean blocked;
+
+        @Override
+        public CleanupService.CustomerSession login(String email, String password) throws Exception {
+            if (blocked) {
+                entered.countDown();
+                released.await(10, TimeUnit.SECONDS);
+            }
+            calls.add("login " + email);
+            if (password.startsWith("wrong")) {
+                throw new IllegalStateException("Login failed");
+            }
+            return new CleanupService.CustomerSession() {
+                @Override
+                public void deleteAddress(String addressId) {
+                    calls.add("delete " + addressId);
+                    addresses.get(email).remove(addressId);
+                }
+
+                @Override
+                public int deleteAddresses() {
+                    calls.add("delete all");
+                    List<String> book = addresses.get(email);
+                    int deleted = book.size();
+                    book.clear();
+                    return deleted;
+                }
+
+                @Override
+                public int clearCart() {
+                    calls.add("clear cart");
+                    Integer lines = cartLines.remove(email);
+                    return lines == null ? 0 : lines;
+                }
+            };
+        }
+    }
+
+    private static User user(String email) {
+        return User.builder().email(email).password("secret").firstName("Test").lastName("User").build();
+    }
+
+    @Test(groups = {"framework"})
+    public void testRecordedAddressesAndCartsAreRemoved() {
+        FakeShop shop = new FakeShop();
+        User user = user("a@example.com");
+        shop.addresses.put(user.getEmail(), new CopyOnWriteArrayList<>(List.of("1", "2", "3")));
+        shop.cartLines.put(user.getEmail(), 2);
+
+        TestDataLedger ledger = new TestDataLedger("AccountTests.testAddress");
+        ledger.address(user, "2");
+        ledger.cart(user);
+
+        CleanupService service = new CleanupService(shop, 20, Duration.ofSeconds(10), null);
+        service.submit(ledger);
+        service.close();
+
+        Assert.assertEquals(shop.addresses.get(user.getEmail()), List.of("1", "3"),
+                "Only the recorded address should be deleted");
+        Assert.assertFalse(shop.cartLines.containsKey(user.getEmail()));
+        Assert.assertEquals(service.getDeletedAddressCount(), 1);
+        Assert.assertEquals(service.getRemovedCartLineCount(), 2);
+        Assert.assertEquals(service.getFailedCustomerCount(), 0);
+    }
+
+    @Test(groups = {"framework"})
+    public void testLedgersOfOneBatchShareOneLoginPerCustomer() throws Exception {
+        FakeShop shop = new FakeShop();
+        User shared = user("shared@example.com");
+        User other = user("other@example.com");
+        shop.addresses.put(shared.getEmail(), new CopyOnWriteArrayList<>(List.of("10", "11")));
+        shop.addresses.put(other.getEmail(), new CopyOnWriteArrayList<>(List.of("20")));
+
+        // Hold the worker in the first login so the remaining ledgers queue up into one batch
+        shop.blocked = true;
+        CleanupService service = new CleanupService(shop, 20, Duration.ofSeconds(10), null);
+        TestDataLedger first = new TestDataLedger("first");
+        first.cart(other);
+        service.submit(first);
+        Assert.assertTrue(shop.entered.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            TestDataLedger ledger = new TestDataLedger("test" + i);
+            ledger.address(shared, i % 2 == 0 ? "10" : "11");
+            ledger.addresses(other);
+            service.submit(ledger);
+        }
+        shop.blocked = false;
+        shop.released.countDown();
+        service.close();
+
+        long sharedLogins = shop.calls.stream().filter(call -> call.equals("login " + shared.getEmail())).count();
+        Assert.assertEquals(sharedLogins, 1, "One login per customer and batch: " + shop.calls);
+        Assert.assertEquals(service.getBatchCount(), 2);
+        Assert.assertEquals(service.getLoginCount(), 3);
+        Assert.assertTrue(shop.addresses.get(shared.getEmail()).isEmpty());
+        Assert.assertTrue(shop.addresses.get(other.getEmail()).isEmpty());
+        Assert.assertEquals(service.getDeletedAddressCount(), 3);
+    }
+
+    @Test(groups = {"framework"})
+    public void testAccountsAndOrdersAreReportedAndFailuresDoNotStopTheBatch() throws Exception {
+        FakeShop shop = new FakeShop();
+        User locked = User.builder().email("locked@example.com").password("wrong-password").build();
+        User user = user("b@example.com");
+        shop.addresses.put(user.getEmail(), new CopyOnWriteArrayList<>(List.of("7")));
+        Path leftovers = Files.createTempDirectory("cleanup").resolve("leftovers.csv");
+
+        TestDataLedger ledger = new TestDataLedger("CheckoutTests.testRegisteredUserCheckout");
+        User registered = user("c@example.com");
+        ledger.cart(locked);
+        ledger.addresses(user);
+        ledger.account(registered);
+        ledger.account(registered);
+        ledger.order("1234567");
+
+        CleanupService service = new CleanupService(shop, 20, Duration.ofSeconds(10), leftovers);
+        service.submit(ledger);
+        service.submit(new TestDataLedger("nothing created"));
+        service.close();
+
+        Assert.assertEquals(service.getFailedCustomerCount(), 1);
+        Assert.assertTrue(shop.addresses.get(user.getEmail()).isEmpty(),
+                "The next customer should still be cleaned up after a failed login");
+        Assert.assertEquals(Files.readAllLines(leftovers), List.of(
+                "account,c@example.com,CheckoutTests.testRegisteredUserCheckout",
+                "order,1234567,CheckoutTests.testRegisteredUserCheckout"));
+        Assert.assertEquals(service.getLeftoverCount(), 2);
+        Assert.assertEquals(service.getBatchCount(), 1, "Empty ledgers should not be queued");
+
+        // After close, a late ledger is cleaned up on the caller's thread
+        shop.addresses.get(user.getEmail()).add("8");
+        TestDataLedger late = new TestDataLedger("late");
+        late.address(user, "8");
+        service.submit(late);
+        Assert.assertTrue(shop.addresses.get(user.getEmail()).isEmpty());
+    }
+
+    @Test(groups = {"framework"})
+    public void testNextUseOfAnAccountWaitsForItsQueuedCleanup() throws Exception {
+        FakeShop shop = new FakeShop();
+        User shared = user("shared@example.com");
+        shop.cartLines.put(shared.getEmail(), 1);
+
+        shop.blocked = true;
+        CleanupService service = new CleanupService(shop, 20, Duration.ofSeconds(10), null);
+        TestDataLedger ledger = new TestDataLedger("first row");
+        ledger.cart(shared);
+        service.submit(ledger);
+        Assert.assertTrue(shop.entered.await(10, TimeUnit.SECONDS));
+
+        Assert.assertTrue(service.awaitCustomer("other@example.com", Duration.ZERO), "Other customers do not wait");
+        Assert.assertFalse(service.awaitCustomer(shared.getEmail(), Duration.ofMillis(50)));
+        shop.blocked = false;
+        shop.released.countDown();
+        Assert.assertTrue(service.awaitCustomer(shared.getEmail(), Duration.ofSeconds(10)));
+        Assert.assertFalse(shop.cartLines.containsKey(shared.getEmail()), "Cart emptied before the next row starts");
+        service.close();
+    }
+
+    @Test(groups = {"framework"})
+    public void testAccountsTheTestRegisteredAreNotCleanedUp() {
+        FakeShop shop = new FakeShop();
+        User throwaway = user("new@example.com");
+
+        TestDataLedger ledger = new TestDataLedger("AccountManagementTests.testAddressManagement");
+        ledger.cart(throwaway);
+        ledger.account(throwaway);
+        ledger.addresses(throwaway);
+
+        CleanupService service = new CleanupService(shop, 20, Duration.ofSeconds(10), null);
+        service.submit(ledger);
+        service.close();
+
+        Assert.assertEquals(shop.calls, List.of(), "No login for an account no later test uses");
+        Assert.assertEquals(service.getLeftoverCount(), 1);
+    }
+}
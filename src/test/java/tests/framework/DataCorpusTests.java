@@ -0,0 +1,102 @@
+package tests.framework;
+
+import factories.DataCorpus;
+import factories.DataCorpusGenerator;
+import models.Address;
+import models.User;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk corpus round trip and lazy row access
+ */
+public class DataCorpusTests {
+
+    private static Path writeCorpus(DataCorpus.Kind kind, List<String[]> rows) throws Exception {
+        Path file = Files.createTempFile(kind.getFileName(), ".corpus");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            DataCorpus.write(out, kind, 42L, rows);
+        }
+        return file;
+    }
+
+    @Test(groups = {"framework"})
+    public void testRowsRoundTripThroughTheMappedFile() throws Exception {
+        List<String[]> rows = DataCorpusGenerator.generate(DataCorpus.Kind.ADDRESSES, 1500);
+        rows.set(3, new String[]{"Zoë", "Ångström", null, null, "Germany", "Bayern", "München", "Straße 1",
+                null, "80331", "+49 89 1234", null});
+        DataCorpus corpus = DataCorpus.open(writeCorpus(DataCorpus.Kind.ADDRESSES, rows));
+
+        Assert.assertEquals(corpus.getKind(), DataCorpus.Kind.ADDRESSES);
+        Assert.assertEquals(corpus.size(), 1500);
+        Assert.assertEquals(corpus.getSeed(), 42L);
+        for (int row : new int[]{0, 3, 1023, 1024, 1499}) {
+            Assert.assertEquals(corpus.fields(row), rows.get(row), "Row " + row);
+        }
+        Address address = corpus.address(3);
+        Assert.assertEquals(address.getCity(), "München");
+        Assert.assertNull(address.getAddress2());
+        Assert.assertThrows(IllegalStateException.class, () -> corpus.user(0));
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> corpus.fields(1500));
+    }
+
+    @Test(groups = {"framework"})
+    public void testRowsAreMaterializedOnlyWhenReached() throws Exception {
+        DataCorpus corpus = DataCorpus.open(writeCorpus(DataCorpus.Kind.USERS,
+                DataCorpusGenerator.generate(DataCorpus.Kind.USERS, 50)));
+        AtomicInteger materialized = new AtomicInteger();
+
+        Iterator<Object[]> rows = corpus.rows(40, 25, row -> {
+            materialized.incrementAndGet();
+            return new Object[]{corpus.user(row)};
+        });
+        Assert.assertEquals(materialized.get(), 0);
+        User first = (User) rows.next()[0];
+        Assert.assertEquals(materialized.get(), 1);
+
+        int count = 1;
+        while (rows.hasNext()) {
+            rows.next();
+            count++;
+        }
+        Assert.assertEquals(count, 10, "Stops at the end of the corpus");
+
+        // Reading a row twice gives two different registrable emails
+        String stored = corpus.fields(40)[2];
+        Assert.assertNotEquals(corpus.user(40).getEmail(), first.getEmail());
+        Assert.assertTrue(first.getEmail().endsWith(stored.substring(stored.indexOf('@'))), first.getEmail());
+        Assert.assertEquals(first.getPassword(), corpus.fields(40)[3]);
+    }
+
+    @Test(groups = {"framework"})
+    public void testSameSeedGeneratesTheSameUsers() {
+        List<String[]> first = DataCorpusGenerator.generate(DataCorpus.Kind.USERS, 1100);
+        List<String[]> second = DataCorpusGenerator.generate(DataCorpus.Kind.USERS, 1100);
+
+        Assert.assertEquals(second.size(), first.size());
+        LocalDate youngest = DataCorpusGenerator.BIRTHDAY_REFERENCE.minusYears(18);
+        for (int row = 0; row < first.size(); row++) {
+            Assert.assertEquals(second.get(row), first.get(row), "Row " + row);
+            LocalDate birthday = LocalDate.parse(first.get(row)[5]);
+            Assert.assertFalse(birthday.isAfter(youngest), "Row " + row + " born " + birthday);
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testGeneratedCorpusIsOnTheClasspath() {
+        for (DataCorpus.Kind kind : DataCorpus.Kind.values()) {
+            DataCorpus corpus = DataCorpus.shared(kind);
+            Assert.assertTrue(corpus.size() >= 1000, kind + " has " + corpus.size() + " rows");
+            Assert.assertSame(DataCorpus.shared(kind), corpus);
+        }
+        Assert.assertNotNull(DataCorpus.shared(DataCorpus.Kind.PAYMENTS).paymentInfo(4999).getCardNumber());
+    }
+}
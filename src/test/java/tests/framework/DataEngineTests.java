@@ -0,0 +1,87 @@
+package tests.framework;
+
+import factories.CheckoutDataFactory;
+import factories.DataEngine;
+import factories.UserDataFactory;
+import models.Address;
+import models.User;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Seeded per-thread data generation and lock-free unique IDs
+ */
+public class DataEngineTests {
+
+    @Test(groups = {"framework"})
+    public void testSameKeyReplaysTheSameDataOnAnyThread() throws Exception {
+        DataEngine.reseed("tests.checkout.CheckoutTests.testGuestCheckout");
+        User first = UserDataFactory.createRandomUser();
+        Address firstAddress = CheckoutDataFactory.createRandomBillingAddress();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object[]> replay = executor.submit(() -> {
+                DataEngine.reseed("tests.checkout.CheckoutTests.testGuestCheckout");
+                return new Object[]{UserDataFactory.createRandomUser(), CheckoutDataFactory.createRandomBillingAddress()};
+            });
+            User second = (User) replay.get()[0];
+            Address secondAddress = (Address) replay.get()[1];
+
+            Assert.assertEquals(second.getFirstName(), first.getFirstName());
+            Assert.assertEquals(second.getLastName(), first.getLastName());
+            Assert.assertEquals(second.getPassword(), first.getPassword());
+            Assert.assertEquals(secondAddress.getCity(), firstAddress.getCity());
+            Assert.assertEquals(secondAddress.getAddress1(), firstAddress.getAddress1());
+            Assert.assertNotEquals(second.getEmail(), first.getEmail(), "Emails stay unique on replay");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        DataEngine.reseed("tests.checkout.CheckoutTests.testRegisteredCheckout");
+        Assert.assertNotEquals(UserDataFactory.createRandomUser().getPassword(), first.getPassword());
+        Assert.assertEquals(DataEngine.seedFor("a"), DataEngine.seedFor("a"));
+    }
+
+    @Test(groups = {"framework"})
+    public void testUniqueIdsDoNotCollideAcrossThreads() throws Exception {
+        Set<String> emails = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        emails.add(UserDataFactory.generateUniqueEmail("Ada", "Lovelace"));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(emails.size(), 8 * 500);
+        Assert.assertTrue(emails.iterator().next().contains("." + DataEngine.getRunId() + "-"));
+    }
+
+    @Test(groups = {"framework"})
+    public void testPasswordsKeepEveryCharacterClass() {
+        DataEngine.reseed("passwords");
+        for (int i = 0; i < 200; i++) {
+            String password = UserDataFactory.generateSecurePassword();
+            Assert.assertEquals(password.length(), 12);
+            Assert.assertTrue(password.matches(".*[A-Z].*") && password.matches(".*[a-z].*")
+                    && password.matches(".*[0-9].*") && password.matches(".*[!@#$%^&*].*"), password);
+        }
+    }
+}
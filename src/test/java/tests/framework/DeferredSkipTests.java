@@ -0,0 +1,92 @@
+package tests.framework;
+
+import base.DeferredSkip;
+import org.testng.Assert;
+import org.testng.IAnnotationTransformer;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
+import org.testng.ITestResult;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Skips decided in setup apply to one invocation, not to the rest of the class
+ */
+public class DeferredSkipTests {
+
+    /**
+     * Site is down for the first method only; disabled so the enclosing suite skips it
+     */
+    public static class RecoveringSite implements IHookable {
+        static volatile boolean siteDown;
+
+        @BeforeMethod(alwaysRun = true)
+        public void setUp(Method method) {
+            DeferredSkip.clear();
+            siteDown = method.getName().equals("first");
+            if (siteDown) {
+                DeferredSkip.defer("Site health breaker open: 3 consecutive failures");
+            }
+        }
+
+        @Override
+        public void run(IHookCallBack callBack, ITestResult testResult) {
+            DeferredSkip.runOrSkip(callBack, testResult);
+        }
+
+        @Test(enabled = false, priority = 1)
+        public void first() {
+            Assert.fail("Must not run while the site is down");
+        }
+
+        @Test(enabled = false, priority = 2)
+        public void second() {
+            Assert.assertFalse(siteDown);
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testSkipAppliesToOneInvocationAndKeepsItsReason() throws Exception {
+        XmlSuite suite = new XmlSuite();
+        suite.setName("deferred-skip");
+        XmlTest test = new XmlTest(suite);
+        test.setName("recovering");
+        test.setXmlClasses(List.of(new XmlClass(RecoveringSite.class)));
+
+        TestListenerAdapter results = new TestListenerAdapter();
+        TestNG testNG = new TestNG();
+        testNG.setUseDefaultListeners(false);
+        testNG.setVerbose(0);
+        testNG.setOutputDirectory(Files.createTempDirectory("deferred-skip").toString());
+        testNG.setXmlSuites(List.of(suite));
+        testNG.addListener(results);
+        testNG.addListener(new IAnnotationTransformer() {
+            @Override
+            public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor,
+                                  Method testMethod) {
+                annotation.setEnabled(true);
+            }
+        });
+        testNG.run();
+
+        Assert.assertEquals(results.getConfigurationFailures().size(), 0);
+        Assert.assertEquals(results.getConfigurationSkips().size(), 0);
+        Assert.assertEquals(results.getSkippedTests().size(), 1);
+        ITestResult skipped = results.getSkippedTests().get(0);
+        Assert.assertEquals(skipped.getMethod().getMethodName(), "first");
+        Assert.assertEquals(skipped.getThrowable().getMessage(), "Site health breaker open: 3 consecutive failures");
+        Assert.assertEquals(results.getPassedTests().size(), 1, "The next method should run once the site is back");
+        Assert.assertEquals(results.getPassedTests().get(0).getMethod().getMethodName(), "second");
+    }
+}
@@ -0,0 +1,171 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.concurrent.TestTaskScope;
+import com.demowebshop.automation.utils.reporting.FailureArtifactCollector;
+import com.demowebshop.automation.utils.reporting.FailureArtifactCollector.FailureArtifacts;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntries;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.Logs;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Failure artifact capture against a scripted driver: size caps, gzip output and per-invocation reuse
+ */
+public class FailureArtifactCollectorTests {
+    private static final String[] CAPS = {"report.failure.artifacts.dir", "report.failure.page.source.max.kb",
+            "report.failure.console.max.lines", "report.failure.screenshot.max.kb"};
+
+    private Path directory;
+
+    @BeforeClass(alwaysRun = true)
+    public void configure() throws Exception {
+        directory = Files.createTempDirectory("failure-artifacts");
+        System.setProperty("report.failure.artifacts.dir", directory.toString());
+        System.setProperty("report.failure.page.source.max.kb", "1");
+        System.setProperty("report.failure.console.max.lines", "3");
+        System.setProperty("report.failure.screenshot.max.kb", "2");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void restore() throws Exception {
+        for (String key : CAPS) {
+            System.clearProperty(key);
+        }
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Driver that answers the collector's calls with fixed content and counts the browser reads
+     */
+    private static WebDriver driver(int screenshotBytes, String html, int consoleLines, AtomicInteger reads) {
+        List<LogEntry> console = new ArrayList<>();
+        for (int i = 1; i <= consoleLines; i++) {
+            console.add(new LogEntry(Level.SEVERE, i, "console line " + i));
+        }
+        Logs logs = (Logs) Proxy.newProxyInstance(Logs.class.getClassLoader(), new Class<?>[]{Logs.class},
+                (proxy, method, args) -> method.getName().equals("get") ? new LogEntries(console) : null);
+        WebDriver.Options options = (WebDriver.Options) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.Options.class}, (proxy, method, args) -> method.getName().equals("logs") ? logs : null);
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, TakesScreenshot.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getScreenshotAs":
+                            reads.incrementAndGet();
+                            Assert.assertEquals(args[0], OutputType.BYTES);
+                            return new byte[screenshotBytes];
+                        case "executeScript":
+                            reads.incrementAndGet();
+                            int max = ((Number) ((Object[]) args[1])[0]).intValue();
+                            return Map.of("url", "http://shop/cart", "title", "Cart", "length", html.length(),
+                                    "html", html.length() > max ? html.substring(0, max) : html);
+                        case "manage":
+                            return options;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static String gunzip(String file) throws Exception {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(Paths.get(file)))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testArtifactsAreCappedAndCompressed() throws Exception {
+        String testId = "CheckoutTests.testCappedArtifacts";
+        long started = System.currentTimeMillis();
+        String html = "<html>" + "x".repeat(3000) + "</html>";
+        FailureArtifacts artifacts;
+        TestTaskScope.open(testId);
+        try {
+            artifacts = FailureArtifactCollector.collect(driver(1024, html, 5, new AtomicInteger()), testId, started);
+        } finally {
+            // Writes are side tasks of the test's scope; closing it waits for them
+            TestTaskScope.closeCurrent();
+            FailureArtifactCollector.release(testId, started);
+        }
+
+        Assert.assertTrue(artifacts.getWritten().isDone() && !artifacts.getWritten().isCompletedExceptionally(),
+                "Closing the scope should leave every artifact written");
+        Assert.assertTrue(artifacts.getDirectory().startsWith(directory));
+        Assert.assertEquals(Files.size(Paths.get(artifacts.getScreenshotPath())), 1024);
+
+        Assert.assertTrue(artifacts.getPageSourcePath().endsWith("page-source.html.gz"));
+        String source = gunzip(artifacts.getPageSourcePath());
+        Assert.assertTrue(source.startsWith("<!-- url: http://shop/cart | title: Cart | " + html.length()
+                + " chars, truncated to 1024 -->"), source.substring(0, 80));
+        Assert.assertEquals(source.substring(source.indexOf('\n') + 1).length(), 1024);
+
+        Assert.assertTrue(artifacts.getConsoleLogPath().endsWith("console.log.gz"));
+        List<String> console = gunzip(artifacts.getConsoleLogPath()).lines().toList();
+        Assert.assertEquals(console.get(0), "... 2 earlier entries dropped");
+        Assert.assertEquals(console.size(), 4);
+        Assert.assertTrue(console.get(3).endsWith("SEVERE console line 5"));
+    }
+
+    @Test(groups = {"framework"})
+    public void testOversizedScreenshotIsDropped() {
+        String testId = "CheckoutTests.testOversizedScreenshot";
+        long started = System.currentTimeMillis();
+        try {
+            FailureArtifacts artifacts = FailureArtifactCollector.collect(driver(3 * 1024, "<html/>", 0, new AtomicInteger()),
+                    testId, started);
+            Assert.assertNull(artifacts.getScreenshotPath(), "Screenshots above the cap should not be saved");
+            Assert.assertNull(artifacts.getConsoleLogPath(), "An empty console should not produce a file");
+            Assert.assertNotNull(artifacts.getPageSourcePath());
+            artifacts.getWritten().join();
+            Assert.assertTrue(Files.exists(Paths.get(artifacts.getPageSourcePath())));
+        } finally {
+            TestTaskScope.closeCurrent();
+            FailureArtifactCollector.release(testId, started);
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testInvocationIsCapturedOnceUntilReleased() {
+        String testId = "CheckoutTests.testCapturedOnce";
+        long started = System.currentTimeMillis();
+        AtomicInteger reads = new AtomicInteger();
+        WebDriver driver = driver(16, "<html/>", 0, reads);
+        try {
+            FailureArtifacts first = FailureArtifactCollector.collect(driver, testId, started);
+            Assert.assertSame(FailureArtifactCollector.collect(driver, testId, started), first,
+                    "Every listener of one failed invocation should share one capture");
+            Assert.assertEquals(reads.get(), 2, "One screenshot and one page source read");
+
+            FailureArtifactCollector.collect(driver, testId, started + 1);
+            Assert.assertEquals(reads.get(), 4, "A retry is a new invocation");
+            FailureArtifactCollector.release(testId, started + 1);
+
+            FailureArtifactCollector.release(testId, started);
+            Assert.assertNotSame(FailureArtifactCollector.collect(driver, testId, started), first);
+        } finally {
+            TestTaskScope.closeCurrent();
+            FailureArtifactCollector.release(testId, started);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.fork.ForkCoordinator;
+import com.demowebshop.automation.utils.fork.ForkRunner;
+import com.demowebshop.automation.utils.fork.ForkWorker;
+import com.demowebshop.automation.utils.sharding.TestDurationHistory;
+import org.testng.Assert;
+import org.testng.IAnnotationTransformer;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.IConfigurationAnnotation;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Fork coordination protocol with in-process workers
+ */
+public class ForkCoordinatorTests {
+    private static final List<String> CLASSES = List.of("tests.a.SlowTests", "tests.b.MediumTests",
+            "tests.c.FastTests", "tests.d.TinyTests");
+
+    private static List<ForkCoordinator.Outcome> passAll(String testClass) {
+        return List.of(new ForkCoordinator.Outcome(testClass + ".testOne", ForkCoordinator.Outcome.Status.PASSED, 10, "", "?"),
+                new ForkCoordinator.Outcome(testClass + ".testTwo", ForkCoordinator.Outcome.Status.PASSED, 20, "", "?"));
+    }
+
+    private static void passAllClaimed(List<String> testClasses, ForkWorker.ClassClaims claims) throws Exception {
+        for (String testClass : testClasses) {
+            if (claims.claim(testClass)) {
+                claims.finish(testClass, passAll(testClass));
+            }
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testClassesAreSharedDynamicallyAndMerged() throws Exception {
+        Map<String, String> ranOn = new ConcurrentHashMap<>();
+        ExecutorService workers = Executors.newFixedThreadPool(3);
+        try (ForkCoordinator coordinator = new ForkCoordinator(CLASSES, 2)) {
+            int port = coordinator.start();
+            for (int fork = 1; fork <= 3; fork++) {
+                String forkId = String.valueOf(fork);
+                workers.submit(() -> ForkWorker.run(port, forkId, (testClasses, claims) -> {
+                    for (String testClass : testClasses) {
+                        if (claims.claim(testClass)) {
+                            Assert.assertNull(ranOn.put(testClass, forkId), "Class handed out twice: " + testClass);
+                            claims.finish(testClass, passAll(testClass));
+                        }
+                    }
+                }));
+            }
+            Assert.assertTrue(coordinator.awaitCompletion(Duration.ofSeconds(20)));
+
+            Assert.assertEquals(ranOn.keySet(), Set.copyOf(CLASSES));
+            Assert.assertEquals(coordinator.getOutcomes().size(), CLASSES.size() * 2);
+            Assert.assertEquals(coordinator.count(ForkCoordinator.Outcome.Status.PASSED), CLASSES.size() * 2);
+
+            Path report = Files.createTempFile("forked", ".xml");
+            try {
+                coordinator.writeJUnitReport(report);
+                String xml = Files.readString(report);
+                Assert.assertTrue(xml.contains("tests=\"8\" failures=\"0\""), xml);
+                Assert.assertTrue(xml.contains("classname=\"tests.c.FastTests\" name=\"testTwo\""), xml);
+            } finally {
+                Files.deleteIfExists(report);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Takes a class and disconnects, which is what the coordinator sees when a fork JVM dies
+     */
+    private static String crashAfterTakingClass(int port) throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            out.println("HELLO\tcrashing");
+            out.println("ORDER");
+            String order = in.readLine();
+            out.println("CLAIM\t" + order.split("\t")[1]);
+            return in.readLine();
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testClassOfCrashedForkRunsOnAnotherFork() throws Exception {
+        try (ForkCoordinator coordinator = new ForkCoordinator(List.of("tests.a.CrashingTests"), 2)) {
+            int port = coordinator.start();
+            Assert.assertEquals(crashAfterTakingClass(port), "RUN\ttests.a.CrashingTests");
+
+            Assert.assertEquals(ForkWorker.run(port, "2", ForkCoordinatorTests::passAllClaimed), 1);
+            Assert.assertTrue(coordinator.awaitCompletion(Duration.ofSeconds(20)));
+            Assert.assertEquals(coordinator.count(ForkCoordinator.Outcome.Status.PASSED), 2);
+            Assert.assertTrue(coordinator.getOutcomes().stream().allMatch(outcome -> outcome.getFork().equals("2")));
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testClassIsReportedFailedAfterLastAttemptAndRunnerErrorsAreFailures() throws Exception {
+        try (ForkCoordinator coordinator = new ForkCoordinator(List.of("tests.a.CrashingTests", "tests.b.BrokenTests"), 1)) {
+            int port = coordinator.start();
+            Assert.assertEquals(crashAfterTakingClass(port), "RUN\ttests.a.CrashingTests");
+
+            ForkWorker.run(port, "2", (testClasses, claims) -> {
+                throw new IllegalStateException("no suite for " + testClasses);
+            });
+            Assert.assertTrue(coordinator.awaitCompletion(Duration.ofSeconds(20)));
+            Assert.assertEquals(coordinator.getFinishedClasses(), Set.of("tests.a.CrashingTests", "tests.b.BrokenTests"));
+            Assert.assertEquals(coordinator.count(ForkCoordinator.Outcome.Status.FAILED), 2);
+        }
+    }
+
+    /**
+     * Fixtures of the fork suite test; disabled so the enclosing suite skips them, enabled by {@link EnableFixtures}
+     */
+    public static class FirstForkClass {
+        @BeforeSuite(enabled = false)
+        public void startSuite() {
+            SUITE_STARTS.incrementAndGet();
+        }
+
+        @Test(enabled = false)
+        public void runs() {
+            RAN.add("FirstForkClass");
+        }
+    }
+
+    public static class SecondForkClass {
+        @Test(enabled = false)
+        public void runs() {
+            RAN.add("SecondForkClass");
+        }
+    }
+
+    public static class ClaimedElsewhere {
+        @BeforeClass(enabled = false)
+        public void setUpClass() {
+            RAN.add("ClaimedElsewhere.setUpClass");
+        }
+
+        @Test(enabled = false)
+        public void runs() {
+            RAN.add("ClaimedElsewhere");
+        }
+    }
+
+    public static class EnableFixtures implements IAnnotationTransformer {
+        @Override
+        public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+            annotation.setEnabled(true);
+        }
+
+        @Override
+        public void transform(IConfigurationAnnotation annotation, Class testClass, Constructor testConstructor,
+                              Method testMethod) {
+            annotation.setEnabled(true);
+        }
+    }
+
+    private static final AtomicInteger SUITE_STARTS = new AtomicInteger();
+    private static final List<String> RAN = Collections.synchronizedList(new ArrayList<>());
+
+    @Test(groups = {"framework"})
+    public void testForkRunsOneSuiteAndOnlyItsClaimedClasses() throws Exception {
+        String prefix = ForkCoordinatorTests.class.getName() + "$";
+        List<String> classes = List.of(prefix + "FirstForkClass", prefix + "SecondForkClass", prefix + "ClaimedElsewhere");
+        Path directory = Files.createTempDirectory("fork-suite");
+        Path suiteFile = directory.resolve("testng-fork.xml");
+        Files.writeString(suiteFile, "<suite name=\"Fork\" parallel=\"methods\" thread-count=\"2\">"
+                + "<listeners><listener class-name=\"" + prefix + "EnableFixtures\"/></listeners>"
+                + "<test name=\"All\"><classes>"
+                + classes.stream().map(name -> "<class name=\"" + name + "\"/>").collect(Collectors.joining())
+                + "</classes></test></suite>");
+
+        List<String> claimed = Collections.synchronizedList(new ArrayList<>());
+        Map<String, List<ForkCoordinator.Outcome>> finished = new ConcurrentHashMap<>();
+        ForkWorker.ClassClaims claims = new ForkWorker.ClassClaims() {
+            @Override
+            public boolean claim(String testClass) {
+                claimed.add(testClass);
+                return !testClass.endsWith("ClaimedElsewhere");
+            }
+
+            @Override
+            public void finish(String testClass, List<ForkCoordinator.Outcome> outcomes) {
+                finished.put(testClass, outcomes);
+            }
+        };
+        SUITE_STARTS.set(0);
+        RAN.clear();
+        new ForkWorker.TestNGSuiteRunner(suiteFile, directory).run(classes, claims);
+
+        Assert.assertEquals(SUITE_STARTS.get(), 1, "Suite setup should run once for all classes of the fork");
+        Assert.assertEquals(claimed, classes, "Each class should be claimed when its turn comes");
+        Assert.assertEquals(RAN, List.of("FirstForkClass", "SecondForkClass"));
+        Assert.assertEquals(finished.keySet(), Set.of(classes.get(0), classes.get(1)));
+        Assert.assertEquals(finished.get(classes.get(1)).get(0).getStatus(), ForkCoordinator.Outcome.Status.PASSED);
+    }
+
+    @Test(groups = {"framework"})
+    public void testLongestClassesAreHandedOutFirst() {
+        XmlSuite suite = new XmlSuite();
+        XmlTest test = new XmlTest(suite);
+        XmlClass quick = new XmlClass("tests.QuickTests", false);
+        quick.setIncludedMethods(List.of(new XmlInclude("a"), new XmlInclude("b")));
+        XmlClass slow = new XmlClass("tests.SlowTests", false);
+        slow.setIncludedMethods(List.of(new XmlInclude("c")));
+        test.setXmlClasses(List.of(quick, slow));
+
+        TestDurationHistory history = new TestDurationHistory(Map.of(
+                "tests.QuickTests.a", 1_000L, "tests.QuickTests.b", 2_000L, "tests.SlowTests.c", 60_000L));
+
+        Assert.assertEquals(ForkRunner.orderClasses(suite, history), List.of("tests.SlowTests", "tests.QuickTests"));
+    }
+}
@@ -0,0 +1,119 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.impact.ImpactAnalyzer;
+import com.demowebshop.automation.utils.impact.TestImpactMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Offline tests for test impact analysis
+ */
+public class ImpactAnalyzerTests {
+    private static final String CART_PAGE = "com.demowebshop.automation.pages.ShoppingCartPage";
+    private static final String CART_SELECTORS = "src/main/resources/selectors/cart-checkout-selectors.json";
+    private static final List<String> SUITE = Arrays.asList(
+            "tests.cart.ShoppingCartTests.testAddItemsToCart",
+            "tests.cart.ShoppingCartTests.testCartCalculations",
+            "tests.navigation.HomePageTests.testHomePageLoad",
+            "tests.checkout.CheckoutTests.testCheckoutPerformance");
+
+    private static TestImpactMap impactMap() {
+        TestImpactMap map = new TestImpactMap();
+        map.recordPage(SUITE.get(0), CART_PAGE);
+        map.recordSelector(SUITE.get(0), "cart-checkout-selectors.json#cart_and_checkout.shopping_cart.cart_with_items.item_row");
+        map.recordPage(SUITE.get(1), CART_PAGE);
+        map.recordSelector(SUITE.get(1), "cart-checkout-selectors.json#cart_and_checkout.shopping_cart.cart_totals.subtotal");
+        map.recordPage(SUITE.get(2), "com.demowebshop.automation.pages.HomePage");
+        map.recordPage(SUITE.get(3), "com.demowebshop.automation.pages.CheckoutPage");
+        return map;
+    }
+
+    private static ImpactAnalyzer analyzer(Map<String, String> before, Map<String, String> after) {
+        return new ImpactAnalyzer(impactMap(), before::get, after::get);
+    }
+
+    @Test(groups = {"framework"})
+    public void testChangedPageSelectsTestsThatUsedIt() {
+        ImpactAnalyzer.Selection selection = analyzer(Collections.emptyMap(), Collections.emptyMap()).select(
+                List.of("src/main/java/com/demowebshop/automation/pages/ShoppingCartPage.java", "README.md"), SUITE);
+
+        Assert.assertFalse(selection.isAllTests());
+        Assert.assertEquals(selection.getMethods(), Set.of(SUITE.get(0), SUITE.get(1)));
+    }
+
+    @Test(groups = {"framework"})
+    public void testChangedSelectorPathSelectsOnlyTestsResolvingIt() {
+        String before = "{\"cart_and_checkout\":{\"shopping_cart\":{"
+                + "\"cart_with_items\":{\"item_row\":{\"primary\":\".cart tbody tr\"}},"
+                + "\"cart_totals\":{\"subtotal\":{\"primary\":\".cart-total\"}}}}}";
+        String after = before.replace(".cart-total", ".order-subtotal");
+
+        ImpactAnalyzer.Selection selection = analyzer(Map.of(CART_SELECTORS, before), Map.of(CART_SELECTORS, after))
+                .select(List.of(CART_SELECTORS), SUITE);
+
+        Assert.assertEquals(selection.getMethods(), Set.of(SUITE.get(1)));
+    }
+
+    @Test(groups = {"framework"})
+    public void testPrerequisitesOfSelectedTestsAreSelected() {
+        String viewAccount = "tests.account.AccountManagementTests.testViewAccountInformation";
+        String orderHistory = "tests.account.AccountManagementTests.testOrderHistoryManagement";
+        String orderHistoryPage = "com.demowebshop.automation.pages.OrderHistoryPage";
+        TestImpactMap map = impactMap();
+        map.recordPage(viewAccount, "com.demowebshop.automation.pages.AccountDropdown");
+        map.recordPage(orderHistory, orderHistoryPage);
+        List<String> suite = new ArrayList<>(SUITE);
+        suite.addAll(List.of(viewAccount, orderHistory));
+
+        // Annotations of the real test class: testOrderHistoryManagement depends on testViewAccountInformation
+        ImpactAnalyzer.Selection selection = new ImpactAnalyzer(map, path -> null, path -> null)
+                .select(List.of("src/main/java/com/demowebshop/automation/pages/OrderHistoryPage.java"), suite);
+        Assert.assertEquals(selection.getMethods(), Set.of(orderHistory, viewAccount));
+        Assert.assertTrue(selection.getReasons().contains("prerequisite " + viewAccount + " of a selected test"),
+                selection.getReasons().toString());
+
+        // Prerequisites of prerequisites are followed
+        Map<String, Set<String>> prerequisites = Map.of(SUITE.get(3), Set.of(SUITE.get(2)), SUITE.get(2), Set.of(SUITE.get(0)));
+        ImpactAnalyzer.Selection transitive = new ImpactAnalyzer(impactMap(), path -> null, path -> null,
+                (method, candidates) -> prerequisites.getOrDefault(method, Set.of()))
+                .select(List.of("src/main/java/com/demowebshop/automation/pages/CheckoutPage.java"), SUITE);
+        Assert.assertEquals(transitive.getMethods(), Set.of(SUITE.get(3), SUITE.get(2), SUITE.get(0)));
+    }
+
+    @Test(groups = {"framework"})
+    public void testSharedCodeSelectsWholeSuite() {
+        ImpactAnalyzer.Selection selection = analyzer(Collections.emptyMap(), Collections.emptyMap()).select(
+                List.of("src/main/java/com/demowebshop/automation/pages/common/BasePage.java"), SUITE);
+
+        Assert.assertTrue(selection.isAllTests());
+        Assert.assertEquals(selection.getMethods().size(), SUITE.size());
+    }
+
+    @Test(groups = {"framework"})
+    public void testUnmappedTestsAreSelectedAndMapRoundTrips() throws Exception {
+        List<String> suite = new ArrayList<>(SUITE);
+        suite.add("tests.cart.NewCartTests.testNotTracedYet");
+        ImpactAnalyzer.Selection selection = analyzer(Collections.emptyMap(), Collections.emptyMap()).select(
+                List.of("src/main/java/com/demowebshop/automation/pages/CheckoutPage.java"), suite);
+        Assert.assertEquals(selection.getMethods(), Set.of(SUITE.get(3), "tests.cart.NewCartTests.testNotTracedYet"));
+
+        Path file = Files.createTempFile("impact-map", ".json");
+        try {
+            impactMap().save(file);
+            TestImpactMap loaded = TestImpactMap.load(file);
+            Assert.assertEquals(loaded.getTests(), impactMap().getTests());
+            Assert.assertEquals(loaded.getSelectors(SUITE.get(1)), impactMap().getSelectors(SUITE.get(1)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package tests.framework;
+
+import com.demowebshop.automation.config.ConfigManager;
+import factories.DataEngine;
+import factories.LazyRows;
+import listeners.AnnotationTransformer;
+import org.testng.Assert;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lazy data provider rows with tag and priority filters
+ */
+public class LazyRowsTests {
+
+    /**
+     * Lazy provider asking for parallel rows; disabled so the enclosing suite skips it
+     */
+    public static class ParallelLazyProvider {
+        static final List<String> EVENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @DataProvider(name = "lazyRows", parallel = true)
+        public static Iterator<Object[]> lazyRows() {
+            return LazyRows.named("lazyRows")
+                    .filter(LazyRows.Filter.all())
+                    .rows(3, i -> {
+                        EVENTS.add("generated " + i);
+                        return new Object[]{i};
+                    })
+                    .iterator();
+        }
+
+        @Test(enabled = false, dataProvider = "lazyRows")
+        public void consume(int row) {
+            EVENTS.add("ran " + row);
+        }
+    }
+
+    /**
+     * Framework transformer that also enables the fixture above
+     */
+    public static class EnablingTransformer extends AnnotationTransformer {
+        @Override
+        @SuppressWarnings("rawtypes")
+        public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor,
+                              Method testMethod) {
+            super.transform(annotation, testClass, testConstructor, testMethod);
+            annotation.setEnabled(true);
+        }
+    }
+
+    private static LazyRows sample(AtomicInteger generated) {
+        return LazyRows.named("sample")
+                .filter(LazyRows.Filter.all())
+                .row(1, () -> row(generated, "happy path"), "positive")
+                .rows(1000, i -> row(generated, "random " + i), "positive", "random")
+                .row(3, () -> row(generated, "empty input"), "negative", "edge")
+                .row(() -> row(generated, "bad input"), "negative");
+    }
+
+    private static Object[] row(AtomicInteger generated, String name) {
+        generated.incrementAndGet();
+        return new Object[]{name, DataEngine.nextInt(1_000_000)};
+    }
+
+    private static List<Object[]> drain(Iterator<Object[]> rows) {
+        List<Object[]> result = new ArrayList<>();
+        rows.forEachRemaining(result::add);
+        return result;
+    }
+
+    @Test(groups = {"framework"})
+    public void testRowsAreGeneratedOnlyWhenTaken() {
+        AtomicInteger generated = new AtomicInteger();
+        LazyRows rows = sample(generated);
+        Assert.assertEquals(rows.size(), 1003);
+
+        Iterator<Object[]> iterator = rows.iterator();
+        Assert.assertTrue(iterator.hasNext());
+        Assert.assertEquals(generated.get(), 0);
+        Assert.assertEquals(iterator.next()[0], "happy path");
+        Assert.assertEquals(iterator.next()[0], "random 0");
+        Assert.assertEquals(generated.get(), 2);
+
+        Assert.assertEquals(drain(iterator).size(), 1001);
+        Assert.assertEquals(generated.get(), 1003);
+    }
+
+    @Test(groups = {"framework"})
+    public void testFilteredRowsAreNeverGenerated() {
+        AtomicInteger generated = new AtomicInteger();
+        List<Object[]> negative = drain(sample(generated)
+                .filter(new LazyRows.Filter(Set.of("Negative"), Set.of(), 0)).iterator());
+        Assert.assertEquals(negative.size(), 2);
+        Assert.assertEquals(generated.get(), 2);
+
+        List<Object[]> important = drain(sample(generated)
+                .filter(new LazyRows.Filter(Set.of(), Set.of("random"), 2)).iterator());
+        Assert.assertEquals(important.size(), 2);
+        Assert.assertEquals(important.get(0)[0], "happy path");
+        Assert.assertEquals(important.get(1)[0], "bad input");
+    }
+
+    @Test(groups = {"framework"})
+    public void testIteratorProviderStaysLazyUnderDefaultConfig() throws Exception {
+        Assert.assertTrue(ConfigManager.isParallelDataProviderEnabled(), "Default config runs rows in parallel");
+        XmlSuite suite = new XmlSuite();
+        suite.setName("lazy-rows");
+        XmlTest test = new XmlTest(suite);
+        test.setName("parallel-lazy");
+        test.setXmlClasses(List.of(new XmlClass(ParallelLazyProvider.class)));
+
+        TestListenerAdapter results = new TestListenerAdapter();
+        TestNG testNG = new TestNG();
+        testNG.setUseDefaultListeners(false);
+        testNG.setVerbose(0);
+        testNG.setOutputDirectory(Files.createTempDirectory("lazy-rows").toString());
+        testNG.setXmlSuites(List.of(suite));
+        testNG.addListener(results);
+        testNG.addListener(new EnablingTransformer());
+        ParallelLazyProvider.EVENTS.clear();
+        testNG.run();
+
+        Assert.assertEquals(results.getPassedTests().size(), 3);
+        Assert.assertEquals(ParallelLazyProvider.EVENTS, List.of("generated 0", "ran 0", "generated 1", "ran 1",
+                "generated 2", "ran 2"), "Each row is generated just before its invocation");
+    }
+
+    @Test(groups = {"framework"})
+    public void testRowDataDoesNotDependOnTheFilter() {
+        AtomicInteger generated = new AtomicInteger();
+        Object[] unfiltered = sample(generated).toArray()[1002];
+        Object[] filtered = sample(generated)
+                .filter(new LazyRows.Filter(Set.of(), Set.of("positive"), 0)).toArray()[1];
+
+        Assert.assertEquals(filtered[0], "bad input");
+        Assert.assertEquals(filtered[1], unfiltered[1], "Same seed for the same row with or without the filter");
+    }
+}
@@ -0,0 +1,129 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.accounts.LoginCache;
+import com.demowebshop.automation.utils.seeding.StateSeeder;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Login cache against a stub customer info page that accepts one auth cookie value
+ */
+public class LoginCacheTests {
+    private HttpServer server;
+    private URI siteUri;
+    private final AtomicReference<String> acceptedTicket = new AtomicReference<>("ticket-1");
+    private final AtomicInteger checks = new AtomicInteger();
+
+    @BeforeClass(alwaysRun = true)
+    public void startStubSite() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/customer/info", exchange -> {
+            checks.incrementAndGet();
+            String cookies = String.valueOf(exchange.getRequestHeaders().getFirst("Cookie"));
+            if (cookies.contains("NOPCOMMERCE.AUTH=" + acceptedTicket.get())) {
+                exchange.sendResponseHeaders(200, -1);
+            } else {
+                exchange.getResponseHeaders().add("Location", "/login?ReturnUrl=%2fcustomer%2finfo");
+                exchange.sendResponseHeaders(302, -1);
+            }
+            exchange.close();
+        });
+        server.start();
+        siteUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStubSite() {
+        server.stop(0);
+    }
+
+    private static List<Cookie> loginCookies(String ticket) {
+        return List.of(new Cookie("NOPCOMMERCE.AUTH", ticket, "demowebshop.tricentis.com", "/", null, false, true),
+                new Cookie("Nop.customer", "customer-guid", "/"));
+    }
+
+    @Test(groups = {"framework"})
+    public void testCachedLoginIsRestoredUntilTheSiteRejectsIt() throws Exception {
+        Path file = Files.createTempDirectory("login-cache").resolve("login-cookies.json");
+        LoginCache cache = new LoginCache(file, siteUri, Duration.ofHours(1), Duration.ofSeconds(5));
+        List<Cookie> sessionCookies = new ArrayList<>(loginCookies(acceptedTicket.get()));
+        sessionCookies.add(new Cookie("_ga", "GA1.1.42", "/"));
+        cache.store("ada@example.com", sessionCookies);
+
+        LoginCache nextRun = new LoginCache(file, siteUri, Duration.ofHours(1), Duration.ofSeconds(5));
+        List<Cookie> restored = nextRun.getValidCookies("ada@example.com");
+        Assert.assertNotNull(restored, "Entry survives in the file and the site accepts it");
+        Assert.assertEquals(restored.get(0).getValue(), acceptedTicket.get());
+        Assert.assertNull(restored.get(0).getDomain(), "Domain is left to the browser's current host");
+        Assert.assertEquals(restored.stream().map(Cookie::getName).toList(), List.of("NOPCOMMERCE.AUTH", "Nop.customer"),
+                "Analytics cookies are not cached");
+
+        acceptedTicket.set("ticket-2");
+        Assert.assertNull(nextRun.getValidCookies("ada@example.com"), "Expired on the site");
+        Assert.assertNull(nextRun.getValidCookies("ada@example.com"), "Dropped after the failed check");
+        Assert.assertFalse(Files.readString(file).contains("ada@example.com"));
+    }
+
+    @Test(groups = {"framework"})
+    public void testStaleEntriesAreDroppedWithoutAskingTheSite() throws InterruptedException {
+        LoginCache shortLived = new LoginCache(null, siteUri, Duration.ofMillis(1), Duration.ofSeconds(5));
+        shortLived.store("old@example.com", loginCookies(acceptedTicket.get()));
+        Thread.sleep(5);
+
+        LoginCache cache = new LoginCache(null, siteUri, Duration.ofHours(1), Duration.ofSeconds(5));
+        cache.store("expired@example.com", List.of(new Cookie("NOPCOMMERCE.AUTH", acceptedTicket.get(), "/",
+                new Date(System.currentTimeMillis() - 1000))));
+
+        int before = checks.get();
+        Assert.assertNull(shortLived.getValidCookies("old@example.com"));
+        Assert.assertNull(cache.getValidCookies("expired@example.com"));
+        Assert.assertNull(cache.getValidCookies("unknown@example.com"));
+        Assert.assertEquals(checks.get(), before, "No request for entries that are known to be stale");
+    }
+
+    @Test(groups = {"framework"})
+    public void testCookiesAreAddedOnceTheBrowserIsOnTheSite() {
+        List<String> visited = new ArrayList<>();
+        List<Cookie> added = new ArrayList<>();
+        WebDriver.Options options = (WebDriver.Options) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.Options.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("addCookie")) {
+                        added.add((Cookie) args[0]);
+                    }
+                    return null;
+                });
+        WebDriver driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getCurrentUrl" -> siteUri.resolve("/cart").toString();
+                    case "get" -> {
+                        visited.add((String) args[0]);
+                        yield null;
+                    }
+                    case "manage" -> options;
+                    default -> null;
+                });
+
+        StateSeeder.injectCookies(driver, siteUri, loginCookies("ticket-x"));
+
+        Assert.assertTrue(visited.isEmpty(), "Browser already on the site: " + visited);
+        Assert.assertEquals(added.size(), 2);
+    }
+}
@@ -0,0 +1,89 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.sharding.LongestFirstExecutorFactory;
+import com.demowebshop.automation.utils.sharding.TestDurationHistory;
+import org.testng.Assert;
+import org.testng.IAnnotationTransformer;
+import org.testng.TestNG;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared longest-first work queue of programmatic TestNG runs
+ */
+public class LongestFirstExecutorFactoryTests {
+
+    /**
+     * Records the order its methods start in
+     * Disabled so the enclosing suite skips it; only the nested run enables it
+     */
+    public static class OrderedMethods {
+        static final List<String> STARTED = Collections.synchronizedList(new ArrayList<>());
+
+        @Test(enabled = false)
+        public void alpha() {
+            STARTED.add("alpha");
+        }
+
+        @Test(enabled = false)
+        public void bravo() {
+            STARTED.add("bravo");
+        }
+
+        @Test(enabled = false)
+        public void charlie() {
+            STARTED.add("charlie");
+        }
+
+        @Test(enabled = false)
+        public void delta() {
+            STARTED.add("delta");
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testIdleWorkerTakesLongestRemainingMethod() throws Exception {
+        String prefix = OrderedMethods.class.getName() + ".";
+        TestDurationHistory history = new TestDurationHistory(Map.of(
+                prefix + "alpha", 1_000L, prefix + "bravo", 40_000L, prefix + "charlie", 5_000L,
+                prefix + "delta", 90_000L));
+
+        XmlSuite suite = new XmlSuite();
+        suite.setName("longest-first");
+        suite.setParallel(XmlSuite.ParallelMode.METHODS);
+        // One worker thread makes the queue order the execution order
+        suite.setThreadCount(1);
+        XmlTest test = new XmlTest(suite);
+        test.setName("ordered");
+        test.setXmlClasses(List.of(new XmlClass(OrderedMethods.class)));
+
+        TestNG testNG = new TestNG();
+        testNG.setUseDefaultListeners(false);
+        testNG.setVerbose(0);
+        testNG.setOutputDirectory(Files.createTempDirectory("longest-first").toString());
+        testNG.setXmlSuites(List.of(suite));
+        testNG.setExecutorFactory(new LongestFirstExecutorFactory(history));
+        testNG.addListener(new IAnnotationTransformer() {
+            @Override
+            public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor,
+                                  Method testMethod) {
+                annotation.setEnabled(true);
+            }
+        });
+        OrderedMethods.STARTED.clear();
+        testNG.run();
+
+        Assert.assertEquals(OrderedMethods.STARTED, List.of("delta", "bravo", "charlie", "alpha"));
+    }
+}
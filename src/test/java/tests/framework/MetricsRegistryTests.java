@@ -0,0 +1,99 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.metrics.MetricsEndpoint;
+import com.demowebshop.automation.utils.metrics.MetricsRegistry;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Offline tests for the OpenMetrics registry and its local scrape endpoint
+ */
+public class MetricsRegistryTests {
+
+    @Test(groups = {"framework"})
+    public void testExpositionFormat() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("demo_tests", "Finished tests", "result").inc("passed");
+        registry.counter("demo_tests", "Finished tests", "result").inc(2, "failed");
+        registry.gauge("demo_sessions", "Open sessions").inc();
+        MetricsRegistry.Histogram latency = registry.histogram("demo_latency_seconds", "Latency", 1, 5);
+        latency.observe(0.5);
+        latency.observe(3);
+        latency.observe(10);
+
+        String text = registry.scrape();
+        Assert.assertTrue(text.contains("# TYPE demo_tests counter\n"), text);
+        Assert.assertTrue(text.contains("demo_tests_total{result=\"passed\"} 1\n"), text);
+        Assert.assertTrue(text.contains("demo_tests_total{result=\"failed\"} 2\n"), text);
+        Assert.assertTrue(text.contains("demo_sessions 1\n"), text);
+        Assert.assertTrue(text.contains("demo_latency_seconds_bucket{le=\"1.0\"} 1\n"), text);
+        Assert.assertTrue(text.contains("demo_latency_seconds_bucket{le=\"5.0\"} 2\n"), text);
+        Assert.assertTrue(text.contains("demo_latency_seconds_bucket{le=\"+Inf\"} 3\n"), text);
+        Assert.assertTrue(text.contains("demo_latency_seconds_sum 13.5\n"), text);
+        Assert.assertTrue(text.endsWith("# EOF\n"), "Exposition must end with # EOF");
+    }
+
+    @Test(groups = {"framework"})
+    public void testSuppliedGaugeSurvivesRunReset() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Set<String> openSessions = new HashSet<>(Set.of("warm-browser-1", "warm-browser-2"));
+        MetricsRegistry.Gauge sessions = registry.gauge("demo_sessions", "Open sessions");
+        sessions.setSupplier(openSessions::size);
+
+        // A new run resets the registry while browsers opened earlier are still alive
+        registry.reset();
+        Assert.assertEquals(sessions.get(), 2.0);
+        openSessions.clear();
+        Assert.assertEquals(sessions.get(), 0.0, "Quitting the sessions of an earlier run must not go negative");
+    }
+
+    @Test(groups = {"framework"})
+    public void testConflictingRegistrationRejected() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("demo_metric", "Counter");
+        Assert.assertThrows(IllegalArgumentException.class, () -> registry.gauge("demo_metric", "Gauge"));
+    }
+
+    @Test(groups = {"framework"})
+    public void testTextfileWrite() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("demo_retries", "Retries").inc();
+        Path file = Files.createTempDirectory("metrics").resolve("run.prom");
+
+        registry.writeTextfile(file);
+
+        String content = Files.readString(file, StandardCharsets.UTF_8);
+        Assert.assertEquals(content, registry.scrape());
+    }
+
+    @Test(groups = {"framework"})
+    public void testLocalScrape() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("demo_tests", "Finished tests", "result").inc("passed");
+        int port = MetricsEndpoint.start(registry, 0);
+        Assert.assertTrue(port > 0, "Endpoint should bind an ephemeral port");
+
+        HttpResponse<String> response;
+        try {
+            response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/metrics")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+        } finally {
+            MetricsEndpoint.stop();
+        }
+
+        Assert.assertEquals(response.statusCode(), 200);
+        Assert.assertEquals(response.headers().firstValue("Content-Type").orElse(""), MetricsRegistry.CONTENT_TYPE);
+        Assert.assertTrue(response.body().contains("demo_tests_total{result=\"passed\"} 1"), response.body());
+    }
+}
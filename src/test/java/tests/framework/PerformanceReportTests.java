@@ -0,0 +1,103 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.performance.PageTiming;
+import com.demowebshop.automation.utils.performance.PerformanceReport;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Percentiles, budgets and baseline comparison of the page performance report
+ */
+public class PerformanceReportTests {
+
+    private static List<PageTiming> loads(String page, double... loadMillis) {
+        List<PageTiming> timings = new ArrayList<>();
+        for (double load : loadMillis) {
+            timings.add(new PageTiming(page, "http://shop/" + page, 0, 50, load / 2, load, 100, 120, 10, 1024, 30));
+        }
+        return timings;
+    }
+
+    private static double[] range(int from, int to) {
+        double[] values = new double[to - from + 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (from + i) * 100;
+        }
+        return values;
+    }
+
+    @Test(groups = {"framework"})
+    public void testP95IsNearestRankAndSkipsUnreportedValues() {
+        // 20 samples 100..2000 in random order; nearest rank of p95 is the 19th value
+        double[] shuffled = {700, 2000, 100, 1500, 300, 1900, 1100, 200, 1300, 900, 400, 1800, 500, 1700, 600, 1600, 800,
+                1400, 1000, 1200};
+        PerformanceReport.PageStats stats = PerformanceReport.from(Map.of("HomePage", loads("HomePage", shuffled)))
+                .getPages().get("HomePage");
+        Assert.assertEquals(stats.getCount(), 20);
+        Assert.assertEquals(stats.getLoadP95(), 1900.0);
+        Assert.assertEquals(stats.getLoadP50(), 1000.0);
+        Assert.assertEquals(stats.getLoadMax(), 2000.0);
+
+        PerformanceReport.PageStats single = PerformanceReport.from(Map.of("CartPage", loads("CartPage", -1, 450, -1)))
+                .getPages().get("CartPage");
+        Assert.assertEquals(single.getLoadP95(), 450.0, "Loads the browser did not report (-1) should be ignored");
+        Assert.assertTrue(PerformanceReport.from(Map.of("EmptyPage", List.of())).getPages().isEmpty());
+    }
+
+    @Test(groups = {"framework"})
+    public void testBudgetIsCheckedAgainstP95() {
+        String page = "BudgetedPage" + System.nanoTime();
+        String key = "performance.threshold." + page + ".load.p95.ms";
+        System.setProperty(key, "1850");
+        try {
+            PerformanceReport overBudget = PerformanceReport.from(Map.of(page, loads(page, range(1, 20))));
+            overBudget.checkThresholds();
+            Assert.assertEquals(overBudget.getViolations().size(), 1);
+            Assert.assertTrue(overBudget.getViolations().get(0).contains("p95 load 1900 ms exceeds budget 1850 ms (20 samples)"));
+
+            // One slow sample in twenty is above the p95 and does not break the budget
+            double[] loadsWithOutlier = Arrays.copyOf(range(1, 18), 20);
+            loadsWithOutlier[18] = 1800;
+            loadsWithOutlier[19] = 10_000;
+            PerformanceReport withinBudget = PerformanceReport.from(Map.of(page, loads(page, loadsWithOutlier)));
+            withinBudget.checkThresholds();
+            Assert.assertTrue(withinBudget.getViolations().isEmpty(), withinBudget.getViolations().toString());
+        } finally {
+            System.clearProperty(key);
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testBaselineRegressionHonoursTolerance() throws Exception {
+        Path directory = Files.createTempDirectory("performance-baseline");
+        Path baseline = directory.resolve("page-timings.json");
+        try {
+            PerformanceReport.from(Map.of(
+                    "HomePage", loads("HomePage", 1000),
+                    "CartPage", loads("CartPage", 1000))).write(baseline);
+
+            PerformanceReport current = PerformanceReport.from(Map.of(
+                    "HomePage", loads("HomePage", 1250),
+                    "CartPage", loads("CartPage", 1251),
+                    "NewPage", loads("NewPage", 99_999)));
+            current.compareWithBaseline(baseline, 25);
+            Assert.assertEquals(current.getViolations(),
+                    List.of("CartPage p95 load 1251 ms regressed from baseline 1000 ms (tolerance 25%)"),
+                    "Exactly the tolerance is allowed, and pages without a baseline are not compared");
+
+            PerformanceReport missingBaseline = PerformanceReport.from(Map.of("HomePage", loads("HomePage", 5000)));
+            missingBaseline.compareWithBaseline(directory.resolve("missing.json"), 25);
+            Assert.assertTrue(missingBaseline.getViolations().isEmpty());
+        } finally {
+            Files.deleteIfExists(baseline);
+            Files.deleteIfExists(directory);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.replay.ReplayProxy;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import standin.StandInShop;
+
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Recording the stand-in shop through the replay proxy and serving the same page loads without it
+ */
+public class ReplayProxyTests {
+    private Path directory;
+
+    @BeforeClass(alwaysRun = true)
+    public void createDirectory() throws Exception {
+        directory = Files.createTempDirectory("replay-proxy");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteDirectory() throws Exception {
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static HttpClient client(ReplayProxy proxy) {
+        return HttpClient.newBuilder()
+                .proxy(ProxySelector.of(new InetSocketAddress(InetAddress.getLoopbackAddress(), proxy.getPort())))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    private static HttpResponse<String> get(HttpClient client, String url) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> post(HttpClient client, String url, String form) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test(groups = {"framework"})
+    public void testRecordedResponsesAreReplayedInOrderWithoutTheSite() throws Exception {
+        Path archive = directory.resolve("shop.har.gz");
+        StandInShop shop = StandInShop.start(0);
+        String site = shop.getBaseUrl();
+        List<String> recorded = new ArrayList<>();
+        try (ReplayProxy proxy = new ReplayProxy(ReplayProxy.Mode.RECORD, URI.create(site), archive, 0, Duration.ofSeconds(5))) {
+            HttpClient client = client(proxy);
+            recorded.add(get(client, site + "/books").body());
+            recorded.add(get(client, site + "/search?q=laptop&_=1").body());
+            recorded.add(post(client, site + "/login", "Email=a%40example.com&Password=x&__RequestVerificationToken=first").body());
+            recorded.add(get(client, site + "/books").body());
+            Assert.assertEquals(proxy.getRecordedCount(), 4);
+        } finally {
+            shop.close();
+        }
+        long requestsToSite = shop.getRequestCount();
+
+        JsonNode har;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(archive))) {
+            har = new ObjectMapper().readTree(in);
+        }
+        Assert.assertEquals(har.path("log").path("version").asText(), "1.2");
+        Assert.assertEquals(har.path("log").path("entries").size(), 4);
+        Assert.assertEquals(har.path("log").path("entries").get(0).path("request").path("url").asText(), site + "/books");
+
+        try (ReplayProxy proxy = new ReplayProxy(ReplayProxy.Mode.REPLAY, URI.create(site), archive, 0, Duration.ofSeconds(5))) {
+            HttpClient client = client(proxy);
+            Assert.assertEquals(get(client, site + "/books").body(), recorded.get(0));
+            Assert.assertEquals(get(client, site + "/search?_=2&q=laptop").body(), recorded.get(1),
+                    "jQuery's cache buster should not be part of the request key");
+            Assert.assertEquals(post(client, site + "/login", "Password=x&Email=a%40example.com&__RequestVerificationToken=second").body(),
+                    recorded.get(2), "The anti-forgery token changes every run and should not be part of the request key");
+            Assert.assertEquals(get(client, site + "/books").body(), recorded.get(3));
+
+            HttpResponse<String> missing = get(client, site + "/never-recorded");
+            Assert.assertEquals(missing.statusCode(), 502);
+            Assert.assertEquals(get(client, "http://example.com/").statusCode(), 502, "Other hosts are not replayed");
+            Assert.assertEquals(proxy.getReplayedCount(), 4);
+            Assert.assertEquals(proxy.getMissCount(), 2);
+        }
+        Assert.assertEquals(shop.getRequestCount(), requestsToSite, "Replay should not reach the site");
+    }
+
+    @Test(groups = {"framework"})
+    public void testCookiesAndHeadersAreFitForPlainHttp() throws Exception {
+        HttpServer upstream = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        String origin = "http://127.0.0.1:" + upstream.getAddress().getPort();
+        upstream.createContext("/", exchange -> {
+            byte[] body = "<a href=\"/cart\">cart</a>".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+            exchange.getResponseHeaders().add("Set-Cookie", "Nop.customer=abc; path=/; secure; HttpOnly; SameSite=None");
+            exchange.getResponseHeaders().add("Strict-Transport-Security", "max-age=31536000");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        upstream.start();
+        try (ReplayProxy proxy = new ReplayProxy(ReplayProxy.Mode.RECORD, URI.create(origin), directory.resolve("stub.har.gz"),
+                0, Duration.ofSeconds(5))) {
+            HttpResponse<String> response = get(client(proxy), origin + "/");
+            Assert.assertEquals(response.body(), "<a href=\"/cart\">cart</a>");
+            Assert.assertEquals(response.headers().firstValue("Set-Cookie").orElse(""), "Nop.customer=abc; path=/; HttpOnly",
+                    "The browser reaches the proxy over http and would drop secure cookies");
+            Assert.assertTrue(response.headers().firstValue("Strict-Transport-Security").isEmpty(),
+                    "HSTS would make the browser switch to https and bypass the proxy");
+        } finally {
+            upstream.stop(0);
+        }
+    }
+}
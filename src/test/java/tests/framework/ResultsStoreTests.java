@@ -0,0 +1,110 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.history.ResultsHistory;
+import com.demowebshop.automation.utils.history.ResultsStore;
+import com.demowebshop.automation.utils.history.RunSegment;
+import com.demowebshop.automation.utils.sharding.TestDurationHistory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Offline tests for the historical results store
+ */
+public class ResultsStoreTests {
+    private static final String LOGIN = "tests.authentication.LoginTests.testValidLogin";
+    private static final String CART = "tests.cart.ShoppingCartTests.testAddItemsToCart";
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testTrendQueriesOverLastRuns() throws Exception {
+        Path directory = Files.createTempDirectory("results-store");
+        try {
+            ResultsStore store = new ResultsStore(directory);
+            // Oldest run: only failures, must drop out of a 10-run window that starts later
+            RunSegment old = new RunSegment("run-0", 1_000);
+            old.add(LOGIN, 99_000, RunSegment.FAILED, 2);
+            store.append(old);
+            for (int run = 1; run <= 10; run++) {
+                RunSegment segment = new RunSegment("run-" + run, 1_000 + run);
+                segment.add(LOGIN, run * 1_000L, run == 10 ? RunSegment.FAILED : RunSegment.PASSED, run % 5 == 0 ? 1 : 0);
+                segment.add(CART, 500, RunSegment.SKIPPED, 0);
+                store.append(segment);
+            }
+
+            ResultsHistory history = store.history(10);
+            Assert.assertEquals(history.getRuns(), 10);
+            Assert.assertEquals(history.p95DurationMillis(LOGIN), 10_000);
+            Assert.assertEquals(history.failureRate(LOGIN), 0.1, 1e-9);
+            Assert.assertEquals(history.retryRate(LOGIN), 0.2, 1e-9);
+            Assert.assertEquals(history.p95DurationMillis(CART), -1, "Skipped invocations have no duration");
+            Assert.assertEquals(history.get(CART).getSkipped(), 10);
+
+            Assert.assertEquals(store.history(11).failureRate(LOGIN), 2 / 11.0, 1e-9);
+            Assert.assertEquals(store.history(10).toDurationHistory().estimate(LOGIN), 10_000);
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testShardsOfOneRunCountAsOneRunAndPruneKeepsNewest() throws Exception {
+        Path directory = Files.createTempDirectory("results-store");
+        try {
+            ResultsStore store = new ResultsStore(directory);
+            for (int run = 1; run <= 3; run++) {
+                for (int shard = 1; shard <= 2; shard++) {
+                    RunSegment segment = new RunSegment("ci-" + run, run * 100L + shard);
+                    segment.add(shard == 1 ? LOGIN : CART, 1_000, RunSegment.PASSED, 0);
+                    store.append(segment);
+                }
+            }
+            Assert.assertEquals(store.history(1).getMethods().size(), 2, "Both shards of the newest run");
+
+            Assert.assertEquals(store.prune(2), 2);
+            Assert.assertEquals(store.history(10).getRuns(), 2);
+
+            // A corrupt segment (e.g. interrupted cache restore) is skipped
+            Files.write(directory.resolve("run-0000000000999-broken-00000000.rseg"), new byte[]{1, 2, 3});
+            Assert.assertEquals(store.history(10).getRuns(), 2);
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testPlannedDurationsComeFromTheStore() throws Exception {
+        Path directory = Files.createTempDirectory("results-store");
+        try {
+            ResultsStore store = new ResultsStore(directory);
+            String newTest = "tests.cart.ShoppingCartTests.testNewFeature";
+            TestDurationHistory fallback = new TestDurationHistory(Map.of(LOGIN, 5_000L, newTest, 7_000L));
+            Assert.assertSame(store.plannedDurations(20, fallback), fallback, "Empty store plans from the fallback");
+
+            for (int run = 1; run <= 3; run++) {
+                RunSegment segment = new RunSegment("ci-" + run, run);
+                segment.add(LOGIN, 40_000 + run, RunSegment.PASSED, 0);
+                segment.add(CART, 1_000, RunSegment.SKIPPED, 0);
+                store.append(segment);
+            }
+
+            TestDurationHistory planned = store.plannedDurations(20, fallback);
+            Assert.assertEquals(planned.estimate(LOGIN), 40_003, "Stored p95 wins over the fallback");
+            Assert.assertEquals(planned.estimate(newTest), 7_000, "Methods the store has not seen keep the fallback");
+            Assert.assertFalse(planned.contains(CART), "Skipped-only methods have no stored duration");
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.retry.FailureCategory;
+import com.demowebshop.automation.utils.retry.FailureClassifier;
+import com.demowebshop.automation.utils.retry.RetryPolicy;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.ConnectException;
+
+/**
+ * Offline tests for failure classification and the run retry budget
+ */
+public class RetryPolicyTests {
+
+    @Test(groups = {"framework"})
+    public void testClassifiesByTypeAndCauseChain() {
+        Assert.assertEquals(FailureClassifier.classify(new AssertionError("expected [3] but found [2]")),
+                FailureCategory.ASSERTION);
+        Assert.assertEquals(FailureClassifier.classify(new NoSuchElementException("no such element: #cart")),
+                FailureCategory.SELECTOR);
+        Assert.assertEquals(FailureClassifier.classify(new TimeoutException("Expected condition failed: waiting for visibility")),
+                FailureCategory.SELECTOR);
+        Assert.assertEquals(FailureClassifier.classify(new SessionNotCreatedException("could not start a new session")),
+                FailureCategory.INFRASTRUCTURE);
+        Assert.assertEquals(FailureClassifier.classify(new RuntimeException("Test setup failed",
+                new WebDriverException("chrome not reachable"))), FailureCategory.INFRASTRUCTURE);
+        Assert.assertEquals(FailureClassifier.classify(new TimeoutException(
+                "timeout: Timed out receiving message from renderer: 10.000")), FailureCategory.INFRASTRUCTURE);
+        Assert.assertEquals(FailureClassifier.classify(new IllegalStateException("boom",
+                new ConnectException("Connection refused"))), FailureCategory.INFRASTRUCTURE);
+        Assert.assertEquals(FailureClassifier.classify(new IllegalArgumentException("bad test data")),
+                FailureCategory.UNKNOWN);
+        Assert.assertEquals(FailureClassifier.classify(null), FailureCategory.UNKNOWN);
+    }
+
+    @Test(groups = {"framework"})
+    public void testSubstringsInAssertionMessagesAreNotRetried() {
+        // The old analyzer retried anything mentioning "timeout"
+        AssertionError assertion = new AssertionError("Search should finish before timeout, WebDriverException seen");
+        RetryPolicy.Decision decision = RetryPolicy.evaluate("RetryPolicyTests.assertion", assertion);
+
+        Assert.assertFalse(decision.shouldRetry());
+        Assert.assertEquals(decision.getCategory(), FailureCategory.ASSERTION);
+    }
+
+    @Test(groups = {"framework"})
+    public void testRetryLimitAndRunBudget() {
+        System.setProperty("retry.count", "2");
+        System.setProperty("retry.budget", "3");
+        System.setProperty("retry.backoff.base.ms", "0");
+        try {
+            RetryPolicy.reset();
+            Throwable infra = new WebDriverException("chrome not reachable");
+
+            RetryPolicy.Decision first = RetryPolicy.evaluate("a", infra);
+            Assert.assertTrue(first.shouldRetry());
+            Assert.assertEquals(first.getAttempt(), 1);
+            Assert.assertTrue(RetryPolicy.evaluate("a", infra).shouldRetry());
+            Assert.assertFalse(RetryPolicy.evaluate("a", infra).shouldRetry(), "Per-invocation limit of 2");
+            Assert.assertEquals(RetryPolicy.complete("a"), 2);
+
+            Assert.assertTrue(RetryPolicy.evaluate("b", infra).shouldRetry());
+            RetryPolicy.Decision overBudget = RetryPolicy.evaluate("c", infra);
+            Assert.assertFalse(overBudget.shouldRetry(), "Run budget of 3 is used up");
+            Assert.assertTrue(overBudget.getReason().contains("budget"));
+            Assert.assertEquals(RetryPolicy.getRetriesUsed(), 3);
+        } finally {
+            System.clearProperty("retry.count");
+            System.clearProperty("retry.budget");
+            System.clearProperty("retry.backoff.base.ms");
+            RetryPolicy.reset();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.session.SessionPool;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Session pool affinity rules, with strings standing in for browser sessions
+ */
+public class SessionPoolTests {
+
+    @Test(groups = {"framework"})
+    public void testUserRowsPreferTheirLoggedInSessionAndCleanRowsNeverGetIt() {
+        List<String> closed = new ArrayList<>();
+        SessionPool<String> pool = new SessionPool<>(4, closed::add);
+        pool.release("alice-browser", "user:alice", true);
+        pool.release("clean-browser", SessionPool.ANONYMOUS, true);
+
+        SessionPool.Lease<String> anonymous = pool.acquire(SessionPool.ANONYMOUS);
+        Assert.assertEquals(anonymous.getSession(), "clean-browser");
+        Assert.assertNull(pool.acquire(SessionPool.ANONYMOUS), "Logged-in session must not serve a clean row");
+
+        SessionPool.Lease<String> alice = pool.acquire("user:alice");
+        Assert.assertEquals(alice.getSession(), "alice-browser");
+        Assert.assertTrue(alice.isAffinityMatch());
+        Assert.assertTrue(closed.isEmpty());
+    }
+
+    @Test(groups = {"framework"})
+    public void testUserRowFallsBackToCleanSessionThenKeepsItLoggedIn() {
+        SessionPool<String> pool = new SessionPool<>(4, session -> { });
+        pool.release("browser-1", SessionPool.ANONYMOUS, true);
+
+        SessionPool.Lease<String> bob = pool.acquire("user:bob");
+        Assert.assertEquals(bob.getSession(), "browser-1");
+        Assert.assertFalse(bob.isAffinityMatch(), "Clean session still has to log in");
+
+        pool.release(bob.getSession(), bob.getAffinity(), true);
+        Assert.assertNull(pool.acquire("user:carol"));
+        Assert.assertTrue(pool.acquire("user:bob").isAffinityMatch());
+    }
+
+    @Test(groups = {"framework"})
+    public void testBrokenAndSurplusSessionsAreClosed() {
+        List<String> closed = new ArrayList<>();
+        SessionPool<String> pool = new SessionPool<>(1, closed::add);
+        pool.release("failed-row", SessionPool.ANONYMOUS, false);
+        pool.release("kept", SessionPool.ANONYMOUS, true);
+        pool.release("surplus", SessionPool.ANONYMOUS, true);
+
+        Assert.assertEquals(closed, List.of("failed-row", "surplus"));
+        Assert.assertEquals(pool.getIdleCount(), 1);
+        Assert.assertEquals(pool.drain(), List.of("kept"));
+        Assert.assertEquals(pool.getIdleCount(), 0);
+    }
+}
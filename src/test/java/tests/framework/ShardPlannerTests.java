@@ -0,0 +1,159 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.sharding.ShardPlanner;
+import com.demowebshop.automation.utils.sharding.ShardSuiteGenerator;
+import com.demowebshop.automation.utils.sharding.TestDependencies;
+import com.demowebshop.automation.utils.sharding.TestDurationHistory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import tests.account.AccountManagementTests;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Offline tests for the duration-aware shard planner
+ */
+public class ShardPlannerTests {
+
+    private static TestDurationHistory history(Object... keysAndMillis) {
+        Map<String, Long> durations = new HashMap<>();
+        for (int i = 0; i < keysAndMillis.length; i += 2) {
+            durations.put((String) keysAndMillis[i], ((Number) keysAndMillis[i + 1]).longValue());
+        }
+        return new TestDurationHistory(durations);
+    }
+
+    @Test(groups = {"framework"})
+    public void testLongestProcessingTimeBalancesShards() {
+        TestDurationHistory history = history(
+                "CheckoutTests.a", 600, "CheckoutTests.b", 500, "HomeTests.a", 400,
+                "HomeTests.b", 300, "CartTests.a", 200, "CartTests.b", 200, "LoginTests.a", 100);
+
+        List<ShardPlanner.Shard> shards = new ShardPlanner(history).plan(history.getDurations().keySet(), 2);
+
+        Assert.assertEquals(shards.size(), 2);
+        Assert.assertEquals(shards.get(0).getEstimatedMillis() + shards.get(1).getEstimatedMillis(), 2300);
+        long slowest = Math.max(shards.get(0).getEstimatedMillis(), shards.get(1).getEstimatedMillis());
+        Assert.assertTrue(slowest <= 1200, "Slowest shard should be near half of the total, was " + slowest);
+        Assert.assertNotEquals(shards.get(0).getMethods().contains("CheckoutTests.a"),
+                shards.get(1).getMethods().contains("CheckoutTests.a"));
+        Assert.assertFalse(shards.get(0).getMethods().contains("CheckoutTests.b")
+                        && shards.get(0).getMethods().contains("CheckoutTests.a"),
+                "The two longest methods should land on different shards");
+    }
+
+    @Test(groups = {"framework"})
+    public void testPlanIsDeterministicAndComplete() {
+        TestDurationHistory history = history("A.one", 50, "A.two", 50, "B.one", 50);
+        List<String> methods = Arrays.asList("B.one", "A.two", "A.one", "C.unknown");
+
+        List<ShardPlanner.Shard> first = new ShardPlanner(history).plan(methods, 3);
+        List<ShardPlanner.Shard> second = new ShardPlanner(history).plan(Arrays.asList("C.unknown", "A.one", "B.one", "A.two"), 3);
+
+        int planned = 0;
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(first.get(i).getMethods(), second.get(i).getMethods());
+            planned += first.get(i).getMethods().size();
+        }
+        Assert.assertEquals(planned, 4, "Every method must be planned exactly once");
+        Assert.assertEquals(history.estimate("C.unknown"), 50, "Unknown methods are estimated with the median");
+    }
+
+    @Test(groups = {"framework"})
+    public void testDependentMethodsShareAShard() {
+        TestDurationHistory history = history("A.login", 100, "A.orders", 900, "B.one", 500, "B.two", 500, "C.one", 500);
+        Map<String, Set<String>> prerequisites = Map.of("A.orders", Set.of("A.login"));
+        TestDependencies.Resolver resolver = (method, candidates) -> prerequisites.getOrDefault(method, Set.of());
+
+        List<ShardPlanner.Shard> shards = new ShardPlanner(history, resolver).plan(history.getDurations().keySet(), 4);
+
+        ShardPlanner.Shard withOrders = shards.stream().filter(shard -> shard.getMethods().contains("A.orders"))
+                .findFirst().orElseThrow();
+        Assert.assertTrue(withOrders.getMethods().contains("A.login"), "A dependent should run with its prerequisite");
+        Assert.assertEquals(withOrders.getEstimatedMillis(), 1000, "The pair is packed as one unit");
+
+        List<ShardPlanner.Shard> pulledIn = new ShardPlanner(history, resolver).plan(List.of("A.orders", "B.one"), 2);
+        Assert.assertTrue(pulledIn.get(0).getMethods().containsAll(List.of("A.orders", "A.login")),
+                "Prerequisites missing from the method set are planned with their dependent");
+    }
+
+    @Test(groups = {"framework"})
+    public void testAnnotatedDependenciesShareAShard() {
+        String dependent = AccountManagementTests.class.getName() + ".testOrderHistoryManagement";
+        String prerequisite = AccountManagementTests.class.getName() + ".testViewAccountInformation";
+        Assert.assertEquals(TestDependencies.ANNOTATIONS.prerequisitesOf(dependent, List.of()), Set.of(prerequisite));
+
+        List<String> methods = new ArrayList<>();
+        for (Method method : AccountManagementTests.class.getMethods()) {
+            if (method.isAnnotationPresent(Test.class)) {
+                methods.add(AccountManagementTests.class.getName() + "." + method.getName());
+            }
+        }
+        for (ShardPlanner.Shard shard : new ShardPlanner(TestDurationHistory.empty()).plan(methods, 4)) {
+            Assert.assertEquals(shard.getMethods().contains(prerequisite), shard.getMethods().contains(dependent),
+                    "Shard " + shard.getIndex() + ": " + shard.getMethods());
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testHistoryFromReportsAndMerge() throws Exception {
+        Path reports = Files.createTempDirectory("reports");
+        Files.write(reports.resolve("testng-results.xml"), (
+                "<testng-results><suite><test><class name=\"tests.cart.ShoppingCartTests\">"
+                + "<test-method is-config=\"true\" name=\"setUp\" duration-ms=\"900\"/>"
+                + "<test-method name=\"testAddToCart\" duration-ms=\"1000\"/>"
+                + "<test-method name=\"testAddToCart\" duration-ms=\"3000\"/>"
+                + "</class></test></suite></testng-results>").getBytes(StandardCharsets.UTF_8));
+        Path shardReports = Files.createDirectories(reports.resolve("shard-2"));
+        Files.write(shardReports.resolve("TEST-TestSuite.xml"), (
+                "<testsuite><testcase name=\"testGuestCheckout\" classname=\"tests.checkout.CheckoutTests\" time=\"12.5\"/>"
+                + "</testsuite>").getBytes(StandardCharsets.UTF_8));
+
+        TestDurationHistory latest = TestDurationHistory.fromReports(Collections.singletonList(reports));
+        Assert.assertEquals(latest.getDurations().get("tests.cart.ShoppingCartTests.testAddToCart"), Long.valueOf(4000),
+                "Data-provider rows and retries of one method are summed");
+        Assert.assertFalse(latest.contains("tests.cart.ShoppingCartTests.setUp"), "Configuration methods are ignored");
+        Assert.assertEquals(latest.getDurations().get("tests.checkout.CheckoutTests.testGuestCheckout"), Long.valueOf(12500));
+
+        TestDurationHistory merged = history("tests.cart.ShoppingCartTests.testAddToCart", 2000).merge(latest);
+        Assert.assertEquals(merged.estimate("tests.cart.ShoppingCartTests.testAddToCart"), 3000);
+
+        Path historyFile = reports.resolve("durations.properties");
+        merged.save(historyFile);
+        Assert.assertEquals(TestDurationHistory.load(historyFile).getDurations(), merged.getDurations());
+    }
+
+    @Test(groups = {"framework"})
+    public void testGeneratedSuitesCoverBaseSuite() throws Exception {
+        Path directory = Files.createTempDirectory("shards");
+        Path baseSuite = directory.resolve("base.xml");
+        Files.write(baseSuite, ("<!DOCTYPE suite SYSTEM \"https://testng.org/testng-1.0.dtd\">"
+                + "<suite name=\"Base\" parallel=\"methods\" thread-count=\"3\"><test name=\"All\"><classes>"
+                + "<class name=\"tests.framework.ShardPlannerTests\"/>"
+                + "</classes></test></suite>").getBytes(StandardCharsets.UTF_8));
+
+        List<Path> suites = ShardSuiteGenerator.generate(baseSuite, 2, TestDurationHistory.empty(), directory);
+
+        Assert.assertEquals(suites.size(), 2);
+        StringBuilder combined = new StringBuilder();
+        for (Path suite : suites) {
+            String xml = new String(Files.readAllBytes(suite), StandardCharsets.UTF_8);
+            Assert.assertTrue(xml.contains("parallel=\"methods\""), xml);
+            combined.append(xml);
+        }
+        for (String method : Arrays.asList("testLongestProcessingTimeBalancesShards", "testPlanIsDeterministicAndComplete",
+                "testHistoryFromReportsAndMerge", "testGeneratedSuitesCoverBaseSuite")) {
+            Assert.assertTrue(combined.toString().contains("name=\"" + method + "\""), "Missing " + method);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.concurrent.SideTaskExecutor;
+import com.demowebshop.automation.utils.concurrent.TestTaskScope;
+import org.apache.logging.log4j.ThreadContext;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offline tests for the virtual-thread side task executor and per-test task scopes
+ */
+public class SideTaskExecutorTests {
+
+    @Test(groups = {"framework"})
+    public void testScopeJoinsForkedTasksOnClose() {
+        AtomicInteger finished = new AtomicInteger();
+        TestTaskScope scope = TestTaskScope.open("SideTaskExecutorTests.join");
+        try {
+            for (int i = 0; i < 50; i++) {
+                SideTaskExecutor.execute("sleep " + i, () -> {
+                    Thread.sleep(20);
+                    finished.incrementAndGet();
+                });
+            }
+        } finally {
+            TestTaskScope.closeCurrent();
+        }
+        Assert.assertEquals(finished.get(), 50, "Closing the scope should wait for every forked task");
+        Assert.assertNull(TestTaskScope.current());
+        Assert.assertThrows(IllegalStateException.class, () -> scope.fork("late", () -> null));
+    }
+
+    @Test(groups = {"framework"})
+    public void testTasksRunOnVirtualThreadsWithTestContext() throws Exception {
+        ThreadContext.put("testId", "SideTaskExecutorTests.context");
+        try {
+            CompletableFuture<String> result = SideTaskExecutor.submit("context",
+                    () -> Thread.currentThread().isVirtual() + ":" + ThreadContext.get("testId"));
+            Assert.assertEquals(result.get(5, TimeUnit.SECONDS), "true:SideTaskExecutorTests.context");
+        } finally {
+            ThreadContext.remove("testId");
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testJoinInterruptsTasksPastTheDeadline() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        TestTaskScope scope = TestTaskScope.open("SideTaskExecutorTests.deadline");
+        try {
+            CompletableFuture<Void> failing = SideTaskExecutor.execute("fail", () -> {
+                throw new IllegalStateException("expected");
+            });
+            SideTaskExecutor.execute("hang", () -> {
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+            });
+
+            Assert.assertEquals(scope.join(Duration.ofMillis(200)), 2);
+            Assert.assertTrue(failing.isCompletedExceptionally());
+            Assert.assertTrue(interrupted.await(5, TimeUnit.SECONDS), "Straggler should have been interrupted");
+        } finally {
+            TestTaskScope.closeCurrent();
+        }
+    }
+}
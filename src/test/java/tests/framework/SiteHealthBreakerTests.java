@@ -0,0 +1,114 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.health.SiteHealthBreaker;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Site health breaker against a local stub server
+ */
+public class SiteHealthBreakerTests {
+
+    private static HttpServer stubServer(AtomicInteger status, AtomicInteger requests) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private static URI uriOf(HttpServer server) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    @Test(groups = {"framework"})
+    public void testOpensAfterConsecutiveFailuresAcrossThreads() throws Exception {
+        SiteHealthBreaker breaker = new SiteHealthBreaker(URI.create("http://127.0.0.1:9/"), 6,
+                Duration.ofMinutes(5), Duration.ofSeconds(1));
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        CountDownLatch done = new CountDownLatch(6);
+        try {
+            for (int i = 0; i < 6; i++) {
+                pool.execute(() -> {
+                    breaker.recordFailure("renderer timeout");
+                    done.countDown();
+                });
+            }
+            Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Assert.assertEquals(breaker.getState(), SiteHealthBreaker.State.OPEN);
+        Assert.assertFalse(breaker.allowRequest(), "Open breaker must refuse navigation until the open period ends");
+        Assert.assertTrue(breaker.getOpenReason().contains("renderer timeout"), breaker.getOpenReason());
+    }
+
+    @Test(groups = {"framework"})
+    public void testSuccessResetsFailureCount() {
+        SiteHealthBreaker breaker = new SiteHealthBreaker(URI.create("http://127.0.0.1:9/"), 3,
+                Duration.ofMinutes(5), Duration.ofSeconds(1));
+        breaker.recordFailure("timeout");
+        breaker.recordFailure("timeout");
+        breaker.recordSuccess();
+        breaker.recordFailure("timeout");
+        breaker.recordFailure("timeout");
+
+        Assert.assertEquals(breaker.getState(), SiteHealthBreaker.State.CLOSED);
+        Assert.assertTrue(breaker.allowRequest());
+    }
+
+    @Test(groups = {"framework"})
+    public void testHalfOpenProbeKeepsBreakerOpenWhileSiteFailsAndClosesWhenItRecovers() throws Exception {
+        AtomicInteger status = new AtomicInteger(503);
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = stubServer(status, requests);
+        try {
+            SiteHealthBreaker breaker = new SiteHealthBreaker(uriOf(server), 2,
+                    Duration.ofMillis(200), Duration.ofSeconds(2));
+            breaker.recordFailure("timeout");
+            breaker.recordFailure("timeout");
+            Assert.assertFalse(breaker.allowRequest(), "No probe before the open period has passed");
+            Assert.assertEquals(requests.get(), 0);
+
+            Thread.sleep(300);
+            Assert.assertFalse(breaker.allowRequest(), "Probe got HTTP 503");
+            Assert.assertEquals(requests.get(), 1);
+            Assert.assertEquals(breaker.getState(), SiteHealthBreaker.State.OPEN);
+            Assert.assertTrue(breaker.getOpenReason().contains("HTTP 503"), breaker.getOpenReason());
+
+            status.set(200);
+            Thread.sleep(300);
+            Assert.assertTrue(breaker.allowRequest(), "Probe got HTTP 200");
+            Assert.assertEquals(breaker.getState(), SiteHealthBreaker.State.CLOSED);
+            Assert.assertEquals(requests.get(), 2);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testUnreachableSiteKeepsBreakerOpen() throws Exception {
+        HttpServer server = stubServer(new AtomicInteger(200), new AtomicInteger());
+        URI uri = uriOf(server);
+        server.stop(0);
+
+        SiteHealthBreaker breaker = new SiteHealthBreaker(uri, 1, Duration.ZERO, Duration.ofSeconds(1));
+        breaker.recordFailure("connection refused");
+        Assert.assertFalse(breaker.allowRequest());
+        Assert.assertEquals(breaker.getState(), SiteHealthBreaker.State.OPEN);
+    }
+}
@@ -0,0 +1,212 @@
+package tests.framework;
+
+import com.demowebshop.automation.config.ConfigManager;
+import com.demowebshop.automation.utils.seeding.StateSeeder;
+import com.demowebshop.automation.utils.seeding.StateSeedingException;
+import models.User;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import standin.StandInShop;
+
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Storefront flows of the local stand-in shop, driven over HTTP like the seeder and a browser would
+ */
+public class StandInShopTests {
+    private static final Pattern TOKEN = Pattern.compile("name=\"__RequestVerificationToken\" type=\"hidden\" value=\"([^\"]+)\"");
+
+    private StandInShop shop;
+
+    /**
+     * One cookie session against the stand-in; form posts carry the token of the page fetched last
+     */
+    private final class Session {
+        private final HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager(null, CookiePolicy.ACCEPT_ALL))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        private String token;
+
+        HttpResponse<String> get(String path) throws Exception {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(shop.getBaseUrl() + path)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = TOKEN.matcher(response.body());
+            if (matcher.find()) {
+                token = matcher.group(1);
+            }
+            return response;
+        }
+
+        HttpResponse<String> post(String path, Map<String, String> fields) throws Exception {
+            Map<String, String> form = new LinkedHashMap<>(fields);
+            if (token != null) {
+                form.put("__RequestVerificationToken", token);
+            }
+            String body = form.entrySet().stream()
+                    .map(field -> URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8) + "="
+                            + URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8))
+                    .collect(Collectors.joining("&"));
+            return client.send(HttpRequest.newBuilder(URI.create(shop.getBaseUrl() + path))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+        }
+    }
+
+    @BeforeClass(alwaysRun = true)
+    public void startShop() throws Exception {
+        shop = StandInShop.start(0);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopShop() {
+        if (shop != null) {
+            shop.close();
+        }
+    }
+
+    private StateSeeder seeder() {
+        return new StateSeeder(URI.create(shop.getBaseUrl()), Duration.ofSeconds(5));
+    }
+
+    private static User user(String email) {
+        return User.builder().email(email).password("secret123").firstName("Stand").lastName("In").gender("F").build();
+    }
+
+    private static Map<String, String> address(String prefix, String firstName) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put(prefix + ".FirstName", firstName);
+        form.put(prefix + ".LastName", "In");
+        form.put(prefix + ".Email", "billing@example.com");
+        form.put(prefix + ".CountryId", "1");
+        form.put(prefix + ".City", "Springfield");
+        form.put(prefix + ".Address1", "1 Main Street");
+        form.put(prefix + ".ZipPostalCode", "12345");
+        form.put(prefix + ".PhoneNumber", "555-0100");
+        return form;
+    }
+
+    @Test(groups = {"framework"})
+    public void testSeederRegistersLogsInAndFillsCart() {
+        User user = user("seeded@example.com");
+        StateSeeder seeder = seeder();
+        Assert.assertTrue(seeder.register(user));
+        Assert.assertFalse(seeder().register(user), "A second registration should report the email as taken");
+        seeder.login(user.getEmail(), user.getPassword());
+
+        seeder.addToCart(31, 2);
+        seeder.addToCart(13, 1);
+        seeder.addToCart(31, 1);
+        Assert.assertEquals(seeder.clearCart(), 2, "Adding a product again should raise the quantity of its line");
+        Assert.assertEquals(seeder.clearCart(), 0);
+
+        Assert.assertThrows(StateSeedingException.class, () -> seeder.addToCart(99999, 1));
+        Assert.assertThrows(StateSeedingException.class, () -> seeder().login(user.getEmail(), "wrong-password"));
+    }
+
+    @Test(groups = {"framework"})
+    public void testAddressBookAndCheckoutOfRegisteredCustomer() throws Exception {
+        User user = user("checkout@example.com");
+        Session session = new Session();
+        session.get("/register");
+        Map<String, String> registration = new LinkedHashMap<>(Map.of("Gender", "F", "FirstName", user.getFirstName(),
+                "LastName", user.getLastName(), "Email", user.getEmail(), "Password", user.getPassword(),
+                "ConfirmPassword", user.getPassword()));
+        Assert.assertEquals(session.post("/register", registration).statusCode(), 302);
+        Assert.assertTrue(session.get("/customer/info").body().contains(user.getEmail()),
+                "Registration should log the customer in");
+
+        session.get("/customer/addressadd");
+        Assert.assertEquals(session.post("/customer/addressadd", address("Address", "Home")).statusCode(), 302);
+        session.get("/customer/addressadd");
+        Assert.assertEquals(session.post("/customer/addressadd", address("Address", "Work")).statusCode(), 302);
+
+        StateSeeder seeder = seeder();
+        seeder.login(user.getEmail(), user.getPassword());
+        Assert.assertEquals(seeder.deleteAddresses(), 2);
+        Assert.assertTrue(session.get("/customer/addresses").body().contains("No addresses"));
+
+        seeder.addToCart(31, 1);
+        HttpResponse<String> checkout = session.get("/onepagecheckout");
+        Assert.assertTrue(checkout.body().contains("checkout-data") && checkout.body().contains("id=\"BillingNewAddress_FirstName\""),
+                "The cart belongs to the account, so items added in another session show up");
+
+        Map<String, String> incomplete = new LinkedHashMap<>(Map.of("paymentmethod", "Payments.CashOnDelivery"));
+        HttpResponse<String> rejected = session.post("/checkout/confirm", incomplete);
+        Assert.assertEquals(rejected.statusCode(), 200);
+        Assert.assertTrue(rejected.body().contains("City is required"));
+
+        Map<String, String> complete = address("BillingNewAddress", "Billing");
+        complete.put("shippingoption", "Next Day Air___Shipping.FixedRate");
+        complete.put("paymentmethod", "Payments.CheckMoneyOrder");
+        HttpResponse<String> confirmed = session.post("/checkout/confirm", complete);
+        Assert.assertEquals(confirmed.headers().firstValue("Location").orElse(""), "/checkout/completed/1",
+                "Order numbers should start at 1 on a fresh stand-in");
+        Assert.assertTrue(session.get("/checkout/completed/1").body().contains("Order number: 1"));
+        Assert.assertTrue(session.get("/customer/orders").body().contains("Order Number: 1"));
+        Assert.assertTrue(session.get("/cart").body().contains("Your Shopping Cart is empty!"));
+        Assert.assertTrue(session.get("/customer/addresses").body().contains("/customer/addressdelete/3"),
+                "The new billing address should be saved to the address book");
+    }
+
+    @Test(groups = {"framework"})
+    public void testGuestSessionsSearchAndErrors() throws Exception {
+        Session first = new Session();
+        Session second = new Session();
+        first.get("/");
+        second.get("/");
+        first.post("/addproducttocart/details/45/1", Map.of("addtocart_45.EnteredQuantity", "3"));
+        Assert.assertTrue(first.get("/cart").body().contains("<span class=\"cart-qty\">(3)</span>"));
+        Assert.assertTrue(second.get("/cart").body().contains("Your Shopping Cart is empty!"),
+                "Guest carts should be kept per session");
+
+        Assert.assertTrue(first.get("/search?q=laptop").body().contains("14.1-inch Laptop"));
+        Assert.assertTrue(first.get("/search?q=nothing-matches").body().contains("No products were found"));
+        Assert.assertTrue(first.get("/search?q=ab").body().contains("Search term minimum length is 3 characters"));
+        Assert.assertTrue(first.get("/books").body().contains("Health Book"));
+        Assert.assertTrue(first.get("/141-inch-laptop").body().contains("id=\"add-to-cart-button-31\""));
+
+        Assert.assertEquals(first.get("/customer/info").headers().firstValue("Location").orElse(""),
+                "/login?ReturnUrl=%2Fcustomer%2Finfo");
+        Assert.assertEquals(first.get("/non-existent-page").statusCode(), 404);
+        first.token = null;
+        Assert.assertEquals(first.post("/login", Map.of("Email", "a@example.com", "Password", "x")).statusCode(), 400,
+                "Form posts without the anti-forgery token should be rejected");
+    }
+
+    @Test(groups = {"framework"})
+    public void testLocalEnvironmentExtendsDemo() {
+        String previous = System.getProperty("environment");
+        System.setProperty("environment", "local");
+        try {
+            ConfigManager.reloadConfiguration();
+            Assert.assertEquals(ConfigManager.getProperty("environment.name"), "local");
+            Assert.assertTrue(ConfigManager.isStandInEnabled());
+            Assert.assertFalse(ConfigManager.isUserPoolEnabled());
+            Assert.assertEquals(ConfigManager.getStateSeedingProductId(), 31, "Unset keys should come from demo");
+            Assert.assertNull(ConfigManager.getProperty("environment.extends"));
+        } finally {
+            if (previous == null) {
+                System.clearProperty("environment");
+            } else {
+                System.setProperty("environment", previous);
+            }
+            ConfigManager.reloadConfiguration();
+        }
+    }
+}
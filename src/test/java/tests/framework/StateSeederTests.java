@@ -0,0 +1,242 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.seeding.StateSeeder;
+import com.demowebshop.automation.utils.seeding.StateSeedingException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import models.User;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.HttpCookie;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * HTTP state seeding against a local stub of the shop's register, login and add-to-cart endpoints
+ */
+public class StateSeederTests {
+    private static final String FORM_TOKEN = "form-token-1";
+
+    private HttpServer server;
+    private URI baseUri;
+    private final Map<String, String> accounts = new ConcurrentHashMap<>();
+    private final Map<String, Integer> cartQuantities = new ConcurrentHashMap<>();
+    private final List<String> removedCartItems = new CopyOnWriteArrayList<>();
+    private final List<String> deletedAddresses = new CopyOnWriteArrayList<>();
+
+    @BeforeClass(alwaysRun = true)
+    public void startStubShop() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/register", exchange -> {
+            if (serveFormPage(exchange)) {
+                return;
+            }
+            Map<String, String> form = readForm(exchange);
+            if (!FORM_TOKEN.equals(form.get("__RequestVerificationToken"))) {
+                respond(exchange, 400, "text/html", "Anti-forgery token missing");
+            } else if (accounts.putIfAbsent(form.get("Email"), form.get("Password")) != null) {
+                respond(exchange, 200, "text/html",
+                        "<div class=\"validation-summary-errors\"><ul><li>The specified email already exists</li></ul></div>");
+            } else {
+                redirect(exchange, "/registerresult/1");
+            }
+        });
+        server.createContext("/login", exchange -> {
+            if (serveFormPage(exchange)) {
+                return;
+            }
+            Map<String, String> form = readForm(exchange);
+            String password = accounts.get(form.get("Email"));
+            if (FORM_TOKEN.equals(form.get("__RequestVerificationToken")) && password != null
+                    && password.equals(form.get("Password"))) {
+                exchange.getResponseHeaders().add("Set-Cookie", "NOPCOMMERCE.AUTH=auth-" + form.get("Email").hashCode() + "; path=/; HttpOnly");
+                redirect(exchange, "/");
+            } else {
+                respond(exchange, 200, "text/html",
+                        "<div class=\"validation-summary-errors\"><ul><li>Login was unsuccessful.</li></ul></div>");
+            }
+        });
+        server.createContext("/addproducttocart/details/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            int productId = Integer.parseInt(path.split("/")[3]);
+            String cookies = String.valueOf(exchange.getRequestHeaders().getFirst("Cookie"));
+            if (!"XMLHttpRequest".equals(exchange.getRequestHeaders().getFirst("X-Requested-With"))
+                    || !cookies.contains("NOPCOMMERCE.AUTH=")) {
+                respond(exchange, 403, "text/plain", "forbidden");
+            } else if (productId == 99) {
+                respond(exchange, 200, "application/json", "{\"success\":false,\"message\":[\"Out of stock\"]}");
+            } else {
+                int quantity = Integer.parseInt(readForm(exchange).get("addtocart_" + productId + ".EnteredQuantity"));
+                int total = cartQuantities.merge(cookies, quantity, Integer::sum);
+                respond(exchange, 200, "application/json",
+                        "{\"success\":true,\"message\":\"The product has been added\",\"updatetopcartsectionhtml\":\"(" + total + ")\"}");
+            }
+        });
+        server.createContext("/cart", exchange -> {
+            if ("GET".equals(exchange.getRequestMethod())) {
+                respond(exchange, 200, "text/html", "<form><input type=\"checkbox\" name=\"removefromcart\" value=\"501\" />"
+                        + "<input type=\"checkbox\" name=\"removefromcart\" value=\"502\" /></form>");
+            } else {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                removedCartItems.addAll(List.of(body.split("&")));
+                respond(exchange, 200, "text/html", "<div class=\"order-summary-content\">Your Shopping Cart is empty!</div>");
+            }
+        });
+        server.createContext("/customer/address", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith("/customer/addressdelete/")) {
+                deletedAddresses.add(path.substring(path.lastIndexOf('/') + 1));
+                redirect(exchange, "/customer/addresses");
+            } else {
+                respond(exchange, 200, "text/html", "<input type=\"button\" value=\"Delete\" "
+                        + "onclick=\"if (confirm('Are you sure?')) {location.href='/customer/addressdelete/7';}\" />");
+            }
+        });
+        server.start();
+        baseUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStubShop() {
+        server.stop(0);
+    }
+
+    private static boolean serveFormPage(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            return false;
+        }
+        exchange.getResponseHeaders().add("Set-Cookie", "__RequestVerificationToken=cookie-token; path=/; HttpOnly");
+        respond(exchange, 200, "text/html", "<form method=\"post\"><input name=\"__RequestVerificationToken\" "
+                + "type=\"hidden\" value=\"" + FORM_TOKEN + "\" /><input name=\"Email\" type=\"text\" /></form>");
+        return true;
+    }
+
+    private static Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            String[] field = pair.split("=", 2);
+            form.put(URLDecoder.decode(field[0], StandardCharsets.UTF_8),
+                    field.length > 1 ? URLDecoder.decode(field[1], StandardCharsets.UTF_8) : "");
+        }
+        return form;
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private static User user(String email) {
+        return User.builder().firstName("Ada").lastName("Lovelace").gender("Female")
+                .email(email).password("Secret123!").build();
+    }
+
+    private StateSeeder seeder() {
+        return new StateSeeder(baseUri, Duration.ofSeconds(5));
+    }
+
+    @Test(groups = {"framework"})
+    public void testRegisterLoginAndAddToCartCarryTheSessionCookies() {
+        StateSeeder seeder = seeder();
+        User user = user("seeded.one@example.com");
+
+        Assert.assertTrue(seeder.register(user));
+        seeder.login(user.getEmail(), user.getPassword());
+        seeder.addToCart(31, 2);
+        seeder.addToCart(31, 1);
+
+        Set<String> cookieNames = seeder.getCookies().stream().map(HttpCookie::getName).collect(Collectors.toSet());
+        Assert.assertTrue(cookieNames.contains("NOPCOMMERCE.AUTH"), cookieNames.toString());
+        Assert.assertTrue(cookieNames.contains("__RequestVerificationToken"), cookieNames.toString());
+        Assert.assertTrue(cartQuantities.containsValue(3), cartQuantities.toString());
+    }
+
+    @Test(groups = {"framework"})
+    public void testExistingUserFallsBackToLoginAndBadCredentialsFail() {
+        User user = user("seeded.two@example.com");
+        seeder().registerOrLogin(user);
+
+        StateSeeder again = seeder();
+        Assert.assertFalse(again.register(user), "Second registration reports the existing account");
+        again.registerOrLogin(user);
+
+        StateSeedingException loginError = Assert.expectThrows(StateSeedingException.class,
+                () -> seeder().login(user.getEmail(), "wrong"));
+        Assert.assertTrue(loginError.getMessage().contains("Login was unsuccessful"), loginError.getMessage());
+
+        StateSeedingException cartError = Assert.expectThrows(StateSeedingException.class, () -> again.addToCart(99, 1));
+        Assert.assertTrue(cartError.getMessage().contains("Out of stock"), cartError.getMessage());
+    }
+
+    @Test(groups = {"framework"})
+    public void testCartAndAddressBookAreCleared() {
+        StateSeeder seeder = seeder();
+        Assert.assertEquals(seeder.clearCart(), 2);
+        Assert.assertTrue(removedCartItems.containsAll(List.of("removefromcart=501", "removefromcart=502")),
+                removedCartItems.toString());
+        Assert.assertEquals(seeder.deleteAddresses(), 1);
+        Assert.assertEquals(deletedAddresses, List.of("7"));
+    }
+
+    @Test(groups = {"framework"})
+    public void testCookiesAreInjectedAfterOpeningTheSite() {
+        StateSeeder seeder = seeder();
+        seeder.registerOrLogin(user("seeded.three@example.com"));
+
+        List<String> visited = new ArrayList<>();
+        List<Cookie> added = new ArrayList<>();
+        WebDriver.Options options = (WebDriver.Options) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.Options.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("addCookie")) {
+                        added.add((Cookie) args[0]);
+                    }
+                    return null;
+                });
+        WebDriver driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getCurrentUrl" -> visited.isEmpty() ? "about:blank" : visited.get(visited.size() - 1);
+                    case "get" -> {
+                        visited.add((String) args[0]);
+                        yield null;
+                    }
+                    case "manage" -> options;
+                    default -> null;
+                });
+
+        seeder.injectInto(driver);
+
+        Assert.assertEquals(visited, List.of(baseUri.resolve("robots.txt").toString()));
+        Cookie auth = added.stream().filter(cookie -> cookie.getName().equals("NOPCOMMERCE.AUTH")).findFirst().orElse(null);
+        Assert.assertNotNull(auth, "Auth cookie injected: " + added);
+        Assert.assertTrue(auth.isHttpOnly());
+        Assert.assertEquals(auth.getPath(), "/");
+    }
+}
@@ -0,0 +1,83 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.concurrent.TestBudgetExceededException;
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
+import com.demowebshop.automation.utils.selenium.MeasuredWait;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+
+/**
+ * Per-test time budget and its use by waits (no browser: the wait conditions ignore the driver)
+ */
+public class TestDeadlineTests {
+    private static final WebDriver NO_BROWSER = (WebDriver) Proxy.newProxyInstance(
+            TestDeadlineTests.class.getClassLoader(), new Class<?>[]{WebDriver.class}, (proxy, method, args) -> null);
+
+    @AfterMethod(alwaysRun = true)
+    public void clearDeadline() {
+        TestDeadline.clear();
+    }
+
+    @Test(groups = {"framework"})
+    public void testCapUsesSmallerOfTimeoutAndRemainingBudget() {
+        Assert.assertEquals(TestDeadline.cap(Duration.ofSeconds(20)), Duration.ofSeconds(20), "No deadline bound");
+
+        TestDeadline.start("capTest", Duration.ofSeconds(5));
+        Assert.assertEquals(TestDeadline.cap(Duration.ofSeconds(1)), Duration.ofSeconds(1));
+        Duration capped = TestDeadline.cap(Duration.ofSeconds(600));
+        Assert.assertTrue(capped.compareTo(Duration.ofSeconds(5)) <= 0 && capped.compareTo(Duration.ofSeconds(4)) > 0,
+                "Capped to remaining budget: " + capped);
+    }
+
+    @Test(groups = {"framework"})
+    public void testFixedSleepIsCutShortAtBudget() throws InterruptedException {
+        TestDeadline.start("sleepTest", Duration.ofMillis(300));
+
+        long start = System.currentTimeMillis();
+        TestDeadline.sleep(20_000);
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000, "Sleep stopped at the budget");
+        Assert.assertThrows(TestBudgetExceededException.class, () -> TestDeadline.sleep(1000));
+        Assert.assertThrows(TestBudgetExceededException.class, () -> TestDeadline.capMillis(1000));
+    }
+
+    @Test(groups = {"framework"})
+    public void testWaitFailsAtBudgetInsteadOfItsOwnTimeout() {
+        TestDeadline.start("waitTest", Duration.ofMillis(300));
+        MeasuredWait wait = new MeasuredWait(NO_BROWSER, Duration.ofSeconds(20));
+
+        long start = System.currentTimeMillis();
+        try {
+            wait.until(driver -> false);
+            Assert.fail("Wait should have timed out");
+        } catch (TestBudgetExceededException e) {
+            Assert.assertTrue(e.getMessage().contains("waitTest"), e.getMessage());
+        }
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000, "Wait stopped at the budget");
+
+        // Once spent, further waits and commands fail immediately
+        long afterBudget = System.currentTimeMillis();
+        Assert.assertThrows(TestBudgetExceededException.class, () -> wait.until(driver -> false));
+        Assert.assertThrows(TestBudgetExceededException.class, () -> TestDeadline.check("click"));
+        Assert.assertTrue(System.currentTimeMillis() - afterBudget < 1000);
+    }
+
+    @Test(groups = {"framework"})
+    public void testWaitWithinBudgetKeepsItsOwnTimeout() {
+        TestDeadline.start("ownTimeoutTest", Duration.ofMinutes(5));
+        MeasuredWait wait = new MeasuredWait(NO_BROWSER, Duration.ofMillis(200));
+
+        try {
+            wait.until(driver -> false);
+            Assert.fail("Wait should have timed out");
+        } catch (TimeoutException e) {
+            Assert.assertFalse(e instanceof TestBudgetExceededException, "Plain timeout, budget is not spent");
+        }
+        Assert.assertFalse(TestDeadline.isExpired());
+    }
+}
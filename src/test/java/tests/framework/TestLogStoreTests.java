@@ -0,0 +1,146 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.logging.TestLogContext;
+import com.demowebshop.automation.utils.logging.TestLogStore;
+import com.demowebshop.automation.utils.logging.TestSegmentAppender;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-invocation log segments written by the segment appender and read back from the store
+ */
+public class TestLogStoreTests {
+    private static final String TEST_ID = "CheckoutTests.testCheckoutRow";
+
+    // Test methods run in parallel, so each one starts its own appender on its own files
+    private static TestSegmentAppender startAppender(Path directory) {
+        TestSegmentAppender appender = TestSegmentAppender.createAppender("TestLogStoreTests-" + System.nanoTime(),
+                directory.resolve("segments.log").toString(), null, 4096,
+                PatternLayout.newBuilder().withPattern("%m%n").build(), null);
+        appender.start();
+        return appender;
+    }
+
+    private static void stopAndDelete(TestSegmentAppender appender, Path directory) throws Exception {
+        if (appender.isStarted()) {
+            appender.stop(1, TimeUnit.SECONDS);
+        }
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static void log(TestSegmentAppender appender, String invocation, String message, Marker marker) {
+        SortedArrayStringMap context = new SortedArrayStringMap();
+        context.putValue(TestLogContext.TEST_ID_KEY, TEST_ID);
+        context.putValue(TestLogContext.INVOCATION_KEY, invocation);
+        appender.append(Log4jLogEvent.newBuilder().setLoggerName("test").setLevel(Level.INFO).setMarker(marker)
+                .setContextData(context).setMessage(new SimpleMessage(message)).build());
+    }
+
+    @Test(groups = {"framework"})
+    public void testParallelRowsOfOneMethodGetSeparateSegments() throws Exception {
+        Path directory = Files.createTempDirectory("test-segments");
+        TestSegmentAppender appender = startAppender(directory);
+        try {
+            assertRowsAreSeparated(appender);
+        } finally {
+            stopAndDelete(appender, directory);
+        }
+    }
+
+    private static void assertRowsAreSeparated(TestSegmentAppender appender) throws Exception {
+        int rows = 4;
+        int lines = 200;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(rows);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int row = 1; row <= rows; row++) {
+                String invocation = String.valueOf(row);
+                // Rows end at different times, so early end markers interleave with other rows' lines
+                int rowLines = lines * row / rows;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int line = 0; line < rowLines; line++) {
+                        log(appender, invocation, "row " + invocation + " line " + line, null);
+                    }
+                    log(appender, invocation, "end of row " + invocation, TestLogContext.TEST_END_MARKER);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        TestLogStore store = appender.getStore();
+        for (int row = 1; row <= rows; row++) {
+            String segmentKey = TestLogContext.segmentKeyOf(TEST_ID, String.valueOf(row));
+            String log = store.read(segmentKey);
+            List<String> rowLines = log.lines().toList();
+            Assert.assertEquals(rowLines.size(), lines * row / rows + 1, "Every line of row " + row + " should be kept");
+            String prefix = "row " + row + " ";
+            Assert.assertTrue(rowLines.subList(0, rowLines.size() - 1).stream().allMatch(line -> line.startsWith(prefix)),
+                    "Row " + row + " should not contain lines of other rows");
+            Assert.assertEquals(rowLines.get(rowLines.size() - 1), "end of row " + row);
+        }
+        Assert.assertEquals(store.read(TEST_ID).lines().count(), (long) lines * (1 + 2 + 3 + 4) / rows + rows,
+                "The test ID should still read all invocations");
+        Assert.assertTrue(appender.awaitWrites(Duration.ofSeconds(10)), "Segments should be written in time");
+        Assert.assertEquals(appender.pendingLines(TEST_ID), "", "Ended invocations should leave no buffer behind");
+    }
+
+    @Test(groups = {"framework"})
+    public void testUnfinishedInvocationIsReadFromBufferAndFlushedOnStop() throws Exception {
+        Path directory = Files.createTempDirectory("test-segments");
+        TestSegmentAppender appender = startAppender(directory);
+        try {
+            log(appender, "7", "still running", null);
+            Assert.assertEquals(appender.getStore().read(TEST_ID + "#7"), "still running" + System.lineSeparator());
+            Assert.assertEquals(appender.getStore().read(TEST_ID + "#70"), "", "Segment keys should not match by prefix");
+
+            appender.stop(1, TimeUnit.SECONDS);
+            TestLogStore onDisk = new TestLogStore(directory.resolve("segments.log"), directory.resolve("segments.log.idx"));
+            Assert.assertEquals(onDisk.segmentsFor(TEST_ID).size(), 1);
+            Assert.assertEquals(onDisk.segmentsFor(TEST_ID).get(0).getTestId(), TEST_ID + "#7");
+        } finally {
+            stopAndDelete(appender, directory);
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testBindingTheSameTestKeepsItsInvocation() {
+        try {
+            TestLogContext.bind("CheckoutTests", "testCheckoutRow");
+            String first = TestLogContext.currentSegmentKey();
+            TestLogContext.bind("CheckoutTests", "testCheckoutRow");
+            Assert.assertEquals(TestLogContext.currentSegmentKey(), first);
+            TestLogContext.clear();
+            TestLogContext.bind("CheckoutTests", "testCheckoutRow");
+            Assert.assertNotEquals(TestLogContext.currentSegmentKey(), first, "A retry is a new invocation");
+        } finally {
+            TestLogContext.clear();
+        }
+    }
+}
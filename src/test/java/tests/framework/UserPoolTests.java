@@ -0,0 +1,140 @@
+package tests.framework;
+
+import com.demowebshop.automation.utils.accounts.UserPool;
+import models.User;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * User pool with an in-memory stand-in for the shop's account operations
+ */
+public class UserPoolTests {
+    private static final String SITE = "https://shop.example";
+
+    /**
+     * Records registrations and resets; resets fail for accounts whose password it does not know
+     */
+    private static final class FakeShop implements UserPool.AccountService {
+        private final ConcurrentHashMap<String, String> passwords = new ConcurrentHashMap<>();
+        private final AtomicInteger registrations = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxConcurrentRegistrations = new AtomicInteger();
+        private final Set<String> resets = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public boolean register(User user) throws Exception {
+            maxConcurrentRegistrations.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+                registrations.incrementAndGet();
+                return passwords.putIfAbsent(user.getEmail(), user.getPassword()) == null;
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void reset(User user) {
+            if (!user.getPassword().equals(passwords.get(user.getEmail()))) {
+                throw new IllegalStateException("Login failed");
+            }
+            resets.add(user.getEmail());
+        }
+    }
+
+    private static void awaitReset(FakeShop shop, String email) throws InterruptedException {
+        for (int i = 0; i < 100 && !shop.resets.contains(email); i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testPoolIsRegisteredInParallelOnceAndReusedByLaterRuns() throws Exception {
+        Path file = Files.createTempDirectory("user-pool").resolve("accounts.json");
+        FakeShop shop = new FakeShop();
+
+        try (UserPool firstRun = new UserPool(file, SITE, 4, 4, shop)) {
+            firstRun.lease().close();
+            Assert.assertEquals(firstRun.size(), 4);
+        }
+        Assert.assertEquals(shop.registrations.get(), 4);
+        Assert.assertTrue(shop.maxConcurrentRegistrations.get() > 1, "Accounts registered in parallel");
+
+        try (UserPool nextRun = new UserPool(file, SITE, 4, 4, shop)) {
+            User user = nextRun.lease().getUser();
+            Assert.assertTrue(shop.passwords.containsKey(user.getEmail()));
+            Assert.assertEquals(user.getPassword(), shop.passwords.get(user.getEmail()));
+        }
+        Assert.assertEquals(shop.registrations.get(), 4, "Second run registers nothing");
+
+        try (UserPool otherSite = new UserPool(file, "http://localhost:8080", 1, 1, shop)) {
+            otherSite.lease().close();
+        }
+        Assert.assertEquals(shop.registrations.get(), 5, "Accounts of another site are not reused");
+    }
+
+    @Test(groups = {"framework"})
+    public void testLeasesAreExclusiveAcrossPoolsAndAccountsComeBackAfterReset() throws Exception {
+        Path file = Files.createTempDirectory("user-pool").resolve("accounts.json");
+        FakeShop shop = new FakeShop();
+
+        try (UserPool fork1 = new UserPool(file, SITE, 2, 2, shop);
+             UserPool fork2 = new UserPool(file, SITE, 2, 2, shop)) {
+            UserPool.Lease first = fork1.lease();
+            UserPool.Lease second = fork2.lease();
+            UserPool.Lease third = fork1.lease();
+
+            Set<String> emails = new HashSet<>(List.of(first.getUser().getEmail(), second.getUser().getEmail(),
+                    third.getUser().getEmail()));
+            Assert.assertEquals(emails.size(), 3, "No account leased twice, the pool grew instead");
+            Assert.assertEquals(shop.registrations.get(), 3);
+
+            String returned = first.getUser().getEmail();
+            first.close();
+            awaitReset(shop, returned);
+            Assert.assertTrue(shop.resets.contains(returned), "Returned account is reset");
+
+            // The reset account is free again, no new registration needed
+            for (int i = 0; i < 100 && fork1.getLeasedCount() > 1; i++) {
+                Thread.sleep(20);
+            }
+            Assert.assertEquals(fork1.lease().getUser().getEmail(), returned);
+            Assert.assertEquals(shop.registrations.get(), 3);
+        }
+    }
+
+    @Test(groups = {"framework"})
+    public void testPasswordChangesArePersistedAndUnresettableAccountsDropped() throws Exception {
+        Path file = Files.createTempDirectory("user-pool").resolve("accounts.json");
+        FakeShop shop = new FakeShop();
+        String changed;
+        String broken;
+
+        try (UserPool pool = new UserPool(file, SITE, 2, 2, shop)) {
+            UserPool.Lease first = pool.lease();
+            UserPool.Lease second = pool.lease();
+            changed = first.getUser().getEmail();
+            broken = second.getUser().getEmail();
+
+            // A test changed the password and told the pool; the other changed it behind its back
+            shop.passwords.put(changed, "N3w-Secret!");
+            first.update(first.getUser().withPassword("N3w-Secret!"));
+            shop.passwords.put(broken, "unknown");
+            first.close();
+            second.close();
+        }
+
+        String saved = Files.readString(file);
+        Assert.assertTrue(saved.contains("N3w-Secret!"), saved);
+        Assert.assertTrue(saved.contains(changed), saved);
+        Assert.assertFalse(saved.contains(broken), "Account that failed its reset is dropped: " + saved);
+    }
+}
@@ -3,6 +3,7 @@ package tests.products;
 import base.BaseTest;
 import com.demowebshop.automation.pages.HomePage;
 import com.demowebshop.automation.pages.ProductSearchPage;
+import com.demowebshop.automation.utils.concurrent.TestDeadline;
 import dataproviders.ProductDataProvider;
 import factories.ProductDataFactory;
 import utils.DemoWebShopAssertions;
@@ -43,7 +44,7 @@ public class ProductSearchTests extends BaseTest {
         assertions.assertPageUrl("search", "Should navigate to search results page");
 
         // Wait for search results to load using Selenide sleep
-        com.codeborne.selenide.Selenide.sleep(2000);
+        com.codeborne.selenide.Selenide.sleep(TestDeadline.capMillis(2000));
 
         // Verify search results are displayed and relevant
         assertions.assertSearchResults(searchPage, searchTerm, true);